@@ -0,0 +1,220 @@
+package com.faforever.client.benchmark;
+
+import com.faforever.commons.lobby.GameInfo;
+import com.faforever.commons.lobby.GameInfo.TeamIds;
+import com.faforever.commons.lobby.GameStatus;
+import com.faforever.commons.lobby.GameType;
+import com.faforever.commons.lobby.GameVisibility;
+import com.faforever.commons.lobby.Player;
+import com.faforever.commons.lobby.PlayerInfo;
+import com.faforever.commons.lobby.ServerMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.primitives.Bytes;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates the files benchmarks operate on, so that the suite does not depend on a game installation or network
+ * access.
+ */
+public final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {
+    throw new AssertionError("Not instantiatable");
+  }
+
+  public static String scenarioLua(String name, int armies) {
+    String armyNames = IntStream.rangeClosed(1, armies)
+                                .mapToObj("'ARMY_%d'"::formatted)
+                                .collect(Collectors.joining(", "));
+    String noRushOffsets = IntStream.rangeClosed(1, armies)
+                                    .mapToObj(army -> """
+                                            norushoffsetX_ARMY_%1$d = 0.000000,
+                                            norushoffsetY_ARMY_%1$d = 0.000000,
+                                        """.formatted(army))
+                                    .collect(Collectors.joining());
+    return """
+        version = 3
+        ScenarioInfo = {
+            name = '%1$s',
+            description = '<LOC %1$s_Description>A generated map used for benchmarking.',
+            type = 'skirmish',
+            starts = true,
+            preview = '',
+            size = { 1024, 1024 },
+            map = '/maps/%1$s/%1$s.scmap',
+            map_version = 3,
+            save = '/maps/%1$s/%1$s_save.lua',
+            script = '/maps/%1$s/%1$s_script.lua',
+            norushradius = 90.000000,
+        %2$s
+            Configurations = {
+                ['standard'] = {
+                    teams = {
+                        { name = 'FFA', armies = { %3$s } },
+                    },
+                    customprops = {
+                        ['ExtraArmies'] = STRING('ARMY_17 NEUTRAL_CIVILIAN'),
+                    },
+                },
+            }
+        }
+        """.formatted(name, noRushOffsets, armyNames);
+  }
+
+  /**
+   * Creates a map folder containing a scenario file below the given directory.
+   */
+  public static Path createMapFolder(Path mapsDirectory, String name, int armies) throws IOException {
+    Path mapFolder = Files.createDirectories(mapsDirectory.resolve(name));
+    Files.writeString(mapFolder.resolve(name + "_scenario.lua"), scenarioLua(name, armies));
+    return mapFolder;
+  }
+
+  public static String modInfoLua(String name, String uid) {
+    return """
+        name = "%1$s"
+        uid = "%2$s"
+        version = 3
+        copyright = "FAF"
+        description = "A generated mod used for benchmarking."
+        author = "FAF"
+        url = "https://faforever.com"
+        icon = "/mods/%1$s/icon.png"
+        selectable = true
+        enabled = true
+        exclusive = false
+        ui_only = false
+        requires = { }
+        requiresNames = { }
+        conflicts = { }
+        before = { }
+        after = { }
+        mountpoints = {
+            etc = "/etc",
+            lua = '/lua',
+            units = '/units'
+        }
+        hooks = {
+            '/%1$s'
+        }
+        """.formatted(name, uid);
+  }
+
+  /**
+   * Creates a mod folder containing a {@code mod_info.lua} below the given directory.
+   */
+  public static Path createModFolder(Path modsDirectory, String name, String uid) throws IOException {
+    Path modFolder = Files.createDirectories(modsDirectory.resolve(name));
+    Files.writeString(modFolder.resolve("mod_info.lua"), modInfoLua(name, uid));
+    return modFolder;
+  }
+
+  /**
+   * Creates the given number of replays in the given directory. The replays share the data of the replay recorded by
+   * the test suite but have their own ids, titles and maps, like the replays of a player's local vault.
+   */
+  public static List<Path> createReplayCorpus(Path replaysDirectory, int replays) throws IOException {
+    byte[] replay;
+    try (InputStream inputStream = BenchmarkFixtures.class.getResourceAsStream("/replay/test.fafreplay")) {
+      if (inputStream == null) {
+        throw new IllegalStateException("Missing replay fixture");
+      }
+      replay = inputStream.readAllBytes();
+    }
+    int headerEnd = Bytes.indexOf(replay, (byte) '\n');
+    ObjectMapper objectMapper = new ObjectMapper();
+    ObjectNode metadata = (ObjectNode) objectMapper.readTree(Arrays.copyOf(replay, headerEnd));
+
+    Files.createDirectories(replaysDirectory);
+    List<Path> replayFiles = new ArrayList<>();
+    for (int i = 0; i < replays; i++) {
+      metadata.put("uid", i);
+      metadata.put("title", "Replay %d".formatted(i));
+      metadata.put("mapname", "scmp_%03d".formatted(i % 40));
+      Path replayFile = replaysDirectory.resolve("%d-player.fafreplay".formatted(i));
+      try (OutputStream outputStream = Files.newOutputStream(replayFile)) {
+        outputStream.write(objectMapper.writeValueAsBytes(metadata));
+        outputStream.write(replay, headerEnd, replay.length - headerEnd);
+      }
+      replayFiles.add(replayFile);
+    }
+    return replayFiles;
+  }
+
+  /**
+   * Creates the lobby messages a client receives right after logging in: one message listing all online players and
+   * one listing all open games, followed by a burst of updates about individual games and players as they change.
+   */
+  public static List<ServerMessage> lobbySnapshot(int players, int games, int updates) {
+    List<ServerMessage> messages = new ArrayList<>();
+    messages.add(new PlayerInfo(IntStream.range(0, players).mapToObj(BenchmarkFixtures::lobbyPlayer).toList()));
+    messages.add(new GameInfo(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                              null, null, null, null, null, null,
+                              IntStream.range(0, games).mapToObj(game -> lobbyGame(game, players)).toList()));
+    for (int update = 0; update < updates; update++) {
+      if (update % 2 == 0) {
+        messages.add(lobbyGame(update % games, players));
+      } else {
+        messages.add(new PlayerInfo(List.of(lobbyPlayer(update % players))));
+      }
+    }
+    return messages;
+  }
+
+  private static Player lobbyPlayer(int id) {
+    return new Player(id, "player_%d".formatted(id), id % 3 == 0 ? "CLN" : null, null, "DE", new HashMap<>(),
+                      new HashMap<>(), null);
+  }
+
+  private static GameInfo lobbyGame(int uid, int players) {
+    int firstPlayer = (uid * 8) % players;
+    List<TeamIds> teamIds = List.of(
+        new TeamIds(1, List.of(firstPlayer, firstPlayer + 1, firstPlayer + 2, firstPlayer + 3)),
+        new TeamIds(2, List.of(firstPlayer + 4, firstPlayer + 5, firstPlayer + 6, firstPlayer + 7)));
+    return new GameInfo(uid, "Game %d".formatted(uid), "player_%d".formatted(firstPlayer), GameType.CUSTOM, 8, 8,
+                        GameVisibility.PUBLIC, false, GameStatus.OPEN, "faf", "global", Map.of(), "scmp_007",
+                        "scmp_007", null, null, Map.of(), teamIds, null, null, false, null);
+  }
+
+  /**
+   * Creates an application context containing only the mapstruct mappers, so that mappers get their dependencies
+   * injected just like in the client.
+   */
+  public static AnnotationConfigApplicationContext mapperContext() {
+    return new AnnotationConfigApplicationContext("com.faforever.client.mapstruct");
+  }
+
+  /**
+   * Creates a service with the beans of the given context it depends on. Collaborators that are not in the context are
+   * {@code null}, so the benchmarked code must not use them.
+   */
+  public static <T> T createService(Class<T> serviceClass, ApplicationContext context) {
+    Constructor<T> constructor = BeanUtils.getResolvableConstructor(serviceClass);
+    Object[] collaborators = Arrays.stream(constructor.getParameterTypes())
+                                   .map(type -> context.getBeanProvider(type).getIfAvailable())
+                                   .toArray();
+    return BeanUtils.instantiateClass(constructor, collaborators);
+  }
+
+  public static void deleteDirectory(Path directory) throws IOException {
+    FileSystemUtils.deleteRecursively(directory);
+  }
+}
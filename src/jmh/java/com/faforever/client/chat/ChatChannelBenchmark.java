@@ -0,0 +1,58 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.ChatMessage.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what {@link KittehChatService} does for every incoming message once the IRC event has been decoded: look up
+ * the message that is replied to and add the new message to a channel that is already at its message limit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatChannelBenchmark {
+
+  @Param({"100", "1000"})
+  public int maxNumMessages;
+
+  private ChatChannel chatChannel;
+  private ChatChannelUser sender;
+  private long nextMessageId;
+
+  @Setup
+  public void setUp() {
+    chatChannel = new ChatChannel("#benchmark");
+    chatChannel.setMaxNumMessages(maxNumMessages);
+    sender = new ChatChannelUser("sender", chatChannel);
+    for (int i = 0; i < maxNumMessages; i++) {
+      processMessage();
+    }
+  }
+
+  @Benchmark
+  public ChatMessage processMessage() {
+    long messageId = nextMessageId++;
+    Optional<ChatMessage> targetMessage = chatChannel.getMessage(String.valueOf(messageId - 1));
+    ChatMessage message = new ChatMessage(String.valueOf(messageId), Instant.now(), sender, "Message " + messageId,
+                                          Type.MESSAGE, targetMessage.orElse(null));
+    chatChannel.addMessage(message);
+    return message;
+  }
+}
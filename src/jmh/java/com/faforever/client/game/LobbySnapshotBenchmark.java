@@ -0,0 +1,103 @@
+package com.faforever.client.game;
+
+import com.faforever.client.benchmark.BenchmarkFixtures;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.fx.FxApplicationThreadExecutor;
+import com.faforever.client.mapstruct.GameMapper;
+import com.faforever.client.mapstruct.PlayerMapper;
+import com.faforever.client.player.PlayerService;
+import com.faforever.client.remote.FafServerAccessor;
+import com.faforever.client.user.LoginService;
+import com.faforever.commons.lobby.ServerMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays the lobby messages a client receives after logging in through {@link PlayerService} and {@link GameService}.
+ * A batch size of 1 applies every message on its own. The benchmark thread stands in for the application thread, so
+ * that no JavaFX toolkit is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LobbySnapshotBenchmark {
+
+  private static final int PLAYERS = 2000;
+  private static final int GAMES = 300;
+  private static final int UPDATES = 1000;
+
+  @Param({"1", "50"})
+  public int eventBatchSize;
+
+  private AnnotationConfigApplicationContext mapperContext;
+  private List<ServerMessage> lobbySnapshot;
+  private ClientProperties clientProperties;
+
+  @Setup
+  public void setUp() {
+    mapperContext = BenchmarkFixtures.mapperContext();
+    lobbySnapshot = BenchmarkFixtures.lobbySnapshot(PLAYERS, GAMES, UPDATES);
+    clientProperties = new ClientProperties();
+    clientProperties.getServer().setEventBatchSize(eventBatchSize);
+    // Batches are only ever completed by size or by the end of the replay
+    clientProperties.getServer().setEventBatchTimeout(Duration.ofMinutes(1));
+  }
+
+  @TearDown
+  public void tearDown() {
+    mapperContext.close();
+  }
+
+  @Benchmark
+  public int replaySnapshot() {
+    AtomicInteger applicationThreadTasks = new AtomicInteger();
+    FxApplicationThreadExecutor fxApplicationThreadExecutor = new FxApplicationThreadExecutor() {
+      @Override
+      public void execute(Runnable runnable) {
+        applicationThreadTasks.incrementAndGet();
+        runnable.run();
+      }
+    };
+    FafServerAccessor fafServerAccessor = new FafServerAccessor(null, null, null, null, null, null, null, null) {
+      @Override
+      public <T extends ServerMessage> Flux<T> getEvents(Class<T> type) {
+        return Flux.fromIterable(lobbySnapshot).ofType(type);
+      }
+    };
+
+    PlayerService playerService = new PlayerService(fafServerAccessor, null,
+                                                    new LoginService(null, null, null, null, null, null),
+                                                    mapperContext.getBean(PlayerMapper.class),
+                                                    fxApplicationThreadExecutor, clientProperties);
+    playerService.afterPropertiesSet();
+    GameService gameService = new GameService(fafServerAccessor, playerService,
+                                              mapperContext.getBean(GameMapper.class), fxApplicationThreadExecutor,
+                                              clientProperties);
+    gameService.afterPropertiesSet();
+
+    if (gameService.getGames().size() != GAMES) {
+      throw new IllegalStateException("Expected %d games but got %d".formatted(GAMES, gameService.getGames().size()));
+    }
+    return applicationThreadTasks.get();
+  }
+}
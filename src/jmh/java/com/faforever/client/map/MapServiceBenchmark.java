@@ -0,0 +1,70 @@
+package com.faforever.client.map;
+
+import com.faforever.client.benchmark.BenchmarkFixtures;
+import com.faforever.client.domain.api.MapVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapServiceBenchmark {
+
+  private static final int NUMBER_OF_MAPS = 200;
+
+  @Param({"2", "8", "16"})
+  public int armies;
+
+  private AnnotationConfigApplicationContext mapperContext;
+  private Path mapsDirectory;
+  private List<Path> mapFolders;
+  private MapService mapService;
+  private int nextMap;
+
+  @Setup
+  public void setUp() throws IOException {
+    mapsDirectory = Files.createTempDirectory("maps");
+    mapFolders = new ArrayList<>();
+    for (int i = 0; i < NUMBER_OF_MAPS; i++) {
+      mapFolders.add(BenchmarkFixtures.createMapFolder(mapsDirectory, "benchmark_map_%d.v0001".formatted(i), armies));
+    }
+
+    // Reading a map only needs the mappers
+    mapperContext = BenchmarkFixtures.mapperContext();
+    mapService = BenchmarkFixtures.createService(MapService.class, mapperContext);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    mapperContext.close();
+    BenchmarkFixtures.deleteDirectory(mapsDirectory);
+  }
+
+  @Benchmark
+  public MapVersion readMap() {
+    Path mapFolder = mapFolders.get(nextMap);
+    nextMap = (nextMap + 1) % mapFolders.size();
+    return mapService.readMap(mapFolder);
+  }
+}
@@ -0,0 +1,61 @@
+package com.faforever.client.mapstruct;
+
+import com.faforever.client.benchmark.BenchmarkFixtures;
+import com.faforever.client.domain.server.GameInfo;
+import com.faforever.commons.lobby.GameInfo.TeamIds;
+import com.faforever.commons.lobby.GameStatus;
+import com.faforever.commons.lobby.GameType;
+import com.faforever.commons.lobby.GameVisibility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameMapperBenchmark {
+
+  private AnnotationConfigApplicationContext mapperContext;
+  private GameMapper gameMapper;
+  private com.faforever.commons.lobby.GameInfo gameInfoMessage;
+  private GameInfo game;
+
+  @Setup
+  public void setUp() {
+    mapperContext = BenchmarkFixtures.mapperContext();
+    gameMapper = mapperContext.getBean(GameMapper.class);
+    List<TeamIds> teamIds = List.of(new TeamIds(1, List.of(1, 2, 3, 4)), new TeamIds(2, List.of(5, 6, 7, 8)));
+    gameInfoMessage = new com.faforever.commons.lobby.GameInfo(1, "Benchmark", "host", GameType.CUSTOM, 8, 8,
+                                                                GameVisibility.PUBLIC, false, GameStatus.OPEN, "faf",
+                                                                "global", Map.of("uid", "Sim Mod"), "scmp_007",
+                                                                "scmp_007", null, null, Map.of(), teamIds, 0, 3000,
+                                                                false, List.of());
+    game = new GameInfo();
+  }
+
+  @TearDown
+  public void tearDown() {
+    mapperContext.close();
+  }
+
+  @Benchmark
+  public GameInfo update() {
+    return gameMapper.update(gameInfoMessage, game);
+  }
+}
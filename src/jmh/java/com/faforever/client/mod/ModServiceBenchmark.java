@@ -0,0 +1,68 @@
+package com.faforever.client.mod;
+
+import com.faforever.client.benchmark.BenchmarkFixtures;
+import com.faforever.client.domain.api.ModVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModServiceBenchmark {
+
+  private static final int NUMBER_OF_MODS = 200;
+
+  private AnnotationConfigApplicationContext mapperContext;
+  private Path modsDirectory;
+  private List<Path> modFolders;
+  private ModService modService;
+  private int nextMod;
+
+  @Setup
+  public void setUp() throws IOException {
+    mapperContext = BenchmarkFixtures.mapperContext();
+    modsDirectory = Files.createTempDirectory("mods");
+    modFolders = new ArrayList<>();
+    for (int i = 0; i < NUMBER_OF_MODS; i++) {
+      modFolders.add(BenchmarkFixtures.createModFolder(modsDirectory, "benchmark_mod_%d".formatted(i),
+                                                       UUID.randomUUID().toString()));
+    }
+
+    // Extracting mod info only needs the mapper
+    modService = BenchmarkFixtures.createService(ModService.class, mapperContext);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    mapperContext.close();
+    BenchmarkFixtures.deleteDirectory(modsDirectory);
+  }
+
+  @Benchmark
+  public ModVersion extractModInfo() {
+    Path modFolder = modFolders.get(nextMod);
+    nextMod = (nextMod + 1) % modFolders.size();
+    return modService.extractModInfo(modFolder);
+  }
+}
@@ -0,0 +1,99 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.replay.LocalReplayIndex.Entry;
+import com.faforever.client.replay.LocalReplayQuery.Criterion;
+import com.faforever.client.replay.LocalReplayQuery.Field;
+import com.faforever.client.vault.search.SearchController.SearchConfig;
+import com.faforever.client.vault.search.SearchController.SortConfig;
+import com.faforever.client.vault.search.SearchController.SortOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures searches of the local replay vault on a large synthetic collection of replays, as a player who keeps every
+ * replay would have after some years.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalReplaySearchBenchmark {
+
+  private static final List<String> FEATURED_MODS = List.of("faf", "ladder1v1", "coop", "nomads", "fafbeta");
+  private static final List<String> WORDS = List.of("gg", "rush", "push", "eco", "nuke", "arty", "snipe", "com",
+                                                    "tele", "air", "navy", "t4", "wp", "glhf", "lag", "rematch");
+  private static final long FIRST_GAME_TIME = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+
+  @Param({"50000"})
+  public int replayCount;
+
+  private LocalReplaySearchIndex searchIndex;
+  private Criterion playerAndMod;
+  private Criterion mapWildcard;
+  private Criterion chatAndDate;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    searchIndex = new LocalReplaySearchIndex();
+    for (int i = 0; i < replayCount; i++) {
+      long startTime = FIRST_GAME_TIME + i * 1_800_000L;
+      Set<String> chatTerms = Set.copyOf(List.of(WORDS.get(random.nextInt(WORDS.size())),
+                                                 WORDS.get(random.nextInt(WORDS.size()))));
+      Entry entry = new Entry(1_000_000, startTime, i, WORDS.get(random.nextInt(WORDS.size())) + " game " + i,
+                              "scmp_%03d".formatted(random.nextInt(300)),
+                              FEATURED_MODS.get(random.nextInt(FEATURED_MODS.size())),
+                              Map.of("1", List.of("player" + random.nextInt(2_000)),
+                                     "2", List.of("player" + random.nextInt(2_000))),
+                              startTime, startTime + 1_200_000, chatTerms);
+      searchIndex.put(i + ".fafreplay", entry);
+    }
+
+    playerAndMod = parse("playerStats.player.login==\"player42\";featuredMod.technicalName=in=(\"faf\",\"ladder1v1\")");
+    mapWildcard = parse("mapVersion.folderName==\"scmp_0*\"");
+    chatAndDate = parse("chatMessages==\"nuke\";startTime=ge=\"2021-01-01T00:00:00Z\"");
+  }
+
+  @Benchmark
+  public BitSet searchPlayerAndMod() {
+    return searchIndex.search(playerAndMod);
+  }
+
+  @Benchmark
+  public BitSet searchMapWildcard() {
+    return searchIndex.search(mapWildcard);
+  }
+
+  @Benchmark
+  public BitSet searchChatAndDate() {
+    return searchIndex.search(chatAndDate);
+  }
+
+  @Benchmark
+  public Map<String, Integer> countFeaturedMods() {
+    return searchIndex.countValues(Field.FEATURED_MOD, searchIndex.search(chatAndDate));
+  }
+
+  private static Criterion parse(String query) {
+    return LocalReplayQuery.of(new SearchConfig(new SortConfig("startTime", SortOrder.DESC), query)).criterion();
+  }
+}
@@ -0,0 +1,91 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.benchmark.BenchmarkFixtures;
+import com.faforever.commons.replay.ReplayDataParser;
+import com.faforever.commons.replay.ReplayMetadata;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the tiers of {@link ReplayFileReader} on a corpus of local replays. Browsing the local replay vault needs
+ * the metadata of a page of replays, the detail view needs the header and the chat messages of a single replay.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(ReplayFileReaderBenchmark.CORPUS_SIZE)
+public class ReplayFileReaderBenchmark {
+
+  static final int CORPUS_SIZE = 50;
+
+  private Path replaysDirectory;
+  private List<Path> replayFiles;
+  private ReplayFileReaderImpl replayFileReader;
+
+  @Setup
+  public void setUp() throws IOException {
+    replaysDirectory = Files.createTempDirectory("replays");
+    replayFiles = BenchmarkFixtures.createReplayCorpus(replaysDirectory, CORPUS_SIZE);
+    replayFileReader = new ReplayFileReaderImpl();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    BenchmarkFixtures.deleteDirectory(replaysDirectory);
+  }
+
+  @Benchmark
+  public void parseReplay(Blackhole blackhole) throws IOException, CompressorException {
+    for (Path replayFile : replayFiles) {
+      ReplayDataParser replayDataParser = replayFileReader.parseReplay(replayFile);
+      blackhole.consume(replayDataParser.getMetadata());
+    }
+  }
+
+  @Benchmark
+  public void readMetadata(Blackhole blackhole) throws IOException {
+    for (Path replayFile : replayFiles) {
+      ReplayMetadata metadata = replayFileReader.readMetadata(replayFile);
+      blackhole.consume(metadata);
+    }
+  }
+
+  @Benchmark
+  public void readHeader(Blackhole blackhole) throws IOException, CompressorException {
+    for (Path replayFile : replayFiles) {
+      try (ReplayDataReader replayDataReader = replayFileReader.openReplayDataReader(replayFile)) {
+        blackhole.consume(replayDataReader.getHeader());
+      }
+    }
+  }
+
+  @Benchmark
+  public void readChatMessages(Blackhole blackhole) throws IOException, CompressorException {
+    for (Path replayFile : replayFiles) {
+      try (ReplayDataReader replayDataReader = replayFileReader.openReplayDataReader(replayFile)) {
+        blackhole.consume(replayDataReader.readChatMessages());
+      }
+    }
+  }
+}
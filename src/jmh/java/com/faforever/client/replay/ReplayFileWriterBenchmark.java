@@ -0,0 +1,84 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.benchmark.BenchmarkFixtures;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.commons.replay.ReplayMetadata;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing the replay file of a long game, with the replay data compressed on a single core or in parallel
+ * blocks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplayFileWriterBenchmark {
+
+  private static final int REPLAY_DATA_SIZE = 32 * 1024 * 1024;
+
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  private Path dataDirectory;
+  private ByteArrayOutputStream replayData;
+  private ReplayMetadata replayInfo;
+  private ExecutorService taskExecutor;
+  private ReplayFileWriterImpl replayFileWriter;
+
+  @Setup
+  public void setUp() throws IOException, CompressorException {
+    dataDirectory = Files.createTempDirectory("replay-writer");
+    Path replayFile = BenchmarkFixtures.createReplayCorpus(dataDirectory.resolve("corpus"), 1).getFirst();
+    ReplayFileReaderImpl replayFileReader = new ReplayFileReaderImpl();
+    replayInfo = replayFileReader.readMetadata(replayFile);
+
+    // Repeating the data of a short game keeps it as compressible as that of a long one
+    byte[] data = replayFileReader.parseReplay(replayFile).getData();
+    replayData = new ByteArrayOutputStream(REPLAY_DATA_SIZE + data.length);
+    while (replayData.size() < REPLAY_DATA_SIZE) {
+      replayData.write(data);
+    }
+
+    DataPrefs dataPrefs = new DataPrefs();
+    dataPrefs.setBaseDataDirectory(dataDirectory);
+    ClientProperties clientProperties = new ClientProperties();
+    clientProperties.getReplay().setParallelCompressionThreshold(parallel ? 0 : Integer.MAX_VALUE);
+    taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    replayFileWriter = new ReplayFileWriterImpl(clientProperties, dataPrefs, taskExecutor);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    taskExecutor.shutdownNow();
+    BenchmarkFixtures.deleteDirectory(dataDirectory);
+  }
+
+  @Benchmark
+  public void writeReplayDataToFile() throws IOException {
+    replayFileWriter.writeReplayDataToFile(replayData, replayInfo);
+  }
+}
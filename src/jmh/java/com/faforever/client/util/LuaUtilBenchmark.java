@@ -0,0 +1,61 @@
+package com.faforever.client.util;
+
+import com.faforever.client.benchmark.BenchmarkFixtures;
+import com.google.common.io.CharStreams;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.lib.jse.JsePlatform;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares evaluating a map scenario with {@link LuaUtil} against creating new standard globals and compiling the FAF
+ * prelude for every file, which is what {@link LuaUtil} used to do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LuaUtilBenchmark {
+
+  private byte[] scenario;
+
+  @Setup
+  public void setUp() {
+    scenario = BenchmarkFixtures.scenarioLua("benchmark_map", 16).getBytes(UTF_8);
+  }
+
+  @Benchmark
+  public LuaValue freshGlobalsPerFile() throws IOException {
+    Globals globals = JsePlatform.standardGlobals();
+    try (InputStream prelude = LuaUtil.class.getResourceAsStream("/lua/faf.lua")) {
+      globals.baselib.load(globals.load(CharStreams.toString(new InputStreamReader(prelude, UTF_8))));
+    }
+    InputStream inputStream = new ByteArrayInputStream(scenario);
+    globals.load(inputStream, "@" + inputStream.hashCode(), "bt", globals).invoke();
+    return globals.get("ScenarioInfo");
+  }
+
+  @Benchmark
+  public LuaValue luaUtil() throws IOException {
+    return LuaUtil.load(new ByteArrayInputStream(scenario)).get("ScenarioInfo");
+  }
+}
@@ -0,0 +1,76 @@
+package com.faforever.client.api;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Remembers the validators ({@code ETag} and {@code Last-Modified}) of API responses together with the already parsed
+ * body. Requests for a known endpoint are sent conditionally, so that the API can answer with 304 Not Modified instead
+ * of the document being downloaded and parsed again.
+ *
+ * @param <K> the key of a request, which has to tell apart requests for the same endpoint that read different types
+ */
+class ApiRevalidationCache<K> {
+
+  private final Cache<K, ValidatedResponse> responses;
+
+  ApiRevalidationCache(long maximumSize) {
+    responses = Caffeine.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  @Nullable
+  ValidatedResponse get(K request) {
+    return responses.getIfPresent(request);
+  }
+
+  /**
+   * Returns the body to use for the given response. If the API reports that the document has not been modified, this
+   * is the body of the response the conditional request has been made for, otherwise the response is remembered if it
+   * carries validators.
+   *
+   * @param validatedResponse the response whose validators were sent with the request, if any
+   */
+  @Nullable
+  Object resolve(K request, @Nullable ValidatedResponse validatedResponse, ResponseEntity<?> response) {
+    if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+      if (validatedResponse == null) {
+        throw new IllegalStateException("Unconditional request `" + request + "` was answered with 304");
+      }
+      return validatedResponse.body();
+    }
+
+    Object body = response.getBody();
+    HttpHeaders headers = response.getHeaders();
+    String eTag = headers.getETag();
+    long lastModified = headers.getLastModified();
+    if (body != null && (eTag != null || lastModified != -1)) {
+      responses.put(request, new ValidatedResponse(eTag, lastModified, body));
+    } else {
+      responses.invalidate(request);
+    }
+    return body;
+  }
+
+  void clear() {
+    responses.invalidateAll();
+  }
+
+  /**
+   * @param lastModified the value of the {@code Last-Modified} header in epoch millis or -1 if there was none
+   */
+  record ValidatedResponse(@Nullable String eTag, long lastModified, Object body) {
+
+    void addConditionalHeaders(HttpHeaders headers) {
+      if (eTag != null) {
+        headers.setIfNoneMatch(eTag);
+      }
+      if (lastModified != -1) {
+        headers.setIfModifiedSince(lastModified);
+      }
+    }
+  }
+}
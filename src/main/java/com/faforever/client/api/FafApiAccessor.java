@@ -1,5 +1,6 @@
 package com.faforever.client.api;
 
+import com.faforever.client.api.ApiRevalidationCache.ValidatedResponse;
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.config.ClientProperties.Api;
 import com.faforever.client.io.CountingFileSystemResource;
@@ -32,6 +33,8 @@ import com.faforever.commons.api.elide.ElideEntity;
 import com.faforever.commons.api.elide.ElideNavigatorOnCollection;
 import com.faforever.commons.api.elide.ElideNavigatorOnId;
 import com.faforever.commons.io.ByteCountListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.jasminb.jsonapi.JSONAPIDocument;
 import com.github.jasminb.jsonapi.exceptions.ResourceParseException;
 import com.github.rutledgepaulv.qbuilders.builders.QBuilder;
@@ -47,12 +50,14 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
+import org.springframework.web.reactive.function.client.WebClient.ResponseSpec;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -67,7 +72,10 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
@@ -123,13 +131,30 @@ public class FafApiAccessor implements InitializingBean {
   );
 
   private static final String JSONAPI_MEDIA_TYPE = "application/vnd.api+json;charset=utf-8";
+  private static final String PAGE_NUMBER_PARAM = "page[number]";
+  private static final int PREFETCHED_PAGES_MAX = 32;
+  private static final Duration PREFETCHED_PAGE_LIFETIME = Duration.ofMinutes(5);
 
   private final ClientProperties clientProperties;
   @Qualifier("apiWebClient")
   private final ObjectFactory<WebClient> apiWebClientFactory;
 
+  /**
+   * Requests that are currently being sent, so that concurrent requests for the same endpoint and body type share one
+   * response.
+   */
+  private final java.util.Map<RequestKey, CompletableFuture<Object>> inFlightRequests = new ConcurrentHashMap<>();
+  /**
+   * Pages that have been requested ahead of time, by endpoint path. A page is removed once it has been handed out.
+   */
+  private final Cache<String, Mono<?>> prefetchedPages = Caffeine.newBuilder()
+      .maximumSize(PREFETCHED_PAGES_MAX)
+      .expireAfterWrite(PREFETCHED_PAGE_LIFETIME)
+      .build();
+
   private WebClient apiWebClient;
   private Retry apiRetrySpec;
+  private ApiRevalidationCache<RequestKey> revalidationCache;
 
   private CountDownLatch authorizedLatch = new CountDownLatch(1);
 
@@ -140,6 +165,7 @@ public class FafApiAccessor implements InitializingBean {
         .jitter(api.getRetryJitter())
         .filter(error -> error instanceof UnreachableApiException || error instanceof RateLimitApiException)
         .doBeforeRetry(retry -> log.warn("Could not retrieve value from api retrying: Attempt #{} of {}", retry.totalRetries(), api.getRetryAttempts()));
+    revalidationCache = new ApiRevalidationCache<>(api.getRevalidationCacheSize());
   }
 
   public void authorize() {
@@ -150,6 +176,9 @@ public class FafApiAccessor implements InitializingBean {
 
   public void reset() {
     authorizedLatch = new CountDownLatch(1);
+    // Responses may depend on the user
+    revalidationCache.clear();
+    prefetchedPages.invalidateAll();
   }
 
   public int getMaxPageSize() {
@@ -220,7 +249,7 @@ public class FafApiAccessor implements InitializingBean {
 
     Class<T> type = navigator.getDtoClass();
     String endpointPath = navigator.build();
-    return retrieveMonoWithErrorHandling(type, apiWebClient.get().uri(endpointPath)).onErrorResume(
+    return getConditionally(endpointPath, type).onErrorResume(
                                                                                         WebClientResponseException.NotFound.class, throwable -> {
                                                                                           log.warn("No {} found for path {}", type, endpointPath);
                                                                                           return Mono.empty();
@@ -237,13 +266,14 @@ public class FafApiAccessor implements InitializingBean {
     UriComponents uriComponents = UriComponentsBuilder.fromPath(endpointPath)
         .queryParams(CollectionUtils.toMultiValueMap(multiValues))
         .replaceQueryParam("page[size]", count)
-        .replaceQueryParam("page[number]", 1)
+        .replaceQueryParam(PAGE_NUMBER_PARAM, 1)
         .build();
 
 
     String url = uriComponents.toUriString();
 
-    return retrieveFluxWithErrorHandling(type, apiWebClient.get().uri(url)).cache()
+    return getListConditionally(url, type).flatMapIterable(list -> list)
+        .cache()
         .doOnNext(list -> log.trace("Retrieved {} from {}", list, url));
   }
 
@@ -261,7 +291,9 @@ public class FafApiAccessor implements InitializingBean {
       endpointPath = navigator.build();
     }
 
-    return retrieveFluxWithErrorHandling(navigator.getDtoClass(), apiWebClient.get().uri(endpointPath)).cache()
+    return getListConditionally(endpointPath, navigator.getDtoClass())
+        .flatMapIterable(list -> list)
+        .cache()
         .doOnNext(object -> log.trace("Retrieved {} from {}", object, endpointPath));
   }
 
@@ -272,6 +304,66 @@ public class FafApiAccessor implements InitializingBean {
 
   public <T extends ElideEntity> Mono<Tuple2<List<T>, Integer>> getManyWithPageCount(
       ElideNavigatorOnCollection<T> navigator, String customFilter) {
+    return getFromEndpointWithPageCount(buildPagedEndpointPath(navigator, customFilter));
+  }
+
+  /**
+   * Same as {@link #getManyWithPageCount(ElideNavigatorOnCollection, String)}, but also requests the following pages in
+   * the background, so that they are available without delay when the user pages through the result. Meant for search
+   * results, which are likely to be paged through.
+   */
+  public <T extends ElideEntity> Mono<Tuple2<List<T>, Integer>> getManyWithPageCountAndPrefetch(
+      ElideNavigatorOnCollection<T> navigator, String customFilter) {
+    // Prefetched pages are stored by the path with their page number replaced, so the path is looked up the same way
+    String endpointPath = withPageNumber(buildPagedEndpointPath(navigator, customFilter));
+    Mono<Tuple2<List<T>, Integer>> prefetchedPage = (Mono<Tuple2<List<T>, Integer>>) prefetchedPages.asMap()
+                                                                                                   .remove(endpointPath);
+    Mono<Tuple2<List<T>, Integer>> page = prefetchedPage != null ? prefetchedPage : getFromEndpointWithPageCount(
+        endpointPath);
+    return page.doOnNext(tuple -> prefetchFollowingPages(endpointPath, tuple.getT2()));
+  }
+
+  public <T extends ElideEntity> Flux<T> getAll(ElideNavigatorOnCollection<T> navigator) {
+    return getAll(navigator, "");
+  }
+
+  /**
+   * Streams the entities of all pages of the given query. The first page is requested on its own to learn the page
+   * count, after that up to {@code api.pagePrefetchCount} pages are requested concurrently ahead of the subscriber. The
+   * entities are emitted in the order of the pages.
+   */
+  public <T extends ElideEntity> Flux<T> getAll(ElideNavigatorOnCollection<T> navigator, String customFilter) {
+    navigator.pageNumber(1);
+    String endpointPath = buildPagedEndpointPath(navigator, customFilter);
+    int concurrency = clientProperties.getApi().getPagePrefetchCount();
+
+    return this.<T>getFromEndpointWithPageCount(endpointPath)
+        .flatMapMany(firstPage -> Flux.range(2, Math.max(0, firstPage.getT2() - 1))
+            .flatMapSequential(page -> this.<T>getFromEndpointWithPageCount(withPageNumber(endpointPath, page)),
+                               Math.max(1, concurrency), 1)
+            .startWith(firstPage))
+        .concatMapIterable(Tuple2::getT1);
+  }
+
+  private void prefetchFollowingPages(String endpointPath, int pageCount) {
+    int currentPage = getPageNumber(endpointPath);
+    int lastPage = Math.min(pageCount, currentPage + clientProperties.getApi().getPagePrefetchCount());
+    for (int page = currentPage + 1; page <= lastPage; page++) {
+      String pagePath = withPageNumber(endpointPath, page);
+      if (prefetchedPages.getIfPresent(pagePath) != null) {
+        continue;
+      }
+
+      Mono<?> request = getFromEndpointWithPageCount(pagePath);
+      prefetchedPages.put(pagePath, request);
+      request.subscribe(null, throwable -> {
+        log.debug("Could not prefetch page {}", pagePath, throwable);
+        prefetchedPages.asMap().remove(pagePath, request);
+      });
+    }
+  }
+
+  private String buildPagedEndpointPath(ElideNavigatorOnCollection<?> navigator, String customFilter) {
     navigator.pageTotals(true);
     enrichCollectionFilter(navigator);
     enrichBuilder(navigator);
@@ -279,14 +371,32 @@ public class FafApiAccessor implements InitializingBean {
     if (!customFilter.isBlank()) {
       endpointPath = enrichWithCustomFilter(endpointPath, customFilter);
     }
+    return endpointPath;
+  }
 
-    return getFromEndpointWithPageCount(endpointPath);
+  private static int getPageNumber(String endpointPath) {
+    String pageNumber = UriComponentsBuilder.fromUriString(endpointPath)
+        .build()
+        .getQueryParams()
+        .getFirst(PAGE_NUMBER_PARAM);
+    return pageNumber == null ? 1 : Integer.parseInt(pageNumber);
+  }
+
+  private static String withPageNumber(String endpointPath) {
+    return withPageNumber(endpointPath, getPageNumber(endpointPath));
+  }
+
+  private static String withPageNumber(String endpointPath, int page) {
+    return UriComponentsBuilder.fromUriString(endpointPath)
+        .replaceQueryParam(PAGE_NUMBER_PARAM, page)
+        .build()
+        .toUriString();
   }
 
   @NotNull
   private <T extends ElideEntity> Mono<Tuple2<List<T>, Integer>> getFromEndpointWithPageCount(String endpointPath) {
-    return retrieveMonoWithErrorHandling(JSONAPIDocument.class, apiWebClient.get()
-        .uri(endpointPath)).map(jsonapiDocument -> (JSONAPIDocument<List<T>>) jsonapiDocument)
+    return getConditionally(endpointPath, JSONAPIDocument.class)
+        .map(jsonapiDocument -> (JSONAPIDocument<List<T>>) jsonapiDocument)
         .flatMap(document -> Mono.zip(Mono.fromCallable(document::get), Mono.fromCallable(document::getMeta)
             .map(meta -> ((java.util.Map<String, Integer>) meta.get("page")).get("totalPages"))))
         .switchIfEmpty(Mono.zip(Mono.just(List.of()), Mono.just(0)))
@@ -294,6 +404,57 @@ public class FafApiAccessor implements InitializingBean {
         .doOnNext(tuple -> log.trace("Retrieved {} from {}", tuple.getT1(), endpointPath));
   }
 
+  /**
+   * Gets the body of the given endpoint as the given type. The request is sent conditionally if the endpoint has been
+   * read as this type before, and is shared with all concurrent requests reading the same endpoint as this type.
+   */
+  private <T> Mono<T> getConditionally(String endpointPath, Class<T> type) {
+    return getConditionally(new RequestKey(endpointPath, type, false), responseSpec -> responseSpec.toEntity(type))
+        .map(type::cast);
+  }
+
+  /**
+   * Like {@link #getConditionally(String, Class)}, but reads the body as a list of the given type.
+   */
+  private <T> Mono<List<T>> getListConditionally(String endpointPath, Class<T> type) {
+    return getConditionally(new RequestKey(endpointPath, type, true), responseSpec -> responseSpec.toEntityList(type))
+        .map(body -> ((List<?>) body).stream().map(type::cast).toList());
+  }
+
+  private Mono<Object> getConditionally(RequestKey requestKey,
+                                        Function<ResponseSpec, Mono<? extends ResponseEntity<?>>> entityExtractor) {
+    ValidatedResponse validatedResponse = revalidationCache.get(requestKey);
+    ResponseSpec responseSpec = retrieveWithErrorHandling(
+        apiWebClient.get().uri(requestKey.endpointPath()).headers(headers -> {
+          if (validatedResponse != null) {
+            validatedResponse.addConditionalHeaders(headers);
+          }
+        }));
+    Mono<Object> request = entityExtractor.apply(responseSpec)
+        .mapNotNull(response -> revalidationCache.resolve(requestKey, validatedResponse, response))
+        .retryWhen(apiRetrySpec)
+        .doOnError(TokenRetrievalException.class, throwable -> authorizedLatch = new CountDownLatch(1));
+    return deduplicate(requestKey, request);
+  }
+
+  private Mono<Object> deduplicate(RequestKey requestKey, Mono<Object> request) {
+    return Mono.defer(() -> {
+      CompletableFuture<Object> inFlightRequest = inFlightRequests.computeIfAbsent(requestKey,
+                                                                                   key -> request.toFuture());
+      inFlightRequest.whenComplete((result, throwable) -> inFlightRequests.remove(requestKey, inFlightRequest));
+      // Subscribers that cancel must not cancel the request for the others
+      return Mono.fromFuture(inFlightRequest, true);
+    });
+  }
+
+  /**
+   * Identifies a GET request by its endpoint and by how its body is read, since the same endpoint may be read as
+   * different types.
+   *
+   * @param list whether the body is read as a list of {@code bodyType}
+   */
+  private record RequestKey(String endpointPath, Class<?> bodyType, boolean list) {}
+
   private <T> Mono<T> retrieveMonoWithErrorHandling(Class<T> type, WebClient.RequestHeadersSpec<?> requestSpec) {
     return retrieveWithErrorHandling(requestSpec).bodyToMono(type)
         .retryWhen(apiRetrySpec)
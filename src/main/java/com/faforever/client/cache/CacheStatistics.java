@@ -0,0 +1,20 @@
+package com.faforever.client.cache;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Snapshot of the statistics of a single cache.
+ *
+ * @param weightedSize estimated memory used by the cache in bytes, if the cache is bounded by weight
+ */
+public record CacheStatistics(
+    String name,
+    long estimatedSize,
+    long hitCount,
+    long missCount,
+    double hitRate,
+    long evictionCount,
+    Duration averageLoadPenalty,
+    OptionalLong weightedSize
+) {}
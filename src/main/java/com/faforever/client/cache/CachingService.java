@@ -1,6 +1,8 @@
 package com.faforever.client.cache;
 
 import com.faforever.client.user.LoginService;
+import com.github.benmanes.caffeine.cache.Policy.Eviction;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
@@ -9,13 +11,29 @@ import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 @Lazy
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class CachingService implements InitializingBean {
+
+  private static final String STATISTICS_REPORT_FILE_NAME = "cache-statistics.txt";
+  private static final String STATISTICS_REPORT_FORMAT = "%-24s %10s %10s %10s %10s %10s %14s %14s%n";
+
   private final CacheManager cacheManager;
   private final LoginService loginService;
 
@@ -28,6 +46,68 @@ public class CachingService implements InitializingBean {
     cacheManager.getCacheNames().stream()
         .map(cacheManager::getCache)
         .filter(Objects::nonNull)
-        .forEach(Cache::clear);
+        .forEach(cache -> {
+          // Entries on disk don't depend on the user, and are only used if reloading the cleared entries fails
+          if (cache instanceof PersistentCache persistentCache) {
+            persistentCache.clearMemory();
+          } else {
+            cache.clear();
+          }
+        });
+  }
+
+  /**
+   * Returns the statistics of all Caffeine caches, sorted by name.
+   */
+  public List<CacheStatistics> getStatistics() {
+    List<CacheStatistics> statistics = new ArrayList<>();
+    for (String name : cacheManager.getCacheNames()) {
+      Cache cache = cacheManager.getCache(name);
+      if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+        statistics.add(toStatistics(name, nativeCache));
+      }
+    }
+    statistics.sort(Comparator.comparing(CacheStatistics::name));
+    return statistics;
+  }
+
+  /**
+   * Writes the statistics of all caches as a human-readable table to the given directory.
+   *
+   * @return the written file
+   */
+  public Path writeStatisticsReport(Path directory) throws IOException {
+    Path reportFile = directory.resolve(STATISTICS_REPORT_FILE_NAME);
+    String report = createStatisticsReport();
+    Files.createDirectories(directory);
+    Files.writeString(reportFile, report, UTF_8);
+    log.info("Cache statistics:\n{}", report);
+    return reportFile;
+  }
+
+  String createStatisticsReport() {
+    String header = STATISTICS_REPORT_FORMAT.formatted("Cache", "Entries", "Hit ratio", "Hits", "Misses", "Evictions",
+                                                       "Avg load (ms)", "Weight (KiB)");
+    return getStatistics().stream()
+        .map(statistics -> String.format(Locale.ROOT, STATISTICS_REPORT_FORMAT, statistics.name(),
+                                         statistics.estimatedSize(),
+                                         String.format(Locale.ROOT, "%.1f%%", statistics.hitRate() * 100),
+                                         statistics.hitCount(), statistics.missCount(), statistics.evictionCount(),
+                                         String.format(Locale.ROOT, "%.2f",
+                                                       statistics.averageLoadPenalty().toNanos() / 1_000_000d),
+                                         statistics.weightedSize().isPresent()
+                                             ? String.valueOf(statistics.weightedSize().getAsLong() / 1024)
+                                             : "-"))
+        .collect(Collectors.joining("", header, ""));
+  }
+
+  private static CacheStatistics toStatistics(String name, com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+    CacheStats stats = nativeCache.stats();
+    OptionalLong weightedSize = nativeCache.policy().eviction()
+        .map(Eviction::weightedSize)
+        .orElse(OptionalLong.empty());
+    return new CacheStatistics(name, nativeCache.estimatedSize(), stats.hitCount(),
+                               stats.missCount(), stats.hitRate(), stats.evictionCount(),
+                               Duration.ofNanos((long) stats.averageLoadPenalty()), weightedSize);
   }
 }
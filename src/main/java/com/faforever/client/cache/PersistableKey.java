@@ -0,0 +1,14 @@
+package com.faforever.client.cache;
+
+/**
+ * Cache key that decides whether the entry it maps to may be kept on disk by a {@link PersistentCache}. Keys that don't
+ * implement this interface are always persistable.
+ */
+public interface PersistableKey {
+
+  /**
+   * @return {@code false} if the value of this key changes too unpredictably to be served from disk, for instance
+   * because it refers to the latest version of something
+   */
+  boolean isPersistable();
+}
@@ -0,0 +1,211 @@
+package com.faforever.client.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.cache.Cache;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Cache that keeps its entries on disk in addition to the given in-memory cache, as a fallback for when the client has
+ * just been started or the values can't be loaded, for instance because the client is offline. Once a key has been
+ * looked up, its value is loaded again when the in-memory entry expired instead of being taken from disk. A value taken
+ * from disk on the first lookup is served right away and then reloaded in the background, so it does not stay in memory
+ * for the full time to live of the in-memory cache, no matter how old it already was. Loaded values are written to disk in the background, unless their key is not {@link PersistableKey persistable}. The disk is only
+ * read while loading a value, never on the thread asking for a cached value. Evicting or clearing the cache affects
+ * both tiers.
+ */
+@Slf4j
+public class PersistentCache implements Cache {
+
+  private final Cache delegate;
+  private final PersistentCacheStore store;
+  private final Duration timeToLive;
+  /**
+   * Keys that have been looked up since the client started, their entries on disk are only used if loading fails.
+   */
+  private final Set<Object> warmKeys = ConcurrentHashMap.newKeySet();
+
+  public PersistentCache(Cache delegate, PersistentCacheStore store, Duration timeToLive) {
+    this.delegate = delegate;
+    this.store = store;
+    this.timeToLive = timeToLive;
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper get(Object key) {
+    return delegate.get(key);
+  }
+
+  @Override
+  @Nullable
+  public <T> T get(Object key, @Nullable Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    AtomicBoolean servedStoredValue = new AtomicBoolean();
+    T cachedValue = delegate.get(key, () -> {
+      if (warmKeys.add(key)) {
+        Object storedValue = readStoredValue(key);
+        if (storedValue != null) {
+          servedStoredValue.set(true);
+          return (T) storedValue;
+        }
+      }
+
+      T value;
+      try {
+        value = valueLoader.call();
+      } catch (Exception e) {
+        Object storedValue = readStoredValue(key);
+        if (storedValue == null) {
+          throw e;
+        }
+        logFallback(key, e);
+        return (T) storedValue;
+      }
+      writeInBackground(key, value);
+      return value;
+    });
+    if (servedStoredValue.get()) {
+      refreshInBackground(key, Mono.fromCallable(valueLoader));
+    }
+    return cachedValue;
+  }
+
+  @Override
+  @Nullable
+  public CompletableFuture<?> retrieve(Object key) {
+    return delegate.retrieve(key);
+  }
+
+  @Override
+  public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+    AtomicBoolean servedStoredValue = new AtomicBoolean();
+    CompletableFuture<T> cachedValue = delegate.retrieve(key, () -> {
+      Mono<T> loadedValue = Mono.fromFuture(valueLoader)
+                                .doOnNext(value -> writeInBackground(key, value))
+                                .onErrorResume(error -> this.<T>readStoredValueInBackground(key)
+                                                            .doOnNext(value -> logFallback(key, error))
+                                                            .switchIfEmpty(Mono.error(error)));
+      Mono<T> value = warmKeys.add(key)
+          ? this.<T>readStoredValueInBackground(key)
+                .doOnNext(storedValue -> servedStoredValue.set(true))
+                .switchIfEmpty(loadedValue)
+          : loadedValue;
+      return value.toFuture();
+    });
+    cachedValue.thenRun(() -> {
+      if (servedStoredValue.get()) {
+        refreshInBackground(key, Mono.fromFuture(valueLoader));
+      }
+    });
+    return cachedValue;
+  }
+
+  @Override
+  public void put(Object key, @Nullable Object value) {
+    delegate.put(key, value);
+    writeInBackground(key, value);
+  }
+
+  @Override
+  @Nullable
+  public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+    ValueWrapper existingValue = delegate.putIfAbsent(key, value);
+    if (existingValue == null) {
+      writeInBackground(key, value);
+    }
+    return existingValue;
+  }
+
+  @Override
+  public void evict(Object key) {
+    delegate.evict(key);
+    store.evict(getName(), key);
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    boolean present = delegate.evictIfPresent(key);
+    store.evict(getName(), key);
+    return present;
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+    store.clear(getName());
+  }
+
+  @Override
+  public boolean invalidate() {
+    boolean invalidated = delegate.invalidate();
+    store.clear(getName());
+    return invalidated;
+  }
+
+  /**
+   * Clears the in-memory entries only. Entries on disk stay available as a fallback until they expire.
+   */
+  public void clearMemory() {
+    delegate.clear();
+  }
+
+  @Nullable
+  private Object readStoredValue(Object key) {
+    return isPersistable(key) ? store.read(getName(), key) : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Mono<T> readStoredValueInBackground(Object key) {
+    return Mono.fromCallable(() -> (T) readStoredValue(key)).subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Replaces a value that has been taken from disk with a freshly loaded one. If loading fails, the value from disk is
+   * kept until the in-memory entry expires.
+   */
+  private void refreshInBackground(Object key, Mono<?> loadedValue) {
+    loadedValue.subscribeOn(Schedulers.boundedElastic()).subscribe(value -> {
+      delegate.put(key, value);
+      writeInBackground(key, value);
+    }, error -> log.debug("Could not refresh value of `{}` in cache `{}` loaded from disk", key, getName(), error));
+  }
+
+  private void logFallback(Object key, Throwable error) {
+    log.debug("Could not load value of `{}` in cache `{}`, using the value on disk", key, getName(), error);
+  }
+
+  private void writeInBackground(Object key, @Nullable Object value) {
+    if (isPersistable(key)) {
+      Schedulers.boundedElastic().schedule(() -> store.write(getName(), key, value, timeToLive));
+    }
+  }
+
+  private static boolean isPersistable(Object key) {
+    return !(key instanceof PersistableKey persistableKey) || persistableKey.isPersistable();
+  }
+}
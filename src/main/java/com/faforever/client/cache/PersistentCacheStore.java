@@ -0,0 +1,275 @@
+package com.faforever.client.cache;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.DataPrefs;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Stores cache entries as JSON files below the cache directory, one directory per cache and one file per key. Only
+ * values of client or FAF commons types, or lists thereof, are stored, everything else is silently not persisted.
+ */
+@Slf4j
+@Lazy
+@Component
+public class PersistentCacheStore {
+
+  private static final String PERSISTENT_CACHE_SUB_FOLDER = "persistent";
+  private static final String ENTRY_SUFFIX = ".json";
+  private static final String ALLOWED_PACKAGE_PREFIX = "com.faforever.";
+  private static final Set<String> ALLOWED_JDK_TYPES = Set.of(String.class.getName(), Integer.class.getName(),
+                                                             Long.class.getName(), Double.class.getName(),
+                                                             Boolean.class.getName());
+  /**
+   * Keys are identified by their string representation, which isn't stable across restarts for objects that don't
+   * override {@link Object#toString()}.
+   */
+  private static final Pattern IDENTITY_HASH_CODE = Pattern.compile("@[0-9a-f]{1,8}\\b");
+
+  private final DataPrefs dataPrefs;
+  private final ClientProperties clientProperties;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Approximate number of bytes of all stored entries, or {@code -1} if it has yet to be determined from the files.
+   */
+  private long totalSize = -1;
+
+  public PersistentCacheStore(DataPrefs dataPrefs, ClientProperties clientProperties, ObjectMapper objectMapper) {
+    this.dataPrefs = dataPrefs;
+    this.clientProperties = clientProperties;
+    this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  /**
+   * Returns the stored value or {@code null} if there is none, it expired or it could not be read.
+   */
+  @Nullable
+  public Object read(String cacheName, Object key) {
+    String keyString = toKeyString(key);
+    if (keyString == null) {
+      return null;
+    }
+
+    Path entryFile = getEntryFile(cacheName, keyString);
+    if (Files.notExists(entryFile)) {
+      return null;
+    }
+
+    try {
+      StoredEntry entry = objectMapper.readValue(entryFile.toFile(), StoredEntry.class);
+      if (!keyString.equals(entry.key())) {
+        return null;
+      }
+      if (entry.expiresAt() < System.currentTimeMillis()) {
+        deleteEntry(entryFile);
+        return null;
+      }
+      return objectMapper.treeToValue(entry.value(), toJavaType(entry));
+    } catch (IOException | ClassNotFoundException | IllegalArgumentException e) {
+      log.debug("Could not read cache entry `{}`, discarding it", entryFile, e);
+      deleteEntry(entryFile);
+      return null;
+    }
+  }
+
+  public void write(String cacheName, Object key, @Nullable Object value, Duration timeToLive) {
+    String keyString = toKeyString(key);
+    if (keyString == null || value == null) {
+      return;
+    }
+
+    String type;
+    boolean list = value instanceof List<?>;
+    if (value instanceof List<?> values) {
+      // Immutable lists don't support contains(null)
+      if (values.isEmpty() || values.stream().anyMatch(Objects::isNull)) {
+        return;
+      }
+      Class<?> elementType = values.getFirst().getClass();
+      if (values.stream().anyMatch(element -> element.getClass() != elementType)) {
+        return;
+      }
+      type = elementType.getName();
+    } else {
+      type = value.getClass().getName();
+    }
+    if (!isAllowedType(type)) {
+      return;
+    }
+
+    Path entryFile = getEntryFile(cacheName, keyString);
+    try {
+      StoredEntry entry = new StoredEntry(keyString, System.currentTimeMillis() + timeToLive.toMillis(), type, list,
+                                          objectMapper.valueToTree(value));
+      Files.createDirectories(entryFile.getParent());
+      Path tempFile = Files.createTempFile(entryFile.getParent(), entryFile.getFileName().toString(), null);
+      Files.writeString(tempFile, objectMapper.writeValueAsString(entry), UTF_8);
+      long previousSize = sizeOf(entryFile);
+      Files.move(tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING);
+      addToTotalSize(sizeOf(entryFile) - previousSize);
+    } catch (IOException | IllegalArgumentException e) {
+      log.debug("Could not write cache entry `{}` of cache `{}`", keyString, cacheName, e);
+      return;
+    }
+
+    enforceSizeLimit();
+  }
+
+  public void evict(String cacheName, Object key) {
+    String keyString = toKeyString(key);
+    if (keyString != null) {
+      deleteEntry(getEntryFile(cacheName, keyString));
+    }
+  }
+
+  public void clear(String cacheName) {
+    try {
+      FileSystemUtils.deleteRecursively(getCacheDirectory(cacheName));
+    } catch (IOException e) {
+      log.warn("Could not clear persistent cache `{}`", cacheName, e);
+    }
+    resetTotalSize();
+  }
+
+  /**
+   * Deletes the least recently written entries until all caches together fit into the configured size. The stored
+   * files are only listed if the size is not known yet or exceeds the limit, not on every write.
+   */
+  private synchronized void enforceSizeLimit() {
+    long maxSize = clientProperties.getCache().getPersistentMaxSize();
+    if (totalSize >= 0 && totalSize <= maxSize) {
+      return;
+    }
+
+    List<StoredFile> files = listStoredFiles();
+    totalSize = files.stream().mapToLong(StoredFile::size).sum();
+    if (totalSize <= maxSize) {
+      return;
+    }
+
+    files.sort(Comparator.comparingLong(StoredFile::lastModified));
+    for (StoredFile file : files) {
+      if (totalSize <= maxSize) {
+        break;
+      }
+      deleteQuietly(file.path());
+      totalSize -= file.size();
+    }
+  }
+
+  private List<StoredFile> listStoredFiles() {
+    Path rootDirectory = getRootDirectory();
+    List<StoredFile> files = new ArrayList<>();
+    try (Stream<Path> paths = Files.walk(rootDirectory)) {
+      paths.filter(path -> path.getFileName().toString().endsWith(ENTRY_SUFFIX)).forEach(path -> {
+        try {
+          BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+          files.add(new StoredFile(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+        } catch (IOException e) {
+          log.debug("Could not read attributes of `{}`", path, e);
+        }
+      });
+    } catch (IOException e) {
+      log.warn("Could not determine size of persistent caches in `{}`", rootDirectory, e);
+    }
+    return files;
+  }
+
+  private synchronized void addToTotalSize(long sizeDelta) {
+    // An unknown size is determined from the files, which already reflect the change
+    if (totalSize >= 0) {
+      totalSize += sizeDelta;
+    }
+  }
+
+  private synchronized void resetTotalSize() {
+    totalSize = -1;
+  }
+
+  private void deleteEntry(Path entryFile) {
+    long size = sizeOf(entryFile);
+    if (deleteQuietly(entryFile)) {
+      addToTotalSize(-size);
+    }
+  }
+
+  private static long sizeOf(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private JavaType toJavaType(StoredEntry entry) throws ClassNotFoundException {
+    if (!isAllowedType(entry.type())) {
+      throw new IllegalArgumentException("Type not allowed: " + entry.type());
+    }
+    Class<?> type = Class.forName(entry.type(), false, getClass().getClassLoader());
+    return entry.list()
+        ? objectMapper.getTypeFactory().constructCollectionType(List.class, type)
+        : objectMapper.getTypeFactory().constructType(type);
+  }
+
+  private static boolean isAllowedType(String type) {
+    return type.startsWith(ALLOWED_PACKAGE_PREFIX) || ALLOWED_JDK_TYPES.contains(type);
+  }
+
+  @Nullable
+  private static String toKeyString(Object key) {
+    String keyString = String.valueOf(key);
+    return IDENTITY_HASH_CODE.matcher(keyString).find() ? null : keyString;
+  }
+
+  private Path getEntryFile(String cacheName, String keyString) {
+    return getCacheDirectory(cacheName).resolve(Hashing.sha256().hashString(keyString, UTF_8) + ENTRY_SUFFIX);
+  }
+
+  private Path getCacheDirectory(String cacheName) {
+    return getRootDirectory().resolve(cacheName);
+  }
+
+  @VisibleForTesting
+  Path getRootDirectory() {
+    return dataPrefs.getCacheDirectory().resolve(PERSISTENT_CACHE_SUB_FOLDER);
+  }
+
+  private static boolean deleteQuietly(Path file) {
+    try {
+      return Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.debug("Could not delete `{}`", file, e);
+      return false;
+    }
+  }
+
+  record StoredEntry(String key, long expiresAt, String type, boolean list, JsonNode value) {}
+
+  private record StoredFile(Path path, long size, long lastModified) {}
+}
@@ -14,13 +14,11 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
-import javafx.collections.ObservableSet;
 import javafx.collections.transformation.FilteredList;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -44,11 +42,8 @@ public class ChatChannel {
   private final ObservableList<ChatChannelUser> unmodifiableUsers = FXCollections.unmodifiableObservableList(users);
   private final ObservableList<ChatChannelUser> typingUsers = new FilteredList<>(users, ChatChannelUser::isTyping);
   private final ObjectProperty<ChannelTopic> topic = new SimpleObjectProperty<>(new ChannelTopic(null, ""));
-  private final ObservableMap<String, ChatMessage> messagesById = FXCollections.synchronizedObservableMap(
-      FXCollections.observableHashMap());
+  private final ChatMessageRing messages = new ChatMessageRing();
   private final Map<String, Reaction> reactionsById = new ConcurrentHashMap<>();
-  private final ObservableSet<ChatMessage> messages = JavaFxUtil.attachSetToMap(
-      FXCollections.synchronizedObservableSet(FXCollections.observableSet()), messagesById);
   private final BooleanProperty open = new SimpleBooleanProperty();
   private final BooleanProperty loaded = new SimpleBooleanProperty();
   private final IntegerProperty maxNumMessages = new SimpleIntegerProperty(Integer.MAX_VALUE);
@@ -56,7 +51,7 @@ public class ChatChannel {
 
   public ChatChannel(String name) {
     this.name = name;
-    maxNumMessages.subscribe(this::pruneMessages);
+    maxNumMessages.subscribe(maxNumMessages -> messages.setMaxSize(maxNumMessages.intValue()));
     open.subscribe(open -> {
       if (open) {
         setNumUnreadMessages(0);
@@ -64,17 +59,6 @@ public class ChatChannel {
     });
   }
 
-  private void pruneMessages() {
-    int maxNumMessages = getMaxNumMessages();
-    int numMessages = messages.size();
-    if (numMessages > maxNumMessages) {
-      messages.stream()
-              .sorted(Comparator.comparing(ChatMessage::getTime))
-              .limit(numMessages - maxNumMessages)
-              .forEach(message -> messagesById.remove(message.getId()));
-    }
-  }
-
   public int getNumUnreadMessages() {
     return numUnreadMessages.get();
   }
@@ -89,7 +73,6 @@ public class ChatChannel {
 
   public void setMaxNumMessages(int maxNumMessages) {
     this.maxNumMessages.set(Math.max(maxNumMessages, 0));
-    pruneMessages();
   }
 
   public int getMaxNumMessages() {
@@ -146,16 +129,16 @@ public class ChatChannel {
   }
 
   public Optional<ChatMessage> getMessage(String id) {
-    return Optional.ofNullable(messagesById.get(id));
+    return Optional.ofNullable(messages.getMessage(id));
   }
 
   public void removeMessage(String messageId) {
-    messagesById.remove(messageId);
+    messages.removeMessage(messageId);
     Reaction removedReaction = reactionsById.remove(messageId);
     if (removedReaction == null) {
       return;
     }
-    ChatMessage reactedToMessage = messagesById.get(removedReaction.targetMessageId());
+    ChatMessage reactedToMessage = messages.getMessage(removedReaction.targetMessageId());
     if (reactedToMessage == null) {
       return;
     }
@@ -164,17 +147,15 @@ public class ChatChannel {
   }
 
   public void removePendingMessage(String messageId) {
-    messagesById.computeIfPresent(messageId,
-                                  (ignored, chatMessage) -> chatMessage.getType() == Type.PENDING ? null : chatMessage);
+    messages.removeMessage(messageId, chatMessage -> chatMessage.getType() == Type.PENDING);
   }
 
   public void addMessage(ChatMessage message) {
-    messagesById.put(message.getId(), message);
-    pruneMessages();
+    messages.addMessage(message);
   }
 
   public void addReaction(Reaction reaction) {
-    ChatMessage targetMessage = messagesById.get(reaction.targetMessageId());
+    ChatMessage targetMessage = messages.getMessage(reaction.targetMessageId());
     if (targetMessage == null) {
       return;
     }
@@ -183,7 +164,11 @@ public class ChatChannel {
     reactionsById.put(reaction.messageId(), reaction);
   }
 
-  public ObservableSet<ChatMessage> getMessages() {
+  /**
+   * Returns the messages of this channel ordered by time. Listeners are notified on the thread that modified the
+   * messages.
+   */
+  public ObservableList<ChatMessage> getMessages() {
     return messages;
   }
 
@@ -0,0 +1,246 @@
+package com.faforever.client.chat;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableListBase;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The messages of a channel ordered by time and limited to a maximum number of messages. Messages are kept in a ring
+ * buffer, so appending a message and evicting the oldest ones take constant time, and they are indexed by id. Only
+ * messages that arrive out of order need the newer messages to be shifted.
+ * <p>
+ * Each modification, including the messages evicted by it, is reported to listeners as a single change. The list can't
+ * be modified through the {@link java.util.List} interface.
+ * <p>
+ * All methods are thread safe. Iterators work on a snapshot of the messages, so they never see a concurrent
+ * modification.
+ */
+class ChatMessageRing extends ObservableListBase<ChatMessage> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final Map<String, ChatMessage> messagesById = new HashMap<>();
+  private ChatMessage[] elements = new ChatMessage[INITIAL_CAPACITY];
+  private int head;
+  private int size;
+  private int maxSize = Integer.MAX_VALUE;
+
+  @Override
+  public synchronized ChatMessage get(int index) {
+    Objects.checkIndex(index, size);
+    return elementAt(index);
+  }
+
+  @Override
+  public synchronized int size() {
+    return size;
+  }
+
+  @Override
+  public synchronized Object[] toArray() {
+    Object[] array = new Object[size];
+    for (int i = 0; i < size; i++) {
+      array[i] = elementAt(i);
+    }
+    return array;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public synchronized <T> T[] toArray(T[] array) {
+    T[] result = array.length >= size ? array : Arrays.copyOf(array, size);
+    for (int i = 0; i < size; i++) {
+      result[i] = (T) elementAt(i);
+    }
+    if (result.length > size) {
+      result[size] = null;
+    }
+    return result;
+  }
+
+  @Override
+  public Iterator<ChatMessage> iterator() {
+    return snapshot().iterator();
+  }
+
+  @Override
+  public ListIterator<ChatMessage> listIterator() {
+    return snapshot().listIterator();
+  }
+
+  @Override
+  public ListIterator<ChatMessage> listIterator(int index) {
+    return snapshot().listIterator(index);
+  }
+
+  @Override
+  public synchronized void addListener(InvalidationListener listener) {
+    super.addListener(listener);
+  }
+
+  @Override
+  public synchronized void removeListener(InvalidationListener listener) {
+    super.removeListener(listener);
+  }
+
+  @Override
+  public synchronized void addListener(ListChangeListener<? super ChatMessage> listener) {
+    super.addListener(listener);
+  }
+
+  @Override
+  public synchronized void removeListener(ListChangeListener<? super ChatMessage> listener) {
+    super.removeListener(listener);
+  }
+
+  @Nullable
+  synchronized ChatMessage getMessage(String id) {
+    return messagesById.get(id);
+  }
+
+  /**
+   * Adds the message at the position of its time, replacing the message with the same id if there is one, and evicts
+   * the oldest messages if there are too many.
+   */
+  synchronized void addMessage(ChatMessage message) {
+    beginChange();
+    try {
+      ChatMessage replacedMessage = messagesById.put(message.getId(), message);
+      if (replacedMessage != null) {
+        int index = indexOfId(replacedMessage.getId());
+        removeAt(index);
+        nextRemove(index, replacedMessage);
+      }
+
+      int index = size;
+      while (index > 0 && elementAt(index - 1).getTime().isAfter(message.getTime())) {
+        index--;
+      }
+      insertAt(index, message);
+      nextAdd(index, index + 1);
+
+      evictExcessMessages();
+    } finally {
+      endChange();
+    }
+  }
+
+  @Nullable
+  synchronized ChatMessage removeMessage(String id) {
+    return removeMessage(id, message -> true);
+  }
+
+  /**
+   * Removes the message with the given id if it matches the given condition.
+   */
+  @Nullable
+  synchronized ChatMessage removeMessage(String id, Predicate<? super ChatMessage> condition) {
+    ChatMessage message = messagesById.get(id);
+    if (message == null || !condition.test(message)) {
+      return null;
+    }
+
+    messagesById.remove(id);
+    int index = indexOfId(id);
+    removeAt(index);
+    beginChange();
+    try {
+      nextRemove(index, message);
+    } finally {
+      endChange();
+    }
+    return message;
+  }
+
+  synchronized void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+    beginChange();
+    try {
+      evictExcessMessages();
+    } finally {
+      endChange();
+    }
+  }
+
+  private void evictExcessMessages() {
+    int excess = size - maxSize;
+    if (excess <= 0) {
+      return;
+    }
+
+    List<ChatMessage> evictedMessages = new ArrayList<>(excess);
+    for (int i = 0; i < excess; i++) {
+      ChatMessage message = elements[head];
+      removeAt(0);
+      messagesById.remove(message.getId());
+      evictedMessages.add(message);
+    }
+    nextRemove(0, evictedMessages);
+  }
+
+  private List<ChatMessage> snapshot() {
+    return Arrays.asList(toArray(new ChatMessage[0]));
+  }
+
+  private int indexOfId(String id) {
+    // Recent messages are the most likely ones to be replaced or removed
+    for (int i = size - 1; i >= 0; i--) {
+      if (elementAt(i).getId().equals(id)) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("Message is indexed but not stored: " + id);
+  }
+
+  private void insertAt(int index, ChatMessage message) {
+    if (size == elements.length) {
+      grow();
+    }
+    for (int i = size; i > index; i--) {
+      elements[physicalIndex(i)] = elements[physicalIndex(i - 1)];
+    }
+    elements[physicalIndex(index)] = message;
+    size++;
+  }
+
+  private void removeAt(int index) {
+    if (index == 0) {
+      elements[head] = null;
+      head = (head + 1) % elements.length;
+    } else {
+      for (int i = index; i < size - 1; i++) {
+        elements[physicalIndex(i)] = elements[physicalIndex(i + 1)];
+      }
+      elements[physicalIndex(size - 1)] = null;
+    }
+    size--;
+  }
+
+  private void grow() {
+    ChatMessage[] grownElements = new ChatMessage[elements.length * 2];
+    for (int i = 0; i < size; i++) {
+      grownElements[i] = elementAt(i);
+    }
+    elements = grownElements;
+    head = 0;
+  }
+
+  private ChatMessage elementAt(int index) {
+    return elements[physicalIndex(index)];
+  }
+
+  private int physicalIndex(int index) {
+    return (head + index) % elements.length;
+  }
+}
@@ -18,7 +18,6 @@ import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.collections.SetChangeListener;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.geometry.Bounds;
@@ -48,9 +47,11 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
@@ -92,7 +93,7 @@ public class ChatMessageViewController extends NodeController<VBox> {
   private final FilteredList<ChatMessage> filteredMessages = new FilteredList<>(
       new SortedList<>(rawMessages, Comparator.comparing(ChatMessage::getType).thenComparing(ChatMessage::getTime)));
 
-  private final SetChangeListener<ChatMessage> chatMessageListener = this::onMessageChange;
+  private final ListChangeListener<ChatMessage> chatMessageListener = this::onMessageChange;
 
   private Popup emoticonsPopup;
 
@@ -128,7 +129,8 @@ public class ChatMessageViewController extends NodeController<VBox> {
 
       if (newValue != null) {
         newValue.getMessages().addListener(chatMessageListener);
-        fxApplicationThreadExecutor.execute(() -> rawMessages.addAll(newValue.getMessages()));
+        List<ChatMessage> messages = List.copyOf(newValue.getMessages());
+        fxApplicationThreadExecutor.execute(() -> rawMessages.addAll(messages));
         ObservableList<ChatChannelUser> typingUsers = newValue.getTypingUsers();
         setTypingLabel(typingUsers);
         typingUsers.addListener(typingUsersChangeListener);
@@ -203,12 +205,18 @@ public class ChatMessageViewController extends NodeController<VBox> {
     fxApplicationThreadExecutor.execute(() -> messageListView.showAsLast(filteredMessages.size() - 1));
   }
 
-  private void onMessageChange(SetChangeListener.Change<? extends ChatMessage> change) {
-    if (change.wasAdded()) {
-      fxApplicationThreadExecutor.execute(() -> rawMessages.add(change.getElementAdded()));
-    } else if (change.wasRemoved()) {
-      fxApplicationThreadExecutor.execute(() -> rawMessages.remove(change.getElementRemoved()));
+  private void onMessageChange(ListChangeListener.Change<? extends ChatMessage> change) {
+    // The change is only valid while the listener is called, so its elements are copied
+    Set<ChatMessage> removedMessages = new HashSet<>();
+    List<ChatMessage> addedMessages = new ArrayList<>();
+    while (change.next()) {
+      removedMessages.addAll(change.getRemoved());
+      addedMessages.addAll(change.getAddedSubList());
     }
+    fxApplicationThreadExecutor.execute(() -> {
+      rawMessages.removeAll(removedMessages);
+      rawMessages.addAll(addedMessages);
+    });
   }
 
   private AutoCompletionHelper createAutoCompletionHelper() {
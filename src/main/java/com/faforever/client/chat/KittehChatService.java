@@ -255,7 +255,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
             .stream()
             .map(channel -> channel.getUser(player.getUsername()))
             .flatMap(Optional::stream)
-            .forEach(chatChannelUser -> fxApplicationThreadExecutor.execute(() -> chatChannelUser.setPlayer(player)));
+            .forEach(chatChannelUser -> setPlayer(chatChannelUser, player));
   }
 
   @VisibleForTesting
@@ -264,7 +264,12 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
             .stream()
             .map(channel -> channel.getUser(player.getUsername()))
             .flatMap(Optional::stream)
-            .forEach(chatChannelUser -> fxApplicationThreadExecutor.execute(() -> chatChannelUser.setPlayer(null)));
+            .forEach(chatChannelUser -> setPlayer(chatChannelUser, null));
+  }
+
+  private void setPlayer(ChatChannelUser chatChannelUser, PlayerInfo player) {
+    fxApplicationThreadExecutor.executeLatest(chatChannelUser.playerProperty(),
+                                              () -> chatChannelUser.setPlayer(player));
   }
 
   @Handler
@@ -338,22 +343,27 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
 
     switch (state) {
       case ACTIVE -> {
-        fxApplicationThreadExecutor.execute(() -> chatChannelUser.setTyping(true));
+        setTyping(chatChannelUser, true);
         Future<?> future = taskScheduler.schedule(() -> removeTyping(chatChannelUser), Instant.now().plusSeconds(6));
         stopTypingFutureMap.put(chatChannelUser, future);
       }
       case PAUSED -> {
-        fxApplicationThreadExecutor.execute(() -> chatChannelUser.setTyping(true));
+        setTyping(chatChannelUser, true);
         Future<?> future = taskScheduler.schedule(() -> removeTyping(chatChannelUser), Instant.now().plusSeconds(30));
         stopTypingFutureMap.put(chatChannelUser, future);
       }
-      case DONE -> fxApplicationThreadExecutor.execute(() -> chatChannelUser.setTyping(false));
+      case DONE -> setTyping(chatChannelUser, false);
     }
   }
 
   private void removeTyping(ChatChannelUser chatChannelUser) {
     stopTypingFutureMap.remove(chatChannelUser);
-    fxApplicationThreadExecutor.execute(() -> chatChannelUser.setTyping(false));
+    setTyping(chatChannelUser, false);
+  }
+
+  private void setTyping(ChatChannelUser chatChannelUser, boolean typing) {
+    fxApplicationThreadExecutor.executeLatest(chatChannelUser.typingProperty(),
+                                              () -> chatChannelUser.setTyping(typing));
   }
 
   @Override
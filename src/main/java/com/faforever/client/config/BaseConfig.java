@@ -1,6 +1,9 @@
 package com.faforever.client.config;
 
+import com.faforever.client.task.PrioritizedTaskExecutor;
+import com.faforever.client.task.ResourceLocks;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -9,6 +12,8 @@ import org.springframework.context.support.ReloadableResourceBundleMessageSource
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -32,11 +37,52 @@ public class BaseConfig {
     return messageSource;
   }
 
+  /**
+   * Runs asynchronous methods and blocking I/O like downloads, the replay server and directory watchers. Depending on
+   * {@link ClientProperties#isVirtualThreads()}, every job gets its own virtual thread or a pooled platform thread.
+   */
   @Bean
-  public ExecutorService taskExecutor() {
+  public ExecutorService taskExecutor(ClientProperties clientProperties) {
+    if (clientProperties.isVirtualThreads()) {
+      return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("io-", 0).factory());
+    }
     return Executors.newCachedThreadPool();
   }
 
+  /**
+   * Reactor scheduler for blocking I/O, backed by the {@link #taskExecutor(ClientProperties)}.
+   */
+  @Bean
+  public Scheduler ioScheduler(ExecutorService taskExecutor) {
+    return Schedulers.fromExecutorService(taskExecutor, "io");
+  }
+
+  /**
+   * Runs the tasks submitted to the {@link com.faforever.client.task.TaskService}. Unlike the
+   * {@link #taskExecutor(ClientProperties)}, which also runs asynchronous methods and long-running jobs, it is bounded
+   * and respects task priorities.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public PrioritizedTaskExecutor prioritizedTaskExecutor(ClientProperties clientProperties) {
+    ClientProperties.Tasks tasks = clientProperties.getTasks();
+    return new PrioritizedTaskExecutor(tasks.getMaxWorkers(), tasks.getReservedCriticalPriorityWorkers(),
+                                       clientProperties.isVirtualThreads());
+  }
+
+  /**
+   * Applies the configured transfer limits to the {@link ResourceLocks}. A featured mod update downloads its files in
+   * parallel, so there is always room for all of its downloads plus one more, like the game binaries.
+   */
+  @Bean
+  public InitializingBean transferLimits(ClientProperties clientProperties) {
+    return () -> {
+      ClientProperties.Tasks tasks = clientProperties.getTasks();
+      int featuredModDownloads = clientProperties.getForgedAlliance().getFeaturedModDownloadParallelism();
+      ResourceLocks.setTransferLimits(Math.max(tasks.getMaxConcurrentDownloads(), featuredModDownloads + 1),
+                                      tasks.getMaxConcurrentUploads());
+    };
+  }
+
   @Bean
   public TaskScheduler taskScheduler() {
     return new ThreadPoolTaskScheduler();
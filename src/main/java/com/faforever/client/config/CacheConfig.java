@@ -1,5 +1,13 @@
 package com.faforever.client.config;
 
+import com.faforever.client.cache.PersistentCache;
+import com.faforever.client.cache.PersistentCacheStore;
+import com.faforever.client.config.ClientProperties.Cache.Bounds;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy.FixedExpiration;
+import javafx.scene.image.Image;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
@@ -13,7 +21,9 @@ import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 import static com.faforever.client.config.CacheNames.ACHIEVEMENTS;
 import static com.faforever.client.config.CacheNames.ACHIEVEMENT_IMAGES;
@@ -55,69 +65,131 @@ import static com.faforever.client.config.CacheNames.STATISTICS;
 import static com.faforever.client.config.CacheNames.THEME_IMAGES;
 import static com.faforever.client.config.CacheNames.THEME_URLS;
 import static com.faforever.client.config.CacheNames.URL_PREVIEW;
-import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
 import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 
 @Configuration
 @EnableCaching
+@RequiredArgsConstructor
 public class CacheConfig implements CachingConfigurer {
 
+  private static final int BYTES_PER_PIXEL = 4;
+  private static final int UNKNOWN_IMAGE_WEIGHT = 256 * 256 * BYTES_PER_PIXEL;
+
+  private final ClientProperties clientProperties;
+  private final PersistentCacheStore persistentCacheStore;
+
   @Bean
   @Override
   public CacheManager cacheManager() {
     SimpleCacheManager cacheManager = new SimpleCacheManager();
 
-    cacheManager.setCaches(
-        List.of(new CaffeineCache(STATISTICS, newBuilder().maximumSize(10).expireAfterWrite(20, MINUTES).buildAsync(), true),
-                new CaffeineCache(ACHIEVEMENTS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(PLAYER_EVENTS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(PERMISSION, newBuilder().buildAsync(), true),
-                new CaffeineCache(MODS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(MAPS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(REPLAYS_SEARCH, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(REPLAYS_LIKED, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(REPLAYS_MINE, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(REPLAYS_RECENT, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(MAP_GENERATOR, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(MAP_GENERATOR_STYLES, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(LEADERBOARD, newBuilder().expireAfterWrite(5, MINUTES).buildAsync(), true),
-                new CaffeineCache(LEAGUE, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(LEAGUE_ENTRIES, newBuilder().expireAfterWrite(1, MINUTES).buildAsync(), true),
-                new CaffeineCache(DIVISIONS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
+    List<Cache> caches =
+        List.of(new CaffeineCache(STATISTICS, newBuilder(STATISTICS).expireAfterWrite(20, MINUTES).buildAsync(), true),
+                new CaffeineCache(ACHIEVEMENTS, newBuilder(ACHIEVEMENTS).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(PLAYER_EVENTS, newBuilder(PLAYER_EVENTS).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(PERMISSION, newBuilder(PERMISSION).buildAsync(), true),
+                new CaffeineCache(MODS, newBuilder(MODS).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(MAPS, newBuilder(MAPS).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(REPLAYS_SEARCH, newBuilder(REPLAYS_SEARCH).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(REPLAYS_LIKED, newBuilder(REPLAYS_LIKED).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(REPLAYS_MINE, newBuilder(REPLAYS_MINE).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(REPLAYS_RECENT, newBuilder(REPLAYS_RECENT).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(MAP_GENERATOR, newBuilder(MAP_GENERATOR).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(MAP_GENERATOR_STYLES, newBuilder(MAP_GENERATOR_STYLES).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(LEADERBOARD, newBuilder(LEADERBOARD).expireAfterWrite(5, MINUTES).buildAsync(), true),
+                new CaffeineCache(LEAGUE, newBuilder(LEAGUE).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(LEAGUE_ENTRIES, newBuilder(LEAGUE_ENTRIES).expireAfterWrite(1, MINUTES).buildAsync(), true),
+                new CaffeineCache(DIVISIONS, newBuilder(DIVISIONS).expireAfterWrite(10, MINUTES).buildAsync(), true),
                 new CaffeineCache(GLOBAL_LEADERBOARD,
-                                  newBuilder().maximumSize(1).expireAfterAccess(5, MINUTES).buildAsync(), true),
+                                  newBuilder(GLOBAL_LEADERBOARD).expireAfterAccess(5, MINUTES).buildAsync(), true),
                 new CaffeineCache(LADDER_1V1_LEADERBOARD,
-                                  newBuilder().maximumSize(1).expireAfterAccess(5, MINUTES).buildAsync(), true),
-                new CaffeineCache(AVAILABLE_AVATARS, newBuilder().expireAfterAccess(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(COOP_MAPS, newBuilder().expireAfterAccess(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(NEWS, newBuilder().expireAfterWrite(5, MINUTES).buildAsync(), true),
-                new CaffeineCache(RATING_HISTORY, newBuilder().expireAfterWrite(1, MINUTES).buildAsync(), true),
-                new CaffeineCache(COOP_LEADERBOARD, newBuilder().expireAfterWrite(1, MINUTES).buildAsync(), true),
-                new CaffeineCache(CLAN, newBuilder().expireAfterWrite(1, HOURS).buildAsync(), true),
-                new CaffeineCache(FEATURED_MODS, newBuilder().buildAsync(), true),
-                new CaffeineCache(FEATURED_MOD_FILES, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(MATCHMAKER_QUEUES, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(MATCHMAKER_POOLS, newBuilder().expireAfterWrite(1, MINUTES).buildAsync(), true),
-                new CaffeineCache(MODERATION_REPORTS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(COTURN, newBuilder().expireAfterWrite(1, HOURS).buildAsync(), true),
-                new CaffeineCache(THEME_URLS, newBuilder().expireAfterWrite(10, MINUTES).build()),
+                                  newBuilder(LADDER_1V1_LEADERBOARD).expireAfterAccess(5, MINUTES).buildAsync(), true),
+                new CaffeineCache(AVAILABLE_AVATARS, newBuilder(AVAILABLE_AVATARS).expireAfterAccess(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(COOP_MAPS, newBuilder(COOP_MAPS).expireAfterAccess(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(NEWS, newBuilder(NEWS).expireAfterWrite(5, MINUTES).buildAsync(), true),
+                new CaffeineCache(RATING_HISTORY, newBuilder(RATING_HISTORY).expireAfterWrite(1, MINUTES).buildAsync(), true),
+                new CaffeineCache(COOP_LEADERBOARD, newBuilder(COOP_LEADERBOARD).expireAfterWrite(1, MINUTES).buildAsync(), true),
+                new CaffeineCache(CLAN, newBuilder(CLAN).expireAfterWrite(1, HOURS).buildAsync(), true),
+                new CaffeineCache(FEATURED_MODS, newBuilder(FEATURED_MODS).expireAfterWrite(1, HOURS).buildAsync(), true),
+                new CaffeineCache(FEATURED_MOD_FILES, newBuilder(FEATURED_MOD_FILES).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(MATCHMAKER_QUEUES, newBuilder(MATCHMAKER_QUEUES).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(MATCHMAKER_POOLS, newBuilder(MATCHMAKER_POOLS).expireAfterWrite(1, MINUTES).buildAsync(), true),
+                new CaffeineCache(MODERATION_REPORTS, newBuilder(MODERATION_REPORTS).expireAfterWrite(10, MINUTES).buildAsync(), true),
+                new CaffeineCache(COTURN, newBuilder(COTURN).expireAfterWrite(1, HOURS).buildAsync(), true),
+                new CaffeineCache(THEME_URLS, newBuilder(THEME_URLS).expireAfterWrite(10, MINUTES).build()),
 
                 // Images should only be cached as long as they are in use. This avoids loading an image multiple times, while
                 // at the same time it doesn't prevent unused images from being garbage collected.
-                new CaffeineCache(ACHIEVEMENT_IMAGES, newBuilder().weakValues().build(), true),
-                new CaffeineCache(AVATARS, newBuilder().weakValues().build(), true),
-                new CaffeineCache(URL_PREVIEW, newBuilder().weakValues().expireAfterAccess(30, MINUTES).build(), true),
-                new CaffeineCache(MAP_PREVIEW, newBuilder().weakValues().build(), true),
-                new CaffeineCache(COUNTRY_FLAGS, newBuilder().weakValues().build(), true),
-                new CaffeineCache(COUNTRY_NAMES, newBuilder().weakValues().build(), true),
-                new CaffeineCache(THEME_IMAGES, newBuilder().weakValues().build(), true),
-                new CaffeineCache(IMAGES, newBuilder().weakValues().build(), true),
-                new CaffeineCache(MOD_THUMBNAIL, newBuilder().weakValues().build(), true
-        )));
+                new CaffeineCache(ACHIEVEMENT_IMAGES, newBuilder(ACHIEVEMENT_IMAGES).weakValues().build(), true),
+                new CaffeineCache(AVATARS, newBuilder(AVATARS).weakValues().build(), true),
+                new CaffeineCache(URL_PREVIEW, newBuilder(URL_PREVIEW).weakValues().expireAfterAccess(30, MINUTES).build(), true),
+                new CaffeineCache(MAP_PREVIEW, newBuilder(MAP_PREVIEW).weakValues().build(), true),
+                new CaffeineCache(COUNTRY_FLAGS, newBuilder(COUNTRY_FLAGS).weakValues().build(), true),
+                new CaffeineCache(COUNTRY_NAMES, newBuilder(COUNTRY_NAMES).weakValues().build(), true),
+                new CaffeineCache(THEME_IMAGES, newBuilder(THEME_IMAGES).weakValues().build(), true),
+                new CaffeineCache(IMAGES, newBuilder(IMAGES).weakValues().build(), true),
+                new CaffeineCache(MOD_THUMBNAIL, newBuilder(MOD_THUMBNAIL).weakValues().build(), true
+        ));
+    cacheManager.setCaches(caches.stream().map(this::withPersistentTier).toList());
     return cacheManager;
   }
 
+  /**
+   * Creates a builder that records statistics and applies the bounds configured for the given cache, if any.
+   */
+  private Caffeine<Object, Object> newBuilder(String cacheName) {
+    Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+    Bounds bounds = clientProperties.getCache().getBounds().get(cacheName);
+    if (bounds == null) {
+      return builder;
+    }
+    if (bounds.getMaximumWeight() != null) {
+      return builder.maximumWeight(bounds.getMaximumWeight()).weigher(CacheConfig::estimateWeight);
+    }
+    if (bounds.getMaximumSize() != null) {
+      return builder.maximumSize(bounds.getMaximumSize());
+    }
+    return builder;
+  }
+
+  /**
+   * Estimates the memory used by a cached value in bytes. Only images are weighed, every other value weighs one byte.
+   * Images that are still loading in the background are weighed by their requested size or, if there is none, by
+   * {@link #UNKNOWN_IMAGE_WEIGHT}.
+   */
+  private static int estimateWeight(Object key, Object value) {
+    if (!(value instanceof Image image)) {
+      return 1;
+    }
+    double width = image.getWidth() > 0 ? image.getWidth() : image.getRequestedWidth();
+    double height = image.getHeight() > 0 ? image.getHeight() : image.getRequestedHeight();
+    if (width <= 0 || height <= 0) {
+      return UNKNOWN_IMAGE_WEIGHT;
+    }
+    return (int) Math.min(Integer.MAX_VALUE, width * height * BYTES_PER_PIXEL);
+  }
+
+  /**
+   * Adds the disk tier to the caches configured to have one. Entries on disk never live longer than those in memory,
+   * so that the disk tier can't serve data the in-memory cache would already have reloaded.
+   */
+  private Cache withPersistentTier(Cache cache) {
+    Duration timeToLive = clientProperties.getCache().getPersistent().get(cache.getName());
+    if (timeToLive == null) {
+      return cache;
+    }
+    if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+      Optional<Duration> memoryTimeToLive = nativeCache.policy()
+                                                       .expireAfterWrite()
+                                                       .map(FixedExpiration::getExpiresAfter);
+      if (memoryTimeToLive.isPresent() && memoryTimeToLive.get().compareTo(timeToLive) < 0) {
+        timeToLive = memoryTimeToLive.get();
+      }
+    }
+    return new PersistentCache(cache, persistentCacheStore, timeToLive);
+  }
+
   @Override
   public CacheResolver cacheResolver() {
     return null;
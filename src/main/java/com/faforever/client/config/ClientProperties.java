@@ -35,10 +35,17 @@ public class ClientProperties {
   private Website website = new Website();
   private Discord discord = new Discord();
   private Statping statping = new Statping();
+  private Cache cache = new Cache();
+  private Tasks tasks = new Tasks();
   private String translationProjectUrl;
   private String clientConfigUrl;
   private boolean useRemotePreferences;
   private Duration clientConfigConnectTimeout = Duration.ofSeconds(30);
+  /**
+   * Whether background work like tasks, downloads, the replay server and directory watchers runs on virtual threads.
+   * Most of it waits for the disk or the network, which keeps a platform thread busy but not a virtual one.
+   */
+  private boolean virtualThreads = true;
   private String userAgent;
   private Map<String, String> links = new HashMap<>();
   private List<String> vanillaGameHashes = new ArrayList<>();
@@ -62,6 +69,32 @@ public class ClientProperties {
      * URL to download the ForgedAlliance.exe from.
      */
     private String exeUrl;
+
+    /**
+     * Number of featured mod files that are checked and downloaded concurrently.
+     */
+    private int featuredModDownloadParallelism = 4;
+  }
+
+  @Data
+  public static class Tasks {
+    /**
+     * Maximum number of background tasks running at the same time.
+     */
+    private int maxWorkers = 4;
+    /**
+     * Number of workers that only run critical priority tasks, like preparing a game.
+     */
+    private int reservedCriticalPriorityWorkers = 1;
+    /**
+     * Maximum number of downloads running at the same time. It is raised to fit a featured mod update, see
+     * {@link ForgedAlliance#getFeaturedModDownloadParallelism()}.
+     */
+    private int maxConcurrentDownloads = 8;
+    /**
+     * Maximum number of uploads running at the same time.
+     */
+    private int maxConcurrentUploads = 1;
   }
 
   @Data
@@ -83,6 +116,14 @@ public class ClientProperties {
     private String url;
     private int retryDelaySeconds = 5;
     private int retryAttempts = 60;
+    /**
+     * Maximum number of lobby messages about games or players that are applied to the UI at once.
+     */
+    private int eventBatchSize = 50;
+    /**
+     * Maximum time lobby messages about games or players are held back before they are applied to the UI.
+     */
+    private Duration eventBatchTimeout = Duration.ofMillis(100);
   }
 
   @Data
@@ -94,6 +135,23 @@ public class ClientProperties {
     private String mapDownloadUrlFormat;
     private String mapPreviewUrlFormat;
     private String replayDownloadUrlFormat;
+    private LocalScan localScan = new LocalScan();
+
+    @Data
+    public static class LocalScan {
+      /**
+       * Number of installed map or mod folders that are read concurrently.
+       */
+      private int parallelism = Runtime.getRuntime().availableProcessors();
+      /**
+       * Maximum number of read maps or mods that are published to the UI at once.
+       */
+      private int batchSize = 100;
+      /**
+       * Maximum time read maps or mods are held back before they are published to the UI.
+       */
+      private Duration batchTimeout = Duration.ofMillis(250);
+    }
   }
 
   @Data
@@ -104,6 +162,36 @@ public class ClientProperties {
     private String replayFileGlob = "*.fafreplay";
     // TODO this should acutally be reported by the server
     private int watchDelaySeconds = 300;
+    /**
+     * Maximum number of bytes sent to the live replay server at once.
+     */
+    private int relayBatchSize = 1024;
+    /**
+     * Maximum time replay data is held back to be batched with subsequent data before it is sent to the live replay
+     * server.
+     */
+    private Duration relayMaxLatency = Duration.ofMillis(200);
+    /**
+     * Maximum number of bytes waiting to be sent to the live replay server. If the server does not keep up, the
+     * connection to it is dropped rather than slowing down the game.
+     */
+    private int relayQueueCapacity = 1024 * 1024;
+    /**
+     * Number of replays kept extracted for the game, so that watching one of them again starts right away.
+     */
+    private int extractedReplayCacheSize = 10;
+    /**
+     * Replays with at least this many bytes of replay data are compressed on multiple cores when they are written.
+     */
+    private int parallelCompressionThreshold = 8 * 1024 * 1024;
+    /**
+     * Number of bytes of replay data compressed at once when compressing on multiple cores.
+     */
+    private int compressionBlockSize = 1024 * 1024;
+    /**
+     * Maximum number of blocks of replay data compressed at the same time.
+     */
+    private int compressionParallelism = Runtime.getRuntime().availableProcessors();
   }
 
   @Data
@@ -145,6 +233,14 @@ public class ClientProperties {
     private int retryAttempts = 5;
     private double retryJitter = .5;
     private int maxPageSize = 10000;
+    /**
+     * Number of responses whose validators are remembered to revalidate them with conditional requests.
+     */
+    private long revalidationCacheSize = 256;
+    /**
+     * Number of pages that are requested concurrently ahead of the page that is currently being read.
+     */
+    private int pagePrefetchCount = 3;
   }
 
   @Data
@@ -225,4 +321,58 @@ public class ClientProperties {
     private String clientId;
     private String scopes;
   }
+
+  @Data
+  public static class Cache {
+    /**
+     * Time to live of the entries of caches that are also kept on disk, by cache name. Entries on disk are only used
+     * right after the client started or when loading fails, and never live longer than the entries in memory. As they
+     * survive logging in, only caches holding data that does not depend on the user belong here.
+     */
+    private Map<String, Duration> persistent = new HashMap<>(Map.of(
+        CacheNames.FEATURED_MODS, Duration.ofHours(1),
+        CacheNames.FEATURED_MOD_FILES, Duration.ofMinutes(10),
+        CacheNames.LEADERBOARD, Duration.ofMinutes(5)
+    ));
+    /**
+     * Maximum number of bytes of all caches kept on disk. The least recently written entries are removed first.
+     */
+    private long persistentMaxSize = 64 * 1024 * 1024;
+    /**
+     * Bounds of in-memory caches by cache name. Caches without bounds only drop expired entries or, for images, entries
+     * that are no longer in use.
+     */
+    private Map<String, Bounds> bounds = new HashMap<>(Map.of(
+        CacheNames.STATISTICS, Bounds.ofSize(10),
+        CacheNames.GLOBAL_LEADERBOARD, Bounds.ofSize(1),
+        CacheNames.LADDER_1V1_LEADERBOARD, Bounds.ofSize(1),
+        CacheNames.IMAGES, Bounds.ofWeight(64 * 1024 * 1024),
+        CacheNames.MAP_PREVIEW, Bounds.ofWeight(64 * 1024 * 1024),
+        CacheNames.MOD_THUMBNAIL, Bounds.ofWeight(32 * 1024 * 1024)
+    ));
+
+    @Data
+    public static class Bounds {
+      /**
+       * Maximum number of entries.
+       */
+      private Long maximumSize;
+      /**
+       * Maximum estimated memory of all images in bytes. Takes precedence over the maximum size.
+       */
+      private Long maximumWeight;
+
+      public static Bounds ofSize(long maximumSize) {
+        Bounds bounds = new Bounds();
+        bounds.setMaximumSize(maximumSize);
+        return bounds;
+      }
+
+      public static Bounds ofWeight(long maximumWeight) {
+        Bounds bounds = new Bounds();
+        bounds.setMaximumWeight(maximumWeight);
+        return bounds;
+      }
+    }
+  }
 }
@@ -51,7 +51,10 @@ public record Replay(
   }
 
   public Replay withReplayDetails(ReplayDetails replayDetails, Path replayFile) {
-    return new Replay(id(), title(), replayAvailable(), teams(), teamPlayerStats(), host(), startTime(), endTime(),
+    // Local replays are listed from their metadata only, the replay data has the factions and ratings of the players
+    Map<String, List<GamePlayerStats>> teamPlayerStats = local() && !replayDetails.teamPlayerStats().isEmpty()
+        ? replayDetails.teamPlayerStats() : teamPlayerStats();
+    return new Replay(id(), title(), replayAvailable(), teams(), teamPlayerStats, host(), startTime(), endTime(),
                       featuredMod(), replayDetails.mapVersion(), replayFile, replayTicks(),
                       replayDetails.chatMessages(), replayDetails.gameOptions(), validity(), reviewsSummary(),
                       local());
@@ -0,0 +1,21 @@
+package com.faforever.client.featuredmod;
+
+import com.faforever.client.cache.PersistableKey;
+import com.faforever.client.domain.api.FeaturedMod;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cache key of the files of a featured mod version.
+ *
+ * @param version the version of the featured mod, or {@code null} for the latest version
+ */
+public record FeaturedModFilesKey(FeaturedMod featuredMod, @Nullable Integer version) implements PersistableKey {
+
+  /**
+   * The latest files change as soon as a new version of the featured mod is released, so they are never kept on disk.
+   */
+  @Override
+  public boolean isPersistable() {
+    return version != null;
+  }
+}
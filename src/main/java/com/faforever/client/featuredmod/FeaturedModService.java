@@ -42,7 +42,8 @@ public class FeaturedModService {
     return updateFeaturedMod(featuredModName, null, null, forReplays);
   }
 
-  @Cacheable(value = CacheNames.FEATURED_MOD_FILES, sync = true)
+  @Cacheable(value = CacheNames.FEATURED_MOD_FILES,
+      key = "new com.faforever.client.featuredmod.FeaturedModFilesKey(#featuredMod, #version)", sync = true)
   public Flux<FeaturedModFile> getFeaturedModFiles(FeaturedMod featuredMod, Integer version) {
     String endpoint = format("/featuredMods/%s/files/%s", featuredMod.id(),
                              Optional.ofNullable(version).map(String::valueOf).orElse("latest"));
@@ -1,37 +1,94 @@
 package com.faforever.client.fx;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Component;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /* Guarantees tasks are executed on the JavaFX Application Thread
+ *
+ * Tasks submitted from other threads are queued and run in batches instead of posting each of them to the application
+ * thread on its own. A batch runs for at most FRAME_BUDGET, after which the remaining tasks are left for the following
+ * pulses, so that the application thread gets to render in between. Once the queue is empty, the next task starts a
+ * batch right away again instead of waiting for a pulse.
  */
 @Slf4j
 @Component
-public class FxApplicationThreadExecutor implements Executor {
+public class FxApplicationThreadExecutor implements Executor, DisposableBean {
+
+  /**
+   * About half of a frame at 60 fps.
+   */
+  private static final long FRAME_BUDGET_NANOS = Duration.ofMillis(8).toNanos();
 
   private final Scheduler fxApplicationScheduler = Schedulers.fromExecutor(this);
+  private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+  private final Map<Object, LatestTask> latestTaskByKey = new ConcurrentHashMap<>();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  /**
+   * Runs the remaining tasks on every pulse while the queue can't be drained within one batch. Only accessed on the
+   * application thread.
+   */
+  private AnimationTimer pulseDrainer;
+
+  private final AtomicInteger queueDepth = new AtomicInteger();
+  private final AtomicInteger maxQueueDepth = new AtomicInteger();
+  private final LongAdder executedTasks = new LongAdder();
+  private final LongAdder coalescedTasks = new LongAdder();
+  private final LongAdder busyNanos = new LongAdder();
+  private final AtomicLong longestBatchNanos = new AtomicLong();
 
   @Override
   public void execute(Runnable runnable) {
     if (Platform.isFxApplicationThread()) {
-      try {
-        runnable.run();
-      } catch (Exception e) {
-        log.error("Uncaught Application Thread Error", e);
-      }
+      runSafely(runnable);
     } else {
       runLater(runnable);
     }
   }
 
   public void runLater(Runnable runnable) {
-    Platform.runLater(runnable);
+    queue.add(runnable);
+    maxQueueDepth.accumulateAndGet(queueDepth.incrementAndGet(), Math::max);
+    if (drainScheduled.compareAndSet(false, true)) {
+      Platform.runLater(this::drain);
+    }
+  }
+
+  /**
+   * Executes the given task on the application thread. If further tasks with the same key are submitted before it ran,
+   * only the latest of them is run. Meant for updates where only the most recent value matters, like setting a
+   * property, for which the property itself is a suitable key.
+   * <p>
+   * The pending task is dropped and the latest one queued like any other task, so it still runs after all tasks that
+   * were submitted before it.
+   */
+  public void executeLatest(Object key, Runnable runnable) {
+    if (Platform.isFxApplicationThread()) {
+      // A pending older update must not overwrite this one
+      cancel(latestTaskByKey.remove(key));
+      runSafely(runnable);
+      return;
+    }
+
+    LatestTask latestTask = new LatestTask(key, runnable);
+    cancel(latestTaskByKey.put(key, latestTask));
+    runLater(latestTask);
   }
 
   public void executeAndWait(Runnable runnable) {
@@ -54,4 +111,111 @@ public class FxApplicationThreadExecutor implements Executor {
   public Scheduler asScheduler() {
     return fxApplicationScheduler;
   }
+
+  @Override
+  public void destroy() {
+    log.info("Application thread executor statistics: {}", getStatistics());
+  }
+
+  public Statistics getStatistics() {
+    return new Statistics(queueDepth.get(), maxQueueDepth.get(), executedTasks.sum(), coalescedTasks.sum(),
+                          Duration.ofNanos(busyNanos.sum()), Duration.ofNanos(longestBatchNanos.get()));
+  }
+
+  private void cancel(LatestTask pendingTask) {
+    if (pendingTask != null) {
+      pendingTask.cancelled = true;
+      coalescedTasks.increment();
+    }
+  }
+
+  /**
+   * Runs a batch of queued tasks. If tasks are left over, the following pulses continue where the batch stopped until
+   * the queue is empty.
+   */
+  private void drain() {
+    if (!runBatch()) {
+      if (pulseDrainer == null) {
+        pulseDrainer = new AnimationTimer() {
+          @Override
+          public void handle(long now) {
+            drain();
+          }
+        };
+      }
+      log.trace("Application thread busy, deferring {} tasks to next pulse", queueDepth.get());
+      pulseDrainer.start();
+      return;
+    }
+
+    if (pulseDrainer != null) {
+      pulseDrainer.stop();
+    }
+    drainScheduled.set(false);
+    // A task queued after the batch but before the flag was cleared did not schedule a batch of its own
+    if (!queue.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+      Platform.runLater(this::drain);
+    }
+  }
+
+  /**
+   * @return whether the queue has been drained
+   */
+  private boolean runBatch() {
+    long start = System.nanoTime();
+    long deadline = start + FRAME_BUDGET_NANOS;
+    boolean drained = true;
+    Runnable task;
+    while ((task = queue.poll()) != null) {
+      queueDepth.decrementAndGet();
+      runSafely(task);
+      executedTasks.increment();
+
+      if (System.nanoTime() > deadline && !queue.isEmpty()) {
+        drained = false;
+        break;
+      }
+    }
+
+    long duration = System.nanoTime() - start;
+    busyNanos.add(duration);
+    longestBatchNanos.accumulateAndGet(duration, Math::max);
+    return drained;
+  }
+
+  private static void runSafely(Runnable runnable) {
+    try {
+      runnable.run();
+    } catch (Exception e) {
+      log.error("Uncaught Application Thread Error", e);
+    }
+  }
+
+  private class LatestTask implements Runnable {
+    private final Object key;
+    private final Runnable runnable;
+    private volatile boolean cancelled;
+
+    LatestTask(Object key, Runnable runnable) {
+      this.key = key;
+      this.runnable = runnable;
+    }
+
+    @Override
+    public void run() {
+      latestTaskByKey.remove(key, this);
+      if (!cancelled) {
+        runnable.run();
+      }
+    }
+  }
+
+  /**
+   * @param busyTime total time the application thread spent running queued tasks
+   * @param longestBatch longest time the application thread spent running one batch of queued tasks
+   */
+  public record Statistics(
+      int queueDepth, int maxQueueDepth, long executedTasks, long coalescedTasks, Duration busyTime,
+      Duration longestBatch
+  ) {}
 }
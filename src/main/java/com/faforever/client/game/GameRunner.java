@@ -18,6 +18,7 @@ import com.faforever.client.fx.PlatformService;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.leaderboard.LeaderboardService;
 import com.faforever.client.logging.LoggingService;
+import com.faforever.client.logging.analysis.LogAnalysis;
 import com.faforever.client.logging.analysis.LogAnalyzerService;
 import com.faforever.client.main.event.ShowReplayEvent;
 import com.faforever.client.map.MapService;
@@ -65,9 +66,14 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -412,27 +418,61 @@ public class GameRunner implements InitializingBean {
     int exitCode = finishedProcess.exitValue();
     log.info("Forged Alliance terminated with exit code {}", exitCode);
     Optional<Path> logFilePath = loggingService.getMostRecentGameLogFile();
-    Optional<String> logFileContent = logFilePath
-        .map(file -> {
-          try {
-            final String logFileText = logMasker.maskMessage(Files.readString(file));
-            Files.writeString(file, logFileText);
-            return logFileText;
-          } catch (IOException e) {
-            log.warn("Could not open log file", e);
-            return null;
-          }
-        });
+    Optional<Map<String, Action>> logAnalysisResult = logFilePath.map(this::maskAndAnalyzeLogFile);
 
     if (!gameKilled) {
       if (exitCode != 0) {
-        alertOnBadExit(exitCode, logFilePath, logFileContent);
+        alertOnBadExit(exitCode, logFilePath, logAnalysisResult);
       } else if (notificationPrefs.isAfterGameReviewEnabled()) {
         askForGameRate();
       }
     }
   }
 
+  /**
+   * Masks personal information in the game log and analyzes it in a single pass over its lines, so that huge logs
+   * don't have to be held in memory. The masked log is written next to the original one and then replaces it.
+   *
+   * @return the analysis result, or {@code null} if the log could not be processed
+   */
+  @VisibleForTesting
+  Map<String, Action> maskAndAnalyzeLogFile(Path logFile) {
+    LogAnalysis analysis = logAnalyzerService.newAnalysis();
+    Path maskedLogFile = logFile.resolveSibling(logFile.getFileName() + ".masked");
+    // Unlike Files.newBufferedReader, this replaces malformed input instead of failing on it
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(Files.newInputStream(logFile), StandardCharsets.UTF_8));
+         BufferedWriter writer = Files.newBufferedWriter(maskedLogFile, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String maskedLine = logMasker.maskMessage(line);
+        analysis.accept(maskedLine);
+        writer.write(maskedLine);
+        writer.newLine();
+      }
+    } catch (IOException e) {
+      log.warn("Could not open log file", e);
+      deleteQuietly(maskedLogFile);
+      return null;
+    }
+
+    try {
+      Files.move(maskedLogFile, logFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("Could not replace log file `{}` with its masked version", logFile, e);
+      deleteQuietly(maskedLogFile);
+    }
+    return analysis.getFindings();
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Could not delete `{}`", file, e);
+    }
+  }
+
   private void askForGameRate() {
     GameInfo game = getRunningGame();
     if (game == null) {
@@ -444,7 +484,8 @@ public class GameRunner implements InitializingBean {
             new Action(i18n.get("game.rate"), () -> navigationHandler.navigateTo(new ShowReplayEvent(game.getId()))))));
   }
 
-  private void alertOnBadExit(int exitCode, Optional<Path> logFilePath, Optional<String> logFileContent) {
+  private void alertOnBadExit(int exitCode, Optional<Path> logFilePath,
+                              Optional<Map<String, Action>> logAnalysisResult) {
     if (exitCode == -1073741515) {
       notificationService.addImmediateWarnNotification("game.crash.notInitialized");
     } else {
@@ -456,13 +497,12 @@ public class GameRunner implements InitializingBean {
                                                                                                  logFilePath.orElse(
                                                                                                      operatingSystem.getLoggingDirectory()))),
                                                                                   new DismissAction(i18n)),
-                                                                    getAnalysisButtonIfNecessary(logFileContent).orElse(null)));
+                                                                    getAnalysisButtonIfNecessary(logAnalysisResult).orElse(null)));
     }
   }
 
-  private Optional<Parent> getAnalysisButtonIfNecessary(Optional<String> logFileContent) {
-    return logFileContent.map(content -> {
-      final Map<String, Action> analysisResult = logAnalyzerService.analyzeLogContents(content);
+  private Optional<Parent> getAnalysisButtonIfNecessary(Optional<Map<String, Action>> logAnalysisResult) {
+    return logAnalysisResult.map(analysisResult -> {
       if (!analysisResult.isEmpty()) {
         final StringBuilder message = new StringBuilder();
         final List<Action> actions = new ArrayList<>();
@@ -1,9 +1,10 @@
 package com.faforever.client.game;
 
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.ClientProperties.Server;
 import com.faforever.client.domain.server.GameInfo;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
-import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.mapstruct.GameMapper;
 import com.faforever.client.net.ConnectionState;
 import com.faforever.client.player.PlayerService;
@@ -22,13 +23,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
-import reactor.function.TupleUtils;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * Downloads necessary maps, mods and updates before starting
@@ -43,52 +47,98 @@ public class GameService implements InitializingBean {
   private final PlayerService playerService;
   private final GameMapper gameMapper;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
+  private final ClientProperties clientProperties;
 
+  /**
+   * The games known to the lobby event pipeline, which may not have been published to {@link #gameIdToGame} yet.
+   */
+  private final Map<Integer, GameInfo> gamesById = new ConcurrentHashMap<>();
   private final ObservableMap<Integer, GameInfo> gameIdToGame = FXCollections.synchronizedObservableMap(
       FXCollections.observableHashMap());
-  @Getter
-  private final ObservableList<GameInfo> games = JavaFxUtil.attachListToMap(
-      FXCollections.synchronizedObservableList(FXCollections.observableArrayList(game -> new Observable[]{
+  private final ObservableList<GameInfo> gameList = FXCollections.synchronizedObservableList(
+      FXCollections.observableArrayList(game -> new Observable[]{
           game.statusProperty(), game.teamsProperty(), game.titleProperty(), game.mapFolderNameProperty(),
           game.simModsProperty(), game.passwordProtectedProperty()
-      })), gameIdToGame);
+      }));
+  @Getter
+  private final ObservableList<GameInfo> games = FXCollections.unmodifiableObservableList(gameList);
 
   @Override
   public void afterPropertiesSet() {
+    Server server = clientProperties.getServer();
     fafServerAccessor.getEvents(com.faforever.commons.lobby.GameInfo.class)
-                     .flatMap(gameInfo -> gameInfo.getGames() == null ? Flux.just(gameInfo) : Flux.fromIterable(
-                         gameInfo.getGames()))
-                     .flatMap(gameInfo -> Mono.zip(Mono.just(gameInfo), Mono.justOrEmpty(getByUid(gameInfo.getUid()))
-                                                                            .switchIfEmpty(
-                                                                                initializeGameBean(gameInfo))))
+                     .bufferTimeout(server.getEventBatchSize(), server.getEventBatchTimeout())
+                     .map(this::prepareGameUpdates)
                      .publishOn(fxApplicationThreadExecutor.asScheduler())
-                     .map(TupleUtils.function(gameMapper::update))
-                     .doOnError(throwable -> log.error("Error processing game", throwable))
-                     .filter(game -> game.getStatus() == GameStatus.CLOSED)
-                     .doOnNext(GameInfo::removeListeners)
-                     .map(GameInfo::getId)
-                     .publishOn(fxApplicationThreadExecutor.asScheduler())
-                     .doOnNext(gameIdToGame::remove)
-                     .doOnError(throwable -> log.error("Error closing game", throwable))
+                     .doOnNext(this::applyGameUpdates)
+                     .doOnError(throwable -> log.error("Error processing games", throwable))
                      .retry()
                      .subscribe();
 
     fafServerAccessor.connectionStateProperty().addListener((observable, oldValue, newValue) -> {
       if (newValue == ConnectionState.DISCONNECTED) {
-        fxApplicationThreadExecutor.execute(gameIdToGame::clear);
+        gamesById.clear();
+        fxApplicationThreadExecutor.execute(() -> {
+          gameIdToGame.clear();
+          gameList.clear();
+        });
       }
     });
   }
 
-  private Mono<GameInfo> initializeGameBean(com.faforever.commons.lobby.GameInfo gameInfo) {
-    return Mono.fromCallable(() -> {
-                 GameInfo newGame = new GameInfo();
-                 newGame.setId(gameInfo.getUid());
-                 newGame.addPlayerChangeListener(generatePlayerChangeListener(newGame));
-                 return newGame;
-               }).doOnNext(game -> gameMapper.update(gameInfo, game))
-               .publishOn(fxApplicationThreadExecutor.asScheduler())
-               .doOnNext(game -> gameIdToGame.put(game.getId(), game));
+  /**
+   * Works out what the given lobby messages change, creating and populating new games right away since they are not
+   * visible to anyone yet. Only the latest message about a game is considered, as each of them describes the whole
+   * game.
+   */
+  private GameUpdates prepareGameUpdates(List<com.faforever.commons.lobby.GameInfo> gameInfoMessages) {
+    Map<Integer, com.faforever.commons.lobby.GameInfo> latestGameInfos = new LinkedHashMap<>();
+    gameInfoMessages.stream()
+                    .flatMap(gameInfo -> gameInfo.getGames() == null ? Stream.of(gameInfo) : gameInfo.getGames()
+                                                                                                      .stream())
+                    .forEach(gameInfo -> latestGameInfos.put(gameInfo.getUid(), gameInfo));
+
+    List<GameInfo> addedGames = new ArrayList<>();
+    Map<GameInfo, com.faforever.commons.lobby.GameInfo> changedGames = new LinkedHashMap<>();
+    List<GameInfo> closedGames = new ArrayList<>();
+    latestGameInfos.forEach((uid, gameInfo) -> {
+      boolean closed = gameInfo.getState() == GameStatus.CLOSED;
+      GameInfo knownGame = closed ? gamesById.remove(uid) : gamesById.get(uid);
+      if (knownGame != null) {
+        changedGames.put(knownGame, gameInfo);
+        if (closed) {
+          closedGames.add(knownGame);
+        }
+      } else if (!closed) {
+        GameInfo newGame = initializeGameBean(gameInfo);
+        gamesById.put(uid, newGame);
+        addedGames.add(newGame);
+      }
+    });
+    return new GameUpdates(addedGames, changedGames, closedGames);
+  }
+
+  private void applyGameUpdates(GameUpdates gameUpdates) {
+    gameUpdates.changedGames().forEach((game, gameInfo) -> gameMapper.update(gameInfo, game));
+
+    List<GameInfo> closedGames = gameUpdates.closedGames();
+    closedGames.forEach(GameInfo::removeListeners);
+    closedGames.forEach(game -> gameIdToGame.remove(game.getId()));
+    gameUpdates.addedGames().forEach(game -> gameIdToGame.put(game.getId(), game));
+
+    if (!closedGames.isEmpty()) {
+      gameList.removeAll(new HashSet<>(closedGames));
+    }
+    if (!gameUpdates.addedGames().isEmpty()) {
+      gameList.addAll(gameUpdates.addedGames());
+    }
+  }
+
+  private GameInfo initializeGameBean(com.faforever.commons.lobby.GameInfo gameInfo) {
+    GameInfo newGame = new GameInfo();
+    newGame.setId(gameInfo.getUid());
+    newGame.addPlayerChangeListener(generatePlayerChangeListener(newGame));
+    return gameMapper.update(gameInfo, newGame);
   }
 
   private ChangeListener<Set<Integer>> generatePlayerChangeListener(GameInfo newGame) {
@@ -118,4 +168,14 @@ public class GameService implements InitializingBean {
   public ObservableValue<GameInfo> observeByUid(Integer uid) {
     return Bindings.valueAt(gameIdToGame, uid);
   }
+
+  /**
+   * @param changedGames the games that were already known and the messages to update them with
+   * @param closedGames the known games that have been closed, which are part of the changed games as well
+   */
+  private record GameUpdates(
+      List<GameInfo> addedGames,
+      Map<GameInfo, com.faforever.commons.lobby.GameInfo> changedGames,
+      List<GameInfo> closedGames
+  ) {}
 }
@@ -1,6 +1,7 @@
 package com.faforever.client.headerbar;
 
 import ch.micheljung.fxwindow.FxStage;
+import com.faforever.client.cache.CachingService;
 import com.faforever.client.fx.PlatformService;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.main.LinksAndHelpController;
@@ -21,6 +22,7 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.nio.file.Path;
 
 @Component
@@ -36,6 +38,7 @@ public class MainMenuButtonController {
   private final OperatingSystem operatingSystem;
   private final ForgedAlliancePrefs forgedAlliancePrefs;
   private final DataPrefs dataPrefs;
+  private final CachingService cachingService;
 
   public MenuButton menuButton;
 
@@ -61,6 +64,14 @@ public class MainMenuButtonController {
     this.platformService.reveal(forgedAlliancePrefs.getPreferencesFile());
   }
 
+  public void onShowCacheStatistics() {
+    try {
+      this.platformService.reveal(cachingService.writeStatisticsReport(operatingSystem.getLoggingDirectory()));
+    } catch (IOException e) {
+      log.warn("Could not write cache statistics", e);
+    }
+  }
+
   public void onRevealDataFolder() {
     this.platformService.reveal(dataPrefs.getBaseDataDirectory());
   }
@@ -6,16 +6,20 @@ import com.faforever.commons.io.ByteCountListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -29,46 +33,82 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class DownloadService {
 
+  static final String PARTIAL_FILE_SUFFIX = ".part";
+
   /*
    * Download a file from a URL using a temporary path and copy it to targetFile if it downloaded and the checksum
-   * matched.
+   * matched. If an earlier download of the same file was interrupted, it is resumed where it stopped, provided the
+   * server supports range requests.
    */
   public void downloadFile(URL url, Map<String, String> requestProperties, Path targetFile, ByteCountListener progressListener, String md5sum) throws IOException, NoSuchAlgorithmException, ChecksumMismatchException {
-    Path tempFile = Files.createTempFile(targetFile.getParent(), "download", null);
-
+    Path partialFile = targetFile.resolveSibling(targetFile.getFileName() + PARTIAL_FILE_SUFFIX);
+    long resumeOffset = Files.exists(partialFile) ? Files.size(partialFile) : 0;
 
     URLConnection urlConnection = url.openConnection();
     requestProperties.forEach(urlConnection::setRequestProperty);
-
-    log.info("Downloading file from `{}` to `{}`", url, tempFile);
+    if (resumeOffset > 0) {
+      urlConnection.setRequestProperty(HttpHeaders.RANGE, "bytes=" + resumeOffset + "-");
+    }
 
     ResourceLocks.acquireDownloadLock();
+    // Whatever made it to disk can be reused by the next attempt unless it turns out to be unusable
+    boolean keepPartialFile = true;
     MessageDigest messageDigest = MessageDigest.getInstance("MD5");
-    try (InputStream inputStream = urlConnection.getInputStream();
-         DigestInputStream digestInputStream = new DigestInputStream(inputStream, messageDigest);
-         OutputStream outputStream = Files.newOutputStream(tempFile)) {
+    try {
+      int responseCode = urlConnection instanceof HttpURLConnection httpURLConnection
+          ? httpURLConnection.getResponseCode() : -1;
+      if (responseCode == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+        keepPartialFile = false;
+        throw new IOException("Could not resume download from `" + url + "` at byte " + resumeOffset);
+      }
+
+      boolean resumed = resumeOffset > 0 && responseCode == HttpURLConnection.HTTP_PARTIAL;
+      if (resumed) {
+        log.info("Resuming download from `{}` to `{}` at byte {}", url, partialFile, resumeOffset);
+        updateDigest(messageDigest, partialFile);
+      } else {
+        log.info("Downloading file from `{}` to `{}`", url, partialFile);
+        resumeOffset = 0;
+      }
+
+      long offset = resumeOffset;
+      long contentLength = urlConnection.getContentLengthLong();
+      try (InputStream inputStream = urlConnection.getInputStream();
+           DigestInputStream digestInputStream = new DigestInputStream(inputStream, messageDigest);
+           OutputStream outputStream = resumed ? Files.newOutputStream(partialFile, StandardOpenOption.APPEND)
+               : Files.newOutputStream(partialFile)) {
 
-      ByteCopier.from(digestInputStream)
-          .to(outputStream)
-          .totalBytes(urlConnection.getContentLength())
-          .listener(progressListener)
-          .copy();
+        ByteCopier.from(digestInputStream)
+            .to(outputStream)
+            .totalBytes(contentLength < 0 ? contentLength : offset + contentLength)
+            .listener((processed, total) -> progressListener.updateBytesProcessed(offset + processed, total))
+            .copy();
+      }
 
       // NOTE: It is crucial that we verify the checksum before using the file when downloading from mirrors! We don't
       // want to be running unverified executables!
       String checksum = HexFormat.of().formatHex(messageDigest.digest()).toLowerCase();
       if (!Objects.equals(md5sum, checksum)) {
+        keepPartialFile = false;
         throw new ChecksumMismatchException(url, checksum, md5sum);
       }
 
-      Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(partialFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
     } finally {
       ResourceLocks.freeDownloadLock();
-      try {
-        Files.deleteIfExists(tempFile);
-      } catch (IOException e) {
-        log.warn("Could not delete temporary file: `{}`", tempFile.toAbsolutePath(), e);
+      if (!keepPartialFile) {
+        try {
+          Files.deleteIfExists(partialFile);
+        } catch (IOException e) {
+          log.warn("Could not delete temporary file: `{}`", partialFile.toAbsolutePath(), e);
+        }
       }
     }
   }
+
+  private static void updateDigest(MessageDigest messageDigest, Path file) throws IOException {
+    try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file), messageDigest)) {
+      inputStream.transferTo(OutputStream.nullOutputStream());
+    }
+  }
 }
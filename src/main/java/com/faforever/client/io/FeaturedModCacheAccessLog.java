@@ -0,0 +1,154 @@
+package com.faforever.client.io;
+
+import com.faforever.client.preferences.DataPrefs;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent log of when and how often files of the featured mod cache have been used. File systems are often mounted
+ * without access time updates, so the access time of the files themselves can't be relied on to decide which files to
+ * evict. Entries are keyed by the path of the file relative to the featured mod cache directory.
+ */
+@Slf4j
+@Lazy
+@Component
+public class FeaturedModCacheAccessLog implements DisposableBean {
+
+  private static final String LOG_FILE_NAME = "featured_mod_cache_access.json";
+  /**
+   * Increase whenever the layout of {@link Entry} changes so that old logs are discarded.
+   */
+  private static final int LOG_VERSION = 1;
+
+  private final DataPrefs dataPrefs;
+  private final ObjectMapper objectMapper;
+
+  private final Map<String, Entry> entriesByFile = new ConcurrentHashMap<>();
+  private volatile boolean loaded;
+  private volatile boolean dirty;
+
+  public FeaturedModCacheAccessLog(DataPrefs dataPrefs, ObjectMapper objectMapper) {
+    this.dataPrefs = dataPrefs;
+    this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  public void recordAccess(Path cachedFile) {
+    ensureLoaded();
+    long now = Instant.now().toEpochMilli();
+    entriesByFile.merge(toKey(cachedFile), new Entry(now, 1),
+                        (entry, ignored) -> new Entry(now, entry.accessCount() + 1));
+    dirty = true;
+  }
+
+  public Optional<Entry> lookup(Path cachedFile) {
+    ensureLoaded();
+    return Optional.ofNullable(entriesByFile.get(toKey(cachedFile)));
+  }
+
+  public void remove(Path cachedFile) {
+    ensureLoaded();
+    if (entriesByFile.remove(toKey(cachedFile)) != null) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Writes the log to disk if it was modified since it has been loaded or last stored. Entries of files that are no
+   * longer cached are dropped.
+   */
+  public synchronized void store() {
+    if (!dirty) {
+      return;
+    }
+
+    Path cacheDirectory = dataPrefs.getFeaturedModCacheDirectory();
+    entriesByFile.keySet().removeIf(file -> Files.notExists(cacheDirectory.resolve(file)));
+
+    Path logFile = getLogFile();
+    try {
+      Files.createDirectories(logFile.getParent());
+      Path tempFile = Files.createTempFile(logFile.getParent(), LOG_FILE_NAME, null);
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        objectMapper.writeValue(writer, new LogFile(LOG_VERSION, Map.copyOf(entriesByFile)));
+      }
+      Files.move(tempFile, logFile, StandardCopyOption.REPLACE_EXISTING);
+      dirty = false;
+      log.debug("Stored access log of {} cached featured mod files to `{}`", entriesByFile.size(), logFile);
+    } catch (IOException e) {
+      log.warn("Could not store featured mod cache access log to `{}`", logFile, e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    store();
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      loaded = true;
+
+      Path logFile = getLogFile();
+      if (Files.notExists(logFile)) {
+        return;
+      }
+
+      try (Reader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+        LogFile accessLog = objectMapper.readValue(reader, LogFile.class);
+        if (accessLog.version() == LOG_VERSION && accessLog.entries() != null) {
+          entriesByFile.putAll(accessLog.entries());
+        }
+        log.debug("Loaded access log of {} cached featured mod files from `{}`", entriesByFile.size(), logFile);
+      } catch (IOException e) {
+        log.warn("Featured mod cache access log `{}` could not be read", logFile, e);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  List<String> getLoggedFiles() {
+    return List.copyOf(entriesByFile.keySet());
+  }
+
+  @VisibleForTesting
+  Path getLogFile() {
+    return dataPrefs.getCacheDirectory().resolve(LOG_FILE_NAME);
+  }
+
+  private String toKey(Path cachedFile) {
+    Path cacheDirectory = dataPrefs.getFeaturedModCacheDirectory().toAbsolutePath().normalize();
+    return cacheDirectory.relativize(cachedFile.toAbsolutePath().normalize()).toString();
+  }
+
+  record LogFile(int version, Map<String, Entry> entries) {}
+
+  /**
+   * @param lastAccess epoch millis of the last time the file has been used
+   */
+  public record Entry(long lastAccess, int accessCount) {}
+}
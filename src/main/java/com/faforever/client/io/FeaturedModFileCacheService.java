@@ -5,21 +5,34 @@ import com.faforever.client.preferences.Preferences;
 import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.util.UpdaterUtil;
 import com.faforever.commons.api.dto.FeaturedModFile;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.hash.Hashing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.nio.file.attribute.FileTime;
 import java.text.MessageFormat;
-import java.time.OffsetDateTime;
-import java.time.ZoneId;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Stream;
 
 import static com.google.common.io.Files.hash;
@@ -29,15 +42,56 @@ import static com.google.common.io.Files.hash;
 @Slf4j
 @RequiredArgsConstructor
 public class FeaturedModFileCacheService implements InitializingBean {
+  private static final long BYTES_PER_GIGABYTE = 1024L * 1024 * 1024;
+  /**
+   * Number of cached files inspected per run of {@link #evictCachedFiles()}, so that a large cache is cleaned up in
+   * small steps instead of keeping the disk busy at once. The cache is only listed once per pass over all files.
+   */
+  private static final int EVICTION_BATCH_SIZE = 200;
+
   private final DataPrefs dataPrefs;
   private final Preferences preferences;
+  private final FileHashIndex fileHashIndex;
+  private final FeaturedModCacheAccessLog accessLog;
+
+  /** Files kept during the current pass over the cache. */
+  private final Map<Path, CachedFile> cachedFiles = new HashMap<>();
+  /** Files yet to be inspected during the current pass over the cache. */
+  private final Deque<Path> pendingFiles = new ArrayDeque<>();
+  private final AtomicLong reclaimedBytes = new AtomicLong();
+  /**
+   * Held by updates of featured mod files, which rely on files they found in or downloaded to the cache to still be
+   * there when they copy them. Files are only evicted while no update is running.
+   */
+  private final ReadWriteLock updateLock = new ReentrantReadWriteLock();
 
   public boolean isCached(FeaturedModFile featuredModFile) throws IOException {
     return Files.exists(getCachedFilePath(featuredModFile));
   }
 
+  /**
+   * Returns the MD5 hash of the given file. Unless game files are to be verified, the hash is taken from the
+   * {@link FileHashIndex} if the file did not change since it has last been hashed.
+   */
   public String readHashFromFile(Path filePath) throws IOException {
-    return hash(filePath.toFile(), Hashing.md5()).toString();
+    BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+    if (!preferences.isVerifyGameFiles()) {
+      Optional<String> indexedHash = fileHashIndex.lookup(filePath, attributes);
+      if (indexedHash.isPresent()) {
+        return indexedHash.get();
+      }
+    }
+
+    String hash = hash(filePath.toFile(), Hashing.md5()).toString();
+    fileHashIndex.put(filePath, attributes, hash);
+    return hash;
+  }
+
+  /**
+   * Writes the file hashes computed so far to disk.
+   */
+  public void storeFileHashes() {
+    fileHashIndex.store();
   }
 
   private Path getCachedFilePath(String hash, String group) {
@@ -56,26 +110,34 @@ public class FeaturedModFileCacheService implements InitializingBean {
 
   public void copyFeaturedModFileFromCache(FeaturedModFile featuredModFile, Path targetPath) throws IOException {
     Files.createDirectories(targetPath.getParent());
-    ResourceLocks.acquireDiskLock();
+    Path cachedFilePath = getCachedFilePath(featuredModFile);
+    ResourceLocks.acquireDiskLock(targetPath, cachedFilePath);
 
     try {
       if (Files.exists(targetPath) && preferences.isGameDataCacheActivated()) {
         //We want to keep the old file for now in case it is needed again for example for old replays
         moveFeaturedModFileToCache(targetPath);
       }
-      Files.copy(getCachedFilePath(featuredModFile), targetPath, StandardCopyOption.REPLACE_EXISTING);
+      Files.copy(cachedFilePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+      accessLog.recordAccess(cachedFilePath);
+      // The cached file has been verified when it was downloaded, so there is no need to hash the copy
+      fileHashIndex.put(targetPath, Files.readAttributes(targetPath, BasicFileAttributes.class),
+                        featuredModFile.getMd5());
       UpdaterUtil.extractMoviesAndSoundsIfPresent(targetPath, dataPrefs.getBaseDataDirectory());
     } finally {
-      ResourceLocks.freeDiskLock();
+      ResourceLocks.freeDiskLock(targetPath, cachedFilePath);
     }
   }
 
   private void moveFeaturedModFileToCache(Path targetPath) throws IOException {
-    Files.move(targetPath, getCachedFilePath(targetPath), StandardCopyOption.REPLACE_EXISTING);
+    Path cachedFilePath = getCachedFilePath(targetPath);
+    Files.move(targetPath, cachedFilePath, StandardCopyOption.REPLACE_EXISTING);
+    accessLog.recordAccess(cachedFilePath);
   }
 
   /**
-   * Cleanup method, on service start, we'll get rid of old files.
+   * Makes sure the cache directory exists. Old files are removed in the background by {@link #evictCachedFiles()}, so
+   * that startup does not wait for the cache to be scanned.
    */
   @Override
   public void afterPropertiesSet() {
@@ -89,38 +151,172 @@ public class FeaturedModFileCacheService implements InitializingBean {
             " You might have to delete it or check if the needed permission are given.", cacheDirectory));
       }
     }
-    cleanUnusedFilesFromCache();
   }
 
-  private void cleanUnusedFilesFromCache() {
-    try (Stream<Path> pathElements = Files.walk(dataPrefs.getFeaturedModCacheDirectory())) {
-      pathElements
-          .filter(Files::isRegularFile)
-          .forEach(this::deleteCachedFileIfNeeded);
-    } catch (Exception e) {
-      log.error("Cleaning featured mod files cache failed", e);
+  /**
+   * Keeps cached files from being evicted until {@link #freeUpdateLock()} is called by the same thread. Multiple
+   * updates may hold the lock at the same time.
+   */
+  public void acquireUpdateLock() {
+    updateLock.readLock().lock();
+  }
+
+  public void freeUpdateLock() {
+    updateLock.readLock().unlock();
+  }
+
+  /**
+   * Returns the number of bytes freed by evicting cached files since the client has been started.
+   */
+  public long getReclaimedBytes() {
+    return reclaimedBytes.get();
+  }
+
+  @Scheduled(initialDelay = 1, fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+  public void evictCachedFiles() {
+    evictCachedFiles((long) preferences.getCacheMaxSizeInGigabytes() * BYTES_PER_GIGABYTE);
+  }
+
+  /**
+   * Inspects the next batch of cached files of the current pass and deletes those that have not been used within the
+   * configured life time. Once all files of the pass have been inspected, the least recently used files are deleted
+   * until the cache fits into the given size, files used equally recently are ranked by how often they have been used.
+   * Nothing is evicted while featured mod files are being updated, and partially downloaded files are never evicted.
+   */
+  @VisibleForTesting
+  synchronized void evictCachedFiles(long maxCacheSize) {
+    if (!updateLock.writeLock().tryLock()) {
+      log.debug("Not evicting featured mod files while they are being updated");
+      return;
+    }
+
+    long reclaimed = 0;
+    try {
+      if (pendingFiles.isEmpty()) {
+        try (Stream<Path> pathElements = Files.walk(dataPrefs.getFeaturedModCacheDirectory())) {
+          pathElements.filter(Files::isRegularFile)
+                      .filter(filePath -> !isPartialDownload(filePath))
+                      .forEach(pendingFiles::add);
+        } catch (Exception e) {
+          log.error("Cleaning featured mod files cache failed", e);
+          return;
+        }
+      }
+
+      for (int i = 0; i < EVICTION_BATCH_SIZE && !pendingFiles.isEmpty(); i++) {
+        reclaimed += deleteCachedFileIfExpired(pendingFiles.poll());
+      }
+
+      if (pendingFiles.isEmpty()) {
+        // The whole cache has been seen, so the sizes of all remaining files are known
+        reclaimed += deleteLeastRecentlyUsedFiles(maxCacheSize);
+        cachedFiles.clear();
+        accessLog.store();
+      }
+    } finally {
+      updateLock.writeLock().unlock();
+    }
+
+    if (reclaimed > 0) {
+      log.info("Reclaimed {} bytes from featured mod files cache ({} bytes since start)", reclaimed,
+               reclaimedBytes.addAndGet(reclaimed));
     }
   }
 
   /**
-   * Per directory cleanup old files.
+   * Deletes the file if it has not been used within the configured life time, otherwise remembers its size.
+   *
+   * @return the number of bytes freed
    */
-  private void deleteCachedFileIfNeeded(Path filePath) {
+  private long deleteCachedFileIfExpired(Path filePath) {
+    ResourceLocks.acquireDiskLock(filePath);
     try {
-      ResourceLocks.acquireDiskLock();
-
-      FileTime lastAccessTime = Files.readAttributes(filePath, BasicFileAttributes.class).lastAccessTime();
-      OffsetDateTime comparableLastAccessTime = OffsetDateTime.ofInstant(lastAccessTime.toInstant(), ZoneId.systemDefault());
-      final boolean olderThanCacheTime = comparableLastAccessTime.plusDays(preferences.getCacheLifeTimeInDays()).isBefore(OffsetDateTime.now());
-      final boolean gameDataCacheActivated = preferences.isGameDataCacheActivated();
-      if (olderThanCacheTime || !gameDataCacheActivated) {
-        log.trace("Deleting cached file `{}`", filePath);
-        Files.deleteIfExists(filePath);
+      BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+      Instant lastAccess = getLastAccess(filePath, attributes);
+      boolean olderThanCacheTime = lastAccess.plus(preferences.getCacheLifeTimeInDays(), ChronoUnit.DAYS)
+          .isBefore(Instant.now());
+      if (olderThanCacheTime || !preferences.isGameDataCacheActivated()) {
+        return deleteCachedFile(filePath, attributes.size());
       }
+      cachedFiles.put(filePath, new CachedFile(attributes.size(), lastAccess));
+    } catch (NoSuchFileException e) {
+      log.trace("Cached file `{}` has been deleted since the cache has been listed", filePath);
     } catch (Exception e) {
       log.error("Exception during deleting the cache files", e);
     } finally {
-      ResourceLocks.freeDiskLock();
+      ResourceLocks.freeDiskLock(filePath);
     }
+    return 0;
   }
+
+  /**
+   * @return the number of bytes freed
+   */
+  private long deleteLeastRecentlyUsedFiles(long maxCacheSize) {
+    long cacheSize = cachedFiles.values().stream().mapToLong(CachedFile::size).sum();
+    if (cacheSize <= maxCacheSize) {
+      return 0;
+    }
+
+    Comparator<Map.Entry<Path, CachedFile>> leastRecentlyUsedFirst = Comparator
+        .<Map.Entry<Path, CachedFile>, Instant>comparing(cachedFile -> cachedFile.getValue().lastAccess())
+        .thenComparingInt(cachedFile -> accessLog.lookup(cachedFile.getKey())
+            .map(FeaturedModCacheAccessLog.Entry::accessCount)
+            .orElse(0));
+    List<Map.Entry<Path, CachedFile>> candidates = cachedFiles.entrySet().stream()
+        .sorted(leastRecentlyUsedFirst)
+        .toList();
+
+    long reclaimed = 0;
+    for (Map.Entry<Path, CachedFile> candidate : candidates) {
+      if (cacheSize - reclaimed <= maxCacheSize) {
+        break;
+      }
+
+      Path filePath = candidate.getKey();
+      CachedFile cachedFile = candidate.getValue();
+      ResourceLocks.acquireDiskLock(filePath);
+      try {
+        if (getLastAccess(filePath).isAfter(cachedFile.lastAccess())) {
+          // Used since it has been inspected, so it is no longer among the least recently used files
+          continue;
+        }
+        reclaimed += deleteCachedFile(filePath, cachedFile.size());
+      } catch (Exception e) {
+        log.error("Exception during deleting the cache files", e);
+      } finally {
+        ResourceLocks.freeDiskLock(filePath);
+      }
+    }
+    return reclaimed;
+  }
+
+  private static boolean isPartialDownload(Path filePath) {
+    return filePath.getFileName().toString().endsWith(DownloadService.PARTIAL_FILE_SUFFIX);
+  }
+
+  private long deleteCachedFile(Path filePath, long size) throws IOException {
+    log.trace("Deleting cached file `{}`", filePath);
+    accessLog.remove(filePath);
+    return Files.deleteIfExists(filePath) ? size : 0;
+  }
+
+  private Instant getLastAccess(Path filePath) {
+    try {
+      return getLastAccess(filePath, Files.readAttributes(filePath, BasicFileAttributes.class));
+    } catch (IOException e) {
+      return Instant.EPOCH;
+    }
+  }
+
+  /**
+   * Files that have been cached before the access log existed fall back to the access time of the file system.
+   */
+  private Instant getLastAccess(Path filePath, BasicFileAttributes attributes) {
+    return accessLog.lookup(filePath)
+        .map(entry -> Instant.ofEpochMilli(entry.lastAccess()))
+        .orElseGet(() -> attributes.lastAccessTime().toInstant());
+  }
+
+  private record CachedFile(long size, Instant lastAccess) {}
 }
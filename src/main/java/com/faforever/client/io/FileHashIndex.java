@@ -0,0 +1,184 @@
+package com.faforever.client.io;
+
+import com.faforever.client.preferences.DataPrefs;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent index of the MD5 hashes of game and replay files. Entries are keyed by the absolute path of the file and
+ * are only considered valid as long as its size, last modified time and, if the file system provides one, its file key
+ * (the inode on Unix) did not change, so that an unchanged file is verified by a stat call instead of reading all of it.
+ */
+@Slf4j
+@Lazy
+@Component
+public class FileHashIndex implements DisposableBean {
+
+  private static final String INDEX_FILE_NAME = "file_hashes.json";
+  /**
+   * Increase whenever the layout of {@link Entry} changes so that old indexes are discarded.
+   */
+  private static final int INDEX_VERSION = 1;
+
+  private final DataPrefs dataPrefs;
+  private final ObjectMapper objectMapper;
+
+  private final Map<String, Entry> entriesByPath = new ConcurrentHashMap<>();
+  private volatile boolean loaded;
+  private volatile boolean dirty;
+
+  public FileHashIndex(DataPrefs dataPrefs, ObjectMapper objectMapper) {
+    this.dataPrefs = dataPrefs;
+    this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  /**
+   * Returns the indexed hash of the given file if the file did not change since it has been hashed.
+   *
+   * @param attributes the current attributes of the file
+   */
+  public Optional<String> lookup(Path file, BasicFileAttributes attributes) {
+    ensureLoaded();
+    Entry entry = entriesByPath.get(toKey(file));
+    if (entry == null || !entry.matches(attributes)) {
+      return Optional.empty();
+    }
+    return Optional.of(entry.md5());
+  }
+
+  /**
+   * @param attributes the attributes the file had before it was hashed
+   */
+  public void put(Path file, BasicFileAttributes attributes, String md5) {
+    ensureLoaded();
+    entriesByPath.put(toKey(file), Entry.of(attributes, md5));
+    dirty = true;
+  }
+
+  public void remove(Path file) {
+    ensureLoaded();
+    if (entriesByPath.remove(toKey(file)) != null) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Writes the index to disk if it was modified since it has been loaded or last stored. Entries of files that no
+   * longer exist are dropped, so that the index does not grow with temporary files.
+   */
+  public synchronized void store() {
+    if (!dirty) {
+      return;
+    }
+
+    // Cleared before taking the snapshot, so that entries put while it is written are stored the next time
+    dirty = false;
+    entriesByPath.keySet().removeIf(path -> Files.notExists(Path.of(path)));
+
+    Path indexFile = getIndexFile();
+    try {
+      Files.createDirectories(indexFile.getParent());
+      Path tempFile = Files.createTempFile(indexFile.getParent(), INDEX_FILE_NAME, null);
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        objectMapper.writeValue(writer, new IndexFile(INDEX_VERSION, Map.copyOf(entriesByPath)));
+      }
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+      log.debug("Stored {} file hashes to `{}`", entriesByPath.size(), indexFile);
+    } catch (IOException e) {
+      dirty = true;
+      log.warn("Could not store file hash index to `{}`", indexFile, e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    store();
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      readIndexFile();
+      // Set last, so that other threads don't skip loading before all entries are in place
+      loaded = true;
+    }
+  }
+
+  private void readIndexFile() {
+    Path indexFile = getIndexFile();
+    if (Files.notExists(indexFile)) {
+      return;
+    }
+
+    try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+      IndexFile index = objectMapper.readValue(reader, IndexFile.class);
+      if (index.version() == INDEX_VERSION && index.entries() != null) {
+        entriesByPath.putAll(index.entries());
+      }
+      log.debug("Loaded {} file hashes from `{}`", entriesByPath.size(), indexFile);
+    } catch (IOException e) {
+      log.warn("File hash index `{}` could not be read, files will be re-hashed", indexFile, e);
+    }
+  }
+
+  @VisibleForTesting
+  List<String> getIndexedPaths() {
+    return List.copyOf(entriesByPath.keySet());
+  }
+
+  @VisibleForTesting
+  Path getIndexFile() {
+    return dataPrefs.getCacheDirectory().resolve(INDEX_FILE_NAME);
+  }
+
+  private static String toKey(Path file) {
+    return file.toAbsolutePath().normalize().toString();
+  }
+
+  record IndexFile(int version, Map<String, Entry> entries) {}
+
+  /**
+   * @param fileKey the string representation of {@link BasicFileAttributes#fileKey()}, if the file system provides one
+   */
+  record Entry(long size, long lastModified, @Nullable String fileKey, String md5) {
+
+    static Entry of(BasicFileAttributes attributes, String md5) {
+      Object fileKey = attributes.fileKey();
+      return new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(),
+                       fileKey == null ? null : fileKey.toString(), md5);
+    }
+
+    boolean matches(BasicFileAttributes attributes) {
+      Object currentFileKey = attributes.fileKey();
+      return size == attributes.size()
+          && lastModified == attributes.lastModifiedTime().toMillis()
+          && (fileKey == null || currentFileKey == null || Objects.equals(fileKey, currentFileKey.toString()));
+    }
+  }
+}
@@ -44,6 +44,11 @@ import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
 @RequiredArgsConstructor
 public class LeaderboardService {
 
+  /**
+   * Seasons can have more entries than fit into a single page, all pages are read and prefetched concurrently.
+   */
+  private static final int LEAGUE_ENTRIES_PAGE_SIZE = 1000;
+
   private final AssetService assetService;
   private final FafApiAccessor fafApiAccessor;
   private final LeaderboardMapper leaderboardMapper;
@@ -202,9 +207,9 @@ public class LeaderboardService {
                                                                             .addSortingRule(
                                                                                 "leagueSeasonDivisionSubdivision.subdivisionIndex",
                                                                                 false).addSortingRule("score", false)
-                                                                            .pageSize(fafApiAccessor.getMaxPageSize());
+                                                                            .pageSize(LEAGUE_ENTRIES_PAGE_SIZE);
 
-    return fafApiAccessor.getMany(navigator).index().collectList().flatMapMany(this::mapLeagueEntryDtoToBean).cache();
+    return fafApiAccessor.getAll(navigator).index().collectList().flatMapMany(this::mapLeagueEntryDtoToBean).cache();
   }
 
   private Flux<LeagueEntry> mapLeagueEntryDtoToBean(List<Tuple2<Long, LeagueSeasonScore>> seasonScoresWithRank) {
@@ -0,0 +1,59 @@
+package com.faforever.client.logging.analysis;
+
+import com.faforever.client.notification.Action;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analysis of a single game log, fed one line at a time so that the log never has to be held in memory. Each rule
+ * remembers which of its traces have been seen so far and is no longer checked once all of them have been. Not thread
+ * safe.
+ */
+public class LogAnalysis {
+
+  private final List<LogAnalysisRule> rules;
+  private final BitSet[] seenTracesByRule;
+  private final BitSet matchedRules;
+
+  public LogAnalysis(List<LogAnalysisRule> rules) {
+    this.rules = rules;
+    this.seenTracesByRule = new BitSet[rules.size()];
+    for (int i = 0; i < seenTracesByRule.length; i++) {
+      seenTracesByRule[i] = new BitSet(rules.get(i).traces().size());
+    }
+    this.matchedRules = new BitSet(rules.size());
+  }
+
+  public void accept(String line) {
+    for (int ruleIndex = matchedRules.nextClearBit(0); ruleIndex < rules.size();
+         ruleIndex = matchedRules.nextClearBit(ruleIndex + 1)) {
+      List<String> traces = rules.get(ruleIndex).traces();
+      BitSet seenTraces = seenTracesByRule[ruleIndex];
+      for (int traceIndex = seenTraces.nextClearBit(0); traceIndex < traces.size();
+           traceIndex = seenTraces.nextClearBit(traceIndex + 1)) {
+        if (line.contains(traces.get(traceIndex))) {
+          seenTraces.set(traceIndex);
+        }
+      }
+      if (seenTraces.cardinality() == traces.size()) {
+        matchedRules.set(ruleIndex);
+      }
+    }
+  }
+
+  /**
+   * Returns the messages of the findings of all rules that applied to the lines seen so far, mapped to the action
+   * helping to solve them, which is {@code null} for findings without an action. The map is empty if no rule applied.
+   */
+  public Map<String, Action> getFindings() {
+    Map<String, Action> findings = new HashMap<>();
+    matchedRules.stream()
+        .mapToObj(ruleIndex -> rules.get(ruleIndex).finding().get())
+        .forEach(finding -> findings.put(finding.message(), finding.action()));
+    return Collections.unmodifiableMap(findings);
+  }
+}
@@ -0,0 +1,9 @@
+package com.faforever.client.logging.analysis;
+
+import com.faforever.client.notification.Action;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * @param action an action helping the user to solve the problem, if there is one
+ */
+public record LogAnalysisFinding(String message, @Nullable Action action) {}
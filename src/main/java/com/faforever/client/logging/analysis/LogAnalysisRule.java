@@ -0,0 +1,20 @@
+package com.faforever.client.logging.analysis;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Recognizes a known problem by the traces it leaves in the game log. The rule applies if every trace occurs in the
+ * log, in any order and on any line.
+ *
+ * @param finding creates the finding reported to the user if the rule applies
+ */
+public record LogAnalysisRule(List<String> traces, Supplier<LogAnalysisFinding> finding) {
+
+  public LogAnalysisRule {
+    if (traces.isEmpty()) {
+      throw new IllegalArgumentException("A rule needs at least one trace");
+    }
+    traces = List.copyOf(traces);
+  }
+}
@@ -4,17 +4,13 @@ import com.faforever.client.config.ClientProperties;
 import com.faforever.client.fx.PlatformService;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.notification.Action;
-import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
-@RequiredArgsConstructor
 public class LogAnalyzerService {
   private static final String GAME_MINIMIZED_TRACE = "info: Minimized true";
   private static final String SND_WARNING_TRACE = "warning: SND";
@@ -24,22 +20,38 @@ public class LogAnalyzerService {
   private final ClientProperties clientProperties;
   private final PlatformService platformService;
 
-  @NotNull
-  public Map<String, Action> analyzeLogContents(final String logContents) {
-    final Map<String, Action> analysisResult = new HashMap<>();
+  private final List<LogAnalysisRule> rules;
+
+  public LogAnalyzerService(I18n i18n, ClientProperties clientProperties, PlatformService platformService) {
+    this.i18n = i18n;
+    this.clientProperties = clientProperties;
+    this.platformService = platformService;
+    this.rules = List.of(
+        new LogAnalysisRule(List.of(GAME_MINIMIZED_TRACE),
+                            () -> new LogAnalysisFinding(i18n.get("game.log.analysis.minimized"), null)),
+        new LogAnalysisRule(List.of(SND_WARNING_TRACE, SND_XACT_TRACE), this::createSoundIssueFinding)
+    );
+  }
 
-    if (StringUtils.contains(logContents, GAME_MINIMIZED_TRACE)) {
-      analysisResult.put(i18n.get("game.log.analysis.minimized"), null);
-    }
+  /**
+   * Starts the analysis of a log whose lines are passed to {@link LogAnalysis#accept(String)}.
+   */
+  public LogAnalysis newAnalysis() {
+    return new LogAnalysis(rules);
+  }
 
-    if (StringUtils.contains(logContents, SND_WARNING_TRACE) && StringUtils.contains(logContents, SND_XACT_TRACE)) {
-      final String moreInfoButtonCaption = i18n.get("game.log.analysis.moreInfoBtn");
-      final Action openSoundHelpAction = new Action(moreInfoButtonCaption, () -> platformService.showDocument(
-          clientProperties.getLinks().get("linksSoundIssues")));
+  @NotNull
+  public Map<String, Action> analyzeLogContents(final String logContents) {
+    LogAnalysis analysis = newAnalysis();
+    logContents.lines().forEach(analysis::accept);
+    return analysis.getFindings();
+  }
 
-      analysisResult.put(i18n.get("game.log.analysis.snd", moreInfoButtonCaption), openSoundHelpAction);
-    }
+  private LogAnalysisFinding createSoundIssueFinding() {
+    final String moreInfoButtonCaption = i18n.get("game.log.analysis.moreInfoBtn");
+    final Action openSoundHelpAction = new Action(moreInfoButtonCaption, () -> platformService.showDocument(
+        clientProperties.getLinks().get("linksSoundIssues")));
 
-    return Collections.unmodifiableMap(analysisResult);
+    return new LogAnalysisFinding(i18n.get("game.log.analysis.snd", moreInfoButtonCaption), openSoundHelpAction);
   }
 }
@@ -0,0 +1,218 @@
+package com.faforever.client.map;
+
+import com.faforever.client.domain.api.Map;
+import com.faforever.client.domain.api.MapType;
+import com.faforever.client.domain.api.MapVersion;
+import com.faforever.client.preferences.DataPrefs;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent index of locally installed maps. Entries are keyed by the absolute map folder and are only considered
+ * valid as long as the last modified time and size of the scenario file did not change, so that a warm start only has
+ * to stat the scenario files instead of evaluating every {@code *_scenario.lua}.
+ */
+@Slf4j
+@Lazy
+@Component
+public class InstalledMapIndex {
+
+  private static final String INDEX_FILE_NAME = "installed_maps.json";
+  /**
+   * Increase whenever the layout of {@link Entry} changes so that old indexes are discarded.
+   */
+  private static final int INDEX_VERSION = 1;
+
+  private final DataPrefs dataPrefs;
+  private final ObjectMapper objectMapper;
+
+  private final java.util.Map<String, Entry> entriesByFolder = new ConcurrentHashMap<>();
+  private volatile boolean loaded;
+  private volatile boolean dirty;
+
+  public InstalledMapIndex(DataPrefs dataPrefs, ObjectMapper objectMapper) {
+    this.dataPrefs = dataPrefs;
+    this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  /**
+   * Returns the indexed map of the given folder if the scenario file did not change since it was indexed.
+   */
+  public Optional<MapVersion> lookup(Path mapFolder) {
+    ensureLoaded();
+    Entry entry = entriesByFolder.get(toKey(mapFolder));
+    if (entry == null) {
+      return Optional.empty();
+    }
+
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(mapFolder.resolve(entry.scenarioFileName()),
+                                                            BasicFileAttributes.class);
+      if (attributes.lastModifiedTime().toMillis() != entry.lastModified() || attributes.size() != entry.size()) {
+        return Optional.empty();
+      }
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+
+    return Optional.of(entry.toMapVersion(mapFolder.getFileName().toString()));
+  }
+
+  public void put(Path mapFolder, Path scenarioFile, MapVersion mapVersion) {
+    ensureLoaded();
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(scenarioFile, BasicFileAttributes.class);
+      entriesByFolder.put(toKey(mapFolder), Entry.of(scenarioFile.getFileName().toString(),
+                                                     attributes.lastModifiedTime().toMillis(), attributes.size(),
+                                                     mapVersion));
+      dirty = true;
+    } catch (IOException e) {
+      log.debug("Could not index map `{}`", mapFolder, e);
+    }
+  }
+
+  public void remove(Path mapFolder) {
+    ensureLoaded();
+    if (entriesByFolder.remove(toKey(mapFolder)) != null) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Drops all entries except the ones for the given folders. Called after a full scan so that the index does not grow
+   * with maps that have been removed while the client was not running.
+   */
+  public void retainAll(Collection<Path> mapFolders) {
+    ensureLoaded();
+    Set<String> keys = new HashSet<>();
+    mapFolders.forEach(mapFolder -> keys.add(toKey(mapFolder)));
+    if (entriesByFolder.keySet().retainAll(keys)) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Writes the index to disk if it was modified since it has been loaded or last stored.
+   */
+  public synchronized void store() {
+    if (!dirty) {
+      return;
+    }
+    // Cleared before taking the snapshot, so that entries put while it is written are stored the next time
+    dirty = false;
+
+    Path indexFile = getIndexFile();
+    try {
+      Files.createDirectories(indexFile.getParent());
+      Path tempFile = Files.createTempFile(indexFile.getParent(), INDEX_FILE_NAME, null);
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        objectMapper.writeValue(writer, new IndexFile(INDEX_VERSION, java.util.Map.copyOf(entriesByFolder)));
+      }
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+      log.debug("Stored index of {} installed maps to `{}`", entriesByFolder.size(), indexFile);
+    } catch (IOException e) {
+      dirty = true;
+      log.warn("Could not store installed map index to `{}`", indexFile, e);
+    }
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      readIndexFile();
+      // Set last, so that other threads don't skip loading before all entries are in place
+      loaded = true;
+    }
+  }
+
+  private void readIndexFile() {
+    Path indexFile = getIndexFile();
+    if (Files.notExists(indexFile)) {
+      return;
+    }
+
+    try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+      IndexFile index = objectMapper.readValue(reader, IndexFile.class);
+      if (index.version() == INDEX_VERSION && index.entries() != null) {
+        entriesByFolder.putAll(index.entries());
+      }
+      log.debug("Loaded index of {} installed maps from `{}`", entriesByFolder.size(), indexFile);
+    } catch (IOException e) {
+      log.warn("Installed map index `{}` could not be read, maps will be re-read", indexFile, e);
+    }
+  }
+
+  @VisibleForTesting
+  List<String> getIndexedFolders() {
+    return List.copyOf(entriesByFolder.keySet());
+  }
+
+  @VisibleForTesting
+  Path getIndexFile() {
+    return dataPrefs.getCacheDirectory().resolve(INDEX_FILE_NAME);
+  }
+
+  private static String toKey(Path mapFolder) {
+    return mapFolder.toAbsolutePath().normalize().toString();
+  }
+
+  record IndexFile(int version, java.util.Map<String, Entry> entries) {}
+
+  record Entry(
+      String scenarioFileName,
+      long lastModified,
+      long size,
+      String displayName,
+      String mapType,
+      String description,
+      int maxPlayers,
+      int widthInPixels,
+      int heightInPixels,
+      String version
+  ) {
+
+    static Entry of(String scenarioFileName, long lastModified, long size, MapVersion mapVersion) {
+      Map map = mapVersion.map();
+      MapType mapType = map.mapType();
+      return new Entry(scenarioFileName, lastModified, size, map.displayName(),
+                       mapType == null ? null : mapType.getValue(), mapVersion.description(),
+                       mapVersion.maxPlayers(), mapVersion.size().widthInPixels(),
+                       mapVersion.size().heightInPixels(),
+                       mapVersion.version() == null ? null : mapVersion.version().toString());
+    }
+
+    MapVersion toMapVersion(String folderName) {
+      Map map = new Map(null, displayName, 0, null, false, MapType.fromValue(mapType), null);
+      ComparableVersion comparableVersion = version == null ? null : new ComparableVersion(version);
+      return new MapVersion(null, folderName, 0, description, maxPlayers,
+                            new MapSize(widthInPixels, heightInPixels), comparableVersion, false, false, null, null,
+                            null, map, null);
+    }
+  }
+}
@@ -4,6 +4,7 @@ import com.faforever.client.api.FafApiAccessor;
 import com.faforever.client.config.CacheNames;
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.config.ClientProperties.Vault;
+import com.faforever.client.config.ClientProperties.Vault.LocalScan;
 import com.faforever.client.domain.api.Map;
 import com.faforever.client.domain.api.MapType;
 import com.faforever.client.domain.api.MapVersion;
@@ -28,6 +29,7 @@ import com.faforever.client.task.CompletableTask.Priority;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.theme.ThemeService;
 import com.faforever.client.util.FileSizeReader;
+import com.faforever.client.util.LuaUtil;
 import com.faforever.client.vault.search.SearchController.SearchConfig;
 import com.faforever.client.vault.search.SearchController.SortConfig;
 import com.faforever.client.vault.search.SearchController.SortOrder;
@@ -63,7 +65,9 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.function.Tuple2;
 import reactor.util.retry.Retry;
 
@@ -78,16 +82,19 @@ import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static com.faforever.client.util.LuaUtil.loadFile;
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
 import static com.google.common.net.UrlEscapers.urlFragmentEscaper;
 import static java.lang.String.format;
@@ -124,6 +131,8 @@ public class MapService implements InitializingBean, DisposableBean {
   private final ObjectFactory<DownloadMapTask> downloadMapTaskFactory;
   private final ObjectFactory<UninstallMapTask> uninstallMapTaskFactory;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
+  private final InstalledMapIndex installedMapIndex;
+  private final ExecutorService taskExecutor;
 
   private final ObservableMap<String, MapVersion> mapsByFolderName = FXCollections.observableHashMap();
   @Getter
@@ -141,7 +150,7 @@ public class MapService implements InitializingBean, DisposableBean {
                                     "SCMP_036", "SCMP_037", "SCMP_038", "SCMP_039", "SCMP_040", "X1MP_001", "X1MP_002",
                                     "X1MP_003", "X1MP_004", "X1MP_005", "X1MP_006", "X1MP_007", "X1MP_008", "X1MP_009",
                                     "X1MP_010", "X1MP_011", "X1MP_012", "X1MP_014", "X1MP_017");
-  private Thread directoryWatcherThread;
+  private Future<?> directoryWatcher;
 
   private static URL getDownloadUrl(String mapName, String baseUrl) throws MalformedURLException {
     return new URL(format(baseUrl, urlFragmentEscaper().escape(mapName).toLowerCase(Locale.US)));
@@ -177,8 +186,8 @@ public class MapService implements InitializingBean, DisposableBean {
 
     try {
       Files.createDirectories(mapsDirectory);
-      Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
-      directoryWatcherThread = startDirectoryWatcher(mapsDirectory);
+      Optional.ofNullable(directoryWatcher).ifPresent(watcher -> watcher.cancel(true));
+      directoryWatcher = startDirectoryWatcher(mapsDirectory);
     } catch (IOException e) {
       log.warn("Could not start map directory watcher", e);
     }
@@ -187,8 +196,8 @@ public class MapService implements InitializingBean, DisposableBean {
     loadInstalledMaps();
   }
 
-  private Thread startDirectoryWatcher(Path mapsDirectory) {
-    Thread thread = new Thread(() -> {
+  private Future<?> startDirectoryWatcher(Path mapsDirectory) {
+    return taskExecutor.submit(() -> {
       try (WatchService watcher = mapsDirectory.getFileSystem().newWatchService()) {
         forgedAlliancePrefs.getMapsDirectory().register(watcher, ENTRY_DELETE, ENTRY_CREATE);
         while (!Thread.interrupted()) {
@@ -216,9 +225,6 @@ public class MapService implements InitializingBean, DisposableBean {
         log.info("Watcher terminated ({})", e.getMessage());
       }
     });
-    thread.setDaemon(true);
-    thread.start();
-    return thread;
   }
 
   private void loadInstalledMaps() {
@@ -232,36 +238,41 @@ public class MapService implements InitializingBean, DisposableBean {
           List<Path> mapPaths = new ArrayList<>();
           customMapsDirectoryStream.collect(toCollection(() -> mapPaths));
           officialMaps.stream().map(officialMapsPath::resolve).collect(toCollection(() -> mapPaths));
+          mapPaths.removeIf(mapPath -> mapPath.getFileName().toString().equals(DEBUG));
 
           long totalMaps = mapPaths.size();
-          long mapsRead = 0;
-          for (Path mapPath : mapPaths) {
-            if (mapPath.getFileName().toString().equals(DEBUG)) {
-              continue;
-            }
-            updateProgress(++mapsRead, totalMaps);
-            try {
-              addInstalledMap(mapPath);
-            } catch (MapLoadException exception) {
-              log.error("Map could not be read: `{}`", mapPath, exception);
-            }
+          AtomicLong mapsRead = new AtomicLong();
+          LocalScan localScan = clientProperties.getVault().getLocalScan();
+          Flux<List<MapVersion>> mapBatches = Flux.fromIterable(mapPaths)
+                                                  .flatMap(mapPath -> readInstalledMap(mapPath).doFinally(
+                                                               ignored -> updateProgress(mapsRead.incrementAndGet(),
+                                                                                         totalMaps)),
+                                                           localScan.getParallelism())
+                                                  .bufferTimeout(localScan.getBatchSize(),
+                                                                 localScan.getBatchTimeout());
+          // Batches are consumed on the task thread so that all maps are published once the task completes
+          for (List<MapVersion> mapBatch : mapBatches.toIterable()) {
+            addInstalledMaps(mapBatch);
           }
+          installedMapIndex.retainAll(mapPaths);
         } catch (IOException e) {
           log.error("Maps could not be read from: `{}`", forgedAlliancePrefs.getMapsDirectory(), e);
         }
+        installedMapIndex.store();
         return null;
       }
     });
   }
 
   private void removeMap(Path mapFolder) {
+    installedMapIndex.remove(mapFolder);
     fxApplicationThreadExecutor.execute(
       () -> mapsByFolderName.remove(mapFolder.getFileName().toString().toLowerCase(Locale.ROOT))
     );
   }
 
   private void addInstalledMap(Path mapFolder) throws MapLoadException {
-    MapVersion mapVersion = readMap(mapFolder);
+    MapVersion mapVersion = readIndexedMap(mapFolder);
     if (!isInstalled(mapVersion.folderName())) {
       fxApplicationThreadExecutor.execute(
           () -> mapsByFolderName.put(mapVersion.folderName().toLowerCase(Locale.ROOT), mapVersion));
@@ -269,31 +280,77 @@ public class MapService implements InitializingBean, DisposableBean {
     }
   }
 
+  /**
+   * Returns the map from the {@link InstalledMapIndex} if its scenario file did not change since it has been indexed,
+   * otherwise reads the map and updates the index.
+   */
+  private MapVersion readIndexedMap(Path mapFolder) throws MapLoadException {
+    Optional<MapVersion> indexedMapVersion = installedMapIndex.lookup(mapFolder);
+    if (indexedMapVersion.isPresent()) {
+      return indexedMapVersion.get();
+    }
+
+    Path scenarioLuaPath = findScenarioLuaPath(mapFolder);
+    MapVersion mapVersion = readMap(mapFolder, scenarioLuaPath);
+    installedMapIndex.put(mapFolder, scenarioLuaPath, mapVersion);
+    return mapVersion;
+  }
+
+  private Mono<MapVersion> readInstalledMap(Path mapFolder) {
+    return Mono.fromCallable(() -> readIndexedMap(mapFolder))
+               .subscribeOn(Schedulers.boundedElastic())
+               .onErrorResume(MapLoadException.class, exception -> {
+                 log.error("Map could not be read: `{}`", mapFolder, exception);
+                 return Mono.empty();
+               });
+  }
+
+  private void addInstalledMaps(List<MapVersion> mapVersions) {
+    fxApplicationThreadExecutor.execute(() -> {
+      java.util.Map<String, MapVersion> newMaps = new HashMap<>();
+      mapVersions.stream()
+                 .filter(mapVersion -> !isInstalled(mapVersion.folderName()))
+                 .forEach(mapVersion -> newMaps.putIfAbsent(mapVersion.folderName().toLowerCase(Locale.ROOT),
+                                                            mapVersion));
+      mapsByFolderName.putAll(newMaps);
+    });
+    log.debug("Added {} maps", mapVersions.size());
+  }
+
   @NotNull
   public MapVersion readMap(Path mapFolder) throws MapLoadException {
+    return readMap(mapFolder, findScenarioLuaPath(mapFolder));
+  }
+
+  private Path findScenarioLuaPath(Path mapFolder) throws MapLoadException {
     if (!Files.isDirectory(mapFolder)) {
       throw new MapLoadException("Not a folder: " + mapFolder.toAbsolutePath(), null, "map.load.notAFolder",
                                  mapFolder.toAbsolutePath());
     }
 
     try (Stream<Path> mapFolderFilesStream = list(mapFolder)) {
-      Path scenarioLuaPath = mapFolderFilesStream.filter(
-                                                     file -> file.getFileName().toString().endsWith("_scenario.lua"))
-                                                 .findFirst()
-                                                 .orElseThrow(() -> new MapLoadException(
-                                                     "Map folder does not contain a *_scenario.lua: " + mapFolder.toAbsolutePath(),
-                                                     null, "map.load.noScenario", mapFolder.toAbsolutePath()));
+      return mapFolderFilesStream.filter(file -> file.getFileName().toString().endsWith("_scenario.lua"))
+                                 .findFirst()
+                                 .orElseThrow(() -> new MapLoadException(
+                                     "Map folder does not contain a *_scenario.lua: " + mapFolder.toAbsolutePath(),
+                                     null, "map.load.noScenario", mapFolder.toAbsolutePath()));
+    } catch (IOException e) {
+      throw new MapLoadException("Could not load map due to IO error" + mapFolder.toAbsolutePath(), e,
+                                 "map.load.ioError", mapFolder.toAbsolutePath());
+    }
+  }
 
-      LuaValue luaRoot = loadFile(scenarioLuaPath);
-      LuaValue scenarioInfo = luaRoot.get("ScenarioInfo");
-      LuaValue size = scenarioInfo.get("size");
+  private MapVersion readMap(Path mapFolder, Path scenarioLuaPath) throws MapLoadException {
+    try {
+      LuaValue scenarioInfo = LuaUtil.loadFile(scenarioLuaPath).get("ScenarioInfo");
 
       Map map = new Map(null, scenarioInfo.get("name").toString(), 0, null, false,
                         MapType.fromValue(scenarioInfo.get("type").toString()), null);
       String folderName = mapFolder.getFileName().toString();
       String description = FaStrings.removeLocalizationTag(scenarioInfo.get("description").toString());
-      MapSize mapSize = new MapSize(size.get(1).toint(), size.get(2).toint());
-      int maxPlayers = scenarioInfo.get("Configurations").get("standard").get("teams").get(1).get("armies").length();
+      MapSize mapSize = new MapSize(LuaUtil.select(scenarioInfo, "size.1").toint(),
+                                    LuaUtil.select(scenarioInfo, "size.2").toint());
+      int maxPlayers = LuaUtil.select(scenarioInfo, "Configurations.standard.teams.1.armies").length();
 
       ComparableVersion comparableVersion = null;
       LuaValue version = scenarioInfo.get("map_version");
@@ -539,7 +596,8 @@ public class MapService implements InitializingBean, DisposableBean {
 
   @Override
   public void destroy() {
-    Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
+    Optional.ofNullable(directoryWatcher).ifPresent(watcher -> watcher.cancel(true));
+    installedMapIndex.store();
   }
 
   public String convertMapFolderNameToHumanNameIfPossible(String mapFolderName) {
@@ -714,17 +772,22 @@ public class MapService implements InitializingBean, DisposableBean {
 
   private Mono<Tuple2<List<MapVersion>, Integer>> getMapPage(
       ElideNavigatorOnCollection<com.faforever.commons.api.dto.Map> navigator, int count, int page) {
-    return getMapPage(navigator, "", count, page);
+    navigator.pageNumber(page).pageSize(count);
+    return fafApiAccessor.getManyWithPageCount(navigator, "").map(this::mapLatestVersions);
   }
 
   private Mono<Tuple2<List<MapVersion>, Integer>> getMapPage(
       ElideNavigatorOnCollection<com.faforever.commons.api.dto.Map> navigator, String customFilter, int count,
       int page) {
     navigator.pageNumber(page).pageSize(count);
-    return fafApiAccessor.getManyWithPageCount(navigator, customFilter)
-                         .map(tuple -> tuple.mapT1(maps -> maps.stream()
-                                                               .map(com.faforever.commons.api.dto.Map::getLatestVersion)
-                                                               .map(mapMapper::map)
-                                                               .toList()));
+    return fafApiAccessor.getManyWithPageCountAndPrefetch(navigator, customFilter).map(this::mapLatestVersions);
+  }
+
+  private Tuple2<List<MapVersion>, Integer> mapLatestVersions(
+      Tuple2<List<com.faforever.commons.api.dto.Map>, Integer> tuple) {
+    return tuple.mapT1(maps -> maps.stream()
+                                   .map(com.faforever.commons.api.dto.Map::getLatestVersion)
+                                   .map(mapMapper::map)
+                                   .toList());
   }
 }
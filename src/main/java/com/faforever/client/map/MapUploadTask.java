@@ -39,7 +39,7 @@ public class MapUploadTask extends CompletableTask<Void> implements Initializing
 
   @Autowired
   public MapUploadTask(FafApiAccessor fafApiAccessor, I18n i18n, DataPrefs dataPrefs) {
-    super(Priority.HIGH);
+    super(Priority.MEDIUM);
     this.fafApiAccessor = fafApiAccessor;
     this.i18n = i18n;
     this.dataPrefs = dataPrefs;
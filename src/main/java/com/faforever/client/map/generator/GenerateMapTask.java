@@ -42,7 +42,7 @@ public class GenerateMapTask extends CompletableTask<String> {
   @Autowired
   public GenerateMapTask(NotificationService notificationService, I18n i18n, OperatingSystem operatingSystem,
                          ForgedAlliancePrefs forgedAlliancePrefs) {
-    super(Priority.HIGH);
+    super(Priority.CRITICAL);
     this.forgedAlliancePrefs = forgedAlliancePrefs;
     this.notificationService = notificationService;
     this.i18n = i18n;
@@ -37,7 +37,7 @@ public class GeneratorOptionsTask extends CompletableTask<List<String>> {
 
   @Autowired
   public GeneratorOptionsTask(I18n i18n, OperatingSystem operatingSystem) {
-    super(Priority.HIGH);
+    super(Priority.CRITICAL);
 
     this.i18n = i18n;
     this.operatingSystem = operatingSystem;
@@ -92,8 +92,8 @@ public class DownloadModTask extends CompletableTask<Void> {
     deleteOldModIfExisting(tempFile, modsDirectory);
 
     log.info("Unzipping `{}` to `{}`", tempFile, modsDirectory);
+    ResourceLocks.acquireDiskLock(modsDirectory);
     try (InputStream inputStream = Files.newInputStream(tempFile)) {
-      ResourceLocks.acquireDiskLock();
 
       Unzipper.from(inputStream)
           .to(modsDirectory)
@@ -103,7 +103,7 @@ public class DownloadModTask extends CompletableTask<Void> {
           .unzip();
 
     } finally {
-      ResourceLocks.freeDiskLock();
+      ResourceLocks.freeDiskLock(modsDirectory);
     }
   }
 
@@ -2,6 +2,8 @@ package com.faforever.client.mod;
 
 import com.faforever.client.api.FafApiAccessor;
 import com.faforever.client.config.CacheNames;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.ClientProperties.Vault.LocalScan;
 import com.faforever.client.domain.api.ModVersion;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
 import com.faforever.client.fx.JavaFxUtil;
@@ -50,6 +52,7 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.function.Tuple2;
 import reactor.util.retry.Retry;
 
@@ -71,6 +74,10 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -97,6 +104,7 @@ public class ModService implements InitializingBean, DisposableBean {
   private final AssetService assetService;
   private final ThemeService themeService;
   private final FileSizeReader fileSizeReader;
+  private final ClientProperties clientProperties;
   private final ModMapper modMapper;
   private final ForgedAlliancePrefs forgedAlliancePrefs;
   private final Preferences preferences;
@@ -104,17 +112,18 @@ public class ModService implements InitializingBean, DisposableBean {
   private final ObjectFactory<DownloadModTask> downloadModTaskFactory;
   private final ObjectFactory<UninstallModTask> uninstallModTaskFactory;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
+  private final ExecutorService taskExecutor;
 
   private final ModReader modReader = new ModReader();
 
-  private final Map<Path, ModVersion> pathToMod = new HashMap<>();
+  private final Map<Path, ModVersion> pathToMod = new ConcurrentHashMap<>();
   private final ObservableMap<String, ModVersion> modsByUid = FXCollections.observableHashMap();
   @Getter
   private final ObservableList<ModVersion> installedMods = JavaFxUtil.attachListToMap(
       FXCollections.synchronizedObservableList(FXCollections.observableArrayList()), modsByUid);
   private final InvalidationListener modDirectoryChangedListener = observable -> tryLoadMods();
 
-  private Thread directoryWatcherThread;
+  private Future<?> directoryWatcher;
 
   @Override
   public void afterPropertiesSet() {
@@ -131,8 +140,8 @@ public class ModService implements InitializingBean, DisposableBean {
 
     try {
       createDirectories(modsDirectory);
-      Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
-      directoryWatcherThread = startDirectoryWatcher(modsDirectory);
+      Optional.ofNullable(directoryWatcher).ifPresent(watcher -> watcher.cancel(true));
+      directoryWatcher = startDirectoryWatcher(modsDirectory);
     } catch (IOException e) {
       log.warn("Could not start mod directory watcher", e);
     }
@@ -141,8 +150,8 @@ public class ModService implements InitializingBean, DisposableBean {
     loadInstalledMods();
   }
 
-  private Thread startDirectoryWatcher(Path modsDirectory) {
-    Thread thread = new Thread(() -> {
+  private Future<?> startDirectoryWatcher(Path modsDirectory) {
+    return taskExecutor.submit(() -> {
       try (WatchService watcher = modsDirectory.getFileSystem().newWatchService()) {
         modsDirectory.register(watcher, ENTRY_DELETE, ENTRY_CREATE);
         while (!Thread.interrupted()) {
@@ -175,8 +184,6 @@ public class ModService implements InitializingBean, DisposableBean {
         log.debug("Watcher terminated ({})", e.getMessage());
       }
     });
-    thread.start();
-    return thread;
   }
 
   private void loadInstalledMods() {
@@ -190,18 +197,18 @@ public class ModService implements InitializingBean, DisposableBean {
           customModsDirectory.collect(toCollection(() -> modPaths));
 
           long totalMods = modPaths.size();
-          long modsRead = 0;
-          for (Path modPath : modPaths) {
-            updateProgress(++modsRead, totalMods);
-            try {
-              addInstalledMod(modPath);
-            } catch (Exception e) {
-              log.warn("Corrupt mod: `{}`", modPath, e);
-
-              notificationService.addPersistentWarnNotification(
-                  List.of(new Action(i18n.get("corruptedMods.show"), () -> platformService.reveal(modPath))),
-                  "corruptedModsError.notification", modPath.getFileName());
-            }
+          AtomicLong modsRead = new AtomicLong();
+          LocalScan localScan = clientProperties.getVault().getLocalScan();
+          Flux<List<ModVersion>> modBatches = Flux.fromIterable(modPaths)
+                                                  .flatMap(modPath -> readInstalledMod(modPath).doFinally(
+                                                               ignored -> updateProgress(modsRead.incrementAndGet(),
+                                                                                         totalMods)),
+                                                           localScan.getParallelism())
+                                                  .bufferTimeout(localScan.getBatchSize(),
+                                                                 localScan.getBatchTimeout());
+          // Batches are consumed on the task thread so that all mods are published once the task completes
+          for (List<ModVersion> modBatch : modBatches.toIterable()) {
+            addInstalledMods(modBatch);
           }
         } catch (IOException e) {
           log.error("Mods could not be read from: `{}`", forgedAlliancePrefs.getModsDirectory(), e);
@@ -211,6 +218,34 @@ public class ModService implements InitializingBean, DisposableBean {
     });
   }
 
+  private Mono<ModVersion> readInstalledMod(Path modFolder) {
+    return Mono.fromCallable(() -> {
+                 ModVersion modVersion = extractModInfo(modFolder);
+                 pathToMod.put(modFolder, modVersion);
+                 return modVersion;
+               })
+               .subscribeOn(Schedulers.boundedElastic())
+               .onErrorResume(exception -> {
+                 log.warn("Corrupt mod: `{}`", modFolder, exception);
+
+                 notificationService.addPersistentWarnNotification(
+                     List.of(new Action(i18n.get("corruptedMods.show"), () -> platformService.reveal(modFolder))),
+                     "corruptedModsError.notification", modFolder.getFileName());
+                 return Mono.empty();
+               });
+  }
+
+  private void addInstalledMods(List<ModVersion> modVersions) {
+    fxApplicationThreadExecutor.execute(() -> {
+      Map<String, ModVersion> newMods = new HashMap<>();
+      modVersions.stream()
+                 .filter(modVersion -> !modsByUid.containsKey(modVersion.uid()))
+                 .forEach(modVersion -> newMods.putIfAbsent(modVersion.uid(), modVersion));
+      modsByUid.putAll(newMods);
+    });
+    log.debug("Added {} mods", modVersions.size());
+  }
+
   public Mono<Void> downloadIfNecessary(String uid) {
     if (isInstalled(uid)) {
       return Mono.empty();
@@ -383,7 +418,7 @@ public class ModService implements InitializingBean, DisposableBean {
 
   @Override
   public void destroy() {
-    Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
+    Optional.ofNullable(directoryWatcher).ifPresent(watcher -> watcher.cancel(true));
   }
 
   public Mono<List<ModVersion>> updateAndActivateModVersions(final Collection<ModVersion> selectedModVersions) {
@@ -475,15 +510,17 @@ public class ModService implements InitializingBean, DisposableBean {
 
   private Mono<Tuple2<List<ModVersion>, Integer>> getModPage(ElideNavigatorOnCollection<Mod> navigator, int count,
                                                              int page) {
-    return getModPage(navigator, "", count, page);
+    navigator.pageNumber(page).pageSize(count);
+    return fafApiAccessor.getManyWithPageCount(navigator, "").map(this::mapLatestVersions);
   }
 
   private Mono<Tuple2<List<ModVersion>, Integer>> getModPage(ElideNavigatorOnCollection<Mod> navigator,
                                                              String customFilter, int count, int page) {
     navigator.pageNumber(page).pageSize(count);
-    return fafApiAccessor.getManyWithPageCount(navigator, customFilter)
-                         .map(tuple -> tuple.mapT1(mods -> mods.stream()
-                                                               .map(Mod::getLatestVersion).map(modMapper::map)
-                                                               .toList()));
+    return fafApiAccessor.getManyWithPageCountAndPrefetch(navigator, customFilter).map(this::mapLatestVersions);
+  }
+
+  private Tuple2<List<ModVersion>, Integer> mapLatestVersions(Tuple2<List<Mod>, Integer> tuple) {
+    return tuple.mapT1(mods -> mods.stream().map(Mod::getLatestVersion).map(modMapper::map).toList());
   }
 }
@@ -37,7 +37,7 @@ public class ModUploadTask extends CompletableTask<Void> {
 
   @Autowired
   public ModUploadTask(FafApiAccessor fafApiAccessor, I18n i18n, DataPrefs dataPrefs) {
-    super(Priority.HIGH);
+    super(Priority.MEDIUM);
     this.dataPrefs = dataPrefs;
     this.fafApiAccessor = fafApiAccessor;
     this.i18n = i18n;
@@ -76,7 +76,7 @@ public class GameBinariesUpdateTaskImpl extends CompletableTask<Void> implements
                                     PlatformService platformService, OperatingSystem operatingSystem,
                                     DataPrefs dataPrefs, ForgedAlliancePrefs forgedAlliancePrefs,
                                     ClientProperties clientProperties) {
-    super(Priority.HIGH);
+    super(Priority.CRITICAL);
 
     this.forgedAllianceLaunchService = forgedAllianceLaunchService;
     this.i18n = i18n;
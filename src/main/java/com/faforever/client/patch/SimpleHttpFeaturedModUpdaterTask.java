@@ -1,5 +1,6 @@
 package com.faforever.client.patch;
 
+import com.faforever.client.config.ClientProperties;
 import com.faforever.client.domain.api.FeaturedMod;
 import com.faforever.client.featuredmod.FeaturedModService;
 import com.faforever.client.i18n.I18n;
@@ -17,6 +18,9 @@ import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.io.IOException;
 import java.net.URI;
@@ -24,9 +28,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -38,6 +46,10 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
   private final I18n i18n;
   private final FeaturedModFileCacheService featuredModFileCacheService;
   private final DataPrefs dataPrefs;
+  private final ClientProperties clientProperties;
+  private final Scheduler ioScheduler;
+  private final Map<Path, Long> bytesProcessedByFile = new ConcurrentHashMap<>();
+  private final Map<Path, Long> bytesTotalByFile = new ConcurrentHashMap<>();
 
   private String featuredModName;
   private Integer version;
@@ -48,18 +60,32 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
       DownloadService downloadService,
       I18n i18n,
       FeaturedModFileCacheService featuredModFileCacheService,
-      DataPrefs dataPrefs) {
-    super(Priority.HIGH);
+      DataPrefs dataPrefs,
+      ClientProperties clientProperties,
+      Scheduler ioScheduler) {
+    super(Priority.CRITICAL);
 
     this.featuredModService = featuredModService;
     this.downloadService = downloadService;
     this.i18n = i18n;
     this.featuredModFileCacheService = featuredModFileCacheService;
     this.dataPrefs = dataPrefs;
+    this.clientProperties = clientProperties;
+    this.ioScheduler = ioScheduler;
   }
 
   @Override
   protected PatchResult call() throws Exception {
+    // Files found in or downloaded to the cache must not be evicted before they have been copied
+    featuredModFileCacheService.acquireUpdateLock();
+    try {
+      return updateFeaturedModFiles();
+    } finally {
+      featuredModFileCacheService.freeUpdateLock();
+    }
+  }
+
+  private PatchResult updateFeaturedModFiles() throws Exception {
     FeaturedMod featuredMod = featuredModService.getFeaturedMod(featuredModName).blockOptional().orElseThrow();
 
     String initFileName = "init_" + featuredMod.technicalName() + ".lua";
@@ -79,34 +105,23 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
                                                                .blockOptional()
                                                                .orElse(List.of());
 
-    featuredModFiles
-        .forEach(featuredModFile -> {
-          Path targetPath = fafDataDirectory
-              .resolve(featuredModFile.getGroup())
-              .resolve(featuredModFile.getName());
-
-          try {
-            Files.createDirectories(targetPath.getParent());
-            if (fileAlreadyLoaded(featuredModFile, targetPath)) {
-              log.info("Featured mod file already prepared: `{}`", featuredModFile);
-            } else {
-              if (!featuredModFileCacheService.isCached(featuredModFile)) {
-                Path cachedFilePath = featuredModFileCacheService.getCachedFilePath(featuredModFile);
-                Files.createDirectories(cachedFilePath.getParent());
-                if (PreferencesService.FORGED_ALLIANCE_EXE.equals(featuredModFile.getName())) {
-                  patchOrDownloadForgedAllianceExe(featuredModFile, cachedFilePath, targetPath);
-                } else {
-                  downloadFeaturedModFile(featuredModFile, cachedFilePath);
-                }
-              }
-              featuredModFileCacheService.copyFeaturedModFileFromCache(featuredModFile, targetPath);
-            }
-          }
-          catch (IOException | NoSuchAlgorithmException | ChecksumMismatchException e) {
-            log.error("Error updating featured mod file: `{}`", featuredModFile, e);
-            throw new RuntimeException(e);
-          }
-        });
+    // Files sharing a cache entry are handled by the same worker so that they don't download it concurrently
+    Collection<List<FeaturedModFile>> featuredModFilesByCachedFile = featuredModFiles.stream()
+        .collect(Collectors.groupingBy(featuredModFile -> featuredModFile.getGroup() + "/" + featuredModFile.getMd5(),
+                                       LinkedHashMap::new, Collectors.toList()))
+        .values();
+
+    int parallelism = clientProperties.getForgedAlliance().getFeaturedModDownloadParallelism();
+    try {
+      Flux.fromIterable(featuredModFilesByCachedFile)
+          .flatMap(sameCachedFiles -> Mono.fromRunnable(() -> sameCachedFiles.forEach(
+              featuredModFile -> updateFeaturedModFile(featuredModFile, fafDataDirectory)))
+              .subscribeOn(ioScheduler), parallelism)
+          .then()
+          .block();
+    } finally {
+      featuredModFileCacheService.storeFileHashes();
+    }
 
     Path initFile = featuredModFiles.stream()
         .filter(featuredModFile -> "bin".equals(featuredModFile.getGroup()) &&
@@ -128,6 +143,34 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
     return new PatchResult(new ComparableVersion(String.valueOf(maxVersion)), initFile);
   }
 
+  private void updateFeaturedModFile(FeaturedModFile featuredModFile, Path fafDataDirectory) {
+    Path targetPath = fafDataDirectory
+        .resolve(featuredModFile.getGroup())
+        .resolve(featuredModFile.getName());
+
+    try {
+      Files.createDirectories(targetPath.getParent());
+      if (fileAlreadyLoaded(featuredModFile, targetPath)) {
+        log.info("Featured mod file already prepared: `{}`", featuredModFile);
+      } else {
+        if (!featuredModFileCacheService.isCached(featuredModFile)) {
+          Path cachedFilePath = featuredModFileCacheService.getCachedFilePath(featuredModFile);
+          Files.createDirectories(cachedFilePath.getParent());
+          if (PreferencesService.FORGED_ALLIANCE_EXE.equals(featuredModFile.getName())) {
+            patchOrDownloadForgedAllianceExe(featuredModFile, cachedFilePath, targetPath);
+          } else {
+            downloadFeaturedModFile(featuredModFile, cachedFilePath);
+          }
+        }
+        featuredModFileCacheService.copyFeaturedModFileFromCache(featuredModFile, targetPath);
+      }
+    }
+    catch (IOException | NoSuchAlgorithmException | ChecksumMismatchException e) {
+      log.error("Error updating featured mod file: `{}`", featuredModFile, e);
+      throw new RuntimeException(e);
+    }
+  }
+
   private void patchOrDownloadForgedAllianceExe(FeaturedModFile featuredModFile, Path cachedFilePath, Path targetPath) throws IOException, ChecksumMismatchException, NoSuchAlgorithmException {
     if (Files.exists(targetPath)) {
       Files.createDirectories(cachedFilePath.getParent());
@@ -165,6 +208,19 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
     Map<String, String> requestParameters = Map.of(featuredModFile.getHmacParameter(), featuredModFile.getHmacToken());
 
     downloadService.downloadFile(URI.create(featuredModFile.getCacheableUrl()).toURL(), requestParameters, targetPath,
-                                 this::updateProgress, md5sum);
+                                 (processed, total) -> updateDownloadProgress(targetPath, processed, total), md5sum);
+  }
+
+  /**
+   * Reports the progress of all downloads together, as several files are downloaded at the same time.
+   */
+  private void updateDownloadProgress(Path file, long processed, long total) {
+    bytesProcessedByFile.put(file, processed);
+    bytesTotalByFile.put(file, Math.max(processed, total));
+    updateProgress(sum(bytesProcessedByFile), sum(bytesTotalByFile));
+  }
+
+  private static long sum(Map<Path, Long> bytesByFile) {
+    return bytesByFile.values().stream().mapToLong(Long::longValue).sum();
   }
 }
@@ -1,6 +1,8 @@
 package com.faforever.client.player;
 
 import com.faforever.client.api.FafApiAccessor;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.ClientProperties.Server;
 import com.faforever.client.domain.api.NameRecord;
 import com.faforever.client.domain.server.GameInfo;
 import com.faforever.client.domain.server.PlayerInfo;
@@ -23,12 +25,12 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.function.TupleUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -56,17 +58,18 @@ public class PlayerService implements InitializingBean {
   private final LoginService loginService;
   private final PlayerMapper playerMapper;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
+  private final ClientProperties clientProperties;
 
   @Override
   public void afterPropertiesSet() {
+    Server server = clientProperties.getServer();
     fafServerAccessor.getEvents(com.faforever.commons.lobby.PlayerInfo.class)
-                     .map(com.faforever.commons.lobby.PlayerInfo::getPlayers)
-                     .flatMap(Flux::fromIterable)
-                     .flatMap(player -> Mono.zip(Mono.just(player), Mono.justOrEmpty(playersById.get(player.getId()))
-                                                                        .switchIfEmpty(initializePlayer(player))))
+                     .bufferTimeout(server.getEventBatchSize(), server.getEventBatchTimeout())
+                     .map(this::preparePlayerUpdates)
                      .publishOn(fxApplicationThreadExecutor.asScheduler())
-                     .map(TupleUtils.function(playerMapper::update))
-                     .doOnError(throwable -> log.error("Error processing player", throwable))
+                     .doOnNext(playerUpdates -> playerUpdates.forEach(
+                         (knownPlayer, player) -> playerMapper.update(player, knownPlayer)))
+                     .doOnError(throwable -> log.error("Error processing players", throwable))
                      .retry()
                      .subscribe();
 
@@ -122,24 +125,49 @@ public class PlayerService implements InitializingBean {
     });
   }
 
-  private Mono<PlayerInfo> initializePlayer(com.faforever.commons.lobby.Player player) {
-    return Mono.fromCallable(() -> {
-                 PlayerInfo newPlayer = new PlayerInfo();
-                 newPlayer.setId(player.getId());
-                 newPlayer.setUsername(player.getLogin());
-                 Subscription removeSubscription = newPlayer.serverStatusProperty().subscribe(serverStatus -> {
-                   if (serverStatus == ServerStatus.OFFLINE) {
-                     removePlayer(newPlayer);
-                   }
-                 });
-                 playerSubscriptions.computeIfAbsent(newPlayer, ignored -> ConcurrentHashMap.newKeySet()).add(removeSubscription);
-                 return newPlayer;
-               })
-               .doOnNext(playerBean -> {
-                 playersById.put(playerBean.getId(), playerBean);
-                 playersByName.put(playerBean.getUsername(), playerBean);
-               })
-               .doOnNext(playerBean -> playerOnlineListeners.forEach(listener -> listener.accept(playerBean)));
+  /**
+   * Registers the players of the given lobby messages that were not online yet and returns the known players together
+   * with the latest message about them, which still need to be updated on the application thread.
+   */
+  private Map<PlayerInfo, com.faforever.commons.lobby.Player> preparePlayerUpdates(
+      List<com.faforever.commons.lobby.PlayerInfo> playerInfoMessages) {
+    Map<Integer, com.faforever.commons.lobby.Player> latestPlayers = new LinkedHashMap<>();
+    playerInfoMessages.stream()
+                      .map(com.faforever.commons.lobby.PlayerInfo::getPlayers)
+                      .flatMap(List::stream)
+                      .forEach(player -> latestPlayers.put(player.getId(), player));
+
+    Map<PlayerInfo, com.faforever.commons.lobby.Player> playerUpdates = new LinkedHashMap<>();
+    latestPlayers.forEach((id, player) -> {
+      PlayerInfo knownPlayer = playersById.get(id);
+      if (knownPlayer != null) {
+        playerUpdates.put(knownPlayer, player);
+      } else {
+        initializePlayer(player);
+      }
+    });
+    return playerUpdates;
+  }
+
+  private void initializePlayer(com.faforever.commons.lobby.Player player) {
+    PlayerInfo newPlayer = new PlayerInfo();
+    newPlayer.setId(player.getId());
+    newPlayer.setUsername(player.getLogin());
+    // Nobody can see the player yet, so it does not need to be populated on the application thread
+    playerMapper.update(player, newPlayer);
+    if (newPlayer.getServerStatus() == ServerStatus.OFFLINE) {
+      return;
+    }
+
+    Subscription removeSubscription = newPlayer.serverStatusProperty().subscribe(serverStatus -> {
+      if (serverStatus == ServerStatus.OFFLINE) {
+        removePlayer(newPlayer);
+      }
+    });
+    playerSubscriptions.computeIfAbsent(newPlayer, ignored -> ConcurrentHashMap.newKeySet()).add(removeSubscription);
+    playersById.put(newPlayer.getId(), newPlayer);
+    playersByName.put(newPlayer.getUsername(), newPlayer);
+    playerOnlineListeners.forEach(listener -> listener.accept(newPlayer));
   }
 
   public Set<String> getPlayerNames() {
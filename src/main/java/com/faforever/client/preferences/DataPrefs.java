@@ -13,6 +13,7 @@ public class DataPrefs {
   private static final String CORRUPTED_REPLAYS_SUB_FOLDER = "corrupt";
   private static final String CACHE_SUB_FOLDER = "cache";
   private static final String FEATURED_MOD_CACHE_SUB_FOLDER = "featured_mod";
+  private static final String EXTRACTED_REPLAYS_SUB_FOLDER = "extracted_replays";
   private static final String CACHE_STYLESHEETS_SUB_FOLDER = Path.of(CACHE_SUB_FOLDER, "stylesheets").toString();
   private static final String THEMES_SUB_FOLDER = "themes";
   private static final String LANGUAGES_SUB_FOLDER = "languages";
@@ -68,6 +69,10 @@ public class DataPrefs {
     return getCacheDirectory().resolve(FEATURED_MOD_CACHE_SUB_FOLDER);
   }
 
+  public Path getExtractedReplaysDirectory() {
+    return getCacheDirectory().resolve(EXTRACTED_REPLAYS_SUB_FOLDER);
+  }
+
   public Path getLanguagesDirectory() {
     return getBaseDataDirectory().resolve(LANGUAGES_SUB_FOLDER);
   }
@@ -85,7 +85,9 @@ public class Preferences {
   private final BooleanProperty showGameDetailsSidePane = new SimpleBooleanProperty(false);
   private final BooleanProperty advancedIceLogEnabled = new SimpleBooleanProperty(false);
   private final IntegerProperty cacheLifeTimeInDays = new SimpleIntegerProperty(30);
+  private final IntegerProperty cacheMaxSizeInGigabytes = new SimpleIntegerProperty(10);
   private final BooleanProperty gameDataCacheActivated = new SimpleBooleanProperty(false);
+  private final BooleanProperty verifyGameFiles = new SimpleBooleanProperty(false);
 
 
   public TilesSortingOrder getGameTileSortingOrder() {
@@ -229,6 +231,18 @@ public class Preferences {
     return cacheLifeTimeInDays;
   }
 
+  public int getCacheMaxSizeInGigabytes() {
+    return cacheMaxSizeInGigabytes.get();
+  }
+
+  public void setCacheMaxSizeInGigabytes(int cacheMaxSizeInGigabytes) {
+    this.cacheMaxSizeInGigabytes.set(cacheMaxSizeInGigabytes);
+  }
+
+  public IntegerProperty cacheMaxSizeInGigabytesProperty() {
+    return cacheMaxSizeInGigabytes;
+  }
+
   public boolean isGameDataCacheActivated() {
     return gameDataCacheActivated.get();
   }
@@ -241,6 +255,18 @@ public class Preferences {
     return gameDataCacheActivated;
   }
 
+  public boolean isVerifyGameFiles() {
+    return verifyGameFiles.get();
+  }
+
+  public void setVerifyGameFiles(boolean verifyGameFiles) {
+    this.verifyGameFiles.set(verifyGameFiles);
+  }
+
+  public BooleanProperty verifyGameFilesProperty() {
+    return verifyGameFiles;
+  }
+
   public boolean isMapAndModAutoUpdate() {
     return mapAndModAutoUpdate.get();
   }
@@ -14,12 +14,16 @@ import lombok.Getter;
 public class VaultPrefs {
   private final ObjectProperty<SortConfig> onlineReplaySortConfig = new SimpleObjectProperty<>(
       new SortConfig("startTime", SortOrder.DESC));
+  private final ObjectProperty<SortConfig> localReplaySortConfig = new SimpleObjectProperty<>(
+      new SortConfig("startTime", SortOrder.DESC));
   private final ObjectProperty<SortConfig> mapSortConfig = new SimpleObjectProperty<>(
       new SortConfig("gamesPlayed", SortOrder.DESC));
   private final ObjectProperty<SortConfig> modVaultConfig = new SimpleObjectProperty<>(
       new SortConfig("latestVersion.createTime", SortOrder.DESC));
   private final MapProperty<String, String> savedReplayQueries = new SimpleMapProperty<>(
       FXCollections.observableHashMap());
+  private final MapProperty<String, String> savedLocalReplayQueries = new SimpleMapProperty<>(
+      FXCollections.observableHashMap());
   private final MapProperty<String, String> savedMapQueries = new SimpleMapProperty<>(
       FXCollections.observableHashMap());
   private final MapProperty<String, String> savedModQueries = new SimpleMapProperty<>(
@@ -49,6 +53,18 @@ public class VaultPrefs {
     return onlineReplaySortConfig;
   }
 
+  public SortConfig getLocalReplaySortConfig() {
+    return localReplaySortConfig.get();
+  }
+
+  public void setLocalReplaySortConfig(SortConfig localReplaySortConfig) {
+    this.localReplaySortConfig.set(localReplaySortConfig);
+  }
+
+  public ObjectProperty<SortConfig> localReplaySortConfigProperty() {
+    return localReplaySortConfig;
+  }
+
   public SortConfig getMapSortConfig() {
     return mapSortConfig.get();
   }
@@ -85,6 +101,18 @@ public class VaultPrefs {
     return savedReplayQueries;
   }
 
+  public ObservableMap<String, String> getSavedLocalReplayQueries() {
+    return savedLocalReplayQueries.get();
+  }
+
+  public void setSavedLocalReplayQueries(ObservableMap<String, String> savedLocalReplayQueries) {
+    this.savedLocalReplayQueries.set(savedLocalReplayQueries);
+  }
+
+  public MapProperty<String, String> savedLocalReplayQueriesProperty() {
+    return savedLocalReplayQueries;
+  }
+
   public ObservableMap<String, String> getSavedMapQueries() {
     return savedMapQueries.get();
   }
@@ -172,6 +172,8 @@ public class SettingsController extends NodeController<Node> {
   public Button clearCacheButton;
   public CheckBox gameDataCacheCheckBox;
   public Spinner<Integer> gameDataCacheTimeSpinner;
+  public Spinner<Integer> gameDataCacheSizeSpinner;
+  public CheckBox verifyGameFilesCheckBox;
   public ComboBox<Level> logLevelComboBox;
   public CheckBox mapAndModAutoUpdateCheckBox;
   public ListView<IceServer> preferredCoturnListView;
@@ -423,6 +425,11 @@ public class SettingsController extends NodeController<Node> {
     gameDataCacheTimeSpinner.getValueFactory().valueProperty()
         .addListener((observable, oldValue, newValue) -> preferences
             .setCacheLifeTimeInDays(newValue));
+    gameDataCacheSizeSpinner.getValueFactory().setValue(preferences.getCacheMaxSizeInGigabytes());
+    gameDataCacheSizeSpinner.getValueFactory().valueProperty()
+        .addListener((observable, oldValue, newValue) -> preferences
+            .setCacheMaxSizeInGigabytes(newValue));
+    verifyGameFilesCheckBox.selectedProperty().bindBidirectional(preferences.verifyGameFilesProperty());
   }
 
   private void initNotifyMeOnAtMention() {
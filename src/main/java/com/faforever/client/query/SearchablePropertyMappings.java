@@ -41,6 +41,20 @@ public class SearchablePropertyMappings {
 
       .build();
 
+  /**
+   * The subset of {@link #GAME_PROPERTY_MAPPING} that is indexed for local replays.
+   */
+  public static final Map<String, Property> LOCAL_REPLAY_PROPERTY_MAPPING = ImmutableMap.<String, Property>builder()
+      .put("playerStats.player.login", new Property("game.player.username", false))
+      .put("featuredMod.technicalName", new Property("featuredMod.technicalName", false))
+      .put("mapVersion.folderName", new Property("game.map.folderName", false))
+      .put("id", new Property("game.id", true))
+      .put("name", new Property("game.title", true))
+      .put("startTime", new Property("game.startTime", true))
+      .put("endTime", new Property("game.endTime", true))
+
+      .build();
+
   public static final Map<String, Property> MAP_PROPERTY_MAPPING = ImmutableMap.<String, Property>builder()
       .put("displayName", new Property("map.name", true))
       .put("author.login", new Property("map.author", true))
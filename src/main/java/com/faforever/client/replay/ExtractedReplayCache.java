@@ -0,0 +1,152 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.io.FileHashIndex;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.task.ResourceLocks;
+import com.google.common.hash.Hashing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.google.common.io.Files.asByteSource;
+
+/**
+ * Keeps the replay data of recently watched replay files extracted, since the game only plays uncompressed replays.
+ * Extracted files are named after the MD5 hash of the replay file they were extracted from, so watching a replay
+ * again starts it right away, even if the replay file has been moved or downloaded again in the meantime.
+ */
+@Slf4j
+@Lazy
+@Component
+@RequiredArgsConstructor
+public class ExtractedReplayCache {
+
+  private static final long TRANSFER_SIZE = 1024 * 1024;
+
+  private final DataPrefs dataPrefs;
+  private final ClientProperties clientProperties;
+  private final ReplayFileReader replayFileReader;
+  private final FileHashIndex fileHashIndex;
+
+  /**
+   * Returns the extracted replay data of the specified replay file. The replay data is decoded straight into the
+   * extracted file if it isn't cached yet, without holding all of it in memory.
+   */
+  public Path extract(Path replayFile) throws IOException, CompressorException {
+    Path extractedFile = dataPrefs.getExtractedReplaysDirectory()
+                                  .resolve(hash(replayFile) + ReplayService.SUP_COM_REPLAY_FILE_ENDING);
+
+    ResourceLocks.acquireDiskLock(extractedFile);
+    try {
+      if (Files.exists(extractedFile)) {
+        log.debug("Using replay data of `{}` extracted to `{}`", replayFile, extractedFile);
+        // Marks the file as recently used, see evictOldFiles
+        Files.setLastModifiedTime(extractedFile, FileTime.from(Instant.now()));
+      } else {
+        writeReplayData(replayFile, extractedFile);
+      }
+    } finally {
+      ResourceLocks.freeDiskLock(extractedFile);
+    }
+
+    evictOldFiles(extractedFile);
+    return extractedFile;
+  }
+
+  private String hash(Path replayFile) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(replayFile, BasicFileAttributes.class);
+    Optional<String> indexedHash = fileHashIndex.lookup(replayFile, attributes);
+    if (indexedHash.isPresent()) {
+      return indexedHash.get();
+    }
+
+    String hash = asByteSource(replayFile.toFile()).hash(Hashing.md5()).toString();
+    fileHashIndex.put(replayFile, attributes, hash);
+    return hash;
+  }
+
+  private void writeReplayData(Path replayFile, Path extractedFile) throws IOException, CompressorException {
+    log.debug("Extracting replay data of `{}` to `{}`", replayFile, extractedFile);
+    Files.createDirectories(extractedFile.getParent());
+    Path tempFile = Files.createTempFile(extractedFile.getParent(), extractedFile.getFileName().toString(), null);
+
+    try (ReadableByteChannel replayData = Channels.newChannel(replayFileReader.openReplayData(replayFile));
+         FileChannel fileChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+      long position = 0;
+      long transferred;
+      while ((transferred = fileChannel.transferFrom(replayData, position, TRANSFER_SIZE)) > 0) {
+        position += transferred;
+      }
+    } catch (IOException | CompressorException | RuntimeException e) {
+      Files.deleteIfExists(tempFile);
+      throw e;
+    }
+
+    Files.move(tempFile, extractedFile, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Deletes the least recently used extracted files beyond the configured number of files to keep. Files that have been
+   * used since they were listed are kept, since they are no longer among the least recently used ones.
+   */
+  private void evictOldFiles(Path keptFile) {
+    int filesToKeep = clientProperties.getReplay().getExtractedReplayCacheSize();
+    List<CachedFile> evictedFiles;
+    try (Stream<Path> files = Files.list(keptFile.getParent())) {
+      evictedFiles = files.filter(file -> !file.equals(keptFile))
+                          .filter(file -> file.getFileName().toString().endsWith(
+                              ReplayService.SUP_COM_REPLAY_FILE_ENDING))
+                          .map(file -> new CachedFile(file, getLastModifiedTime(file)))
+                          .sorted(Comparator.comparing(CachedFile::lastModifiedTime).reversed())
+                          .skip(Math.max(0, filesToKeep - 1))
+                          .toList();
+    } catch (IOException e) {
+      log.warn("Could not list extracted replays in `{}`", keptFile.getParent(), e);
+      return;
+    }
+
+    for (CachedFile evictedFile : evictedFiles) {
+      Path file = evictedFile.file();
+      ResourceLocks.acquireDiskLock(file);
+      try {
+        if (getLastModifiedTime(file).equals(evictedFile.lastModifiedTime())) {
+          Files.deleteIfExists(file);
+        }
+      } catch (IOException e) {
+        // The game may still be playing it
+        log.debug("Could not delete extracted replay `{}`", file, e);
+      } finally {
+        ResourceLocks.freeDiskLock(file);
+      }
+    }
+  }
+
+  private static FileTime getLastModifiedTime(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      return FileTime.from(Instant.EPOCH);
+    }
+  }
+
+  private record CachedFile(Path file, FileTime lastModifiedTime) {}
+}
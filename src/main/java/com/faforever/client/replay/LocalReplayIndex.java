@@ -0,0 +1,407 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.replay.LocalReplayQuery.Field;
+import com.faforever.commons.replay.ReplayMetadata;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Persistent index of the metadata of the local replays, so that pages of replays can be listed, filtered and sorted
+ * without reading the replay files. Only the JSON header of a replay is read, and only when the file is new or its
+ * size or modification time changed. The words of the chat messages are read in the background afterwards, since that
+ * requires decoding the whole replay. Queries are answered by a {@link LocalReplaySearchIndex} kept in memory.
+ * <p>
+ * After the first full scan, a watcher on the replays directory collects the files that changed and only those are
+ * looked at again, which includes the replays written by the {@link ReplayServer}. If the watcher is not running,
+ * every update checks the attributes of all files instead.
+ */
+@Slf4j
+@Lazy
+@Component
+public class LocalReplayIndex implements DisposableBean {
+
+  private static final String INDEX_FILE_NAME = "local_replays.json";
+  /**
+   * Increase whenever the layout of {@link Entry} changes so that old indexes are discarded.
+   */
+  private static final int INDEX_VERSION = 2;
+  private static final int CHAT_INDEX_BATCH_SIZE = 100;
+
+  private final DataPrefs dataPrefs;
+  private final ClientProperties clientProperties;
+  private final ReplayFileReader replayFileReader;
+  private final ExecutorService taskExecutor;
+  private final ObjectMapper objectMapper;
+
+  private final Map<String, Entry> entriesByFileName = new HashMap<>();
+  private final LocalReplaySearchIndex searchIndex = new LocalReplaySearchIndex();
+  private final Set<String> changedFileNames = ConcurrentHashMap.newKeySet();
+  private Path indexedDirectory;
+  private boolean loaded;
+  private boolean dirty;
+  private volatile boolean rescanNeeded = true;
+  private volatile boolean watching;
+  private Future<?> directoryWatcher;
+  private Future<?> chatIndexer;
+
+  public LocalReplayIndex(DataPrefs dataPrefs, ClientProperties clientProperties, ReplayFileReader replayFileReader,
+                          ExecutorService taskExecutor, ObjectMapper objectMapper) {
+    this.dataPrefs = dataPrefs;
+    this.clientProperties = clientProperties;
+    this.replayFileReader = replayFileReader;
+    this.taskExecutor = taskExecutor;
+    this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  /**
+   * Brings the index up to date with the replays directory.
+   *
+   * @return replay files whose metadata could not be read and which are therefore not indexed
+   */
+  public synchronized List<Path> update() throws IOException {
+    ensureLoaded();
+
+    Path replaysDirectory = dataPrefs.getReplaysDirectory();
+    Files.createDirectories(replaysDirectory);
+    if (!replaysDirectory.equals(indexedDirectory)) {
+      log.debug("Indexing local replays in `{}`", replaysDirectory);
+      entriesByFileName.clear();
+      searchIndex.clear();
+      indexedDirectory = replaysDirectory;
+      dirty = true;
+      rescanNeeded = true;
+      Optional.ofNullable(directoryWatcher).ifPresent(watcher -> watcher.cancel(true));
+      directoryWatcher = null;
+    }
+    if (directoryWatcher == null || directoryWatcher.isDone()) {
+      directoryWatcher = startDirectoryWatcher(replaysDirectory);
+    }
+
+    Set<String> fileNamesToCheck = new HashSet<>();
+    if (rescanNeeded || !watching) {
+      rescanNeeded = false;
+      changedFileNames.clear();
+      fileNamesToCheck.addAll(entriesByFileName.keySet());
+      try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(replaysDirectory,
+                                                                            clientProperties.getReplay()
+                                                                                            .getReplayFileGlob())) {
+        directoryStream.forEach(file -> fileNamesToCheck.add(file.getFileName().toString()));
+      }
+    } else {
+      fileNamesToCheck.addAll(changedFileNames);
+      changedFileNames.removeAll(fileNamesToCheck);
+    }
+
+    PathMatcher replayFileMatcher = replaysDirectory.getFileSystem()
+                                                    .getPathMatcher(
+                                                        "glob:" + clientProperties.getReplay().getReplayFileGlob());
+    List<Path> unreadableFiles = new ArrayList<>();
+    for (String fileName : fileNamesToCheck) {
+      Path replayFile = replaysDirectory.resolve(fileName);
+      if (!replayFileMatcher.matches(replayFile.getFileName()) || Files.notExists(replayFile)) {
+        removeEntry(fileName);
+        continue;
+      }
+
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(replayFile, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        Entry entry = entriesByFileName.get(fileName);
+        if (entry != null && entry.size() == attributes.size() && entry.lastModified() == lastModified) {
+          continue;
+        }
+
+        ReplayMetadata metadata = replayFileReader.readMetadata(replayFile);
+        putEntry(fileName, Entry.of(metadata, attributes.size(), lastModified));
+      } catch (Exception e) {
+        log.warn("Could not read metadata of replay file `{}`", replayFile, e);
+        removeEntry(fileName);
+        unreadableFiles.add(replayFile);
+      }
+    }
+
+    if ((chatIndexer == null || chatIndexer.isDone())
+        && entriesByFileName.values().stream().anyMatch(entry -> entry.chatTerms() == null)) {
+      chatIndexer = taskExecutor.submit(this::indexChatMessages);
+    }
+
+    store();
+    return unreadableFiles;
+  }
+
+  /**
+   * Returns a page of the indexed replays matching the specified query. Call {@link #update()} first to include the
+   * latest changes of the replays directory.
+   */
+  public synchronized Page query(LocalReplayQuery query, int offset, int limit) {
+    ensureLoaded();
+    BitSet matches = searchIndex.search(query.criterion());
+    Comparator<Integer> order = Comparator.<Integer, Entry>comparing(searchIndex::getEntry, query.sort().comparator())
+                                          .thenComparing(searchIndex::getFileName);
+    List<IndexedReplay> replays = matches.stream()
+                                         .boxed()
+                                         .sorted(order)
+                                         .skip(offset)
+                                         .limit(limit)
+                                         .map(docId -> new IndexedReplay(
+                                             indexedDirectory.resolve(searchIndex.getFileName(docId)),
+                                             searchIndex.getEntry(docId)))
+                                         .toList();
+    return new Page(replays, matches.cardinality());
+  }
+
+  /**
+   * Counts the indexed replays matching the specified query per value of a player, map or featured mod field.
+   *
+   * @return the number of replays by value, most frequent values first
+   */
+  public synchronized Map<String, Integer> countValues(Field field, LocalReplayQuery query) {
+    ensureLoaded();
+    return searchIndex.countValues(field, searchIndex.search(query.criterion()));
+  }
+
+  /**
+   * Writes the index to disk if it was modified since it has been loaded or last stored.
+   */
+  public synchronized void store() {
+    if (!dirty) {
+      return;
+    }
+
+    Path indexFile = getIndexFile();
+    try {
+      Files.createDirectories(indexFile.getParent());
+      Path tempFile = Files.createTempFile(indexFile.getParent(), INDEX_FILE_NAME, null);
+      try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        objectMapper.writeValue(writer, new IndexFile(INDEX_VERSION, indexedDirectory.toString(),
+                                                      Map.copyOf(entriesByFileName)));
+      }
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+      dirty = false;
+      log.debug("Stored index of {} local replays to `{}`", entriesByFileName.size(), indexFile);
+    } catch (IOException e) {
+      log.warn("Could not store local replay index to `{}`", indexFile, e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    Optional.ofNullable(directoryWatcher).ifPresent(watcher -> watcher.cancel(true));
+    Optional.ofNullable(chatIndexer).ifPresent(indexer -> indexer.cancel(true));
+    store();
+  }
+
+  private Future<?> startDirectoryWatcher(Path replaysDirectory) {
+    return taskExecutor.submit(() -> {
+      try (WatchService watcher = replaysDirectory.getFileSystem().newWatchService()) {
+        replaysDirectory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        // Changes made before the watcher was registered are only found by a full scan
+        rescanNeeded = true;
+        watching = true;
+        while (!Thread.interrupted()) {
+          WatchKey key = watcher.take();
+          key.pollEvents().forEach(event -> {
+            if (event.kind() == OVERFLOW) {
+              rescanNeeded = true;
+            } else {
+              changedFileNames.add(((Path) event.context()).getFileName().toString());
+            }
+          });
+          if (!key.reset()) {
+            log.info("Replays directory `{}` is no longer watched", replaysDirectory);
+            return;
+          }
+        }
+      } catch (IOException e) {
+        log.warn("Could not start replays directory watcher for `{}`", replaysDirectory, e);
+      } catch (InterruptedException e) {
+        log.info("Watcher terminated ({})", e.getMessage());
+      } finally {
+        watching = false;
+      }
+    });
+  }
+
+  /**
+   * Reads the chat messages of the replays in batches, so that the lock is only held to pick the next replays and to
+   * put their words into the index.
+   */
+  private void indexChatMessages() {
+    List<IndexedReplay> replays;
+    while (!Thread.currentThread().isInterrupted() && !(replays = getReplaysWithoutChatTerms()).isEmpty()) {
+      List<Set<String>> chatTerms = replays.stream().map(replay -> readChatTerms(replay.replayFile())).toList();
+      putChatTerms(replays, chatTerms);
+    }
+    store();
+  }
+
+  private synchronized List<IndexedReplay> getReplaysWithoutChatTerms() {
+    return entriesByFileName.entrySet()
+                            .stream()
+                            .filter(entry -> entry.getValue().chatTerms() == null)
+                            .limit(CHAT_INDEX_BATCH_SIZE)
+                            .map(entry -> new IndexedReplay(indexedDirectory.resolve(entry.getKey()), entry.getValue()))
+                            .toList();
+  }
+
+  private synchronized void putChatTerms(List<IndexedReplay> replays, List<Set<String>> chatTerms) {
+    for (int i = 0; i < replays.size(); i++) {
+      IndexedReplay replay = replays.get(i);
+      String fileName = replay.replayFile().getFileName().toString();
+      // The replay file may have changed while its chat messages were read
+      if (entriesByFileName.get(fileName) == replay.entry()) {
+        putEntry(fileName, replay.entry().withChatTerms(chatTerms.get(i)));
+      }
+    }
+  }
+
+  private Set<String> readChatTerms(Path replayFile) {
+    try (ReplayDataReader replayDataReader = replayFileReader.openReplayDataReader(replayFile)) {
+      Set<String> chatTerms = new HashSet<>();
+      replayDataReader.readChatMessages()
+                      .forEach(chatMessage -> chatTerms.addAll(LocalReplaySearchIndex.tokenize(chatMessage.message())));
+      return chatTerms;
+    } catch (Exception e) {
+      log.debug("Could not read chat messages of replay file `{}`", replayFile, e);
+      return Set.of();
+    }
+  }
+
+  private void putEntry(String fileName, Entry entry) {
+    entriesByFileName.put(fileName, entry);
+    searchIndex.put(fileName, entry);
+    dirty = true;
+  }
+
+  private void removeEntry(String fileName) {
+    if (entriesByFileName.remove(fileName) != null) {
+      searchIndex.remove(fileName);
+      dirty = true;
+    }
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+
+    Path indexFile = getIndexFile();
+    if (Files.notExists(indexFile)) {
+      return;
+    }
+
+    try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+      IndexFile index = objectMapper.readValue(reader, IndexFile.class);
+      if (index.version() == INDEX_VERSION && index.directory() != null && index.entries() != null) {
+        indexedDirectory = Path.of(index.directory());
+        entriesByFileName.putAll(index.entries());
+        entriesByFileName.forEach(searchIndex::put);
+      }
+      log.debug("Loaded index of {} local replays from `{}`", entriesByFileName.size(), indexFile);
+    } catch (IOException e) {
+      log.warn("Local replay index `{}` could not be read", indexFile, e);
+    }
+  }
+
+  @VisibleForTesting
+  Path getIndexFile() {
+    return dataPrefs.getCacheDirectory().resolve(INDEX_FILE_NAME);
+  }
+
+  @VisibleForTesting
+  boolean isWatching() {
+    return watching;
+  }
+
+  record IndexFile(int version, String directory, Map<String, Entry> entries) {}
+
+  /**
+   * The indexed metadata of a replay file.
+   *
+   * @param size size of the replay file when it was indexed
+   * @param lastModified epoch millis of the last modification of the replay file when it was indexed
+   * @param teams player names by team
+   * @param startTime epoch millis of the game start
+   * @param endTime epoch millis of the game end, or 0 if unknown
+   * @param chatTerms lower case words of the chat messages, or {@code null} if they haven't been read yet
+   */
+  public record Entry(
+      long size,
+      long lastModified,
+      Integer uid,
+      String title,
+      String mapName,
+      String featuredMod,
+      Map<String, List<String>> teams,
+      long startTime,
+      long endTime,
+      @Nullable Set<String> chatTerms
+  ) {
+
+    public Entry {
+      teams = teams == null ? Map.of() : Map.copyOf(teams);
+      chatTerms = chatTerms == null ? null : Set.copyOf(chatTerms);
+    }
+
+    public long endOrStartTime() {
+      return endTime > 0 ? endTime : startTime;
+    }
+
+    Entry withChatTerms(Set<String> chatTerms) {
+      return new Entry(size, lastModified, uid, title, mapName, featuredMod, teams, startTime, endTime, chatTerms);
+    }
+
+    static Entry of(ReplayMetadata metadata, long size, long lastModified) {
+      double startTime = metadata.getGameTime() > 0 ? metadata.getGameTime() : metadata.getLaunchedAt();
+      return new Entry(size, lastModified, metadata.getUid(), metadata.getTitle(), metadata.getMapname(),
+                       metadata.getFeaturedMod(), metadata.getTeams(), (long) (startTime * 1000),
+                       (long) (metadata.getGameEnd() * 1000), null);
+    }
+  }
+
+  public record IndexedReplay(Path replayFile, Entry entry) {}
+
+  /**
+   * @param totalCount number of indexed replays matching the query, including those not on this page
+   */
+  public record Page(List<IndexedReplay> replays, int totalCount) {}
+}
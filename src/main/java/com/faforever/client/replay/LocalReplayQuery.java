@@ -0,0 +1,163 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.replay.LocalReplayIndex.Entry;
+import com.faforever.client.vault.search.SearchController.SearchConfig;
+import com.faforever.client.vault.search.SearchController.SortConfig;
+import com.faforever.client.vault.search.SearchController.SortOrder;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Filter and sort order of a page of local replays.
+ */
+public record LocalReplayQuery(Criterion criterion, Sort sort) {
+
+  public static final LocalReplayQuery ALL = new LocalReplayQuery(new And(List.of()), Sort.NEWEST_FILE_FIRST);
+
+  /**
+   * Creates the query for a search of the local replay vault. The search query is parsed from the RSQL that the
+   * {@link com.faforever.client.vault.search.SearchController} builds for the online replay vault, so the same filters
+   * and saved queries can be used as long as they only refer to properties of {@link Field}.
+   *
+   * @param searchConfig the search, or {@code null} to list all replays
+   * @throws IllegalArgumentException if the search query is invalid or refers to a property that isn't indexed
+   */
+  public static LocalReplayQuery of(@Nullable SearchConfig searchConfig) {
+    if (searchConfig == null) {
+      return ALL;
+    }
+    return new LocalReplayQuery(LocalReplayQueryParser.parse(searchConfig.searchQuery()),
+                                Sort.of(searchConfig.sortConfig()));
+  }
+
+  public LocalReplayQuery withSort(Sort sort) {
+    return new LocalReplayQuery(criterion, sort);
+  }
+
+  public sealed interface Criterion permits And, Or, Comparison {}
+
+  /**
+   * Matches the replays matching all criteria, or every replay if there are none.
+   */
+  public record And(List<Criterion> criteria) implements Criterion {
+
+    public And {
+      criteria = List.copyOf(criteria);
+    }
+  }
+
+  /**
+   * Matches the replays matching any of the criteria.
+   */
+  public record Or(List<Criterion> criteria) implements Criterion {
+
+    public Or {
+      criteria = List.copyOf(criteria);
+    }
+  }
+
+  /**
+   * Compares a property of the replays to the specified values. Keywords are compared case-insensitively to the whole
+   * value, text is compared word by word, and {@code *} matches any part of a keyword or word.
+   *
+   * @param values a single value, or any number of values for {@link Operator#IN} and {@link Operator#OUT}
+   */
+  public record Comparison(Field field, Operator operator, List<String> values) implements Criterion {
+
+    public Comparison {
+      values = List.copyOf(values);
+    }
+  }
+
+  /**
+   * The indexed properties of local replays, named like the properties of the online replay vault.
+   */
+  public enum Field {
+    PLAYER(Type.KEYWORD, "playerStats.player.login"),
+    MAP(Type.KEYWORD, "mapVersion.folderName", "mapVersion.map.displayName"),
+    FEATURED_MOD(Type.KEYWORD, "featuredMod.technicalName", "featuredMod.displayName"),
+    TITLE(Type.TEXT, "name"),
+    CHAT(Type.TEXT, "chatMessages"),
+    ID(Type.NUMBER, "id"),
+    START_TIME(Type.TIME, "startTime"),
+    /**
+     * The end of the game, or its start if the game didn't end properly.
+     */
+    END_TIME(Type.TIME, "endTime");
+
+    final Type type;
+    private final List<String> propertyNames;
+
+    Field(Type type, String... propertyNames) {
+      this.type = type;
+      this.propertyNames = List.of(propertyNames);
+    }
+
+    public String getPropertyName() {
+      return propertyNames.getFirst();
+    }
+
+    static Optional<Field> fromPropertyName(String propertyName) {
+      return Arrays.stream(values()).filter(field -> field.propertyNames.contains(propertyName)).findFirst();
+    }
+  }
+
+  enum Type {
+    KEYWORD, TEXT, NUMBER, TIME
+  }
+
+  public enum Operator {
+    EQ("=="), NE("!="), GT("=gt="), GE("=ge="), LT("=lt="), LE("=le="), IN("=in="), OUT("=out=");
+
+    final String symbol;
+
+    Operator(String symbol) {
+      this.symbol = symbol;
+    }
+
+    static Optional<Operator> fromSymbol(String symbol) {
+      return Arrays.stream(values()).filter(operator -> operator.symbol.equals(symbol)).findFirst();
+    }
+  }
+
+  public record Sort(SortKey key, boolean descending) {
+
+    public static final Sort NEWEST_FILE_FIRST = new Sort(SortKey.LAST_MODIFIED, true);
+
+    static Sort of(@Nullable SortConfig sortConfig) {
+      if (sortConfig == null) {
+        return NEWEST_FILE_FIRST;
+      }
+      return Arrays.stream(SortKey.values())
+                   .filter(key -> key.field != null && key.field.propertyNames.contains(sortConfig.sortProperty()))
+                   .findFirst()
+                   .map(key -> new Sort(key, sortConfig.sortOrder() == SortOrder.DESC))
+                   .orElse(NEWEST_FILE_FIRST);
+    }
+
+    Comparator<Entry> comparator() {
+      return descending ? key.comparator.reversed() : key.comparator;
+    }
+  }
+
+  public enum SortKey {
+    LAST_MODIFIED(null, Comparator.comparingLong(Entry::lastModified)),
+    ID(Field.ID, Comparator.comparing(Entry::uid, Comparator.nullsFirst(Comparator.naturalOrder()))),
+    TITLE(Field.TITLE, Comparator.comparing(Entry::title, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))),
+    START_TIME(Field.START_TIME, Comparator.comparingLong(Entry::startTime)),
+    END_TIME(Field.END_TIME, Comparator.comparingLong(Entry::endOrStartTime));
+
+    @Nullable
+    private final Field field;
+    private final Comparator<Entry> comparator;
+
+    SortKey(@Nullable Field field, Comparator<Entry> comparator) {
+      this.field = field;
+      this.comparator = comparator;
+    }
+  }
+}
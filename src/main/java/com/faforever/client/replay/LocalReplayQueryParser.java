@@ -0,0 +1,202 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.replay.LocalReplayQuery.And;
+import com.faforever.client.replay.LocalReplayQuery.Comparison;
+import com.faforever.client.replay.LocalReplayQuery.Criterion;
+import com.faforever.client.replay.LocalReplayQuery.Field;
+import com.faforever.client.replay.LocalReplayQuery.Operator;
+import com.faforever.client.replay.LocalReplayQuery.Or;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the RSQL subset built by the search of the vaults: comparisons joined by {@code ;} (and) and {@code ,} (or),
+ * grouped by parentheses, with the operators of {@link Operator} and optionally quoted values.
+ */
+final class LocalReplayQueryParser {
+
+  private static final String RESERVED_CHARACTERS = "\"'();,=!~<> ";
+
+  private final String query;
+  private int position;
+
+  private LocalReplayQueryParser(String query) {
+    this.query = query;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the query is invalid or refers to a property that isn't indexed
+   */
+  static Criterion parse(@Nullable String query) {
+    if (query == null || query.isBlank()) {
+      return new And(List.of());
+    }
+
+    LocalReplayQueryParser parser = new LocalReplayQueryParser(query);
+    Criterion criterion = parser.parseOr();
+    parser.skipWhitespace();
+    if (parser.position < query.length()) {
+      throw parser.error("Unexpected character");
+    }
+    return criterion;
+  }
+
+  private Criterion parseOr() {
+    List<Criterion> criteria = new ArrayList<>();
+    criteria.add(parseAnd());
+    while (consume(',')) {
+      criteria.add(parseAnd());
+    }
+    return criteria.size() == 1 ? criteria.getFirst() : new Or(criteria);
+  }
+
+  private Criterion parseAnd() {
+    List<Criterion> criteria = new ArrayList<>();
+    criteria.add(parseConstraint());
+    while (consume(';')) {
+      criteria.add(parseConstraint());
+    }
+    return criteria.size() == 1 ? criteria.getFirst() : new And(criteria);
+  }
+
+  private Criterion parseConstraint() {
+    if (consume('(')) {
+      Criterion criterion = parseOr();
+      expect(')');
+      return criterion;
+    }
+    return parseComparison();
+  }
+
+  private Comparison parseComparison() {
+    skipWhitespace();
+    int selectorStart = position;
+    String selector = readUnreserved();
+    Field field = Field.fromPropertyName(selector).orElseThrow(() -> new IllegalArgumentException(
+        "Property '%s' can't be searched in local replays".formatted(selector)));
+
+    skipWhitespace();
+    int operatorStart = position;
+    Operator operator = Operator.fromSymbol(readOperator()).orElseThrow(() -> {
+      position = operatorStart;
+      return error("Unknown operator");
+    });
+
+    List<String> values = new ArrayList<>();
+    if (operator == Operator.IN || operator == Operator.OUT) {
+      expect('(');
+      do {
+        values.add(readValue());
+      } while (consume(','));
+      expect(')');
+    } else {
+      values.add(readValue());
+    }
+
+    try {
+      return validate(new Comparison(field, operator, values));
+    } catch (IllegalArgumentException e) {
+      position = selectorStart;
+      throw error(e.getMessage());
+    }
+  }
+
+  private static Comparison validate(Comparison comparison) {
+    boolean isRange = switch (comparison.operator()) {
+      case GT, GE, LT, LE -> true;
+      default -> false;
+    };
+    for (String value : comparison.values()) {
+      switch (comparison.field().type) {
+        case KEYWORD, TEXT -> {
+          if (isRange) {
+            throw new IllegalArgumentException(
+                "Operator '%s' is not supported for '%s'".formatted(comparison.operator().symbol,
+                                                                    comparison.field().getPropertyName()));
+          }
+        }
+        case NUMBER -> Long.parseLong(value);
+        case TIME -> {
+          try {
+            Instant.parse(value);
+          } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time '%s'".formatted(value), e);
+          }
+        }
+      }
+    }
+    return comparison;
+  }
+
+  private String readOperator() {
+    int start = position;
+    if (position < query.length() && (query.charAt(position) == '=' || query.charAt(position) == '!')) {
+      position++;
+      while (position < query.length() && Character.isLetter(query.charAt(position))) {
+        position++;
+      }
+      if (position < query.length() && query.charAt(position) == '=') {
+        position++;
+      }
+    }
+    return query.substring(start, position);
+  }
+
+  private String readValue() {
+    skipWhitespace();
+    if (position < query.length() && (query.charAt(position) == '"' || query.charAt(position) == '\'')) {
+      char quote = query.charAt(position++);
+      StringBuilder value = new StringBuilder();
+      while (position < query.length() && query.charAt(position) != quote) {
+        char character = query.charAt(position++);
+        if (character == '\\' && position < query.length()) {
+          character = query.charAt(position++);
+        }
+        value.append(character);
+      }
+      expect(quote);
+      return value.toString();
+    }
+    return readUnreserved();
+  }
+
+  private String readUnreserved() {
+    int start = position;
+    while (position < query.length() && RESERVED_CHARACTERS.indexOf(query.charAt(position)) == -1) {
+      position++;
+    }
+    if (start == position) {
+      throw error("Expected a property or value");
+    }
+    return query.substring(start, position);
+  }
+
+  private boolean consume(char character) {
+    skipWhitespace();
+    if (position < query.length() && query.charAt(position) == character) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(char character) {
+    if (!consume(character)) {
+      throw error("Expected '" + character + "'");
+    }
+  }
+
+  private void skipWhitespace() {
+    while (position < query.length() && Character.isWhitespace(query.charAt(position))) {
+      position++;
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException("%s at position %d of query '%s'".formatted(message, position, query));
+  }
+}
@@ -0,0 +1,310 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.replay.LocalReplayIndex.Entry;
+import com.faforever.client.replay.LocalReplayQuery.And;
+import com.faforever.client.replay.LocalReplayQuery.Comparison;
+import com.faforever.client.replay.LocalReplayQuery.Criterion;
+import com.faforever.client.replay.LocalReplayQuery.Field;
+import com.faforever.client.replay.LocalReplayQuery.Or;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index of the local replays. Each replay gets a document id, and every keyword and every word of
+ * the title and chat messages maps to the set of documents containing it. A comparison therefore only looks at the
+ * distinct values of a property instead of at every replay, and criteria are combined as bit sets. Numbers and times
+ * are compared against the entries directly.
+ * <p>
+ * Not thread-safe, {@link LocalReplayIndex} guards it.
+ */
+final class LocalReplaySearchIndex {
+
+  private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private final Map<String, Integer> docIdsByFileName = new HashMap<>();
+  private final List<String> fileNames = new ArrayList<>();
+  private final List<Entry> entries = new ArrayList<>();
+  private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+  private final BitSet liveDocs = new BitSet();
+  private final Map<Field, NavigableMap<String, Postings>> postingsByField = new EnumMap<>(Field.class);
+
+  /**
+   * Splits text into lower case words, which is how titles and chat messages are indexed and searched.
+   */
+  static Set<String> tokenize(@Nullable String text) {
+    if (text == null) {
+      return Set.of();
+    }
+    return Arrays.stream(WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                 .filter(word -> !word.isEmpty())
+                 .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  void put(String fileName, Entry entry) {
+    remove(fileName);
+
+    Integer docId = freeDocIds.poll();
+    if (docId == null) {
+      docId = fileNames.size();
+      fileNames.add(fileName);
+      entries.add(entry);
+    } else {
+      fileNames.set(docId, fileName);
+      entries.set(docId, entry);
+    }
+    docIdsByFileName.put(fileName, docId);
+    liveDocs.set(docId);
+
+    int newDocId = docId;
+    forEachTerm(entry, (field, term) -> postingsByField.computeIfAbsent(field, ignored -> new TreeMap<>())
+                                                       .computeIfAbsent(term.toLowerCase(Locale.ROOT),
+                                                                        key -> new Postings(term, new BitSet()))
+                                                       .docs()
+                                                       .set(newDocId));
+  }
+
+  void remove(String fileName) {
+    Integer docId = docIdsByFileName.remove(fileName);
+    if (docId == null) {
+      return;
+    }
+
+    forEachTerm(entries.get(docId), (field, term) -> {
+      NavigableMap<String, Postings> postings = postingsByField.get(field);
+      String key = term.toLowerCase(Locale.ROOT);
+      Postings termPostings = postings.get(key);
+      if (termPostings != null) {
+        termPostings.docs().clear(docId);
+        if (termPostings.docs().isEmpty()) {
+          postings.remove(key);
+        }
+      }
+    });
+
+    liveDocs.clear(docId);
+    fileNames.set(docId, null);
+    entries.set(docId, null);
+    freeDocIds.push(docId);
+  }
+
+  void clear() {
+    docIdsByFileName.clear();
+    fileNames.clear();
+    entries.clear();
+    freeDocIds.clear();
+    liveDocs.clear();
+    postingsByField.clear();
+  }
+
+  String getFileName(int docId) {
+    return fileNames.get(docId);
+  }
+
+  Entry getEntry(int docId) {
+    return entries.get(docId);
+  }
+
+  /**
+   * @return the ids of the documents matching the criterion
+   */
+  BitSet search(Criterion criterion) {
+    return switch (criterion) {
+      case And and -> {
+        BitSet matches = (BitSet) liveDocs.clone();
+        and.criteria().forEach(child -> matches.and(search(child)));
+        yield matches;
+      }
+      case Or or -> {
+        BitSet matches = new BitSet();
+        or.criteria().forEach(child -> matches.or(search(child)));
+        yield matches;
+      }
+      case Comparison comparison -> compare(comparison);
+    };
+  }
+
+  /**
+   * Counts the documents per distinct value of a keyword field.
+   *
+   * @param docs the documents to count, like the result of {@link #search(Criterion)}
+   * @return the number of documents by value, most frequent values first
+   */
+  Map<String, Integer> countValues(Field field, BitSet docs) {
+    Map<String, Integer> counts = new LinkedHashMap<>();
+    postingsByField.getOrDefault(field, new TreeMap<>())
+                   .values()
+                   .stream()
+                   .map(postings -> {
+                     BitSet matches = (BitSet) postings.docs().clone();
+                     matches.and(docs);
+                     return Map.entry(postings.value(), matches.cardinality());
+                   })
+                   .filter(count -> count.getValue() > 0)
+                   .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                   .forEach(count -> counts.put(count.getKey(), count.getValue()));
+    return counts;
+  }
+
+  private BitSet compare(Comparison comparison) {
+    Field field = comparison.field();
+    BitSet matches = switch (comparison.operator()) {
+      case EQ, NE, IN, OUT -> {
+        BitSet valueMatches = new BitSet();
+        comparison.values().forEach(value -> valueMatches.or(match(field, value)));
+        yield valueMatches;
+      }
+      case GT, GE, LT, LE -> {
+        long bound = parseNumber(field, comparison.values().getFirst());
+        LongPredicate inRange = switch (comparison.operator()) {
+          case GT -> value -> value > bound;
+          case GE -> value -> value >= bound;
+          case LT -> value -> value < bound;
+          default -> value -> value <= bound;
+        };
+        yield filter(field, inRange);
+      }
+    };
+
+    return switch (comparison.operator()) {
+      case NE, OUT -> {
+        BitSet nonMatches = (BitSet) liveDocs.clone();
+        nonMatches.andNot(matches);
+        yield nonMatches;
+      }
+      default -> matches;
+    };
+  }
+
+  private BitSet match(Field field, String value) {
+    return switch (field.type) {
+      case KEYWORD -> matchKeyword(field, value);
+      case TEXT -> matchText(field, value);
+      case NUMBER, TIME -> {
+        long number = parseNumber(field, value);
+        yield filter(field, fieldValue -> fieldValue == number);
+      }
+    };
+  }
+
+  private BitSet matchKeyword(Field field, String value) {
+    NavigableMap<String, Postings> postings = postingsByField.getOrDefault(field, new TreeMap<>());
+    String pattern = value.toLowerCase(Locale.ROOT);
+    BitSet matches = new BitSet();
+
+    int wildcardIndex = pattern.indexOf('*');
+    if (wildcardIndex == -1) {
+      Postings valuePostings = postings.get(pattern);
+      if (valuePostings != null) {
+        matches.or(valuePostings.docs());
+      }
+      return matches;
+    }
+
+    // Only values starting with the part before the first wildcard need to be looked at
+    String prefix = pattern.substring(0, wildcardIndex);
+    NavigableMap<String, Postings> candidates = prefix.isEmpty()
+                                                ? postings
+                                                : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    Pattern regex = Pattern.compile(Arrays.stream(pattern.split("\\*", -1))
+                                          .map(Pattern::quote)
+                                          .collect(Collectors.joining(".*")), Pattern.DOTALL);
+    candidates.forEach((key, valuePostings) -> {
+      if (regex.matcher(key).matches()) {
+        matches.or(valuePostings.docs());
+      }
+    });
+    return matches;
+  }
+
+  /**
+   * Matches the documents containing every word of the value. With a wildcard in the value, words only need to be
+   * contained in a word of the document.
+   */
+  private BitSet matchText(Field field, String value) {
+    NavigableMap<String, Postings> postings = postingsByField.getOrDefault(field, new TreeMap<>());
+    boolean partialWords = value.contains("*");
+    BitSet matches = (BitSet) liveDocs.clone();
+    for (String word : tokenize(value)) {
+      BitSet wordMatches = new BitSet();
+      if (partialWords) {
+        postings.forEach((term, termPostings) -> {
+          if (term.contains(word)) {
+            wordMatches.or(termPostings.docs());
+          }
+        });
+      } else {
+        Postings termPostings = postings.get(word);
+        if (termPostings != null) {
+          wordMatches.or(termPostings.docs());
+        }
+      }
+      matches.and(wordMatches);
+    }
+    return matches;
+  }
+
+  private BitSet filter(Field field, LongPredicate predicate) {
+    BitSet matches = new BitSet();
+    liveDocs.stream().filter(docId -> predicate.test(getNumber(field, entries.get(docId)))).forEach(matches::set);
+    return matches;
+  }
+
+  private static long getNumber(Field field, Entry entry) {
+    return switch (field) {
+      case ID -> entry.uid() != null ? entry.uid() : Long.MIN_VALUE;
+      case START_TIME -> entry.startTime();
+      case END_TIME -> entry.endOrStartTime();
+      default -> throw new IllegalArgumentException("Not a number or time: " + field);
+    };
+  }
+
+  private static long parseNumber(Field field, String value) {
+    return field.type == LocalReplayQuery.Type.TIME ? Instant.parse(value).toEpochMilli() : Long.parseLong(value);
+  }
+
+  private static void forEachTerm(Entry entry, BiConsumer<Field, String> consumer) {
+    entry.teams()
+         .values()
+         .stream()
+         .flatMap(Collection::stream)
+         .filter(Objects::nonNull)
+         .forEach(player -> consumer.accept(Field.PLAYER, player));
+    if (entry.mapName() != null) {
+      consumer.accept(Field.MAP, entry.mapName());
+    }
+    if (entry.featuredMod() != null) {
+      consumer.accept(Field.FEATURED_MOD, entry.featuredMod());
+    }
+    tokenize(entry.title()).forEach(word -> consumer.accept(Field.TITLE, word));
+    if (entry.chatTerms() != null) {
+      entry.chatTerms().forEach(word -> consumer.accept(Field.CHAT, word));
+    }
+  }
+
+  /**
+   * @param value the value as first indexed, as opposed to the lower case key of the postings
+   */
+  private record Postings(String value, BitSet docs) {}
+}
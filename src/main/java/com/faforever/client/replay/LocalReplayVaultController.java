@@ -8,7 +8,9 @@ import com.faforever.client.main.event.NavigateEvent;
 import com.faforever.client.main.event.OpenLocalReplayVaultEvent;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.preferences.VaultPrefs;
+import com.faforever.client.query.CategoryFilterController;
 import com.faforever.client.query.SearchablePropertyMappings;
+import com.faforever.client.replay.LocalReplayQuery.Field;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.vault.VaultEntityController;
@@ -20,7 +22,6 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -72,11 +73,8 @@ public class LocalReplayVaultController extends VaultEntityController<Replay> {
 
   @Override
   protected void setSupplier(SearchConfig searchConfig) {
-    try {
-      currentSupplier = replayService.loadLocalReplayPage(pageSize, pagination.getCurrentPageIndex() + 1);
-    } catch (IOException e) {
-      log.error("Could not load local replays", e);
-    }
+    currentSupplier = replayService.loadLocalReplayPage(searchConfig, pageSize,
+                                                        pagination.getCurrentPageIndex() + 1);
   }
 
   @Override
@@ -111,9 +109,27 @@ public class LocalReplayVaultController extends VaultEntityController<Replay> {
   @Override
   protected void initSearchController() {
     searchController.setRootType(Game.class);
-    searchController.setSearchableProperties(SearchablePropertyMappings.GAME_PROPERTY_MAPPING);
-    searchController.setSortConfig(vaultPrefs.onlineReplaySortConfigProperty());
+    searchController.setSearchableProperties(SearchablePropertyMappings.LOCAL_REPLAY_PROPERTY_MAPPING);
+    searchController.setSortConfig(vaultPrefs.localReplaySortConfigProperty());
     searchController.setOnlyShowLastYearCheckBoxVisible(true);
+    searchController.setVaultRoot(vaultRoot);
+    // Local replays are queried in their own syntax, so queries saved in the online replay vault don't apply
+    searchController.setSavedQueries(vaultPrefs.getSavedLocalReplayQueries());
+
+    searchController.addTextFilter(Field.PLAYER.getPropertyName(), i18n.get("game.player.username"), false);
+    searchController.addTextFilter(Field.MAP.getPropertyName(), i18n.get("game.map.folderName"), false);
+    searchController.addTextFilter(Field.TITLE.getPropertyName(), i18n.get("game.title"), false);
+    searchController.addTextFilter(Field.CHAT.getPropertyName(), i18n.get("game.chat"), false);
+    searchController.addTextFilter(Field.ID.getPropertyName(), i18n.get("game.id"), true);
+
+    CategoryFilterController featuredModFilterController = searchController.addCategoryFilter(
+        Field.FEATURED_MOD.getPropertyName(), i18n.get("featuredMod.technicalName"), List.of());
+    replayService.getLocalReplayFieldValues(Field.FEATURED_MOD)
+                 .publishOn(fxApplicationThreadExecutor.asScheduler())
+                 .subscribe(featuredMods -> featuredModFilterController.setItems(featuredMods),
+                            throwable -> log.warn("Could not load featured mods of local replays", throwable));
+
+    searchController.addDateRangeFilter(Field.END_TIME.getPropertyName(), i18n.get("game.date"), 0);
   }
 
   @Override
@@ -0,0 +1,193 @@
+package com.faforever.client.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses data to a zlib stream like {@link java.util.zip.DeflaterOutputStream}, but deflates blocks of the data
+ * on multiple cores. Each block is deflated on its own, with the end of the previous block as dictionary, and flushed
+ * to a byte boundary, so the compressed blocks can be concatenated to one deflate stream. Only a few blocks are held
+ * in memory at any time, no matter how much data is written.
+ * <p>
+ * The output can be read by any zlib implementation. It is slightly larger than the output of a single deflater, so
+ * this only pays off for large amounts of data.
+ */
+final class ParallelDeflaterOutputStream extends OutputStream {
+
+  /** Deflate header with the default window size and compression level. */
+  private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9C};
+  /** Maximum distance deflate can refer back to. */
+  private static final int DICTIONARY_SIZE = 32 * 1024;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final OutputStream out;
+  private final int blockSize;
+  private final int maxPendingBlocks;
+  private final Executor executor;
+  private final Adler32 checksum = new Adler32();
+  private final Deque<CompletableFuture<ByteArrayOutputStream>> pendingBlocks = new ArrayDeque<>();
+
+  private byte[] block;
+  private int blockLength;
+  private byte[] dictionary;
+  private boolean headerWritten;
+  private boolean finished;
+
+  /**
+   * @param blockSize number of bytes deflated at once
+   * @param parallelism maximum number of blocks deflated at the same time
+   * @param executor runs the deflation of the blocks
+   */
+  ParallelDeflaterOutputStream(OutputStream out, int blockSize, int parallelism, Executor executor) {
+    if (blockSize <= 0 || parallelism <= 0) {
+      throw new IllegalArgumentException("Block size and parallelism must be positive");
+    }
+    this.out = out;
+    this.blockSize = blockSize;
+    this.maxPendingBlocks = parallelism;
+    this.executor = executor;
+    this.block = new byte[blockSize];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[]{(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (finished) {
+      throw new IOException("Stream is finished");
+    }
+    while (len > 0) {
+      // A full block is only submitted once more data arrives, since the last block needs to be deflated differently
+      if (blockLength == blockSize) {
+        submitBlock(false);
+      }
+      int length = Math.min(len, blockSize - blockLength);
+      System.arraycopy(b, off, block, blockLength, length);
+      blockLength += length;
+      off += length;
+      len -= length;
+    }
+  }
+
+  /**
+   * Writes the remaining compressed data and the checksum without closing the underlying stream.
+   */
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    submitBlock(true);
+    while (!pendingBlocks.isEmpty()) {
+      writeBlock(pendingBlocks.poll());
+    }
+
+    long value = checksum.getValue();
+    out.write(new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value});
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void submitBlock(boolean last) throws IOException {
+    byte[] data = block;
+    int length = blockLength;
+    byte[] blockDictionary = dictionary;
+    checksum.update(data, 0, length);
+
+    if (!last) {
+      dictionary = Arrays.copyOfRange(data, Math.max(0, length - DICTIONARY_SIZE), length);
+      block = new byte[blockSize];
+      blockLength = 0;
+    }
+
+    try {
+      pendingBlocks.add(CompletableFuture.supplyAsync(() -> deflate(data, length, blockDictionary, last), executor));
+    } catch (RejectedExecutionException e) {
+      abort();
+      throw new IOException("Could not deflate block", e);
+    }
+    while (pendingBlocks.size() > maxPendingBlocks) {
+      writeBlock(pendingBlocks.poll());
+    }
+  }
+
+  private void writeBlock(CompletableFuture<ByteArrayOutputStream> pendingBlock) throws IOException {
+    try {
+      if (!headerWritten) {
+        out.write(ZLIB_HEADER);
+        headerWritten = true;
+      }
+      pendingBlock.join().writeTo(out);
+    } catch (CompletionException e) {
+      abort();
+      throw new IOException("Could not deflate block", e.getCause());
+    } catch (IOException e) {
+      abort();
+      throw e;
+    }
+  }
+
+  /**
+   * Cancels the blocks that are still waiting to be deflated, since the stream can't be completed anymore.
+   */
+  private void abort() {
+    finished = true;
+    pendingBlocks.forEach(pendingBlock -> pendingBlock.cancel(false));
+    pendingBlocks.clear();
+  }
+
+  private static ByteArrayOutputStream deflate(byte[] data, int length, byte[] dictionary, boolean last) {
+    // Raw deflate, since the zlib header and checksum are written for the whole stream
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    try {
+      if (dictionary != null) {
+        deflater.setDictionary(dictionary);
+      }
+      deflater.setInput(data, 0, length);
+
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+      byte[] buffer = new byte[BUFFER_SIZE];
+      if (last) {
+        deflater.finish();
+        while (!deflater.finished()) {
+          compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+      } else {
+        // A full buffer means there may be more output, see Deflater.deflate(byte[], int, int, int)
+        int compressedLength;
+        do {
+          compressedLength = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+          compressed.write(buffer, 0, compressedLength);
+        } while (compressedLength == buffer.length);
+      }
+      return compressed;
+    } finally {
+      deflater.end();
+    }
+  }
+}
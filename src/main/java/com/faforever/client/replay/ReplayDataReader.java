@@ -0,0 +1,243 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.domain.api.Replay.ChatMessage;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.LittleEndianDataInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+/**
+ * Reads the replay data written by the game from a stream. The header is read when it is first needed and commands
+ * are only tokenized while they are read, so looking at the game setup or at a few kinds of commands doesn't require
+ * the whole replay to be decoded. Payloads of commands that aren't asked for are skipped without being copied.
+ */
+@Slf4j
+public class ReplayDataReader implements Closeable {
+
+  public static final int ADVANCE = 0;
+  public static final int LUA_SIM_CALLBACK = 22;
+
+  private static final int LUA_NUMBER = 0;
+  private static final int LUA_STRING = 1;
+  private static final int LUA_NIL = 2;
+  private static final int LUA_BOOL = 3;
+  private static final int LUA_TABLE_START = 4;
+  private static final int LUA_TABLE_END = 5;
+
+  private static final int NO_SOURCE = 255;
+  private static final Duration TICK_DURATION = Duration.ofMillis(100);
+  private static final String GIVE_RESOURCES_TO_PLAYER = "GiveResourcesToPlayer";
+
+  private final PushbackInputStream inputStream;
+  private final LittleEndianDataInputStream dataStream;
+  private ReplayHeader header;
+  private int tick;
+
+  public ReplayDataReader(InputStream inputStream) {
+    this.inputStream = new PushbackInputStream(new BufferedInputStream(inputStream), 1);
+    this.dataStream = new LittleEndianDataInputStream(this.inputStream);
+  }
+
+  public ReplayHeader getHeader() throws IOException {
+    if (header == null) {
+      header = readHeader();
+    }
+    return header;
+  }
+
+  /**
+   * Reads commands up to the next one of a type accepted by the filter.
+   *
+   * @return the command, or {@code null} if the end of the replay has been reached
+   */
+  @Nullable
+  public ReplayCommand nextCommand(IntPredicate typeFilter) throws IOException {
+    getHeader();
+    while (true) {
+      int type = inputStream.read();
+      if (type == -1) {
+        return null;
+      }
+
+      try {
+        int payloadLength = dataStream.readUnsignedShort() - 3;
+        if (payloadLength < 0) {
+          throw new IOException("Invalid length of command of type " + type);
+        }
+
+        if (type != ADVANCE && !typeFilter.test(type)) {
+          ByteStreams.skipFully(dataStream, payloadLength);
+          continue;
+        }
+
+        byte[] payload = new byte[payloadLength];
+        dataStream.readFully(payload);
+        if (type == ADVANCE) {
+          tick += ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        }
+        if (typeFilter.test(type)) {
+          return new ReplayCommand(type, tick, payload);
+        }
+      } catch (EOFException e) {
+        // Replays of games that didn't end properly can be cut off in the middle of a command
+        log.debug("Replay data ends within a command of type {}", type);
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Reads the remaining commands and returns the chat messages sent by players. Every player's game passes a message
+   * on to the sim, so only the copy of the sender's own army is kept.
+   */
+  public List<ChatMessage> readChatMessages() throws IOException {
+    List<ChatMessage> chatMessages = new ArrayList<>();
+    ReplayCommand command;
+    while ((command = nextCommand(type -> type == LUA_SIM_CALLBACK)) != null) {
+      parseChatMessage(command).ifPresent(chatMessages::add);
+    }
+    return chatMessages;
+  }
+
+  private Optional<ChatMessage> parseChatMessage(ReplayCommand command) {
+    try {
+      ReplayDataReader payloadReader = new ReplayDataReader(new ByteArrayInputStream(command.payload()));
+      if (!GIVE_RESOURCES_TO_PLAYER.equals(payloadReader.readString())) {
+        return Optional.empty();
+      }
+      if (!(payloadReader.readLua() instanceof Map<?, ?> arguments)
+          || !(arguments.get("Msg") instanceof Map<?, ?> message)
+          || !(message.get("text") instanceof String text)
+          || !(arguments.get("Sender") instanceof String sender)
+          || !(arguments.get("From") instanceof Float from)) {
+        return Optional.empty();
+      }
+
+      int army = from.intValue() - 1;
+      List<Map<Object, Object>> armies = header.armies();
+      if (army < 0 || army >= armies.size() || !sender.equals(armies.get(army).get("PlayerName"))) {
+        return Optional.empty();
+      }
+      return Optional.of(new ChatMessage(TICK_DURATION.multipliedBy(command.tick()), sender, text));
+    } catch (IOException e) {
+      log.debug("Could not parse sim callback at tick {}", command.tick(), e);
+      return Optional.empty();
+    }
+  }
+
+  private ReplayHeader readHeader() throws IOException {
+    String replayPatchFieldId = readString();
+    readString();
+    String[] replayVersionAndMap = readString().split("\r\n", 2);
+    readString();
+
+    dataStream.readInt();
+    Map<Object, Object> mods = asTable(readLua());
+    dataStream.readInt();
+    Map<Object, Object> scenario = asTable(readLua());
+
+    int numberOfSources = dataStream.readUnsignedByte();
+    for (int i = 0; i < numberOfSources; i++) {
+      readString();
+      dataStream.readInt();
+    }
+
+    // Cheats enabled
+    dataStream.readUnsignedByte();
+
+    int numberOfArmies = dataStream.readUnsignedByte();
+    List<Map<Object, Object>> armies = new ArrayList<>(numberOfArmies);
+    for (int i = 0; i < numberOfArmies; i++) {
+      dataStream.readInt();
+      armies.add(asTable(readLua()));
+      int sourceId = dataStream.readUnsignedByte();
+      if (sourceId != NO_SOURCE) {
+        dataStream.readUnsignedByte();
+      }
+    }
+
+    int randomSeed = dataStream.readInt();
+    return new ReplayHeader(replayPatchFieldId, replayVersionAndMap[0],
+                            replayVersionAndMap.length > 1 ? replayVersionAndMap[1] : "", mods, scenario, armies,
+                            randomSeed);
+  }
+
+  private String readString() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    int value;
+    while ((value = inputStream.read()) != 0) {
+      if (value == -1) {
+        throw new EOFException("Replay data ends within a string");
+      }
+      bytes.write(value);
+    }
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+
+  @Nullable
+  private Object readLua() throws IOException {
+    int type = dataStream.readUnsignedByte();
+    return switch (type) {
+      case LUA_NUMBER -> dataStream.readFloat();
+      case LUA_STRING -> readString();
+      case LUA_NIL -> {
+        dataStream.readUnsignedByte();
+        yield null;
+      }
+      case LUA_BOOL -> dataStream.readUnsignedByte() != 0;
+      case LUA_TABLE_START -> {
+        Map<Object, Object> table = new LinkedHashMap<>();
+        while (peek() != LUA_TABLE_END) {
+          Object key = readLua();
+          table.put(key, readLua());
+        }
+        dataStream.readUnsignedByte();
+        yield table;
+      }
+      default -> throw new IOException("Unknown Lua type: " + type);
+    };
+  }
+
+  private int peek() throws IOException {
+    int value = inputStream.read();
+    if (value == -1) {
+      throw new EOFException("Replay data ends within a Lua table");
+    }
+    inputStream.unread(value);
+    return value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<Object, Object> asTable(@Nullable Object lua) {
+    return lua instanceof Map<?, ?> table ? (Map<Object, Object>) table : Map.of();
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+
+  /**
+   * @param tick the tick at which the command was issued, the game runs ten ticks per second
+   */
+  public record ReplayCommand(int type, int tick, byte[] payload) {}
+}
@@ -1,15 +1,21 @@
 package com.faforever.client.replay;
 
+import com.faforever.client.domain.api.GamePlayerStats;
 import com.faforever.client.domain.api.MapVersion;
 import com.faforever.client.domain.api.Replay.ChatMessage;
 import com.faforever.client.domain.api.Replay.GameOption;
 
 import java.util.List;
+import java.util.Map;
 
-public record ReplayDetails(List<ChatMessage> chatMessages, List<GameOption> gameOptions, MapVersion mapVersion) {
+public record ReplayDetails(
+    List<ChatMessage> chatMessages, List<GameOption> gameOptions, MapVersion mapVersion,
+    Map<String, List<GamePlayerStats>> teamPlayerStats
+) {
 
   public ReplayDetails {
     chatMessages = List.copyOf(chatMessages);
     gameOptions = List.copyOf(gameOptions);
+    teamPlayerStats = Map.copyOf(teamPlayerStats);
   }
 }
@@ -2,15 +2,39 @@ package com.faforever.client.replay;
 
 
 import com.faforever.commons.replay.ReplayDataParser;
+import com.faforever.commons.replay.ReplayMetadata;
 import org.apache.commons.compress.compressors.CompressorException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 
+/**
+ * Reads replay files in tiers of increasing cost: the JSON metadata, the replay data as a stream that is decoded
+ * while it is read, the header and the commands of the replay data and the fully parsed replay.
+ */
 public interface ReplayFileReader {
   /**
    * Parses the actual replay data of the specified file and returns metadata, raw data, chat messages, game options,
    * executed commands and so on.
    */
   ReplayDataParser parseReplay(Path path) throws IOException, CompressorException;
+
+  /**
+   * Reads only the JSON header of the specified replay file, without decompressing the replay data.
+   */
+  ReplayMetadata readMetadata(Path path) throws IOException;
+
+  /**
+   * Opens the replay data of the specified file, as written by the game. The data is decoded while it is read, so
+   * only as much of the file is decompressed as is consumed from the returned stream.
+   */
+  InputStream openReplayData(Path path) throws IOException, CompressorException;
+
+  /**
+   * Opens a reader of the header and the commands of the specified replay file.
+   *
+   * @see #openReplayData(Path)
+   */
+  ReplayDataReader openReplayDataReader(Path path) throws IOException, CompressorException;
 }
@@ -1,21 +1,38 @@
 package com.faforever.client.replay;
 
 import com.faforever.commons.replay.ReplayDataParser;
+import com.faforever.commons.replay.ReplayMetadata;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Base64;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 @Lazy
 @Component
 @Slf4j
 public class ReplayFileReaderImpl implements ReplayFileReader {
 
+  private static final int BUFFER_SIZE = 8192;
+  /**
+   * Replay data compressed with {@link CompressionType#QTCOMPRESS} starts with the uncompressed length.
+   */
+  private static final int QT_COMPRESS_LENGTH_BYTES = 4;
+
   private final ObjectMapper objectMapper = new ObjectMapper()
       .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
@@ -23,4 +40,70 @@ public class ReplayFileReaderImpl implements ReplayFileReader {
   public ReplayDataParser parseReplay(Path path) throws IOException, CompressorException {
     return new ReplayDataParser(path, objectMapper);
   }
+
+  @Override
+  public ReplayMetadata readMetadata(Path path) throws IOException {
+    try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+      return objectMapper.readValue(readHeaderLine(inputStream, path), ReplayMetadata.class);
+    }
+  }
+
+  @Override
+  public InputStream openReplayData(Path path) throws IOException, CompressorException {
+    InputStream inputStream = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+    if (path.getFileName().toString().endsWith(ReplayService.SUP_COM_REPLAY_FILE_ENDING)) {
+      return inputStream;
+    }
+
+    try {
+      String headerLine = readHeaderLine(inputStream, path);
+      CompressionType compressionType = CompressionType.fromString(
+          objectMapper.readTree(headerLine).path("compression").textValue());
+      return switch (compressionType) {
+        case QTCOMPRESS -> {
+          InputStream decodedStream = Base64.getMimeDecoder().wrap(inputStream);
+          ByteStreams.skipFully(decodedStream, QT_COMPRESS_LENGTH_BYTES);
+          yield new InflaterInputStream(decodedStream, new Inflater(), BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+              try {
+                super.close();
+              } finally {
+                inf.end();
+              }
+            }
+          };
+        }
+        case ZSTD -> new CompressorStreamFactory().createCompressorInputStream(CompressorStreamFactory.ZSTANDARD,
+                                                                               inputStream);
+        case UNKNOWN -> throw new IOException("Unknown compression of replay file: " + path);
+      };
+    } catch (IOException | CompressorException | RuntimeException e) {
+      inputStream.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public ReplayDataReader openReplayDataReader(Path path) throws IOException, CompressorException {
+    return new ReplayDataReader(openReplayData(path));
+  }
+
+  /**
+   * Reads the first line of a replay file byte by byte, as the replay data that follows may be binary.
+   */
+  private static String readHeaderLine(InputStream inputStream, Path path) throws IOException {
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    int value;
+    while ((value = inputStream.read()) != '\n') {
+      if (value == -1) {
+        break;
+      }
+      header.write(value);
+    }
+    if (header.size() == 0) {
+      throw new IOException("Replay file has no metadata header: " + path);
+    }
+    return header.toString(StandardCharsets.UTF_8);
+  }
 }
@@ -8,4 +8,21 @@ import java.io.IOException;
 public interface ReplayFileWriter {
 
   void writeReplayDataToFile(ByteArrayOutputStream replayData, ReplayMetadata replayInfo) throws IOException;
+
+  /**
+   * Starts recording a replay to disk. The given metadata is stored alongside the data so that the replay can be
+   * recovered if the client does not get to finish the recording.
+   */
+  ReplayRecording startRecording(ReplayMetadata replayInfo) throws IOException;
+
+  /**
+   * Closes the recording and writes its data to a replay file using the given, final metadata.
+   */
+  void finishRecording(ReplayRecording recording, ReplayMetadata replayInfo) throws IOException;
+
+  /**
+   * Writes replay files for recordings that have been left behind by a previous run of the client, for instance
+   * because it crashed during a game. Such replays are marked as incomplete.
+   */
+  void recoverInterruptedRecordings();
 }
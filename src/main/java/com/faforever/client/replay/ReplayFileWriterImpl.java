@@ -3,27 +3,30 @@ package com.faforever.client.replay;
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.commons.io.Bytes;
-import com.faforever.commons.replay.QtCompress;
 import com.faforever.commons.replay.ReplayMetadata;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
-import com.google.common.io.BaseEncoding;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedWriter;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.Base64;
 import java.util.Locale;
-
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.nio.file.StandardOpenOption.APPEND;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.DeflaterOutputStream;
 
 @Lazy
 @Component
@@ -31,34 +34,162 @@ import static java.nio.file.StandardOpenOption.APPEND;
 @Slf4j
 public class ReplayFileWriterImpl implements ReplayFileWriter {
 
+  private static final String RECORDINGS_SUB_FOLDER = "recordings";
+  private static final String RECORDING_DATA_SUFFIX = ".replaydata";
+  private static final String RECORDING_METADATA_SUFFIX = ".json";
+
   private final ObjectMapper objectMapper = new ObjectMapper()
-      .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+      .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
   private final ClientProperties clientProperties;
   private final DataPrefs dataPrefs;
+  private final ExecutorService taskExecutor;
+
+  private final Set<Path> activeRecordings = ConcurrentHashMap.newKeySet();
 
   @Override
   public void writeReplayDataToFile(ByteArrayOutputStream replayData, ReplayMetadata replayInfo) throws IOException {
+    writeReplayFile(replayData::writeTo, replayData.size(), replayInfo);
+  }
+
+  @Override
+  public ReplayRecording startRecording(ReplayMetadata replayInfo) throws IOException {
+    Path recordingsDirectory = Files.createDirectories(getRecordingsDirectory());
+    String baseName = "%d-%d".formatted(replayInfo.getUid(), System.currentTimeMillis());
+    Path dataFile = recordingsDirectory.resolve(baseName + RECORDING_DATA_SUFFIX);
+    Path metadataFile = recordingsDirectory.resolve(baseName + RECORDING_METADATA_SUFFIX);
+
+    // Marked as active first, so that a concurrent recovery never sees the new recording without its data
+    activeRecordings.add(dataFile);
+    try {
+      objectMapper.writeValue(metadataFile.toFile(), replayInfo);
+    } catch (IOException e) {
+      activeRecordings.remove(dataFile);
+      throw e;
+    }
+    log.debug("Recording replay to `{}`", dataFile);
+    return new ReplayRecording(dataFile, metadataFile, () -> activeRecordings.remove(dataFile));
+  }
+
+  @Override
+  public void finishRecording(ReplayRecording recording, ReplayMetadata replayInfo) throws IOException {
+    recording.close();
+    writeRecordedReplayFile(recording.getDataFile(), recording.getMetadataFile(), replayInfo);
+  }
+
+  @Override
+  public void recoverInterruptedRecordings() {
+    Path recordingsDirectory = getRecordingsDirectory();
+    if (Files.notExists(recordingsDirectory)) {
+      return;
+    }
+
+    try (DirectoryStream<Path> metadataFiles = Files.newDirectoryStream(recordingsDirectory,
+                                                                        "*" + RECORDING_METADATA_SUFFIX)) {
+      for (Path metadataFile : metadataFiles) {
+        String fileName = metadataFile.getFileName().toString();
+        Path dataFile = metadataFile.resolveSibling(
+            fileName.substring(0, fileName.length() - RECORDING_METADATA_SUFFIX.length()) + RECORDING_DATA_SUFFIX);
+        if (activeRecordings.contains(dataFile)) {
+          continue;
+        }
+        recoverRecording(dataFile, metadataFile);
+      }
+    } catch (IOException e) {
+      log.warn("Could not list interrupted recordings in `{}`", recordingsDirectory, e);
+    }
+  }
+
+  private void recoverRecording(Path dataFile, Path metadataFile) {
+    try {
+      if (Files.notExists(dataFile) || Files.size(dataFile) == 0) {
+        log.info("Discarding empty recording `{}`", metadataFile);
+        Files.deleteIfExists(dataFile);
+        Files.delete(metadataFile);
+        return;
+      }
+
+      log.info("Recovering interrupted recording `{}`", dataFile);
+      ReplayMetadata replayInfo = objectMapper.readValue(metadataFile.toFile(), ReplayMetadata.class);
+      replayInfo.setGameEnd(Files.getLastModifiedTime(dataFile).toMillis() / 1000d);
+      replayInfo.setState("closed");
+      replayInfo.setComplete(false);
+      writeRecordedReplayFile(dataFile, metadataFile, replayInfo);
+    } catch (IOException e) {
+      log.warn("Could not recover interrupted recording `{}`", dataFile, e);
+    }
+  }
+
+  private void writeRecordedReplayFile(Path dataFile, Path metadataFile,
+                                       ReplayMetadata replayInfo) throws IOException {
+    writeReplayFile(outputStream -> Files.copy(dataFile, outputStream), Math.toIntExact(Files.size(dataFile)),
+                    replayInfo);
+    Files.delete(dataFile);
+    Files.delete(metadataFile);
+  }
+
+  /**
+   * Writes the metadata followed by the base64 encoded, {@code qCompress}ed replay data. Compression and encoding are
+   * streamed, so the data never needs to be held in memory as a whole.
+   */
+  private void writeReplayFile(ReplayData replayData, int dataLength, ReplayMetadata replayInfo) throws IOException {
     String fileName = String.format(clientProperties.getReplay().getReplayFileFormat(), replayInfo.getUid(), replayInfo.getRecorder());
     Path replayFile = dataPrefs.getReplaysDirectory().resolve(fileName);
+    Files.createDirectories(dataPrefs.getCacheDirectory());
     Path temporaryReplayFile = Files.createTempFile(dataPrefs.getCacheDirectory(), fileName, "fafreplay");
 
-    log.info("Writing replay file to `{}` ({})", replayFile, Bytes.formatSize(replayData.size(), Locale.ROOT));
+    log.info("Writing replay file to `{}` ({})", replayFile, Bytes.formatSize(dataLength, Locale.ROOT));
+
+    try {
+      Files.createDirectories(replayFile.getParent());
 
-    Files.createDirectories(replayFile.getParent());
+      try (OutputStream fileOutputStream = new BufferedOutputStream(Files.newOutputStream(temporaryReplayFile))) {
+        fileOutputStream.write(objectMapper.writeValueAsBytes(replayInfo));
+        fileOutputStream.write('\n');
 
-    try (BufferedWriter writer = Files.newBufferedWriter(temporaryReplayFile, UTF_8, APPEND)) {
-      byte[] compressedBytes = QtCompress.qCompress(replayData.toByteArray());
-      String base64ReplayData = BaseEncoding.base64().encode(compressedBytes);
+        OutputStream base64OutputStream = Base64.getEncoder().wrap(fileOutputStream);
+        // Same layout as QtCompress.qCompress: the uncompressed length as big endian int followed by the zlib stream
+        new DataOutputStream(base64OutputStream).writeInt(dataLength);
+        try (OutputStream deflaterOutputStream = createDeflaterOutputStream(base64OutputStream, dataLength)) {
+          replayData.writeTo(deflaterOutputStream);
+        }
+      }
 
-      StringWriter replayInfoWriter = new StringWriter();
+      Files.move(temporaryReplayFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      try {
+        Files.deleteIfExists(temporaryReplayFile);
+      } catch (IOException deleteException) {
+        e.addSuppressed(deleteException);
+      }
+      throw e;
+    }
+  }
 
-      objectMapper.writeValue(replayInfoWriter, replayInfo);
-      writer.write(replayInfoWriter.toString());
-      writer.write('\n');
-      writer.write(base64ReplayData);
+  /**
+   * Large replays are compressed on multiple cores, so that writing them doesn't hold up the client after long games.
+   */
+  private OutputStream createDeflaterOutputStream(OutputStream outputStream, int dataLength) {
+    ClientProperties.Replay replay = clientProperties.getReplay();
+    if (dataLength < replay.getParallelCompressionThreshold()) {
+      return new DeflaterOutputStream(outputStream);
     }
+    log.debug("Compressing replay data on up to {} cores", replay.getCompressionParallelism());
+    return new ParallelDeflaterOutputStream(outputStream, replay.getCompressionBlockSize(),
+                                            replay.getCompressionParallelism(), taskExecutor);
+  }
+
+  private Path getRecordingsDirectory() {
+    return dataPrefs.getCacheDirectory().resolve(RECORDINGS_SUB_FOLDER);
+  }
+
+  /**
+   * Replay data that can be written to a stream, wherever it is kept.
+   */
+  @FunctionalInterface
+  private interface ReplayData {
 
-    Files.move(temporaryReplayFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+    void writeTo(OutputStream outputStream) throws IOException;
   }
 }
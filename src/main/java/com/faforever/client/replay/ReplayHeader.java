@@ -0,0 +1,32 @@
+package com.faforever.client.replay;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The header of the replay data as written by the game, which describes the game setup before the first command.
+ *
+ * @param replayPatchFieldId game version like {@code Supreme Commander v1.50.3675}
+ * @param mapPath path of the scmap file like {@code /maps/scmp_009/scmp_009.scmap}
+ * @param mods Lua table of the active sim mods
+ * @param scenario Lua table of the scenario info, including the game options
+ * @param armies Lua tables of the armies in the order of their army index, including civilian armies
+ */
+public record ReplayHeader(
+    String replayPatchFieldId,
+    String replayVersion,
+    String mapPath,
+    Map<Object, Object> mods,
+    Map<Object, Object> scenario,
+    List<Map<Object, Object>> armies,
+    int randomSeed
+) {
+
+  public ReplayHeader {
+    armies = List.copyOf(armies);
+  }
+
+  public Map<?, ?> gameOptions() {
+    return scenario.get("Options") instanceof Map<?, ?> options ? options : Map.of();
+  }
+}
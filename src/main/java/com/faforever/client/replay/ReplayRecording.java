@@ -0,0 +1,75 @@
+package com.faforever.client.replay;
+
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A replay that is currently being recorded. Replay data is appended to a file as it arrives so that memory usage does
+ * not grow with the length of the game and the data survives a crash of the client. Recordings are created and
+ * finished by {@link ReplayFileWriter}.
+ */
+public class ReplayRecording implements Closeable {
+
+  /**
+   * Maximum time data may stay in the buffer before it is handed to the OS. The replay stream only produces about 70
+   * bytes per second, so without this, a crash could lose a considerable part of the game.
+   */
+  private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+  @Getter
+  private final Path dataFile;
+  @Getter
+  private final Path metadataFile;
+  private final Runnable closeListener;
+  private final OutputStream outputStream;
+
+  @Getter
+  private long size;
+  private long lastFlush;
+  private boolean closed;
+
+  ReplayRecording(Path dataFile, Path metadataFile, Runnable closeListener) throws IOException {
+    this.dataFile = dataFile;
+    this.metadataFile = metadataFile;
+    this.closeListener = closeListener;
+    this.outputStream = new BufferedOutputStream(Files.newOutputStream(dataFile, CREATE_NEW, WRITE));
+    this.lastFlush = System.currentTimeMillis();
+  }
+
+  public void write(byte[] buffer, int offset, int length) throws IOException {
+    outputStream.write(buffer, offset, length);
+    size += length;
+
+    long now = System.currentTimeMillis();
+    if (now - lastFlush >= FLUSH_INTERVAL_MILLIS) {
+      outputStream.flush();
+      lastFlush = now;
+    }
+  }
+
+  /**
+   * Stops recording without writing a replay file. The recorded data is kept and turned into a replay by
+   * {@link ReplayFileWriter#recoverInterruptedRecordings()}.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      outputStream.close();
+    } finally {
+      closeListener.run();
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package com.faforever.client.replay;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Forwards the replay stream to the live replay server. Data is handed over to a sender running on the task executor
+ * through a queue, so that a slow or unreachable server never blocks reading the stream from the game. Small chunks are batched until
+ * either the batch is full or its oldest data has been held back for the maximum latency.
+ */
+@Slf4j
+public class ReplayRelay implements AutoCloseable {
+
+  private static final Chunk END_OF_STREAM = new Chunk(new byte[0], 0);
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+  private final OutputStream outputStream;
+  private final int batchSize;
+  private final long maxLatencyNanos;
+  private final int queueCapacity;
+
+  private final BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+  private final AtomicLong queuedBytes = new AtomicLong();
+  private final LongAdder bytesRelayed = new LongAdder();
+  private final LongAdder bytesDropped = new LongAdder();
+  private final LongAdder flushCount = new LongAdder();
+  private final AtomicLong lastLagNanos = new AtomicLong();
+  private final AtomicLong maxLagNanos = new AtomicLong();
+  private final Future<?> sender;
+
+  private volatile boolean connectionLost;
+
+  ReplayRelay(OutputStream outputStream, int batchSize, Duration maxLatency, int queueCapacity,
+              ExecutorService taskExecutor) {
+    this.outputStream = outputStream;
+    this.batchSize = batchSize;
+    this.maxLatencyNanos = maxLatency.toNanos();
+    this.queueCapacity = queueCapacity;
+    this.sender = taskExecutor.submit(this::send);
+  }
+
+  /**
+   * Queues the given data to be sent. Never blocks; if the server does not keep up, the connection to it is given up.
+   */
+  public void relay(byte[] buffer, int offset, int length) {
+    if (connectionLost) {
+      bytesDropped.add(length);
+      return;
+    }
+
+    if (queuedBytes.get() + length > queueCapacity) {
+      log.warn("Replay server does not keep up, giving up connection ({} bytes queued)", queuedBytes.get());
+      giveUp(length);
+      return;
+    }
+
+    queuedBytes.addAndGet(length);
+    queue.add(new Chunk(Arrays.copyOfRange(buffer, offset, offset + length), System.nanoTime()));
+  }
+
+  public Statistics getStatistics() {
+    return new Statistics(bytesRelayed.sum(), bytesDropped.sum(), flushCount.sum(),
+                          Duration.ofNanos(lastLagNanos.get()), Duration.ofNanos(maxLagNanos.get()));
+  }
+
+  public boolean isConnectionLost() {
+    return connectionLost;
+  }
+
+  /**
+   * Sends all queued data and stops the sender. Gives up if the data can't be sent within a few seconds.
+   */
+  @Override
+  public void close() {
+    queue.add(END_OF_STREAM);
+    try {
+      sender.get(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      log.warn("Replay server did not accept remaining data in time");
+      giveUp(0);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      giveUp(0);
+    } catch (ExecutionException e) {
+      log.warn("Replay relay failed", e.getCause());
+    }
+    log.info("Closed replay relay: {}", getStatistics());
+  }
+
+  private void giveUp(int droppedLength) {
+    connectionLost = true;
+    sender.cancel(true);
+    // Interrupting a platform thread does not unblock a write to a socket, closing the socket does
+    try {
+      outputStream.close();
+    } catch (IOException e) {
+      log.debug("Could not close connection to replay server", e);
+    }
+    bytesDropped.add(droppedLength);
+    dropQueuedChunks();
+  }
+
+  /**
+   * Removes all chunks from the queue. Chunks are only counted out of {@link #queuedBytes} by whoever takes them from
+   * the queue, so that a chunk the sender took in the meantime is not subtracted twice.
+   */
+  private void dropQueuedChunks() {
+    List<Chunk> chunks = new ArrayList<>();
+    queue.drainTo(chunks);
+    for (Chunk chunk : chunks) {
+      queuedBytes.addAndGet(-chunk.data().length);
+      bytesDropped.add(chunk.data().length);
+    }
+  }
+
+  private void send() {
+    byte[] batch = new byte[batchSize];
+    int batchLength = 0;
+    long batchStart = 0;
+    try {
+      while (true) {
+        Chunk chunk = batchLength == 0
+            ? queue.take()
+            : queue.poll(batchStart + maxLatencyNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+        if (chunk == null) {
+          flush(batch, batchLength, batchStart);
+          batchLength = 0;
+          continue;
+        }
+        if (chunk == END_OF_STREAM) {
+          flush(batch, batchLength, batchStart);
+          return;
+        }
+
+        queuedBytes.addAndGet(-chunk.data().length);
+        if (batchLength == 0) {
+          batchStart = chunk.receivedAt();
+        }
+
+        int offset = 0;
+        while (offset < chunk.data().length) {
+          int length = Math.min(chunk.data().length - offset, batchSize - batchLength);
+          System.arraycopy(chunk.data(), offset, batch, batchLength, length);
+          batchLength += length;
+          offset += length;
+
+          if (batchLength == batchSize) {
+            flush(batch, batchLength, batchStart);
+            batchLength = 0;
+            batchStart = chunk.receivedAt();
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      // In case we lose connection to the replay server, just stop writing to it
+      log.warn("Connection to replay server lost ({})", e.getMessage());
+      connectionLost = true;
+      dropQueuedChunks();
+    }
+  }
+
+  private void flush(byte[] batch, int length, long batchStart) throws IOException {
+    if (length == 0) {
+      return;
+    }
+    outputStream.write(batch, 0, length);
+    outputStream.flush();
+
+    long lag = System.nanoTime() - batchStart;
+    bytesRelayed.add(length);
+    flushCount.increment();
+    lastLagNanos.set(lag);
+    maxLagNanos.accumulateAndGet(lag, Math::max);
+  }
+
+  private record Chunk(byte[] data, long receivedAt) {}
+
+  /**
+   * @param lastLag time the data of the most recent batch has been held back before it was sent
+   * @param maxLag maximum time data has been held back before it was sent
+   */
+  public record Statistics(long bytesRelayed, long bytesDropped, long flushCount, Duration lastLag, Duration maxLag) {}
+}
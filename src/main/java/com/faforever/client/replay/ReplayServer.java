@@ -1,6 +1,7 @@
 package com.faforever.client.replay;
 
 import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.ClientProperties.Replay;
 import com.faforever.client.domain.server.GameInfo;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.game.GameService;
@@ -17,39 +18,37 @@ import com.google.common.primitives.Bytes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.ConnectException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.net.SocketException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 @Lazy
 @Component
 @Slf4j
 @RequiredArgsConstructor
-public class ReplayServer {
+public class ReplayServer implements InitializingBean {
 
   /**
-   * Size for buffer used to send data to the live replay server. The buffer needs to be large enough to not flush too
-   * many times (after all, it's a TCP stream so we don't want to send single bytes) but small enough to not delay data
-   * for too long. I don't have any data right now but it can be expected that the replay stream produces about 70 bytes
-   * per second (See #973).
+   * Size for buffer used to read data from the game. A read returns whatever is available, so this does not delay any
+   * data. It can be expected that the replay stream produces about 70 bytes per second (See #973), batching data sent
+   * to the live replay server is done by {@link ReplayRelay}.
    */
-  private static final int REPLAY_BUFFER_SIZE = 128;
+  private static final int READ_BUFFER_SIZE = 4096;
 
   /**
    * This is a prefix used in the FA live replay protocol that needs to be stripped away when storing to a file.
@@ -63,6 +62,7 @@ public class ReplayServer {
   private final ReplayFileWriter replayFileWriter;
   private final PlayerService playerService;
   private final GameService gameService;
+  private final ExecutorService taskExecutor;
 
   private ReplayMetadata replayInfo;
   private ServerSocket serverSocket;
@@ -75,6 +75,12 @@ public class ReplayServer {
     return System.currentTimeMillis() / 1000d;
   }
 
+  @Override
+  public void afterPropertiesSet() {
+    // Recordings are recovered once per run, so that games are never kept waiting for it
+    taskExecutor.execute(replayFileWriter::recoverInterruptedRecordings);
+  }
+
   public void stop() {
     if (serverSocket == null) {
       return;
@@ -91,7 +97,7 @@ public class ReplayServer {
   public CompletableFuture<Integer> start(int gameId) {
     stoppedGracefully = false;
     CompletableFuture<Integer> future = new CompletableFuture<>();
-    new Thread(() -> {
+    taskExecutor.execute(() -> {
       String remoteReplayServerHost = clientProperties.getReplay().getRemoteHost();
       int remoteReplayServerPort = clientProperties.getReplay().getRemotePort();
 
@@ -103,9 +109,8 @@ public class ReplayServer {
         future.complete(serverSocket.getLocalPort());
 
         try (Socket remoteReplayServerSocket = new Socket(remoteReplayServerHost, remoteReplayServerPort);
-             DataOutputStream fafReplayOutputStream = new DataOutputStream(
-                 remoteReplayServerSocket.getOutputStream())) {
-          recordAndRelay(gameId, localSocket, fafReplayOutputStream);
+             ReplayRelay relay = createRelay(remoteReplayServerSocket.getOutputStream())) {
+          recordAndRelay(gameId, localSocket, relay);
         } catch (ConnectException e) {
           log.warn("Could not connect to remote replay server", e);
           notificationService.addNotification(
@@ -123,10 +128,16 @@ public class ReplayServer {
             Collections.singletonList(new Action(i18n.get("replayServer.retry"), () -> start(gameId)))
         ));
       }
-    }).start();
+    });
     return future;
   }
 
+  private ReplayRelay createRelay(OutputStream outputStream) {
+    Replay replay = clientProperties.getReplay();
+    return new ReplayRelay(outputStream, replay.getRelayBatchSize(), replay.getRelayMaxLatency(),
+                           replay.getRelayQueueCapacity(), taskExecutor);
+  }
+
   private void initReplayInfo(int uid) {
     replayInfo = new ReplayMetadata();
     replayInfo.setUid(uid);
@@ -138,48 +149,60 @@ public class ReplayServer {
   }
 
   /**
-   * @param fafReplayOutputStream if {@code null}, the replay won't be relayed
+   * @param replayRelay if {@code null}, the replay won't be relayed
    */
-  private void recordAndRelay(int uid, ServerSocket serverSocket,
-                              @Nullable OutputStream fafReplayOutputStream) throws IOException {
+  private void recordAndRelay(int uid, ServerSocket serverSocket, @Nullable ReplayRelay replayRelay) throws IOException {
     Socket socket = serverSocket.accept();
     GameInfo game = gameService.getByUid(uid).orElseThrow();
     log.info("Accepted connection from `{}`", socket.getRemoteSocketAddress());
 
     initReplayInfo(uid);
+    updateReplayInfo(game);
 
-    ByteArrayOutputStream replayData = new ByteArrayOutputStream();
+    ReplayRecording recording = replayFileWriter.startRecording(replayInfo);
 
-    boolean connectionToServerLost = false;
-    byte[] buffer = new byte[REPLAY_BUFFER_SIZE];
-    try (InputStream inputStream = socket.getInputStream()) {
+    byte[] buffer = new byte[READ_BUFFER_SIZE];
+    try (recording; InputStream inputStream = socket.getInputStream()) {
       int bytesRead;
       while ((bytesRead = inputStream.read(buffer)) != -1) {
-        if (replayData.size() == 0 && Bytes.indexOf(buffer, LIVE_REPLAY_PREFIX) != -1) {
+        if (recording.getSize() == 0 && Bytes.indexOf(buffer, LIVE_REPLAY_PREFIX) != -1) {
           int dataBeginIndex = Bytes.indexOf(buffer, (byte) 0x00) + 1;
-          replayData.write(buffer, dataBeginIndex, bytesRead - dataBeginIndex);
+          recording.write(buffer, dataBeginIndex, bytesRead - dataBeginIndex);
         } else {
-          replayData.write(buffer, 0, bytesRead);
+          recording.write(buffer, 0, bytesRead);
         }
 
-        if (!connectionToServerLost && fafReplayOutputStream != null) {
-          try {
-            fafReplayOutputStream.write(buffer, 0, bytesRead);
-          } catch (SocketException e) {
-            // In case we lose connection to the replay server, just stop writing to it
-            log.warn("Connection to replay server lost ({})", e.getMessage());
-            connectionToServerLost = true;
-          }
+        if (replayRelay != null) {
+          replayRelay.relay(buffer, 0, bytesRead);
         }
       }
+
+      log.info("FAF disconnected, writing replay data to file");
+      finishReplayInfo(game);
+      replayFileWriter.finishRecording(recording, replayInfo);
     } catch (Exception e) {
+      // The recorded data stays on disk and is recovered by the next run of the client
       log.error("Error while recording replay", e);
       throw e;
     }
+  }
 
-    log.info("FAF disconnected, writing replay data to file");
-    finishReplayInfo(game);
-    replayFileWriter.writeReplayDataToFile(replayData, replayInfo);
+  /**
+   * Sets the metadata that is already known when the game starts, so that it is available if the recording needs to
+   * be recovered.
+   */
+  private void updateReplayInfo(GameInfo game) {
+    replayInfo.setHost(game.getHost());
+    replayInfo.setUid(game.getId());
+    replayInfo.setTitle(game.getTitle());
+    replayInfo.setMapname(game.getMapFolderName());
+    replayInfo.setVictoryCondition(game.getVictoryCondition());
+    replayInfo.setFeaturedMod(game.getFeaturedMod());
+    replayInfo.setMaxPlayers(game.getMaxPlayers());
+    replayInfo.setNumPlayers(game.getNumActivePlayers());
+    replayInfo.setSimMods(game.getSimMods());
+    replayInfo.setFeaturedModVersions(Map.of());
+    replayInfo.setRecorder(loginService.getUsername());
   }
 
   private void finishReplayInfo(GameInfo game) {
@@ -195,19 +218,9 @@ public class ReplayServer {
                                                                                                          .collect(
                                                                                                              Collectors.toList())));
 
-    replayInfo.setHost(game.getHost());
-    replayInfo.setUid(game.getId());
-    replayInfo.setTitle(game.getTitle());
-    replayInfo.setMapname(game.getMapFolderName());
-    replayInfo.setVictoryCondition(game.getVictoryCondition());
-    replayInfo.setFeaturedMod(game.getFeaturedMod());
-    replayInfo.setMaxPlayers(game.getMaxPlayers());
-    replayInfo.setNumPlayers(game.getNumActivePlayers());
-    replayInfo.setSimMods(game.getSimMods());
+    updateReplayInfo(game);
     replayInfo.setTeams(teamStrings);
-    replayInfo.setFeaturedModVersions(Map.of());
     replayInfo.setGameEnd(pythonTime());
-    replayInfo.setRecorder(loginService.getUsername());
     // TODO: Use enum when setter is fixed in java commons
     replayInfo.setState("closed");
     replayInfo.setComplete(true);
@@ -4,12 +4,14 @@ import com.faforever.client.api.FafApiAccessor;
 import com.faforever.client.config.CacheNames;
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.domain.api.FeaturedMod;
+import com.faforever.client.domain.api.GamePlayerStats;
 import com.faforever.client.domain.api.LeagueScoreJournal;
 import com.faforever.client.domain.api.Map;
 import com.faforever.client.domain.api.MapVersion;
 import com.faforever.client.domain.api.Replay;
 import com.faforever.client.domain.api.Replay.ChatMessage;
 import com.faforever.client.domain.api.Replay.GameOption;
+import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.featuredmod.FeaturedModService;
 import com.faforever.client.fx.PlatformService;
 import com.faforever.client.game.GameService;
@@ -21,6 +23,8 @@ import com.faforever.client.notification.Action;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.notification.PersistentNotification;
 import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.replay.LocalReplayIndex.IndexedReplay;
+import com.faforever.client.replay.LocalReplayQuery.Field;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.user.LoginService;
 import com.faforever.client.util.FileSizeReader;
@@ -32,7 +36,6 @@ import com.faforever.commons.api.dto.GameReviewsSummary;
 import com.faforever.commons.api.elide.ElideNavigator;
 import com.faforever.commons.api.elide.ElideNavigatorOnCollection;
 import com.faforever.commons.api.elide.ElideNavigatorOnId;
-import com.faforever.commons.replay.ReplayDataParser;
 import com.faforever.commons.replay.ReplayMetadata;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.RequiredArgsConstructor;
@@ -44,22 +47,22 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.function.Tuple2;
 
-import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.FileTime;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -68,7 +71,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import static com.faforever.client.notification.Severity.WARN;
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
@@ -83,7 +85,6 @@ public class ReplayService {
 
   private static final String FAF_REPLAY_FILE_ENDING = ".fafreplay";
   public static final String SUP_COM_REPLAY_FILE_ENDING = ".scfareplay";
-  private static final String TEMP_SCFA_REPLAY_FILE_NAME = "temp.scfareplay";
   private static final Pattern invalidCharacters = Pattern.compile("[?@*%{}<>|\"]");
 
   private final ClientProperties clientProperties;
@@ -102,24 +103,23 @@ public class ReplayService {
   private final ReplayMapper replayMapper;
   private final DataPrefs dataPrefs;
   private final ObjectFactory<ReplayDownloadTask> replayDownloadTaskFactory;
+  private final LocalReplayIndex localReplayIndex;
+  private final ExtractedReplayCache extractedReplayCache;
 
   @VisibleForTesting
-  static Integer parseSupComVersion(ReplayDataParser parser) {
-    String[] versionParts = parser.getReplayPatchFieldId().split("\\.");
+  static Integer parseSupComVersion(ReplayHeader header) {
+    String[] versionParts = header.replayPatchFieldId().split("\\.");
     return Integer.parseInt(versionParts[versionParts.length - 1]);
   }
 
   @VisibleForTesting
-  static String parseMapFolderName(ReplayDataParser parser) {
+  static String parseMapFolderName(ReplayHeader header) {
     // Prefer the scenario file path as that contains all the information to actually launch the map. The map in the
-    // parser is just the scmap which may have a different folder and will not contain all the info to launch the map
+    // header is just the scmap which may have a different folder and will not contain all the info to launch the map
     // or even may not be a map in the vault like in the case of any coop map.
-    String mapPath = parser.getGameOptions()
-                           .stream()
-                           .filter(gameOption -> "ScenarioFile".equals(gameOption.getKey()))
-                           .findFirst()
-                           .map(gameOption -> (String) gameOption.getValue())
-                           .orElse(parser.getMap());
+    String mapPath = header.gameOptions().get("ScenarioFile") instanceof String scenarioFile
+                     ? scenarioFile
+                     : header.mapPath();
     //mapPath looks like /maps/my_awesome_map.v008/my_awesome_map.lua
     Matcher matcher = invalidCharacters.matcher(mapPath);
     if (matcher.find()) {
@@ -129,11 +129,13 @@ public class ReplayService {
   }
 
   @VisibleForTesting
-  static Set<String> parseModUIDs(ReplayDataParser parser) {
-    return parser.getMods()
+  static Set<String> parseModUIDs(ReplayHeader header) {
+    return header.mods()
                  .values()
                  .stream()
-                 .map(map -> (String) map.getOrDefault("uid", null))
+                 .map(mod -> mod instanceof java.util.Map<?, ?> modInfo && modInfo.get("uid") instanceof String uid
+                              ? uid
+                              : null)
                  .filter(Objects::nonNull)
                  .collect(Collectors.toSet());
   }
@@ -147,74 +149,94 @@ public class ReplayService {
     return KnownFeaturedMod.DEFAULT.getTechnicalName();
   }
 
-  public Mono<Tuple2<List<Replay>, Integer>> loadLocalReplayPage(int pageSize, int page) throws IOException {
-    String replayFileGlob = clientProperties.getReplay().getReplayFileGlob();
+  public Mono<Tuple2<List<Replay>, Integer>> loadLocalReplayPage(int pageSize, int page) {
+    return loadLocalReplayPage(LocalReplayQuery.ALL, pageSize, page);
+  }
 
-    Path replaysDirectory = dataPrefs.getReplaysDirectory();
-    if (Files.notExists(replaysDirectory)) {
-      Files.createDirectories(replaysDirectory);
-    }
+  /**
+   * Loads a page of the local replays matching a search of the local replay vault, see
+   * {@link LocalReplayQuery#of(SearchConfig)}.
+   */
+  public Mono<Tuple2<List<Replay>, Integer>> loadLocalReplayPage(SearchConfig searchConfig, int pageSize, int page) {
+    return Mono.fromCallable(() -> LocalReplayQuery.of(searchConfig))
+               .flatMap(query -> loadLocalReplayPage(query, pageSize, page));
+  }
+
+  /**
+   * Returns the values of a player, map or featured mod field of the local replays, most frequent values first.
+   */
+  public Mono<List<String>> getLocalReplayFieldValues(Field field) {
+    return Mono.fromCallable(() -> {
+      localReplayIndex.update().forEach(this::moveCorruptedReplayFile);
+      return List.copyOf(localReplayIndex.countValues(field, LocalReplayQuery.ALL).keySet());
+    }).subscribeOn(Schedulers.boundedElastic());
+  }
 
-    int skippedReplays = pageSize * (page - 1);
-
-    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(replaysDirectory, replayFileGlob)) {
-      List<Path> filesList = StreamSupport.stream(directoryStream.spliterator(), false)
-                                          .sorted(Comparator.comparing(path -> {
-                                            try {
-                                              return Files.getLastModifiedTime((Path) path);
-                                            } catch (IOException e) {
-                                              log.warn("Could not get last modified time of file {}", path, e);
-                                              return FileTime.from(Instant.EPOCH);
-                                            }
-                                          }).reversed())
-                                          .toList();
-
-      int numPages = filesList.size() / pageSize;
-
-      List<CompletableFuture<Replay>> replayFutures = filesList.stream()
-                                                               .skip(skippedReplays)
-                                                               .limit(pageSize)
-                                                               .map(this::tryLoadingLocalReplay)
-                                                               .filter(e -> !e.isCompletedExceptionally())
+  /**
+   * Loads a page of the local replays matching the specified query from the {@link LocalReplayIndex}, so only replay
+   * files that are new or changed since they have last been indexed are read.
+   */
+  public Mono<Tuple2<List<Replay>, Integer>> loadLocalReplayPage(LocalReplayQuery query, int pageSize, int page) {
+    return Mono.fromCallable(() -> {
+      localReplayIndex.update().forEach(this::moveCorruptedReplayFile);
+      return localReplayIndex.query(query, pageSize * (page - 1), pageSize);
+    }).subscribeOn(Schedulers.boundedElastic()).flatMap(indexPage -> {
+      int numPages = indexPage.totalCount() / pageSize;
+
+      List<CompletableFuture<Replay>> replayFutures = indexPage.replays()
+                                                               .stream()
+                                                               .map(this::loadLocalReplay)
                                                                .toList();
 
       return Mono.fromFuture(CompletableFuture.allOf(replayFutures.toArray(new CompletableFuture[0]))
                                               .thenApply(ignoredVoid -> replayFutures.stream()
                                                                                      .map(CompletableFuture::join)
-                                                                                     .filter(Objects::nonNull)
-                                                                                     .collect(Collectors.toList())))
+                                                                                     .toList()))
                  .zipWith(Mono.just(numPages));
-    }
+    });
   }
 
+  private CompletableFuture<Replay> loadLocalReplay(IndexedReplay indexedReplay) {
+    LocalReplayIndex.Entry entry = indexedReplay.entry();
+    CompletableFuture<FeaturedMod> featuredModFuture = featuredModService.getFeaturedMod(entry.featuredMod())
+                                                                         .toFuture();
+    CompletableFuture<MapVersion> mapVersionFuture = mapService.findByMapFolderName(entry.mapName()).toFuture();
 
-  private CompletableFuture<Replay> tryLoadingLocalReplay(Path replayFile) {
-    try {
-      ReplayDataParser replayData = replayFileReader.parseReplay(replayFile);
-      ReplayMetadata replayMetadata = replayData.getMetadata();
-
-      CompletableFuture<FeaturedMod> featuredModFuture = featuredModService.getFeaturedMod(
-          replayMetadata.getFeaturedMod()).toFuture();
-      CompletableFuture<MapVersion> mapVersionFuture = mapService.findByMapFolderName(replayMetadata.getMapname())
-                                                                 .toFuture();
-
-      return CompletableFuture.allOf(featuredModFuture, mapVersionFuture).thenApply(ignoredVoid -> {
-        MapVersion mapVersion = mapVersionFuture.join();
-        FeaturedMod featuredMod = featuredModFuture.join();
-        if (mapVersion == null) {
-          log.warn("Could not find map for replay file `{}`", replayFile);
-        }
-        return replayMapper.map(replayData, replayFile, featuredMod, mapVersion);
-      }).exceptionally(throwable -> {
-        log.warn("Could not read replay file `{}`", replayFile, throwable);
-        moveCorruptedReplayFile(replayFile);
-        return null;
-      });
-    } catch (Exception e) {
-      log.warn("Could not read replay file `{}`", replayFile, e);
-      moveCorruptedReplayFile(replayFile);
-      return CompletableFuture.completedFuture(null);
-    }
+    return CompletableFuture.allOf(featuredModFuture, mapVersionFuture).handle((ignoredVoid, throwable) -> {
+      if (throwable != null) {
+        log.warn("Could not load featured mod or map of replay file `{}`", indexedReplay.replayFile(), throwable);
+      }
+      MapVersion mapVersion = mapVersionFuture.isCompletedExceptionally() ? null : mapVersionFuture.join();
+      FeaturedMod featuredMod = featuredModFuture.isCompletedExceptionally() ? null : featuredModFuture.join();
+      if (mapVersion == null) {
+        log.warn("Could not find map for replay file `{}`", indexedReplay.replayFile());
+      }
+      return mapLocalReplay(indexedReplay, featuredMod, mapVersion);
+    });
+  }
+
+  /**
+   * Maps a replay from its indexed metadata. Ratings and factions are only stored in the replay data, so the players
+   * just have their names.
+   */
+  private Replay mapLocalReplay(IndexedReplay indexedReplay, FeaturedMod featuredMod, MapVersion mapVersion) {
+    LocalReplayIndex.Entry entry = indexedReplay.entry();
+    java.util.Map<String, List<GamePlayerStats>> teamPlayerStats = new HashMap<>();
+    entry.teams().forEach((team, playerNames) -> {
+      byte teamNumber = team.matches("-?\\d{1,2}") ? Byte.parseByte(team) : 0;
+      teamPlayerStats.put(team, playerNames.stream().map(playerName -> {
+        PlayerInfo player = new PlayerInfo();
+        player.setUsername(playerName);
+        return new GamePlayerStats(false, null, (byte) 0, teamNumber, (byte) 0, (byte) 0, null, null, player,
+                                   List.of());
+      }).toList());
+    });
+    OffsetDateTime endTime = entry.endTime() > 0 ? OffsetDateTime.ofInstant(Instant.ofEpochMilli(entry.endTime()),
+                                                                            ZoneId.systemDefault()) : null;
+    return new Replay(entry.uid(), entry.title(), true, entry.teams(), teamPlayerStats, null,
+                      OffsetDateTime.ofInstant(Instant.ofEpochMilli(entry.startTime()), ZoneId.systemDefault()),
+                      endTime, featuredMod, mapVersion, indexedReplay.replayFile(), null, List.of(), List.of(), null,
+                      null, true);
   }
 
   private void moveCorruptedReplayFile(Path replayFile) {
@@ -280,21 +302,28 @@ public class ReplayService {
   }
 
   /**
-   * Reads the specified replay file in order to add more information to the specified replay instance.
+   * Reads the specified replay file in order to add more information to the specified replay instance. Only the
+   * commands that may contain chat messages are decoded.
    */
   public ReplayDetails loadReplayDetails(Path path) throws CompressorException, IOException {
-    ReplayDataParser replayDataParser = replayFileReader.parseReplay(path);
-    List<ChatMessage> chatMessages = replayDataParser.getChatMessages().stream().map(replayMapper::map).toList();
-    List<GameOption> gameOptions = Stream.concat(
-        Stream.of(new GameOption("FAF Version", String.valueOf(parseSupComVersion(replayDataParser)))),
-        replayDataParser.getGameOptions().stream().map(replayMapper::map).sorted(Comparator.comparing(GameOption::key, String.CASE_INSENSITIVE_ORDER))).toList();
-
-    String mapFolderName = parseMapFolderName(replayDataParser);
-    Map map = new Map(null, mapFolderName, 0, null, false, null, null);
-    MapVersion mapVersion = new MapVersion(null, mapFolderName, 0, null, 0, null, null, false, false, null, null, null,
-                                           map, null);
-
-    return new ReplayDetails(chatMessages, gameOptions, mapVersion);
+    try (ReplayDataReader replayDataReader = replayFileReader.openReplayDataReader(path)) {
+      ReplayHeader header = replayDataReader.getHeader();
+      List<ChatMessage> chatMessages = replayDataReader.readChatMessages();
+      List<GameOption> gameOptions = Stream.concat(
+          Stream.of(new GameOption("FAF Version", String.valueOf(parseSupComVersion(header)))),
+          header.gameOptions()
+                .entrySet()
+                .stream()
+                .map(option -> new GameOption(String.valueOf(option.getKey()), String.valueOf(option.getValue())))
+                .sorted(Comparator.comparing(GameOption::key, String.CASE_INSENSITIVE_ORDER))).toList();
+
+      String mapFolderName = parseMapFolderName(header);
+      Map map = new Map(null, mapFolderName, 0, null, false, null, null);
+      MapVersion mapVersion = new MapVersion(null, mapFolderName, 0, null, 0, null, null, false, false, null, null,
+                                             null, map, null);
+
+      return new ReplayDetails(chatMessages, gameOptions, mapVersion, replayMapper.mapTeamPlayerStats(header));
+    }
   }
 
   public CompletableFuture<Integer> getFileSize(Replay replay) {
@@ -348,36 +377,40 @@ public class ReplayService {
     });
   }
 
+  /**
+   * Starts the replay data extracted by {@link ExtractedReplayCache}. Only the metadata and the header are read to
+   * set up the game, the commands are left to the game.
+   */
   private void runFafReplayFile(Path path) throws IOException, CompressorException {
-    ReplayDataParser replayData = replayFileReader.parseReplay(path);
-    byte[] rawReplayBytes = replayData.getData();
-
-    Path tempSupComReplayFile = dataPrefs.getCacheDirectory().resolve(TEMP_SCFA_REPLAY_FILE_NAME);
+    ReplayMetadata replayMetadata = replayFileReader.readMetadata(path);
+    Path supComReplayFile = extractedReplayCache.extract(path);
 
-    Files.createDirectories(tempSupComReplayFile.getParent());
-    Files.copy(new ByteArrayInputStream(rawReplayBytes), tempSupComReplayFile, StandardCopyOption.REPLACE_EXISTING);
+    ReplayHeader header;
+    try (ReplayDataReader replayDataReader = replayFileReader.openReplayDataReader(supComReplayFile)) {
+      header = replayDataReader.getHeader();
+    }
 
-    ReplayMetadata replayMetadata = replayData.getMetadata();
     String gameType = replayMetadata.getFeaturedMod();
     Integer replayId = replayMetadata.getUid();
     java.util.Map<String, Integer> modVersions = replayMetadata.getFeaturedModVersions();
-    String mapName = parseMapFolderName(replayData);
-
-    Set<String> simMods = parseModUIDs(replayData);
-
-    Integer version = parseSupComVersion(replayData);
+    String mapName = parseMapFolderName(header);
+    Set<String> simMods = parseModUIDs(header);
+    Integer version = parseSupComVersion(header);
 
-    replayRunner.runWithReplay(tempSupComReplayFile, replayId, gameType, version, modVersions, simMods, mapName);
+    replayRunner.runWithReplay(supComReplayFile, replayId, gameType, version, modVersions, simMods, mapName);
   }
 
   private void runSupComReplayFile(Path path) throws IOException, CompressorException {
-    ReplayDataParser replayData = replayFileReader.parseReplay(path);
+    ReplayHeader header;
+    try (ReplayDataReader replayDataReader = replayFileReader.openReplayDataReader(path)) {
+      header = replayDataReader.getHeader();
+    }
 
-    Integer version = parseSupComVersion(replayData);
-    String mapName = parseMapFolderName(replayData);
+    Integer version = parseSupComVersion(header);
+    String mapName = parseMapFolderName(header);
     String fileName = path.getFileName().toString();
     String gameType = guessModByFileName(fileName);
-    Set<String> simMods = parseModUIDs(replayData);
+    Set<String> simMods = parseModUIDs(header);
 
     replayRunner.runWithReplay(path, null, gameType, version, java.util.Map.of(), simMods, mapName);
   }
@@ -455,14 +488,18 @@ public class ReplayService {
 
   private Mono<Tuple2<List<Replay>, Integer>> getReplayPage(ElideNavigatorOnCollection<Game> navigator, int count,
                                                             int page) {
-    return getReplayPage(navigator, "", count, page);
+    navigator.pageNumber(page).pageSize(count);
+    return fafApiAccessor.getManyWithPageCount(navigator, "").map(this::mapReplays);
   }
 
   private Mono<Tuple2<List<Replay>, Integer>> getReplayPage(ElideNavigatorOnCollection<Game> navigator,
                                                             String customFilter, int count, int page) {
     navigator.pageNumber(page).pageSize(count);
-    return fafApiAccessor.getManyWithPageCount(navigator, customFilter)
-                         .map(tuple -> tuple.mapT1(mods -> mods.stream().map(replayMapper::map).collect(toList())));
+    return fafApiAccessor.getManyWithPageCountAndPrefetch(navigator, customFilter).map(this::mapReplays);
+  }
+
+  private Tuple2<List<Replay>, Integer> mapReplays(Tuple2<List<Game>, Integer> tuple) {
+    return tuple.mapT1(games -> games.stream().map(replayMapper::map).collect(toList()));
   }
 
   public Flux<LeagueScoreJournal> getLeagueScoreJournalForReplay(Replay replay) {
@@ -35,6 +35,11 @@ public abstract class CompletableTask<V> extends Task<V> implements PrioritizedC
     return priority.compareTo(other.priority);
   }
 
+  @Override
+  public Priority getPriority() {
+    return priority;
+  }
+
   public void setPriority(Priority priority) {
     Assert.checkNotNullIllegalState(this.priority, "Priority has already been set");
     this.priority = priority;
@@ -49,6 +54,7 @@ public abstract class CompletableTask<V> extends Task<V> implements PrioritizedC
   public enum Priority {
     LOW,
     MEDIUM,
-    HIGH
+    HIGH,
+    CRITICAL
   }
 }
@@ -20,6 +20,8 @@ public interface PrioritizedCompletableTask<V> extends Comparable<CompletableTas
   @Override
   boolean cancel(boolean mayInterruptIfRunning);
 
+  CompletableTask.Priority getPriority();
+
   CompletableFuture<V> getFuture();
 
   Mono<V> getMono();
@@ -0,0 +1,178 @@
+package com.faforever.client.task;
+
+import com.faforever.client.task.CompletableTask.Priority;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs tasks on a bounded number of workers. Every priority has its own queue, queued tasks of a higher priority are
+ * started first and tasks of the same priority are started in the order they were submitted.
+ * <p>
+ * Some workers are reserved for {@link Priority#CRITICAL} tasks, so that bulk work like downloading many maps can't
+ * keep game preparation waiting. Tasks of any other priority share the remaining workers.
+ */
+@Slf4j
+public class PrioritizedTaskExecutor {
+
+  private final int maxWorkers;
+  private final int maxLowerPriorityWorkers;
+  private final ExecutorService workers;
+
+  private final Map<Priority, Queue<QueuedTask>> queues = new EnumMap<>(Priority.class);
+  private int runningTasks;
+  private int runningLowerPriorityTasks;
+
+  private final LongAdder startedTasks = new LongAdder();
+  private final LongAdder completedTasks = new LongAdder();
+  private final LongAdder totalQueueNanos = new LongAdder();
+  private final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+
+  /**
+   * @param reservedCriticalPriorityWorkers number of workers only used by {@link Priority#CRITICAL} tasks
+   * @param virtualThreads whether tasks run on virtual threads instead of a pool of platform threads
+   */
+  public PrioritizedTaskExecutor(int maxWorkers, int reservedCriticalPriorityWorkers, boolean virtualThreads) {
+    if (maxWorkers < 1 || reservedCriticalPriorityWorkers < 0 || reservedCriticalPriorityWorkers >= maxWorkers) {
+      throw new IllegalArgumentException("Invalid number of workers: " + maxWorkers + " with "
+          + reservedCriticalPriorityWorkers + " reserved for critical priority tasks");
+    }
+    this.maxWorkers = maxWorkers;
+    this.maxLowerPriorityWorkers = maxWorkers - reservedCriticalPriorityWorkers;
+    for (Priority priority : Priority.values()) {
+      queues.put(priority, new ArrayDeque<>());
+    }
+
+    if (virtualThreads) {
+      // The number of running tasks is limited by this class, so one thread per task is fine
+      workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-", 0).factory());
+    } else {
+      ThreadFactory threadFactory = Thread.ofPlatform().name("task-", 0).daemon(true).factory();
+      workers = Executors.newFixedThreadPool(maxWorkers, threadFactory);
+    }
+  }
+
+  public void execute(PrioritizedCompletableTask<?> task) {
+    execute(task, task.getPriority());
+  }
+
+  /**
+   * @param priority the priority of the task, tasks without one are treated as {@link Priority#MEDIUM}
+   */
+  public void execute(Runnable task, Priority priority) {
+    synchronized (this) {
+      queues.get(Objects.requireNonNullElse(priority, Priority.MEDIUM)).add(new QueuedTask(task, System.nanoTime()));
+    }
+    startQueuedTasks();
+  }
+
+  private synchronized void startQueuedTasks() {
+    while (runningTasks < maxWorkers) {
+      Priority priority = nextPriorityToStart();
+      if (priority == null) {
+        return;
+      }
+
+      QueuedTask queuedTask = queues.get(priority).remove();
+      taskStarted(priority);
+      try {
+        workers.execute(() -> run(queuedTask, priority));
+      } catch (RejectedExecutionException e) {
+        // The executor has been shut down, the remaining tasks will never run
+        taskFinished(priority);
+        log.warn("Could not start task, the executor has been shut down", e);
+        return;
+      }
+    }
+  }
+
+  private Priority nextPriorityToStart() {
+    if (!queues.get(Priority.CRITICAL).isEmpty()) {
+      return Priority.CRITICAL;
+    }
+    if (runningLowerPriorityTasks >= maxLowerPriorityWorkers) {
+      return null;
+    }
+    if (!queues.get(Priority.HIGH).isEmpty()) {
+      return Priority.HIGH;
+    }
+    if (!queues.get(Priority.MEDIUM).isEmpty()) {
+      return Priority.MEDIUM;
+    }
+    if (!queues.get(Priority.LOW).isEmpty()) {
+      return Priority.LOW;
+    }
+    return null;
+  }
+
+  private void run(QueuedTask queuedTask, Priority priority) {
+    long queueNanos = System.nanoTime() - queuedTask.queuedAt();
+    startedTasks.increment();
+    totalQueueNanos.add(queueNanos);
+    maxQueueNanos.accumulate(queueNanos);
+    try {
+      queuedTask.task().run();
+    } catch (Throwable throwable) {
+      log.error("Task failed", throwable);
+    } finally {
+      synchronized (this) {
+        completedTasks.increment();
+        taskFinished(priority);
+      }
+      startQueuedTasks();
+    }
+  }
+
+  private void taskStarted(Priority priority) {
+    runningTasks++;
+    if (priority != Priority.CRITICAL) {
+      runningLowerPriorityTasks++;
+    }
+  }
+
+  private void taskFinished(Priority priority) {
+    runningTasks--;
+    if (priority != Priority.CRITICAL) {
+      runningLowerPriorityTasks--;
+    }
+  }
+
+  public synchronized Statistics getStatistics() {
+    Map<Priority, Integer> queuedTasks = new EnumMap<>(Priority.class);
+    queues.forEach((priority, queue) -> queuedTasks.put(priority, queue.size()));
+    long started = startedTasks.sum();
+    Duration averageQueueTime = started == 0 ? Duration.ZERO : Duration.ofNanos(totalQueueNanos.sum() / started);
+    return new Statistics(runningTasks, Map.copyOf(queuedTasks), completedTasks.sum(), averageQueueTime,
+                          Duration.ofNanos(maxQueueNanos.get()));
+  }
+
+  public void shutdown() {
+    workers.shutdownNow();
+  }
+
+  private record QueuedTask(Runnable task, long queuedAt) {}
+
+  /**
+   * @param queuedTasks number of tasks waiting for a worker, by priority
+   * @param averageQueueTime average time tasks waited for a worker before they were started
+   * @param maxQueueTime longest time a task waited for a worker before it was started
+   */
+  public record Statistics(int runningTasks, Map<Priority, Integer> queuedTasks, long completedTasks,
+                           Duration averageQueueTime, Duration maxQueueTime) {
+
+    public int totalQueuedTasks() {
+      return queuedTasks.values().stream().mapToInt(Integer::intValue).sum();
+    }
+  }
+}
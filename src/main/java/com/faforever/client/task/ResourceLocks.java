@@ -1,34 +1,167 @@
 package com.faforever.client.task;
 
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Coordinates tasks that compete for the disk or the network.
+ * <p>
+ * Disk locks are scoped to the paths being written, so that operations on different files, like copying a featured
+ * mod file while the cache is being cleaned up, don't wait for each other. Paths are mapped to a fixed number of
+ * stripes, so unrelated paths occasionally share a lock.
+ * <p>
+ * Downloads and uploads each get a number of permits. Since they use different directions of the connection, an
+ * upload no longer blocks downloads, while running too many transfers of the same kind at once is still avoided. The
+ * number of permits is set from the configuration on startup, see {@link #setTransferLimits(int, int)}.
+ */
 public class ResourceLocks {
 
-  private static final ReentrantReadWriteLock NETWORK_LOCK = new ReentrantReadWriteLock();
-  private static final ReentrantLock DISK_LOCK = new ReentrantLock();
+  private static final int DISK_LOCK_STRIPES = 64;
+  private static final int DEFAULT_DOWNLOAD_PERMITS = 8;
+  private static final int DEFAULT_UPLOAD_PERMITS = 1;
+
+  private static final Striped<Lock> DISK_LOCKS = Striped.lock(DISK_LOCK_STRIPES);
+  private static final TransferPermits DOWNLOAD_SEMAPHORE = new TransferPermits(DEFAULT_DOWNLOAD_PERMITS);
+  private static final TransferPermits UPLOAD_SEMAPHORE = new TransferPermits(DEFAULT_UPLOAD_PERMITS);
+
+  private static final ContentionCounter DISK_CONTENTION = new ContentionCounter();
+  private static final ContentionCounter DOWNLOAD_CONTENTION = new ContentionCounter();
+  private static final ContentionCounter UPLOAD_CONTENTION = new ContentionCounter();
 
   public static void acquireDownloadLock() {
-    NETWORK_LOCK.readLock().lock();
+    acquire(DOWNLOAD_SEMAPHORE, DOWNLOAD_CONTENTION);
   }
 
   public static void freeDownloadLock() {
-    NETWORK_LOCK.readLock().unlock();
+    DOWNLOAD_SEMAPHORE.release();
   }
 
   public static void acquireUploadLock() {
-    NETWORK_LOCK.writeLock().lock();
+    acquire(UPLOAD_SEMAPHORE, UPLOAD_CONTENTION);
   }
 
   public static void freeUploadLock() {
-    NETWORK_LOCK.writeLock().unlock();
+    UPLOAD_SEMAPHORE.release();
+  }
+
+  /**
+   * Sets the number of downloads and uploads that may run at the same time. Transfers that are already running keep
+   * their permits, if the limit is lowered, new transfers wait until enough of them have finished.
+   */
+  public static void setTransferLimits(int maxDownloads, int maxUploads) {
+    if (maxDownloads < 1 || maxUploads < 1) {
+      throw new IllegalArgumentException("Invalid transfer limits: " + maxDownloads + " downloads, " + maxUploads
+          + " uploads");
+    }
+    DOWNLOAD_SEMAPHORE.setLimit(maxDownloads);
+    UPLOAD_SEMAPHORE.setLimit(maxUploads);
+  }
+
+  /**
+   * Locks the given paths for writing. Locks of several paths are always taken in the same order, so tasks locking
+   * overlapping paths can't deadlock.
+   */
+  public static void acquireDiskLock(Path... paths) {
+    getDiskLocks(paths).forEach(lock -> acquire(lock, DISK_CONTENTION));
+  }
+
+  public static void freeDiskLock(Path... paths) {
+    getDiskLocks(paths).reversed().forEach(Lock::unlock);
+  }
+
+  public static Statistics getStatistics() {
+    return new Statistics(DISK_CONTENTION.snapshot(), DOWNLOAD_CONTENTION.snapshot(), UPLOAD_CONTENTION.snapshot());
+  }
+
+  @VisibleForTesting
+  static boolean shareDiskLock(Path path, Path otherPath) {
+    return getDiskLocks(path).getFirst() == getDiskLocks(otherPath).getFirst();
+  }
+
+  private static List<Lock> getDiskLocks(Path... paths) {
+    List<String> keys = Arrays.stream(paths).map(path -> path.toAbsolutePath().normalize().toString()).toList();
+    // Striped returns the locks in a consistent order, paths sharing a stripe get the same reentrant lock twice
+    return Lists.newArrayList(DISK_LOCKS.bulkGet(keys));
+  }
+
+  private static void acquire(Lock lock, ContentionCounter contentionCounter) {
+    if (lock.tryLock()) {
+      contentionCounter.uncontended();
+      return;
+    }
+
+    long start = System.nanoTime();
+    lock.lock();
+    contentionCounter.contended(System.nanoTime() - start);
+  }
+
+  private static void acquire(Semaphore semaphore, ContentionCounter contentionCounter) {
+    if (semaphore.tryAcquire()) {
+      contentionCounter.uncontended();
+      return;
+    }
+
+    long start = System.nanoTime();
+    semaphore.acquireUninterruptibly();
+    contentionCounter.contended(System.nanoTime() - start);
   }
 
-  public static void acquireDiskLock() {
-    DISK_LOCK.lock();
+  /**
+   * Semaphore whose number of permits can be changed while permits are held.
+   */
+  private static class TransferPermits extends Semaphore {
+    private int limit;
+
+    TransferPermits(int limit) {
+      super(limit, true);
+      this.limit = limit;
+    }
+
+    synchronized void setLimit(int newLimit) {
+      int difference = newLimit - limit;
+      if (difference > 0) {
+        release(difference);
+      } else if (difference < 0) {
+        reducePermits(-difference);
+      }
+      limit = newLimit;
+    }
   }
 
-  public static void freeDiskLock() {
-    DISK_LOCK.unlock();
+  private static class ContentionCounter {
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    void uncontended() {
+      acquisitions.increment();
+    }
+
+    void contended(long waitedNanos) {
+      acquisitions.increment();
+      contendedAcquisitions.increment();
+      waitNanos.add(waitedNanos);
+    }
+
+    Contention snapshot() {
+      return new Contention(acquisitions.sum(), contendedAcquisitions.sum(), Duration.ofNanos(waitNanos.sum()));
+    }
   }
+
+  public record Statistics(Contention disk, Contention download, Contention upload) {}
+
+  /**
+   * @param contendedAcquisitions how often a task had to wait because the resource was in use
+   * @param waitTime total time tasks spent waiting for the resource
+   */
+  public record Contention(long acquisitions, long contendedAcquisitions, Duration waitTime) {}
 }
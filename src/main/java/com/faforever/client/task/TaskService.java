@@ -9,13 +9,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ExecutorService;
-
 /**
  * Enqueues and runs tasks in background. Services that need to run a task (tasks that finish, not long-running
  * background jobs) in background should always submit them to this service.
  * <p>
- * There are different queues for different kind of tasks. For every queue, only one task is executed at a time.
+ * Tasks are run by a {@link PrioritizedTaskExecutor}, so only a limited number of them run at a time and tasks of a
+ * higher priority are started first.
  */
 @Lazy
 @Service
@@ -23,7 +22,7 @@ import java.util.concurrent.ExecutorService;
 @Slf4j
 public class TaskService {
 
-  private final ExecutorService taskExecutor;
+  private final PrioritizedTaskExecutor prioritizedTaskExecutor;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
 
   private final ObservableList<Worker<?>> activeTasks = FXCollections.synchronizedObservableList(FXCollections.observableArrayList());
@@ -44,7 +43,7 @@ public class TaskService {
     });
     fxApplicationThreadExecutor.execute(() -> {
       activeTasks.add(task);
-      taskExecutor.execute(task);
+      prioritizedTaskExecutor.execute(task);
     });
 
     return task;
@@ -53,4 +52,8 @@ public class TaskService {
   public ObservableList<Worker<?>> getActiveWorkers() {
     return unmodifiableObservableList;
   }
+
+  public PrioritizedTaskExecutor.Statistics getStatistics() {
+    return prioritizedTaskExecutor.getStatistics();
+  }
 }
@@ -7,6 +7,8 @@ import com.faforever.client.fx.NodeController;
 import com.faforever.client.fx.SimpleChangeListener;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.net.ConnectionState;
+import com.faforever.client.task.PrioritizedTaskExecutor;
+import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.update.Version;
 import com.faforever.client.user.LoginService;
@@ -19,6 +21,7 @@ import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuButton;
 import javafx.scene.control.ProgressBar;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import lombok.RequiredArgsConstructor;
@@ -48,6 +51,7 @@ public class StatusBarController extends NodeController<Node> {
   public ProgressBar taskProgressBar;
   public Pane taskPane;
   public Label taskProgressLabel;
+  public Tooltip taskQueueTooltip;
   public Label versionLabel;
   public HBox root;
 
@@ -55,6 +59,7 @@ public class StatusBarController extends NodeController<Node> {
   protected void onInitialize() {
     setCurrentWorkerInStatusBar(null);
     versionLabel.setText(Version.getCurrentVersion());
+    taskQueueTooltip.setOnShowing(event -> updateTaskQueueTooltip());
 
     JavaFxUtil.addListener(loginService.connectionStateProperty(), (SimpleChangeListener<ConnectionState>) newValue -> fxApplicationThreadExecutor.execute(() -> {
       switch (newValue) {
@@ -99,6 +104,7 @@ public class StatusBarController extends NodeController<Node> {
       } else {
         setCurrentWorkerInStatusBar(runningWorkers.iterator().next());
       }
+      updateTaskQueueTooltip();
     });
   }
 
@@ -135,6 +141,18 @@ public class StatusBarController extends NodeController<Node> {
     });
   }
 
+  private void updateTaskQueueTooltip() {
+    PrioritizedTaskExecutor.Statistics statistics = taskService.getStatistics();
+    ResourceLocks.Statistics lockStatistics = ResourceLocks.getStatistics();
+    FxApplicationThreadExecutor.Statistics fxStatistics = fxApplicationThreadExecutor.getStatistics();
+    String text = i18n.get("statusBar.taskQueue", statistics.runningTasks(), statistics.totalQueuedTasks(),
+                           statistics.averageQueueTime().toMillis()) + "\n" + i18n.get("statusBar.resourceWaits",
+        lockStatistics.download().waitTime().toMillis(), lockStatistics.upload().waitTime().toMillis(),
+        lockStatistics.disk().waitTime().toMillis()) + "\n" + i18n.get("statusBar.applicationThread",
+        fxStatistics.queueDepth(), fxStatistics.maxQueueDepth(), fxStatistics.longestBatch().toMillis());
+    fxApplicationThreadExecutor.execute(() -> taskQueueTooltip.setText(text));
+  }
+
   public void onFafReconnectClicked() {
     loginService.reconnectToLobby();
   }
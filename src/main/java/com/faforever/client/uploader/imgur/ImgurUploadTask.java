@@ -48,7 +48,7 @@ public class ImgurUploadTask extends CompletableTask<String> implements Initiali
 
   @Autowired
   public ImgurUploadTask(I18n i18n, ClientProperties clientProperties, ObjectMapper objectMapper) {
-    super(Priority.HIGH);
+    super(Priority.MEDIUM);
 
     this.i18n = i18n;
     this.clientProperties = clientProperties;
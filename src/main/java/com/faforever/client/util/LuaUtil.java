@@ -1,20 +1,55 @@
 package com.faforever.client.util;
 
-import com.google.common.io.CharStreams;
 import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaClosure;
+import org.luaj.vm2.LuaTable;
 import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.compiler.LuaC;
 import org.luaj.vm2.lib.jse.JsePlatform;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Pattern;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
+/**
+ * Evaluates Lua files like map scenarios. Creating the standard globals and compiling the FAF prelude is expensive
+ * compared to evaluating a small script, so globals are pooled and reused, no matter which thread evaluates a script.
+ * Every evaluation gets its own environment that inherits from these globals and holds its own shallow copies of library
+ * tables like {@code string}, so that scripts don't see each other's global variables or fields they set on a library.
+ * <p>
+ * This is not a complete isolation. The metatable of strings, whose {@code __index} is the shared {@code string}
+ * library, is the same for all strings in luaj, and {@code package.loaded} as well as tables nested in library tables
+ * are shared too. A script changing those affects later evaluations.
+ */
 public final class LuaUtil {
 
+  private static final String FAF_LUA_RESOURCE = "/lua/faf.lua";
+  private static final Pattern PATH_SEPARATOR = Pattern.compile("\\.");
+  /**
+   * Functions that are removed from the globals after the prelude has been executed, as evaluated files have no
+   * business accessing Java classes or the file system.
+   */
+  private static final List<String> UNSAFE_GLOBALS = List.of("luajava", "io", "dofile", "loadfile");
+  private static final List<String> UNSAFE_OS_FUNCTIONS = List.of("execute", "exit", "getenv", "remove", "rename",
+                                                                  "tmpname");
+
+  private static final int MAX_IDLE_BASE_GLOBALS = 8;
+
+  /**
+   * Base globals that are not in use. Globals can only evaluate one script at a time, so each evaluation takes one out
+   * of the pool, or creates new ones if the pool is empty.
+   */
+  private static final BlockingQueue<Globals> IDLE_BASE_GLOBALS = new ArrayBlockingQueue<>(MAX_IDLE_BASE_GLOBALS);
+
   private LuaUtil() {
     throw new AssertionError("Not instantiatable");
   }
@@ -25,10 +60,103 @@ public final class LuaUtil {
     }
   }
 
+  /**
+   * Evaluates the given script and returns the environment it has been evaluated in, which contains all globals defined
+   * by the script.
+   */
   public static LuaValue load(InputStream inputStream) throws IOException {
+    Globals globals = Objects.requireNonNullElseGet(IDLE_BASE_GLOBALS.poll(), LuaUtil::createBaseGlobals);
+    try {
+      LuaTable environment = createEnvironment(globals);
+      globals.load(inputStream, "@" + inputStream.hashCode(), "bt", environment).invoke();
+      return environment;
+    } finally {
+      IDLE_BASE_GLOBALS.offer(globals);
+    }
+  }
+
+  /**
+   * Selects a value by a dot separated path like {@code ScenarioInfo.size.1}. Segments that are numbers are used as
+   * array indices. Returns {@link LuaValue#NIL} if any segment of the path does not exist, instead of throwing an error
+   * when indexing nil.
+   */
+  public static LuaValue select(LuaValue root, String path) {
+    LuaValue value = root;
+    for (String segment : PATH_SEPARATOR.split(path)) {
+      if (!value.istable()) {
+        return LuaValue.NIL;
+      }
+      value = isInteger(segment) ? value.get(Integer.parseInt(segment)) : value.get(segment);
+    }
+    return value;
+  }
+
+  private static boolean isInteger(String segment) {
+    return !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+  }
+
+  private static LuaTable createEnvironment(Globals globals) {
+    LuaTable environment = new LuaTable();
+    for (LuaValue name : keys(globals)) {
+      LuaValue value = globals.rawget(name);
+      if (value.istable() && value != globals) {
+        environment.rawset(name, copyOf(value.checktable()));
+      }
+    }
+    environment.rawset("_G", environment);
+
+    LuaTable metatable = new LuaTable();
+    metatable.rawset(LuaValue.INDEX, globals);
+    // Hides the metatable from getmetatable, so that scripts can't reach the shared globals
+    metatable.rawset(LuaValue.METATABLE, LuaValue.FALSE);
+    environment.setmetatable(metatable);
+    return environment;
+  }
+
+  private static LuaTable copyOf(LuaTable table) {
+    LuaTable copy = new LuaTable();
+    for (LuaValue key : keys(table)) {
+      copy.rawset(key, table.rawget(key));
+    }
+    return copy;
+  }
+
+  private static List<LuaValue> keys(LuaTable table) {
+    List<LuaValue> keys = new ArrayList<>();
+    LuaValue key = LuaValue.NIL;
+    while (!(key = table.next(key).arg1()).isnil()) {
+      keys.add(key);
+    }
+    return keys;
+  }
+
+  private static Globals createBaseGlobals() {
     Globals globals = JsePlatform.standardGlobals();
-    globals.baselib.load(globals.load(CharStreams.toString(new InputStreamReader(LuaUtil.class.getResourceAsStream("/lua/faf.lua"), UTF_8))));
-    globals.load(inputStream, "@" + inputStream.hashCode(), "bt", globals).invoke();
+    new LuaClosure(PreludeHolder.PRELUDE, globals).call(LuaValue.EMPTYSTRING, globals.baselib);
+
+    UNSAFE_GLOBALS.forEach(name -> globals.set(name, LuaValue.NIL));
+    LuaValue os = globals.get("os");
+    if (os.istable()) {
+      UNSAFE_OS_FUNCTIONS.forEach(name -> os.set(name, LuaValue.NIL));
+    }
     return globals;
   }
+
+  /**
+   * Compiles the prelude lazily on first use, as the prototype can be shared across all globals.
+   */
+  private static final class PreludeHolder {
+    private static final Prototype PRELUDE = compilePrelude();
+
+    private static Prototype compilePrelude() {
+      try (InputStream inputStream = LuaUtil.class.getResourceAsStream(FAF_LUA_RESOURCE)) {
+        if (inputStream == null) {
+          throw new IllegalStateException("Missing resource: " + FAF_LUA_RESOURCE);
+        }
+        return LuaC.instance.compile(inputStream, "@faf.lua");
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not compile " + FAF_LUA_RESOURCE, e);
+      }
+    }
+  }
 }
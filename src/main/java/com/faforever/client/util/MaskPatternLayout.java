@@ -8,20 +8,24 @@ import java.net.UnknownHostException;
 import java.util.regex.Pattern;
 
 public class MaskPatternLayout extends PatternLayout {
-  private final String userProfile;
-  private final String machineName;
-  private final String user;
+  private final Pattern userProfilePattern;
+  private final Pattern machineNamePattern;
+  private final Pattern userPattern;
 
   public MaskPatternLayout() {
-    userProfile = System.getProperty("user.home");
-    user = System.getProperty("user.name");
+    userProfilePattern = caseInsensitiveLiteral(System.getProperty("user.home"));
+    userPattern = caseInsensitiveLiteral(System.getProperty("user.name"));
     String machineName;
     try {
       machineName = InetAddress.getLocalHost().getHostName();
     } catch (UnknownHostException e) {
       machineName = "";
     }
-    this.machineName = machineName;
+    machineNamePattern = caseInsensitiveLiteral(machineName);
+  }
+
+  private static Pattern caseInsensitiveLiteral(String text) {
+    return Pattern.compile(Pattern.quote(text), Pattern.CASE_INSENSITIVE);
   }
 
   @Override
@@ -30,9 +34,9 @@ public class MaskPatternLayout extends PatternLayout {
   }
 
   public String maskMessage(String message) {
-    return message
-        .replaceAll("(?i)" + Pattern.quote(userProfile), "%USER_PROFILE%")
-        .replaceAll("(?i)" + Pattern.quote(machineName), "%CPU_NAME%")
-        .replaceAll("(?i)" + Pattern.quote(user), "%USER%");
+    // Patterns are compiled once since this runs for every line of a game log
+    String masked = userProfilePattern.matcher(message).replaceAll("%USER_PROFILE%");
+    masked = machineNamePattern.matcher(masked).replaceAll("%CPU_NAME%");
+    return userPattern.matcher(masked).replaceAll("%USER%");
   }
 }
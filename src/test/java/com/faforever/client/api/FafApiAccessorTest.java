@@ -12,6 +12,7 @@ import com.faforever.commons.api.dto.Game;
 import com.faforever.commons.api.dto.GameReview;
 import com.faforever.commons.api.dto.MeResult;
 import com.faforever.commons.api.elide.ElideNavigator;
+import com.faforever.commons.api.elide.ElideNavigatorOnCollection;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.jasminb.jsonapi.JSONAPIDocument;
@@ -21,8 +22,10 @@ import com.github.rutledgepaulv.qbuilders.builders.QBuilder;
 import com.github.rutledgepaulv.qbuilders.visitors.RSQLVisitor;
 import io.netty.resolver.DefaultAddressResolverGroup;
 import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +37,7 @@ import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.testfx.util.WaitForAsyncUtils;
+import reactor.core.publisher.Flux;
 import reactor.netty.http.client.HttpClient;
 import reactor.test.StepVerifier;
 
@@ -42,12 +46,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class FafApiAccessorTest extends ServiceTest {
@@ -113,6 +119,27 @@ public class FafApiAccessorTest extends ServiceTest {
         .addHeader("Content-Type", "application/vnd.api+json;charset=utf-8"));
   }
 
+  /**
+   * Answers each page request with the element of the given list at the requested page.
+   */
+  private void preparePagedJsonApiResponses(List<?> elements) {
+    mockApi.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        int page = Integer.parseInt(request.getRequestUrl().queryParameter("page[number]"));
+        JSONAPIDocument<List<?>> document = new JSONAPIDocument<>(List.of(elements.get(page - 1)));
+        document.setMeta(Map.of("page", Map.of("totalPages", elements.size())));
+        try {
+          return new MockResponse()
+              .setBody(new String(resourceConverter.writeDocumentCollection(document)))
+              .addHeader("Content-Type", "application/vnd.api+json;charset=utf-8");
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+  }
+
   private void prepareJsonApiErrorResponse(List<Error> errors, int responseCode) throws Exception {
     byte[] serializedObject = resourceConverter.writeDocument(JSONAPIDocument.createErrorDocument(errors));
     mockApi.enqueue(new MockResponse()
@@ -217,6 +244,117 @@ public class FafApiAccessorTest extends ServiceTest {
     assertEquals("test", requestedUrl.queryParameter("param"));
   }
 
+  @Test
+  public void testConcurrentRequestsAreDeduplicated() throws Exception {
+    ReplayReview reviewBean = Instancio.create(ReplayReview.class);
+    GameReview review = reviewMapper.map(reviewBean);
+
+    byte[] serializedObject = resourceConverter.writeDocumentCollection(new JSONAPIDocument<>(List.of(review)));
+    mockApi.enqueue(new MockResponse()
+        .setBody(new String(serializedObject))
+        .setBodyDelay(200, TimeUnit.MILLISECONDS)
+        .addHeader("Content-Type", "application/vnd.api+json;charset=utf-8"));
+
+    Flux<GameReview> first = instance.getMany(GameReview.class, "/data/gameReview", 1, Map.of());
+    Flux<GameReview> second = instance.getMany(GameReview.class, "/data/gameReview", 1, Map.of());
+
+    StepVerifier.create(Flux.merge(first, second))
+        .expectNext(review, review)
+        .verifyComplete();
+    assertEquals(1, mockApi.getRequestCount());
+  }
+
+  @Test
+  public void testUnmodifiedResponseIsReused() throws Exception {
+    ReplayReview reviewBean = Instancio.create(ReplayReview.class);
+    GameReview review = reviewMapper.map(reviewBean);
+
+    mockApi.enqueue(new MockResponse()
+        .setBody(new String(resourceConverter.writeDocument(new JSONAPIDocument<>(review))))
+        .addHeader("Content-Type", "application/vnd.api+json;charset=utf-8")
+        .addHeader("ETag", "\"1\""));
+    mockApi.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"1\""));
+
+    StepVerifier.create(instance.getOne(ElideNavigator.of(review)))
+        .expectNext(review)
+        .verifyComplete();
+    StepVerifier.create(instance.getOne(ElideNavigator.of(review)))
+        .expectNext(review)
+        .verifyComplete();
+
+    RecordedRequest firstRequest = mockApi.takeRequest();
+    RecordedRequest secondRequest = mockApi.takeRequest();
+    assertNull(firstRequest.getHeader("If-None-Match"));
+    assertEquals("\"1\"", secondRequest.getHeader("If-None-Match"));
+  }
+
+  @Test
+  public void testGetAll() throws Exception {
+    List<GameReview> reviews = Instancio.ofList(ReplayReview.class).size(5).create().stream()
+        .map(reviewMapper::map)
+        .toList();
+    preparePagedJsonApiResponses(reviews);
+
+    StepVerifier.create(instance.getAll(ElideNavigator.of(GameReview.class).collection().pageSize(1)))
+        .expectNextSequence(reviews)
+        .verifyComplete();
+    assertEquals(5, mockApi.getRequestCount());
+  }
+
+  @Test
+  public void testGetManyWithPageCountAndPrefetch() throws Exception {
+    List<GameReview> reviews = Instancio.ofList(ReplayReview.class).size(3).create().stream()
+        .map(reviewMapper::map)
+        .toList();
+    preparePagedJsonApiResponses(reviews);
+
+    StepVerifier.create(instance.getManyWithPageCountAndPrefetch(
+            ElideNavigator.of(GameReview.class).collection().pageSize(1).pageNumber(1), ""))
+        .assertNext(page -> assertEquals(List.of(reviews.get(0)), page.getT1()))
+        .verifyComplete();
+    WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, () -> mockApi.getRequestCount() == 3);
+
+    StepVerifier.create(instance.getManyWithPageCountAndPrefetch(
+            ElideNavigator.of(GameReview.class).collection().pageSize(1).pageNumber(2), ""))
+        .assertNext(page -> assertEquals(List.of(reviews.get(1)), page.getT1()))
+        .verifyComplete();
+    assertEquals(3, mockApi.getRequestCount());
+  }
+
+  @Test
+  public void testGetManyWithPageCountAndPrefetchWithFilterSortAndInclude() throws Exception {
+    List<GameReview> reviews = Instancio.ofList(ReplayReview.class).size(3).create().stream()
+        .map(reviewMapper::map)
+        .toList();
+    preparePagedJsonApiResponses(reviews);
+
+    StepVerifier.create(instance.getManyWithPageCountAndPrefetch(createFilteredReviewNavigator(1), "score>=1"))
+        .assertNext(page -> assertEquals(List.of(reviews.get(0)), page.getT1()))
+        .verifyComplete();
+    WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, () -> mockApi.getRequestCount() == 3);
+
+    StepVerifier.create(instance.getManyWithPageCountAndPrefetch(createFilteredReviewNavigator(2), "score>=1"))
+        .assertNext(page -> assertEquals(List.of(reviews.get(1)), page.getT1()))
+        .verifyComplete();
+    assertEquals(3, mockApi.getRequestCount());
+
+    HttpUrl requestedUrl = mockApi.takeRequest().getRequestUrl();
+    assertThat(requestedUrl.queryParameter("filter"), containsString("score>=1"));
+    assertEquals("-score", requestedUrl.queryParameter("sort"));
+    assertEquals("player", requestedUrl.queryParameter("include"));
+  }
+
+  private ElideNavigatorOnCollection<GameReview> createFilteredReviewNavigator(int page) {
+    ElideNavigatorOnCollection<GameReview> navigator = ElideNavigator.of(GameReview.class)
+        .collection()
+        .setFilter(qBuilder().string("text").eq("test"))
+        .addSortingRule("score", false)
+        .pageSize(1)
+        .pageNumber(page);
+    navigator.addInclude("player");
+    return navigator;
+  }
+
   @Test
   public void testGetManyNavigatorEnrichment() throws Exception {
     FafApiAccessor.FILTERS.forEach((clazz, filters) -> {
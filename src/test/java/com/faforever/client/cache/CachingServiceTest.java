@@ -2,6 +2,7 @@ package com.faforever.client.cache;
 
 import com.faforever.client.test.ServiceTest;
 import com.faforever.client.user.LoginService;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import org.junit.jupiter.api.Test;
@@ -9,10 +10,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 
 import java.util.List;
+import java.util.OptionalLong;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,4 +49,44 @@ public class CachingServiceTest extends ServiceTest {
 
     verify(cache).clear();
   }
+
+  @Test
+  public void testOnLoginStatusChangeKeepsPersistentEntries() throws Exception {
+    when(loginService.loggedInProperty()).thenReturn(loggedIn);
+
+    instance.afterPropertiesSet();
+
+    PersistentCache cache = mock(PersistentCache.class);
+    when(cacheManager.getCacheNames()).thenReturn(List.of("test"));
+    when(cacheManager.getCache("test")).thenReturn(cache);
+
+    loggedIn.set(true);
+
+    verify(cache).clearMemory();
+    verify(cache, never()).clear();
+  }
+
+  @Test
+  public void testStatistics() {
+    com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder()
+        .recordStats()
+        .maximumWeight(1024)
+        .weigher((key, value) -> 256)
+        .build();
+    CaffeineCache cache = new CaffeineCache("test", nativeCache, true);
+    when(cacheManager.getCacheNames()).thenReturn(List.of("test"));
+    when(cacheManager.getCache("test")).thenReturn(cache);
+
+    cache.get("key", () -> "value");
+    cache.get("key");
+    cache.get("missing");
+
+    CacheStatistics statistics = instance.getStatistics().getFirst();
+    assertThat(statistics.name(), is("test"));
+    assertThat(statistics.estimatedSize(), is(1L));
+    assertThat(statistics.hitCount(), is(1L));
+    assertThat(statistics.missCount(), is(2L));
+    assertThat(statistics.weightedSize(), is(OptionalLong.of(256)));
+    assertThat(instance.createStatisticsReport(), containsString("test"));
+  }
 }
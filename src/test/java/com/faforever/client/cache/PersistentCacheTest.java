@@ -0,0 +1,182 @@
+package com.faforever.client.cache;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.domain.api.Leaderboard;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.ServiceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PersistentCacheTest extends ServiceTest {
+
+  private static final String CACHE_NAME = "leaderboards";
+  private static final List<Leaderboard> LEADERBOARDS = List.of(
+      new Leaderboard(1, "description", "global", "global"),
+      new Leaderboard(2, "description", "ladder", "ladder_1v1"));
+
+  @TempDir
+  public Path tempDirectory;
+
+  private ClientProperties clientProperties;
+  private PersistentCacheStore store;
+
+  @BeforeEach
+  public void setUp() {
+    DataPrefs dataPrefs = new DataPrefs();
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    clientProperties = new ClientProperties();
+    store = new PersistentCacheStore(dataPrefs, clientProperties, new ObjectMapper());
+  }
+
+  @Test
+  public void testStoredValueSurvivesRestart() {
+    store.write(CACHE_NAME, SimpleKey.EMPTY, LEADERBOARDS, Duration.ofHours(1));
+
+    assertThat(store.read(CACHE_NAME, SimpleKey.EMPTY), is(LEADERBOARDS));
+    assertThat(store.read(CACHE_NAME, new SimpleKey("other")), is(nullValue()));
+  }
+
+  @Test
+  public void testExpiredValueIsNotRead() {
+    store.write(CACHE_NAME, SimpleKey.EMPTY, LEADERBOARDS, Duration.ofMillis(-1));
+
+    assertThat(store.read(CACHE_NAME, SimpleKey.EMPTY), is(nullValue()));
+  }
+
+  @Test
+  public void testUnstableKeysAndForeignTypesAreNotStored() {
+    Object keyWithoutToString = new Object();
+    store.write(CACHE_NAME, keyWithoutToString, LEADERBOARDS, Duration.ofHours(1));
+    store.write(CACHE_NAME, SimpleKey.EMPTY, Duration.ofSeconds(1), Duration.ofHours(1));
+
+    assertThat(store.read(CACHE_NAME, keyWithoutToString), is(nullValue()));
+    assertThat(store.read(CACHE_NAME, SimpleKey.EMPTY), is(nullValue()));
+  }
+
+  @Test
+  public void testSizeLimit() {
+    clientProperties.getCache().setPersistentMaxSize(1);
+
+    store.write(CACHE_NAME, SimpleKey.EMPTY, LEADERBOARDS, Duration.ofHours(1));
+
+    assertThat(store.read(CACHE_NAME, SimpleKey.EMPTY), is(nullValue()));
+  }
+
+  @Test
+  public void testRetrieveUsesStoredValue() throws Exception {
+    store.write(CACHE_NAME, SimpleKey.EMPTY, LEADERBOARDS, Duration.ofHours(1));
+    PersistentCache instance = createCache();
+
+    Object value = instance.retrieve(SimpleKey.EMPTY, () -> CompletableFuture.failedFuture(
+        new IllegalStateException("Offline"))).get();
+
+    assertThat(value, is(LEADERBOARDS));
+    assertThat(instance.retrieve(SimpleKey.EMPTY).get(), is(LEADERBOARDS));
+  }
+
+  @Test
+  public void testStoredValueIsRefreshedAfterServing() throws Exception {
+    List<Leaderboard> loadedLeaderboards = List.of(new Leaderboard(3, "description", "tmm", "tmm_2v2"));
+    store.write(CACHE_NAME, SimpleKey.EMPTY, LEADERBOARDS, Duration.ofHours(1));
+    PersistentCache instance = createCache();
+
+    assertThat(instance.retrieve(SimpleKey.EMPTY, () -> CompletableFuture.completedFuture(loadedLeaderboards)).get(),
+               is(LEADERBOARDS));
+
+    awaitStoredValue(loadedLeaderboards);
+    assertThat(instance.retrieve(SimpleKey.EMPTY).get(), is(loadedLeaderboards));
+  }
+
+  @Test
+  public void testStoredValueIsOnlyUsedOnColdStartOrFailure() throws Exception {
+    List<Leaderboard> loadedLeaderboards = List.of(new Leaderboard(3, "description", "tmm", "tmm_2v2"));
+    store.write(CACHE_NAME, SimpleKey.EMPTY, LEADERBOARDS, Duration.ofHours(1));
+    PersistentCache instance = createCache();
+
+    assertThat(instance.retrieve(SimpleKey.EMPTY, () -> CompletableFuture.completedFuture(loadedLeaderboards)).get(),
+               is(LEADERBOARDS));
+
+    instance.clearMemory();
+    assertThat(instance.retrieve(SimpleKey.EMPTY, () -> CompletableFuture.completedFuture(loadedLeaderboards)).get(),
+               is(loadedLeaderboards));
+
+    awaitStoredValue(loadedLeaderboards);
+    instance.clearMemory();
+    assertThat(instance.retrieve(SimpleKey.EMPTY, () -> CompletableFuture.failedFuture(
+        new IllegalStateException("Offline"))).get(), is(loadedLeaderboards));
+  }
+
+  @Test
+  public void testLookupDoesNotReadStore() {
+    store.write(CACHE_NAME, SimpleKey.EMPTY, LEADERBOARDS, Duration.ofHours(1));
+    PersistentCache instance = createCache();
+
+    assertThat(instance.get(SimpleKey.EMPTY), is(nullValue()));
+    assertThat(instance.retrieve(SimpleKey.EMPTY), is(nullValue()));
+  }
+
+  @Test
+  public void testNonPersistableKeyIgnoresStore() {
+    LatestKey latestKey = new LatestKey("leaderboards");
+    store.write(CACHE_NAME, latestKey, LEADERBOARDS, Duration.ofHours(1));
+    assertThat(store.read(CACHE_NAME, latestKey), is(LEADERBOARDS));
+    PersistentCache instance = createCache();
+
+    assertThrows(IllegalStateException.class, () -> instance.get(latestKey, () -> {
+      throw new IllegalStateException("Offline");
+    }));
+  }
+
+  @Test
+  public void testEvictAndClearAffectStore() {
+    PersistentCache instance = createCache();
+    store.write(CACHE_NAME, SimpleKey.EMPTY, LEADERBOARDS, Duration.ofHours(1));
+    instance.evict(SimpleKey.EMPTY);
+    assertThat(store.read(CACHE_NAME, SimpleKey.EMPTY), is(nullValue()));
+
+    List<Leaderboard> loadedLeaderboards = List.of(new Leaderboard(3, "description", "tmm", "tmm_2v2"));
+    store.write(CACHE_NAME, SimpleKey.EMPTY, LEADERBOARDS, Duration.ofHours(1));
+    instance.clearMemory();
+    assertThat(instance.get(SimpleKey.EMPTY, () -> loadedLeaderboards), is(LEADERBOARDS));
+    awaitStoredValue(loadedLeaderboards);
+
+    instance.clear();
+    assertThat(store.read(CACHE_NAME, SimpleKey.EMPTY), is(nullValue()));
+  }
+
+  private void awaitStoredValue(Object value) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!value.equals(store.read(CACHE_NAME, SimpleKey.EMPTY)) && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  private PersistentCache createCache() {
+    return new PersistentCache(new CaffeineCache(CACHE_NAME, newBuilder().buildAsync(), true), store,
+                               Duration.ofHours(1));
+  }
+
+  private record LatestKey(String name) implements PersistableKey {
+
+    @Override
+    public boolean isPersistable() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.builders.ChatChannelUserBuilder;
+import com.faforever.client.chat.ChatMessage.Type;
+import com.faforever.client.test.DomainTest;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChatMessageRingTest extends DomainTest {
+
+  private static final Instant NOW = Instant.now();
+
+  private ChatMessageRing instance;
+  private ChatChannelUser sender;
+
+  @BeforeEach
+  public void setUp() {
+    instance = new ChatMessageRing();
+    ChatChannel channel = new ChatChannel("#test");
+    sender = ChatChannelUserBuilder.create("junit", channel).defaultValues().get();
+  }
+
+  private ChatMessage message(String id, int secondsAgo, Type type) {
+    return new ChatMessage(id, NOW.minusSeconds(secondsAgo), sender, id, type, null);
+  }
+
+  private ChatMessage message(String id, int secondsAgo) {
+    return message(id, secondsAgo, Type.MESSAGE);
+  }
+
+  @Test
+  public void testMessagesAreOrderedByTime() {
+    ChatMessage message1 = message("1", 3);
+    ChatMessage message2 = message("2", 2);
+    ChatMessage message3 = message("3", 1);
+
+    instance.addMessage(message1);
+    instance.addMessage(message3);
+    instance.addMessage(message2);
+
+    assertThat(instance, contains(message1, message2, message3));
+  }
+
+  @Test
+  public void testOldestMessagesAreEvictedInOneChange() {
+    for (int i = 0; i < 40; i++) {
+      instance.addMessage(message(String.valueOf(i), 100 - i));
+    }
+    List<ListChangeListener.Change<? extends ChatMessage>> changes = new ArrayList<>();
+    List<ChatMessage> removedMessages = new ArrayList<>();
+    instance.addListener((ListChangeListener<ChatMessage>) change -> {
+      changes.add(change);
+      while (change.next()) {
+        removedMessages.addAll(change.getRemoved());
+      }
+    });
+
+    instance.setMaxSize(10);
+
+    assertEquals(1, changes.size());
+    assertEquals(30, removedMessages.size());
+    assertEquals(10, instance.size());
+    assertEquals("30", instance.getFirst().getId());
+    assertNull(instance.getMessage("29"));
+    assertSame(instance.get(9), instance.getMessage("39"));
+  }
+
+  @Test
+  public void testAddingBeyondMaxSizeEvictsOldest() {
+    instance.setMaxSize(2);
+    ChatMessage message1 = message("1", 3);
+    ChatMessage message2 = message("2", 2);
+    ChatMessage message3 = message("3", 1);
+
+    instance.addMessage(message1);
+    instance.addMessage(message2);
+    instance.addMessage(message3);
+
+    assertThat(instance, contains(message2, message3));
+    assertNull(instance.getMessage("1"));
+  }
+
+  @Test
+  public void testMessageWithSameIdIsReplaced() {
+    ChatMessage pendingMessage = message("1", 2, Type.PENDING);
+    ChatMessage message = message("1", 1);
+
+    instance.addMessage(pendingMessage);
+    instance.addMessage(message);
+
+    assertEquals(1, instance.size());
+    assertSame(message, instance.getMessage("1"));
+  }
+
+  @Test
+  public void testRemoveMessageWithCondition() {
+    instance.addMessage(message("1", 2));
+    instance.addMessage(message("2", 1, Type.PENDING));
+
+    assertNull(instance.removeMessage("1", message -> message.getType() == Type.PENDING));
+    instance.removeMessage("2", message -> message.getType() == Type.PENDING);
+    instance.removeMessage("1");
+
+    assertThat(instance, empty());
+  }
+
+  @Test
+  public void testIteratorIsNotAffectedByModification() {
+    ChatMessage message1 = message("1", 2);
+    instance.addMessage(message1);
+
+    Iterator<ChatMessage> iterator = instance.iterator();
+    instance.addMessage(message("2", 1));
+
+    assertSame(message1, iterator.next());
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void testNotModifiableAsList() {
+    assertThrows(UnsupportedOperationException.class, () -> instance.add(message("1", 1)));
+  }
+}
@@ -242,6 +242,11 @@ public class KittehChatServiceTest extends ServiceTest {
       runnable.run();
       return null;
     }).when(fxApplicationThreadExecutor).execute(any());
+    lenient().doAnswer(invocation -> {
+      Runnable runnable = invocation.getArgument(1);
+      runnable.run();
+      return null;
+    }).when(fxApplicationThreadExecutor).executeLatest(any(), any());
 
     instance.afterPropertiesSet();
   }
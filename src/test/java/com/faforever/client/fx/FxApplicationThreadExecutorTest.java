@@ -0,0 +1,72 @@
+package com.faforever.client.fx;
+
+import com.faforever.client.test.PlatformTest;
+import javafx.application.Platform;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FxApplicationThreadExecutorTest extends PlatformTest {
+
+  private FxApplicationThreadExecutor instance;
+
+  @BeforeEach
+  public void setUp() {
+    instance = new FxApplicationThreadExecutor();
+  }
+
+  @Test
+  public void testTasksRunInOrderOnApplicationThread() {
+    List<Integer> executed = new CopyOnWriteArrayList<>();
+    List<Boolean> onApplicationThread = new CopyOnWriteArrayList<>();
+
+    IntStream.range(0, 1000).forEach(i -> instance.execute(() -> {
+      executed.add(i);
+      onApplicationThread.add(Platform.isFxApplicationThread());
+    }));
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertEquals(IntStream.range(0, 1000).boxed().toList(), executed);
+    assertTrue(onApplicationThread.stream().allMatch(Boolean::booleanValue));
+
+    FxApplicationThreadExecutor.Statistics statistics = instance.getStatistics();
+    assertEquals(0, statistics.queueDepth());
+    assertEquals(1000, statistics.executedTasks());
+  }
+
+  @Test
+  public void testOnlyLatestTaskPerKeyRuns() throws Exception {
+    CountDownLatch applicationThreadBlocked = new CountDownLatch(1);
+    CountDownLatch releaseApplicationThread = new CountDownLatch(1);
+    Platform.runLater(() -> {
+      applicationThreadBlocked.countDown();
+      try {
+        releaseApplicationThread.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    applicationThreadBlocked.await();
+
+    List<String> executed = new ArrayList<>();
+    instance.executeLatest("key", () -> executed.add("first"));
+    instance.execute(() -> executed.add("other"));
+    instance.executeLatest("key", () -> executed.add("second"));
+    instance.executeLatest("key", () -> executed.add("third"));
+
+    releaseApplicationThread.countDown();
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertEquals(List.of("other", "third"), executed);
+    assertEquals(2, instance.getStatistics().coalescedTasks());
+  }
+}
@@ -22,11 +22,16 @@ import com.faforever.client.game.EnterPasswordController.PasswordEnteredListener
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.leaderboard.LeaderboardService;
 import com.faforever.client.logging.LoggingService;
+import com.faforever.client.logging.analysis.LogAnalysis;
+import com.faforever.client.logging.analysis.LogAnalysisFinding;
+import com.faforever.client.logging.analysis.LogAnalysisRule;
+import com.faforever.client.logging.analysis.LogAnalyzerService;
 import com.faforever.client.map.MapService;
 import com.faforever.client.mapstruct.GameMapper;
 import com.faforever.client.mapstruct.MapperSetup;
 import com.faforever.client.mod.ModService;
 import com.faforever.client.net.ConnectionState;
+import com.faforever.client.notification.Action;
 import com.faforever.client.notification.ImmediateNotification;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.notification.PersistentNotification;
@@ -48,6 +53,7 @@ import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mapstruct.factory.Mappers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
@@ -58,6 +64,10 @@ import reactor.core.publisher.Mono;
 import reactor.test.publisher.TestPublisher;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -88,6 +98,9 @@ public class GameRunnerTest extends ServiceTest {
   private static final Integer GPG_PORT = 1234;
   private static final int LOCAL_REPLAY_PORT = 15111;
 
+  @TempDir
+  public Path tempDirectory;
+
   @InjectMocks
   private GameRunner instance;
 
@@ -128,6 +141,8 @@ public class GameRunnerTest extends ServiceTest {
   @Mock
   private LoggingService loggingService;
   @Mock
+  private LogAnalyzerService logAnalyzerService;
+  @Mock
   private Process process;
   @Mock
   private CoturnService coturnService;
@@ -790,4 +805,20 @@ public class GameRunnerTest extends ServiceTest {
 
     verify(gamePathHandler).chooseAndValidateGameDirectory();
   }
+
+  @Test
+  public void testMaskAndAnalyzeLogFile() throws Exception {
+    String userHome = System.getProperty("user.home");
+    Path logFile = Files.writeString(tempDirectory.resolve("game.log"),
+                                     "info: Loading " + userHome + "\nwarning: SND\nXACT error\n");
+    when(logAnalyzerService.newAnalysis()).thenReturn(new LogAnalysis(List.of(
+        new LogAnalysisRule(List.of("warning: SND", "XACT"), () -> new LogAnalysisFinding("Sound issue", null)))));
+
+    Map<String, Action> result = instance.maskAndAnalyzeLogFile(logFile);
+
+    assertTrue(result.containsKey("Sound issue"));
+    assertFalse(Files.readString(logFile).contains(userHome));
+    assertTrue(Files.readString(logFile).contains("XACT error"));
+    assertFalse(Files.exists(tempDirectory.resolve("game.log.masked")));
+  }
 }
@@ -2,6 +2,7 @@ package com.faforever.client.game;
 
 import com.faforever.client.builders.GameInfoMessageBuilder;
 import com.faforever.client.builders.PlayerInfoBuilder;
+import com.faforever.client.config.ClientProperties;
 import com.faforever.client.domain.server.GameInfo;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
@@ -12,6 +13,7 @@ import com.faforever.client.remote.FafServerAccessor;
 import com.faforever.client.test.ServiceTest;
 import com.faforever.commons.lobby.GameInfo.TeamIds;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +24,7 @@ import org.mockito.Spy;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.publisher.TestPublisher;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -53,6 +56,8 @@ public class GameServiceTest extends ServiceTest {
   private FxApplicationThreadExecutor fxApplicationThreadExecutor;
   @Spy
   private GameMapper gameMapper = Mappers.getMapper(GameMapper.class);
+  @Spy
+  private ClientProperties clientProperties;
 
 
   private final TestPublisher<com.faforever.commons.lobby.GameInfo> testGamePublisher = TestPublisher.create();
@@ -60,6 +65,7 @@ public class GameServiceTest extends ServiceTest {
   @BeforeEach
   public void setUp() throws Exception {
     MapperSetup.injectMappers(gameMapper);
+    clientProperties.getServer().setEventBatchSize(1);
 
     when(fxApplicationThreadExecutor.asScheduler()).thenReturn(Schedulers.immediate());
     lenient().doAnswer(invocation -> {
@@ -179,4 +185,39 @@ public class GameServiceTest extends ServiceTest {
 
     assertThat(instance.getGames(), empty());
   }
+
+  @Test
+  public void testGamesOfOneMessageAreAddedInOneChange() {
+    List<ListChangeListener.Change<? extends GameInfo>> changes = new ArrayList<>();
+    instance.getGames().addListener((ListChangeListener<GameInfo>) changes::add);
+
+    testGamePublisher.next(GameInfoMessageBuilder.create(0)
+                                                 .games(List.of(GameInfoMessageBuilder.create(1).defaultValues().get(),
+                                                                GameInfoMessageBuilder.create(2).defaultValues().get(),
+                                                                GameInfoMessageBuilder.create(3)
+                                                                                      .defaultValues()
+                                                                                      .state(CLOSED)
+                                                                                      .get()))
+                                                 .get());
+
+    assertThat(instance.getGames(), containsInAnyOrder(GameMatchers.hasId(1), GameMatchers.hasId(2)));
+    assertEquals(1, changes.size());
+  }
+
+  @Test
+  public void testOnlyLatestMessageAboutGameIsApplied() {
+    testGamePublisher.next(GameInfoMessageBuilder.create(0)
+                                                 .games(List.of(GameInfoMessageBuilder.create(1)
+                                                                                      .defaultValues()
+                                                                                      .title("Game 1")
+                                                                                      .get(),
+                                                                GameInfoMessageBuilder.create(1)
+                                                                                      .defaultValues()
+                                                                                      .title("Game 1 modified")
+                                                                                      .get()))
+                                                 .get());
+
+    assertThat(instance.getGames(), hasSize(1));
+    assertEquals("Game 1 modified", instance.getByUid(1).orElseThrow().getTitle());
+  }
 }
@@ -1,5 +1,6 @@
 package com.faforever.client.headerbar;
 
+import com.faforever.client.cache.CachingService;
 import com.faforever.client.fx.PlatformService;
 import com.faforever.client.os.OperatingSystem;
 import com.faforever.client.os.OsPosix;
@@ -20,6 +21,7 @@ import java.nio.file.Path;
 
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class MainMenuButtonControllerTest extends PlatformTest {
 
@@ -29,6 +31,8 @@ public class MainMenuButtonControllerTest extends PlatformTest {
   private SettingsController settingsController;
   @Mock
   private UiService uiService;
+  @Mock
+  private CachingService cachingService;
   @Spy
   private OperatingSystem operatingSystem = new OsPosix();
   @Spy
@@ -74,4 +78,14 @@ public class MainMenuButtonControllerTest extends PlatformTest {
     instance.onRevealReplayFolder();
     verify(platformService).reveal(dataPrefs.getReplaysDirectory());
   }
+
+  @Test
+  public void testOnShowCacheStatistics() throws Exception {
+    Path reportFile = operatingSystem.getLoggingDirectory().resolve("cache-statistics.txt");
+    when(cachingService.writeStatisticsReport(operatingSystem.getLoggingDirectory())).thenReturn(reportFile);
+
+    instance.onShowCacheStatistics();
+
+    verify(platformService).reveal(reportFile);
+  }
 }
@@ -1,15 +1,37 @@
 package com.faforever.client.io;
 
+import com.faforever.client.config.BaseConfig;
+import com.faforever.client.config.ClientProperties;
 import com.faforever.client.test.ServiceTest;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.springframework.core.io.ClassPathResource;
 
+import java.io.IOException;
+import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class DownloadServiceTest extends ServiceTest {
@@ -18,9 +40,25 @@ public class DownloadServiceTest extends ServiceTest {
 
 
 
+  @TempDir
+  public Path tempDirectory;
+
   @InjectMocks
   private DownloadService instance;
 
+  private MockWebServer server;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    server = new MockWebServer();
+    server.start();
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    server.shutdown();
+  }
+
   @Test
   public void testDownloadFile() throws Exception {
     Path temp = Files.createTempFile("download", ".dat");
@@ -36,4 +74,90 @@ public class DownloadServiceTest extends ServiceTest {
     assertThrows(ChecksumMismatchException.class, () -> instance.downloadFile(SAMPLE_FILE.getURL(), Map.of(), temp, (processed, total) -> {
     }, "00000000000000000000000000000000"));
   }
+
+  @Test
+  public void testDownloadFileResumesPartialDownload() throws Exception {
+    Path targetFile = tempDirectory.resolve("sample-file.txt");
+    Files.writeString(tempDirectory.resolve("sample-file.txt.part"), "Some ");
+    server.enqueue(new MockResponse().setResponseCode(206).setBody("content"));
+
+    URL url = server.url("/sample-file.txt").url();
+    instance.downloadFile(url, Map.of(), targetFile, (processed, total) -> {}, SAMPLE_FILE_CHECKSUM);
+
+    assertEquals("bytes=5-", server.takeRequest().getHeader("Range"));
+    assertEquals("Some content", Files.readString(targetFile));
+    assertFalse(Files.exists(tempDirectory.resolve("sample-file.txt.part")));
+  }
+
+  @Test
+  public void testDownloadFileStartsOverIfRangeIsIgnored() throws Exception {
+    Path targetFile = tempDirectory.resolve("sample-file.txt");
+    Files.writeString(tempDirectory.resolve("sample-file.txt.part"), "Some ");
+    server.enqueue(new MockResponse().setBody("Some content"));
+
+    URL url = server.url("/sample-file.txt").url();
+    instance.downloadFile(url, Map.of(), targetFile, (processed, total) -> {}, SAMPLE_FILE_CHECKSUM);
+
+    assertEquals("Some content", Files.readString(targetFile));
+  }
+
+  @Test
+  public void testDownloadFileWithoutPartialDownloadRequestsWholeFile() throws Exception {
+    Path targetFile = tempDirectory.resolve("sample-file.txt");
+    server.enqueue(new MockResponse().setBody("Some content"));
+
+    URL url = server.url("/sample-file.txt").url();
+    instance.downloadFile(url, Map.of(), targetFile, (processed, total) -> {}, SAMPLE_FILE_CHECKSUM);
+
+    assertNull(server.takeRequest().getHeader("Range"));
+    assertEquals("Some content", Files.readString(targetFile));
+  }
+
+  /**
+   * Runs downloads on the task executor the way the client does when virtual threads are enabled. The server only
+   * answers once all downloads are waiting for it, so this only succeeds if as many downloads as the configured limit
+   * allows run at the same time, none of them waiting for a thread.
+   */
+  @Test
+  public void testConcurrentDownloadsOnVirtualThreads() throws Exception {
+    int downloads = 20;
+    CountDownLatch allRequestsReceived = new CountDownLatch(downloads);
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        allRequestsReceived.countDown();
+        if (!allRequestsReceived.await(10, TimeUnit.SECONDS)) {
+          return new MockResponse().setResponseCode(503);
+        }
+        return new MockResponse().setBody("Some content");
+      }
+    });
+    ClientProperties clientProperties = new ClientProperties();
+    clientProperties.setVirtualThreads(true);
+    clientProperties.getTasks().setMaxConcurrentDownloads(downloads);
+    BaseConfig baseConfig = new BaseConfig();
+    baseConfig.transferLimits(clientProperties).afterPropertiesSet();
+    Set<Boolean> ranOnVirtualThread = ConcurrentHashMap.newKeySet();
+
+    try (ExecutorService taskExecutor = baseConfig.taskExecutor(clientProperties)) {
+      List<Future<Path>> futures = IntStream.range(0, downloads)
+          .mapToObj(i -> taskExecutor.submit(() -> {
+            ranOnVirtualThread.add(Thread.currentThread().isVirtual());
+            Path targetFile = tempDirectory.resolve("sample-file-" + i + ".txt");
+            URL url = server.url("/sample-file-" + i + ".txt").url();
+            instance.downloadFile(url, Map.of(), targetFile, (processed, total) -> {}, SAMPLE_FILE_CHECKSUM);
+            return targetFile;
+          }))
+          .toList();
+
+      for (Future<Path> future : futures) {
+        assertEquals("Some content", Files.readString(future.get(30, TimeUnit.SECONDS)));
+      }
+    } finally {
+      baseConfig.transferLimits(new ClientProperties()).afterPropertiesSet();
+    }
+
+    assertEquals(Set.of(true), ranOnVirtualThread);
+    assertEquals(downloads, server.getRequestCount());
+  }
 }
@@ -8,16 +8,28 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.Spy;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class FeaturedModFileCacheServiceTest extends ServiceTest {
 
@@ -29,6 +41,10 @@ public class FeaturedModFileCacheServiceTest extends ServiceTest {
   private DataPrefs dataPrefs;
   @Spy
   private Preferences preferences;
+  @Mock
+  private FileHashIndex fileHashIndex;
+  @Mock
+  private FeaturedModCacheAccessLog accessLog;
 
   @InjectMocks
   private FeaturedModFileCacheService instance;
@@ -75,4 +91,134 @@ public class FeaturedModFileCacheServiceTest extends ServiceTest {
     assertTrue(Files.isRegularFile(targetPath));
     assertEquals(hashNewFile, instance.readHashFromFile(targetPath));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testReadHashFromFileUsesIndexedHash() throws IOException {
+    Path file = Files.writeString(tempDirectory.resolve("test.nx2"), "Some content");
+    when(fileHashIndex.lookup(eq(file), any())).thenReturn(Optional.of("indexed"));
+
+    assertEquals("indexed", instance.readHashFromFile(file));
+  }
+
+  @Test
+  public void testReadHashFromFileIndexesComputedHash() throws IOException {
+    Path file = Files.writeString(tempDirectory.resolve("test.nx2"), "Some content");
+    when(fileHashIndex.lookup(eq(file), any())).thenReturn(Optional.empty());
+
+    assertEquals("b53227da4280f0e18270f21dd77c91d0", instance.readHashFromFile(file));
+    verify(fileHashIndex).put(eq(file), any(), eq("b53227da4280f0e18270f21dd77c91d0"));
+  }
+
+  @Test
+  public void testReadHashFromFileIgnoresIndexWhenVerifyingGameFiles() throws IOException {
+    preferences.setVerifyGameFiles(true);
+    Path file = Files.writeString(tempDirectory.resolve("test.nx2"), "Some content");
+
+    assertEquals("b53227da4280f0e18270f21dd77c91d0", instance.readHashFromFile(file));
+    verify(fileHashIndex, never()).lookup(any(), any());
+  }
+
+  @Test
+  public void testAfterPropertiesSetDoesNotCleanCache() throws IOException {
+    Path expiredFile = createCachedFile("expired", Duration.ofDays(60));
+
+    instance.afterPropertiesSet();
+
+    assertTrue(Files.exists(expiredFile));
+  }
+
+  @Test
+  public void testEvictCachedFilesDeletesExpiredFiles() throws IOException {
+    preferences.setGameDataCacheActivated(true);
+    Path expiredFile = createCachedFile("expired", Duration.ofDays(60));
+    Path recentFile = createCachedFile("recent", Duration.ofDays(1));
+
+    instance.evictCachedFiles(Long.MAX_VALUE);
+
+    assertFalse(Files.exists(expiredFile));
+    assertTrue(Files.exists(recentFile));
+    assertEquals(10, instance.getReclaimedBytes());
+    verify(accessLog).remove(expiredFile);
+    verify(accessLog).store();
+  }
+
+  @Test
+  public void testEvictCachedFilesKeepsPartialDownloads() throws IOException {
+    Path partialFile = createCachedFile("download.part", Duration.ofDays(60));
+    Path cachedFile = createCachedFile("cached", Duration.ofDays(1));
+
+    instance.evictCachedFiles(Long.MAX_VALUE);
+
+    assertTrue(Files.exists(partialFile));
+    assertFalse(Files.exists(cachedFile));
+  }
+
+  @Test
+  public void testEvictCachedFilesWaitsForUpdates() throws IOException {
+    Path expiredFile = createCachedFile("expired", Duration.ofDays(60));
+
+    instance.acquireUpdateLock();
+    try {
+      instance.evictCachedFiles(Long.MAX_VALUE);
+      assertTrue(Files.exists(expiredFile));
+    } finally {
+      instance.freeUpdateLock();
+    }
+
+    instance.evictCachedFiles(Long.MAX_VALUE);
+    assertFalse(Files.exists(expiredFile));
+  }
+
+  @Test
+  public void testEvictCachedFilesDeletesLeastRecentlyUsedFilesAboveMaxSize() throws IOException {
+    preferences.setGameDataCacheActivated(true);
+    Path oldestFile = createCachedFile("oldest", Duration.ofDays(3));
+    Path olderFile = createCachedFile("older", Duration.ofDays(2));
+    Path newestFile = createCachedFile("newest", Duration.ofDays(1));
+
+    instance.evictCachedFiles(20);
+
+    assertFalse(Files.exists(oldestFile));
+    assertTrue(Files.exists(olderFile));
+    assertTrue(Files.exists(newestFile));
+    assertEquals(10, instance.getReclaimedBytes());
+  }
+
+  @Test
+  public void testEvictCachedFilesPrefersLoggedAccess() throws IOException {
+    preferences.setGameDataCacheActivated(true);
+    Path recentlyUsedFile = createCachedFile("used", Duration.ofDays(3));
+    Path unusedFile = createCachedFile("unused", Duration.ofDays(2));
+    FeaturedModCacheAccessLog.Entry entry = new FeaturedModCacheAccessLog.Entry(Instant.now().toEpochMilli(), 5);
+    when(accessLog.lookup(any())).thenAnswer(invocation -> recentlyUsedFile.equals(invocation.getArgument(0))
+        ? Optional.of(entry) : Optional.empty());
+
+    instance.evictCachedFiles(10);
+
+    assertTrue(Files.exists(recentlyUsedFile));
+    assertFalse(Files.exists(unusedFile));
+  }
+
+  @Test
+  public void testCopyFeaturedModFileFromCacheRecordsAccess() throws IOException {
+    FeaturedModFile featuredModFile = new FeaturedModFile();
+    featuredModFile.setMd5("b53227da4280f0e18270f21dd77c91d0");
+    featuredModFile.setGroup("gamedata");
+    Path cachedFile = Files.createDirectories(cacheDirectory.resolve("gamedata")).resolve(featuredModFile.getMd5());
+    Files.writeString(cachedFile, "Some content");
+
+    instance.copyFeaturedModFileFromCache(featuredModFile, targetDirectory.resolve("gamedata").resolve("test.nx2"));
+
+    verify(accessLog).recordAccess(cachedFile);
+  }
+
+  /**
+   * Creates a cached file of 10 bytes which has last been accessed the given time ago.
+   */
+  private Path createCachedFile(String name, Duration lastAccessAgo) throws IOException {
+    Path file = Files.writeString(Files.createDirectories(cacheDirectory.resolve("gamedata")).resolve(name), "0123456789");
+    Files.getFileAttributeView(file, BasicFileAttributeView.class)
+        .setTimes(null, FileTime.from(Instant.now().minus(lastAccessAgo)), null);
+    return file;
+  }
+}
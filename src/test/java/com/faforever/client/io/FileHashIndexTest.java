@@ -0,0 +1,87 @@
+package com.faforever.client.io;
+
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.ServiceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class FileHashIndexTest extends ServiceTest {
+
+  @TempDir
+  public Path tempDirectory;
+
+  private DataPrefs dataPrefs;
+  private Path file;
+  private FileHashIndex instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    dataPrefs = new DataPrefs();
+    dataPrefs.setBaseDataDirectory(tempDirectory.resolve("data"));
+    file = Files.writeString(tempDirectory.resolve("gamedata.nx2"), "Some content");
+
+    instance = new FileHashIndex(dataPrefs, new ObjectMapper());
+  }
+
+  @Test
+  public void testLookupUnknownFile() throws Exception {
+    assertThat(instance.lookup(file, attributes()), is(Optional.empty()));
+  }
+
+  @Test
+  public void testLookupSurvivesRestart() throws Exception {
+    instance.put(file, attributes(), "b53227da4280f0e18270f21dd77c91d0");
+    instance.store();
+
+    FileHashIndex reloaded = new FileHashIndex(dataPrefs, new ObjectMapper());
+
+    assertThat(reloaded.lookup(file, attributes()), is(Optional.of("b53227da4280f0e18270f21dd77c91d0")));
+  }
+
+  @Test
+  public void testLookupChangedFile() throws Exception {
+    instance.put(file, attributes(), "b53227da4280f0e18270f21dd77c91d0");
+
+    Files.writeString(file, "Other content");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+
+    assertThat(instance.lookup(file, attributes()), is(Optional.empty()));
+  }
+
+  @Test
+  public void testStoreDropsDeletedFiles() throws Exception {
+    Path deletedFile = Files.writeString(tempDirectory.resolve("download.tmp"), "Temporary");
+    instance.put(file, attributes(), "b53227da4280f0e18270f21dd77c91d0");
+    instance.put(deletedFile, Files.readAttributes(deletedFile, BasicFileAttributes.class), "hash");
+    Files.delete(deletedFile);
+
+    instance.store();
+
+    assertThat(instance.getIndexedPaths(), contains(file.toAbsolutePath().normalize().toString()));
+  }
+
+  @Test
+  public void testRemove() throws Exception {
+    instance.put(file, attributes(), "b53227da4280f0e18270f21dd77c91d0");
+    instance.remove(file);
+
+    assertThat(instance.getIndexedPaths(), is(empty()));
+  }
+
+  private BasicFileAttributes attributes() throws Exception {
+    return Files.readAttributes(file, BasicFileAttributes.class);
+  }
+}
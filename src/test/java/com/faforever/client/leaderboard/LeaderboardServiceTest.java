@@ -215,7 +215,7 @@ public class LeaderboardServiceTest extends ServiceTest {
                                        .set(field(LeagueEntry::player), player)
                                        .create();
     Flux<ElideEntity> resultFlux = Flux.just(leaderboardMapper.map(leagueEntry));
-    when(fafApiAccessor.getMany(any())).thenReturn(resultFlux);
+    when(fafApiAccessor.getAll(any())).thenReturn(resultFlux);
     when(playerService.getPlayersByIds(anyCollection())).thenReturn(
         Flux.just(PlayerInfoBuilder.create().id(1).username("junit").get()));
 
@@ -225,7 +225,7 @@ public class LeaderboardServiceTest extends ServiceTest {
   @Test
   public void testGetLeagueEntriesEmpty() {
     LeagueSeason leagueSeason = Instancio.create(LeagueSeason.class);
-    when(fafApiAccessor.getMany(any())).thenReturn(Flux.empty());
+    when(fafApiAccessor.getAll(any())).thenReturn(Flux.empty());
     when(playerService.getPlayersByIds(anyCollection())).thenReturn(Flux.empty());
     StepVerifier.create(instance.getActiveEntries(leagueSeason)).verifyComplete();
   }
@@ -82,4 +82,20 @@ public class LogAnalyzerServiceTest extends ServiceTest {
 
     assertTrue(result.isEmpty());
   }
+
+  @Test
+  public void testAnalysisAppliesRuleOnlyOnceAllTracesWereSeen() {
+    when(i18n.get("game.log.analysis.moreInfoBtn")).thenReturn(MORE_INFO_BUTTON);
+    when(i18n.get("game.log.analysis.snd", MORE_INFO_BUTTON)).thenReturn(SOUND_EXPECTED_TEXT);
+
+    LogAnalysis analysis = logAnalyzerService.newAnalysis();
+    analysis.accept("warning: SND");
+
+    assertTrue(analysis.getFindings().isEmpty());
+
+    analysis.accept("Some other log content");
+    analysis.accept("XACT");
+
+    assertNotNull(analysis.getFindings().get(SOUND_EXPECTED_TEXT));
+  }
 }
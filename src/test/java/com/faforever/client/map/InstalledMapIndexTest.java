@@ -0,0 +1,90 @@
+package com.faforever.client.map;
+
+import com.faforever.client.domain.api.Map;
+import com.faforever.client.domain.api.MapType;
+import com.faforever.client.domain.api.MapVersion;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.ServiceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class InstalledMapIndexTest extends ServiceTest {
+
+  @TempDir
+  public Path tempDirectory;
+
+  private DataPrefs dataPrefs;
+  private Path mapFolder;
+  private Path scenarioFile;
+  private InstalledMapIndex instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    dataPrefs = new DataPrefs();
+    dataPrefs.setBaseDataDirectory(tempDirectory.resolve("data"));
+    mapFolder = Files.createDirectories(tempDirectory.resolve("maps").resolve("test_map.v0001"));
+    scenarioFile = Files.writeString(mapFolder.resolve("test_map_scenario.lua"), "ScenarioInfo = {}");
+
+    instance = new InstalledMapIndex(dataPrefs, new ObjectMapper());
+  }
+
+  @Test
+  public void testLookupUnknownFolder() {
+    assertThat(instance.lookup(mapFolder), is(Optional.empty()));
+  }
+
+  @Test
+  public void testLookupSurvivesRestart() {
+    MapVersion mapVersion = createMapVersion();
+    instance.put(mapFolder, scenarioFile, mapVersion);
+    instance.store();
+
+    InstalledMapIndex reloaded = new InstalledMapIndex(dataPrefs, new ObjectMapper());
+
+    assertThat(reloaded.lookup(mapFolder), is(Optional.of(mapVersion)));
+  }
+
+  @Test
+  public void testLookupChangedScenarioFile() throws Exception {
+    instance.put(mapFolder, scenarioFile, createMapVersion());
+
+    Files.writeString(scenarioFile, "ScenarioInfo = { name = 'changed' }");
+    Files.setLastModifiedTime(scenarioFile, FileTime.fromMillis(0));
+
+    assertThat(instance.lookup(mapFolder), is(Optional.empty()));
+  }
+
+  @Test
+  public void testRemoveAndRetain() {
+    instance.put(mapFolder, scenarioFile, createMapVersion());
+    instance.retainAll(List.of(mapFolder));
+    assertThat(instance.getIndexedFolders(), hasSize(1));
+
+    instance.retainAll(List.of());
+    assertThat(instance.getIndexedFolders(), is(empty()));
+
+    instance.put(mapFolder, scenarioFile, createMapVersion());
+    instance.remove(mapFolder);
+    assertThat(instance.getIndexedFolders(), is(empty()));
+  }
+
+  private MapVersion createMapVersion() {
+    Map map = new Map(null, "Test Map", 0, null, false, MapType.SKIRMISH, null);
+    return new MapVersion(null, mapFolder.getFileName().toString(), 0, "Description", 4, new MapSize(512, 512),
+                          new ComparableVersion("1"), false, false, null, null, null, map, null);
+  }
+}
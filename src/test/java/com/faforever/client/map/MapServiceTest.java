@@ -37,6 +37,7 @@ import javafx.scene.image.Image;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.hamcrest.core.IsInstanceOf;
 import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -60,6 +61,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
@@ -116,6 +119,8 @@ public class MapServiceTest extends PlatformTest {
   private ObjectFactory<UninstallMapTask> uninstallMapTaskFactory;
   @Mock
   private FileSizeReader fileSizeReader;
+  @Mock
+  private InstalledMapIndex installedMapIndex;
   @Spy
   private MapMapper mapMapper = Mappers.getMapper(MapMapper.class);
   @Spy
@@ -128,6 +133,12 @@ public class MapServiceTest extends PlatformTest {
   private Preferences preferences;
 
   private Path mapsDirectory;
+  private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @AfterEach
+  public void tearDown() {
+    taskExecutor.shutdownNow();
+  }
 
   @BeforeEach
   public void setUp() throws Exception {
@@ -150,7 +161,8 @@ public class MapServiceTest extends PlatformTest {
     instance = new MapService(notificationService, taskService, fafApiAccessor, assetService, i18n,
                               themeService, mapGeneratorService, playerService, mapMapper, matchmakerMapper, fileSizeReader,
                               clientProperties, forgedAlliancePrefs, preferences, mapUploadTaskFactory,
-                              downloadMapTaskFactory, uninstallMapTaskFactory, fxApplicationThreadExecutor);
+                              downloadMapTaskFactory, uninstallMapTaskFactory, fxApplicationThreadExecutor,
+                              installedMapIndex, taskExecutor);
     instance.officialMaps = Set.of();
     instance.afterPropertiesSet();
   }
@@ -491,15 +503,15 @@ public class MapServiceTest extends PlatformTest {
     com.faforever.commons.api.dto.Map map = mapMapper.map(mapVersion.map());
     map.setLatestVersion(mapMapper.map(mapVersion));
     Mono<Tuple2<List<ElideEntity>, Integer>> resultMono = ApiTestUtil.apiPageOf(List.of(map), 1);
-    when(fafApiAccessor.getManyWithPageCount(any(), anyString())).thenReturn(resultMono);
+    when(fafApiAccessor.getManyWithPageCountAndPrefetch(any(), anyString())).thenReturn(resultMono);
 
     SearchConfig searchConfig = new SearchConfig(new SortConfig("testSort", SortOrder.ASC), "testQuery");
     StepVerifier.create(instance.findByQueryWithPageCount(searchConfig, 10, 1)).expectNextCount(1)
                 .verifyComplete();
 
-    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasSort("testSort", true)), eq("testQuery"));
-    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasPageSize(10)), eq("testQuery"));
-    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasPageNumber(1)), eq("testQuery"));
+    verify(fafApiAccessor).getManyWithPageCountAndPrefetch(argThat(ElideMatchers.hasSort("testSort", true)), eq("testQuery"));
+    verify(fafApiAccessor).getManyWithPageCountAndPrefetch(argThat(ElideMatchers.hasPageSize(10)), eq("testQuery"));
+    verify(fafApiAccessor).getManyWithPageCountAndPrefetch(argThat(ElideMatchers.hasPageNumber(1)), eq("testQuery"));
   }
 
   @Test
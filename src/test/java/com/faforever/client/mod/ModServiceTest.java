@@ -1,6 +1,8 @@
 package com.faforever.client.mod;
 
 import com.faforever.client.api.FafApiAccessor;
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.config.ClientProperties.Vault.LocalScan;
 import com.faforever.client.domain.api.ModType;
 import com.faforever.client.domain.api.ModVersion;
 import com.faforever.client.fx.PlatformService;
@@ -34,6 +36,7 @@ import javafx.collections.ObservableList;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.hamcrest.Matchers;
 import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -53,14 +56,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -72,6 +80,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -107,6 +116,8 @@ public class ModServiceTest extends PlatformTest {
   private PlatformService platformService;
   @Mock
   private FileSizeReader fileSizeReader;
+  @Spy
+  private ClientProperties clientProperties;
   @Mock
   private ObjectFactory<ModUploadTask> modUploadTaskFactory;
   @Mock
@@ -125,14 +136,20 @@ public class ModServiceTest extends PlatformTest {
   private ModService instance;
 
   private Path modsDirectory;
+  private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @AfterEach
+  public void tearDown() {
+    taskExecutor.shutdownNow();
+  }
 
   @BeforeEach
   public void setUp() throws Exception {
     instance = new ModService(fafApiAccessor, gamePrefsService, taskService, notificationService, i18n, platformService,
                               assetService,
-                              themeService, fileSizeReader, modMapper, forgedAlliancePrefs, preferences,
+                              themeService, fileSizeReader, clientProperties, modMapper, forgedAlliancePrefs, preferences,
                               modUploadTaskFactory, downloadModTaskFactory, uninstallModTaskFactory,
-                              fxApplicationThreadExecutor);
+                              fxApplicationThreadExecutor, taskExecutor);
     MapperSetup.injectMappers(modMapper);
     modsDirectory = tempDirectory.resolve("mods");
     Files.createDirectories(modsDirectory);
@@ -233,6 +250,31 @@ public class ModServiceTest extends PlatformTest {
     assertThat(instance.getInstalledMods().size(), is(1));
   }
 
+  @Test
+  public void testLoadInstalledModsInBatches() throws Exception {
+    LocalScan localScan = clientProperties.getVault().getLocalScan();
+    localScan.setParallelism(4);
+    localScan.setBatchSize(3);
+    localScan.setBatchTimeout(Duration.ofMinutes(1));
+
+    String modInfo = BLACKOPS_UNLEASHED_MOD_INFO.getContentAsString(StandardCharsets.UTF_8);
+    Path otherVaultDirectory = tempDirectory.resolve("otherVault");
+    List<String> uids = IntStream.range(0, 10).mapToObj(i -> "9e8ea941-c306-4751-b367-a1100000000" + i).toList();
+    for (String uid : uids) {
+      Path modDirectory = Files.createDirectories(otherVaultDirectory.resolve("mods").resolve(uid));
+      Files.writeString(modDirectory.resolve("mod_info.lua"),
+                        modInfo.replace("9e8ea941-c306-4751-b367-a11000000502", uid));
+    }
+    clearInvocations(fxApplicationThreadExecutor);
+
+    forgedAlliancePrefs.setVaultBaseDirectory(otherVaultDirectory);
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertThat(instance.getInstalledMods().stream().map(ModVersion::uid).sorted().toList(), is(uids));
+    // 10 mods in batches of 3, each batch published with one update
+    verify(fxApplicationThreadExecutor, times(4)).execute(any());
+  }
+
   @Test
   public void testIsModInstalled() {
     assertThat(instance.isInstalled("9e8ea941-c306-4751-b367-a11000000502"), is(true));
@@ -361,15 +403,15 @@ public class ModServiceTest extends PlatformTest {
     Mod mod = modMapper.map(modVersion.mod());
     mod.setLatestVersion(modMapper.map(modVersion));
     Mono<Tuple2<List<ElideEntity>, Integer>> resultMono = ApiTestUtil.apiPageOf(List.of(mod), 1);
-    when(fafApiAccessor.getManyWithPageCount(any(), anyString())).thenReturn(resultMono);
+    when(fafApiAccessor.getManyWithPageCountAndPrefetch(any(), anyString())).thenReturn(resultMono);
 
     SearchConfig searchConfig = new SearchConfig(new SortConfig("testSort", SortOrder.ASC), "testQuery");
     StepVerifier.create(instance.findByQueryWithPageCount(searchConfig, 10, 1)).expectNextCount(1)
                 .verifyComplete();
 
-    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasSort("testSort", true)), eq("testQuery"));
-    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasPageSize(10)), eq("testQuery"));
-    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasPageNumber(1)), eq("testQuery"));
+    verify(fafApiAccessor).getManyWithPageCountAndPrefetch(argThat(ElideMatchers.hasSort("testSort", true)), eq("testQuery"));
+    verify(fafApiAccessor).getManyWithPageCountAndPrefetch(argThat(ElideMatchers.hasPageSize(10)), eq("testQuery"));
+    verify(fafApiAccessor).getManyWithPageCountAndPrefetch(argThat(ElideMatchers.hasPageNumber(1)), eq("testQuery"));
   }
 
   @Test
@@ -3,6 +3,7 @@ package com.faforever.client.player;
 import com.faforever.client.api.FafApiAccessor;
 import com.faforever.client.builders.GameInfoBuilder;
 import com.faforever.client.builders.PlayerInfoBuilder;
+import com.faforever.client.config.ClientProperties;
 import com.faforever.client.domain.server.GameInfo;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
@@ -66,6 +67,8 @@ public class PlayerServiceTest extends ServiceTest {
   private PlayerMapper playerMapper = Mappers.getMapper(PlayerMapper.class);
   @Spy
   private UserPrefs userPrefs;
+  @Spy
+  private ClientProperties clientProperties;
 
   @InjectMocks
   private PlayerService instance;
@@ -78,6 +81,7 @@ public class PlayerServiceTest extends ServiceTest {
   @BeforeEach
   public void setUp() throws Exception {
     MapperSetup.injectMappers(playerMapper);
+    clientProperties.getServer().setEventBatchSize(1);
     lenient().when(fxApplicationThreadExecutor.asScheduler()).thenReturn(Schedulers.immediate());
     lenient().when(fafServerAccessor.getEvents(com.faforever.commons.lobby.PlayerInfo.class))
              .thenReturn(playerInfoTestPublisher.flux());
@@ -110,6 +114,16 @@ public class PlayerServiceTest extends ServiceTest {
     assertTrue(instance.getPlayerByIdIfOnline(4).isPresent());
   }
 
+  @Test
+  public void testOnlyLatestMessageAboutPlayerIsApplied() {
+    playerInfoTestPublisher.next(new com.faforever.commons.lobby.PlayerInfo(List.of(
+        new com.faforever.commons.lobby.Player(2, "junit2", "old", null, "", new HashMap<>(), new HashMap<>(), null),
+        new com.faforever.commons.lobby.Player(2, "junit2", "new", null, "", new HashMap<>(), new HashMap<>(), null))));
+
+    assertEquals("new", instance.getPlayerByIdIfOnline(2).orElseThrow().getClan());
+    verify(playerMapper, never()).update(argThat(player -> "old".equals(player.getClan())), any());
+  }
+
   @Test
   public void testGetPlayerForUsernameUsernameDoesNotExist() {
     Optional<PlayerInfo> player = instance.getPlayerByNameIfOnline("test");
@@ -0,0 +1,105 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.io.FileHashIndex;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.ServiceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ExtractedReplayCacheTest extends ServiceTest {
+
+  @TempDir
+  public Path tempDirectory;
+
+  @Mock
+  private ReplayFileReader replayFileReader;
+
+  private final ReplayFileReaderImpl fileReader = new ReplayFileReaderImpl();
+  private final ClientProperties clientProperties = new ClientProperties();
+  private Path replayFile;
+  private ExtractedReplayCache instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    DataPrefs dataPrefs = new DataPrefs();
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+
+    replayFile = Files.createDirectories(tempDirectory.resolve("downloads")).resolve("replay.fafreplay");
+    try (InputStream inputStream = getClass().getResourceAsStream("/replay/test.fafreplay")) {
+      Files.copy(inputStream, replayFile);
+    }
+
+    when(replayFileReader.openReplayData(any())).thenAnswer(
+        invocation -> fileReader.openReplayData(invocation.getArgument(0)));
+
+    instance = new ExtractedReplayCache(dataPrefs, clientProperties, replayFileReader,
+                                        new FileHashIndex(dataPrefs, new ObjectMapper()));
+  }
+
+  @Test
+  public void testExtractWritesReplayData() throws Exception {
+    Path extractedFile = instance.extract(replayFile);
+
+    assertThat(extractedFile.getFileName().toString().endsWith(ReplayService.SUP_COM_REPLAY_FILE_ENDING), is(true));
+    assertThat(Files.readAllBytes(extractedFile), is(fileReader.parseReplay(replayFile).getData()));
+  }
+
+  @Test
+  public void testSameReplayIsOnlyExtractedOnce() throws Exception {
+    Path extractedFile = instance.extract(replayFile);
+    Path movedReplayFile = Files.copy(replayFile, tempDirectory.resolve("moved.fafreplay"));
+
+    assertThat(instance.extract(replayFile), is(extractedFile));
+    assertThat(instance.extract(movedReplayFile), is(extractedFile));
+    verify(replayFileReader, times(1)).openReplayData(any());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedReplaysAreEvicted() throws Exception {
+    clientProperties.getReplay().setExtractedReplayCacheSize(2);
+    Instant now = Instant.now();
+
+    Path firstFile = instance.extract(replayFile);
+    Files.setLastModifiedTime(firstFile, FileTime.from(now.minus(3, ChronoUnit.HOURS)));
+    Path secondFile = instance.extract(createDifferentReplay("second.fafreplay", 1));
+    Files.setLastModifiedTime(secondFile, FileTime.from(now.minus(2, ChronoUnit.HOURS)));
+
+    // Using the first replay again makes the second one the least recently used
+    instance.extract(replayFile);
+    Path thirdFile = instance.extract(createDifferentReplay("third.fafreplay", 2));
+
+    try (Stream<Path> files = Files.list(firstFile.getParent())) {
+      assertThat(files.toList(), containsInAnyOrder(firstFile, thirdFile));
+    }
+  }
+
+  /**
+   * Line breaks are ignored in the base64 encoded body, so they change the hash but not the replay data.
+   */
+  private Path createDifferentReplay(String fileName, int lineBreaks) throws Exception {
+    Path copy = Files.copy(replayFile, tempDirectory.resolve(fileName));
+    Files.writeString(copy, "\n".repeat(lineBreaks), StandardOpenOption.APPEND);
+    return copy;
+  }
+}
@@ -0,0 +1,234 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.replay.LocalReplayIndex.IndexedReplay;
+import com.faforever.client.replay.LocalReplayQuery.Field;
+import com.faforever.client.test.ServiceTest;
+import com.faforever.client.vault.search.SearchController.SearchConfig;
+import com.faforever.client.vault.search.SearchController.SortConfig;
+import com.faforever.client.vault.search.SearchController.SortOrder;
+import com.faforever.commons.replay.ReplayMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocalReplayIndexTest extends ServiceTest {
+
+  @TempDir
+  public Path tempDirectory;
+
+  @Mock
+  private ReplayFileReader replayFileReader;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+  private DataPrefs dataPrefs;
+  private Path replaysDirectory;
+  private LocalReplayIndex instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    dataPrefs = new DataPrefs();
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    replaysDirectory = Files.createDirectories(dataPrefs.getReplaysDirectory());
+
+    ReplayFileReaderImpl fileReader = new ReplayFileReaderImpl();
+    when(replayFileReader.readMetadata(any())).thenAnswer(
+        invocation -> fileReader.readMetadata(invocation.getArgument(0)));
+
+    instance = createIndex();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    instance.destroy();
+    taskExecutor.shutdownNow();
+  }
+
+  @Test
+  public void testQueryFiltersAndSorts() throws Exception {
+    writeReplay("1.fafreplay", 1, "First", "SCMP_001", "faf", "Alice", 1_600_000_000, 3_000);
+    writeReplay("2.fafreplay", 2, "Second", "SCMP_002", "faf", "Bob", 1_700_000_000, 2_000);
+    writeReplay("3.fafreplay", 3, "Third", "SCMP_001", "coop", "Bob", 1_650_000_000, 1_000);
+
+    assertThat(instance.update(), is(empty()));
+
+    assertThat(uids(instance.query(LocalReplayQuery.ALL, 0, 10)), contains(1, 2, 3));
+    assertThat(uids(search("", "startTime", SortOrder.DESC)), contains(2, 3, 1));
+    assertThat(uids(search("mapVersion.folderName==\"scmp_001\"", "name", SortOrder.ASC)), contains(1, 3));
+    assertThat(uids(search("mapVersion.folderName==\"*002\"", "name", SortOrder.ASC)), contains(2));
+    assertThat(uids(search("playerStats.player.login==\"bob\";featuredMod.technicalName=in=(\"faf\",\"ladder1v1\")",
+                           "name", SortOrder.ASC)), contains(2));
+    assertThat(uids(search("startTime=ge=\"%s\";startTime=lt=\"%s\"".formatted(Instant.ofEpochSecond(1_650_000_000),
+                                                                                 Instant.ofEpochSecond(1_700_000_000)),
+                           "name", SortOrder.ASC)), contains(3));
+    assertThat(uids(search("name==\"*hir*\"", "name", SortOrder.ASC)), contains(3));
+    assertThat(uids(search("(id==\"1\",id==\"2\");playerStats.player.login!=\"Alice\"", "id", SortOrder.ASC)),
+               contains(2));
+
+    LocalReplayIndex.Page page = instance.query(LocalReplayQuery.ALL, 1, 1);
+    assertThat(uids(page), contains(2));
+    assertThat(page.totalCount(), is(3));
+    assertThat(page.replays().getFirst().replayFile(), is(replaysDirectory.resolve("2.fafreplay")));
+  }
+
+  @Test
+  public void testCountValues() throws Exception {
+    writeReplay("1.fafreplay", 1, "First", "SCMP_001", "faf", "Alice", 1_600_000_000, 3_000);
+    writeReplay("2.fafreplay", 2, "Second", "SCMP_002", "faf", "Bob", 1_700_000_000, 2_000);
+    writeReplay("3.fafreplay", 3, "Third", "SCMP_001", "coop", "Bob", 1_650_000_000, 1_000);
+    instance.update();
+
+    assertThat(instance.countValues(Field.FEATURED_MOD, LocalReplayQuery.ALL), is(Map.of("faf", 2, "coop", 1)));
+    assertThat(List.copyOf(instance.countValues(Field.FEATURED_MOD, LocalReplayQuery.ALL).keySet()),
+               contains("faf", "coop"));
+    assertThat(instance.countValues(Field.MAP, LocalReplayQuery.of(
+        new SearchConfig(new SortConfig("id", SortOrder.ASC), "playerStats.player.login==\"Bob\""))),
+               is(Map.of("SCMP_001", 1, "SCMP_002", 1)));
+  }
+
+  @Test
+  public void testChatMessagesAreIndexed() throws Exception {
+    Path replayFile = replaysDirectory.resolve("test.fafreplay");
+    try (InputStream inputStream = getClass().getResourceAsStream("/replay/test.fafreplay")) {
+      Files.copy(inputStream, replayFile);
+    }
+    ReplayFileReaderImpl fileReader = new ReplayFileReaderImpl();
+    when(replayFileReader.openReplayDataReader(any())).thenAnswer(
+        invocation -> fileReader.openReplayDataReader(invocation.getArgument(0)));
+
+    LocalReplayQuery chatQuery = LocalReplayQuery.of(
+        new SearchConfig(new SortConfig("id", SortOrder.ASC), "chatMessages==\"game play\""));
+    awaitUpdate(chatQuery, page -> page.totalCount() == 1);
+    assertThat(search("chatMessages==\"*nonexistent*\"", "id", SortOrder.ASC).totalCount(), is(0));
+    instance.destroy();
+
+    instance = createIndex();
+    instance.update();
+
+    assertThat(instance.query(chatQuery, 0, 10).totalCount(), is(1));
+    verify(replayFileReader, times(1)).openReplayDataReader(replayFile);
+  }
+
+  @Test
+  public void testUnreadableReplayIsReported() throws Exception {
+    Path brokenFile = Files.writeString(replaysDirectory.resolve("broken.fafreplay"), "not json\nbody");
+    Files.writeString(replaysDirectory.resolve("ignored.txt"), "not a replay");
+
+    assertThat(instance.update(), contains(brokenFile));
+    assertThat(instance.query(LocalReplayQuery.ALL, 0, 10).totalCount(), is(0));
+  }
+
+  @Test
+  public void testUnchangedReplaysAreNotReadAgain() throws Exception {
+    Path replayFile = writeReplay("1.fafreplay", 1, "First", "SCMP_001", "faf", "Alice", 1_600_000_000, 1_000);
+    instance.update();
+    instance.destroy();
+
+    instance = createIndex();
+    instance.update();
+
+    assertThat(uids(instance.query(LocalReplayQuery.ALL, 0, 10)), contains(1));
+    verify(replayFileReader, times(1)).readMetadata(replayFile);
+  }
+
+  @Test
+  public void testChangedAndDeletedReplaysAreUpdated() throws Exception {
+    Path changedFile = writeReplay("1.fafreplay", 1, "First", "SCMP_001", "faf", "Alice", 1_600_000_000, 1_000);
+    Path deletedFile = writeReplay("2.fafreplay", 2, "Second", "SCMP_002", "faf", "Bob", 1_700_000_000, 2_000);
+    instance.update();
+
+    writeReplay("1.fafreplay", 1, "Renamed", "SCMP_001", "faf", "Alice", 1_600_000_000, 3_000);
+    Files.delete(deletedFile);
+    awaitUpdate(page -> page.totalCount() == 1 && page.replays().getFirst().entry().title().equals("Renamed"));
+
+    verify(replayFileReader, times(2)).readMetadata(changedFile);
+  }
+
+  @Test
+  public void testWatcherPicksUpNewReplays() throws Exception {
+    instance.update();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!instance.isWatching() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(instance.isWatching(), is(true));
+    instance.update();
+
+    writeReplay("1.fafreplay", 1, "First", "SCMP_001", "faf", "Alice", 1_600_000_000, 1_000);
+
+    awaitUpdate(page -> page.totalCount() == 1);
+  }
+
+  private LocalReplayIndex createIndex() {
+    return new LocalReplayIndex(dataPrefs, new ClientProperties(), replayFileReader, taskExecutor, objectMapper);
+  }
+
+  private LocalReplayIndex.Page search(String query, String sortProperty, SortOrder sortOrder) {
+    return instance.query(LocalReplayQuery.of(new SearchConfig(new SortConfig(sortProperty, sortOrder), query)), 0, 10);
+  }
+
+  private void awaitUpdate(Predicate<LocalReplayIndex.Page> condition) throws Exception {
+    awaitUpdate(LocalReplayQuery.ALL, condition);
+  }
+
+  private void awaitUpdate(LocalReplayQuery query, Predicate<LocalReplayIndex.Page> condition) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    LocalReplayIndex.Page page;
+    do {
+      instance.update();
+      page = instance.query(query, 0, 10);
+    } while (!condition.test(page) && System.nanoTime() < deadline && sleep());
+    assertThat(condition.test(page), is(true));
+  }
+
+  private static boolean sleep() throws InterruptedException {
+    Thread.sleep(10);
+    return true;
+  }
+
+  private Path writeReplay(String fileName, int uid, String title, String mapName, String featuredMod, String player,
+                           long gameTime, long lastModified) throws Exception {
+    ReplayMetadata metadata = new ReplayMetadata();
+    metadata.setUid(uid);
+    metadata.setTitle(title);
+    metadata.setMapname(mapName);
+    metadata.setFeaturedMod(featuredMod);
+    metadata.setTeams(Map.of("1", List.of(player)));
+    metadata.setGameTime((double) gameTime);
+
+    Path replayFile = replaysDirectory.resolve(fileName);
+    Files.writeString(replayFile, objectMapper.writeValueAsString(metadata) + "\nreplay data");
+    Files.setLastModifiedTime(replayFile, FileTime.fromMillis(lastModified));
+    return replayFile;
+  }
+
+  private static List<Integer> uids(LocalReplayIndex.Page page) {
+    return page.replays().stream().map(IndexedReplay::entry).map(LocalReplayIndex.Entry::uid).toList();
+  }
+}
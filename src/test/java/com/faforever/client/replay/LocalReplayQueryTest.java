@@ -0,0 +1,75 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.replay.LocalReplayQuery.And;
+import com.faforever.client.replay.LocalReplayQuery.Comparison;
+import com.faforever.client.replay.LocalReplayQuery.Field;
+import com.faforever.client.replay.LocalReplayQuery.Operator;
+import com.faforever.client.replay.LocalReplayQuery.Or;
+import com.faforever.client.replay.LocalReplayQuery.Sort;
+import com.faforever.client.replay.LocalReplayQuery.SortKey;
+import com.faforever.client.vault.search.SearchController.SearchConfig;
+import com.faforever.client.vault.search.SearchController.SortConfig;
+import com.faforever.client.vault.search.SearchController.SortOrder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LocalReplayQueryTest {
+
+  @Test
+  public void testEmptyQueryMatchesAll() {
+    assertThat(LocalReplayQuery.of(null), is(LocalReplayQuery.ALL));
+    assertThat(query("").criterion(), is(new And(List.of())));
+  }
+
+  @Test
+  public void testParseComparisons() {
+    assertThat(query("name==\"*some \\\"title\\\"*\"").criterion(),
+               is(new Comparison(Field.TITLE, Operator.EQ, List.of("*some \"title\"*"))));
+    assertThat(query("featuredMod.displayName=out=(\"faf\",ladder1v1)").criterion(),
+               is(new Comparison(Field.FEATURED_MOD, Operator.OUT, List.of("faf", "ladder1v1"))));
+    assertThat(query("startTime=ge=\"2024-01-01T00:00:00Z\"").criterion(),
+               is(new Comparison(Field.START_TIME, Operator.GE, List.of("2024-01-01T00:00:00Z"))));
+  }
+
+  @Test
+  public void testParseLogicalOperators() {
+    Comparison player = new Comparison(Field.PLAYER, Operator.EQ, List.of("Alice"));
+    Comparison map = new Comparison(Field.MAP, Operator.EQ, List.of("scmp_001"));
+    Comparison id = new Comparison(Field.ID, Operator.NE, List.of("3"));
+
+    assertThat(query("playerStats.player.login==\"Alice\";(mapVersion.folderName==\"scmp_001\",id!=3)").criterion(),
+               is(new And(List.of(player, new Or(List.of(map, id))))));
+    assertThat(query("playerStats.player.login==\"Alice\";mapVersion.folderName==\"scmp_001\",id!=3").criterion(),
+               is(new Or(List.of(new And(List.of(player, map)), id))));
+  }
+
+  @Test
+  public void testSort() {
+    assertThat(query("", "endTime", SortOrder.ASC).sort(), is(new Sort(SortKey.END_TIME, false)));
+    assertThat(query("", "replayTicks", SortOrder.ASC).sort(), is(Sort.NEWEST_FILE_FIRST));
+  }
+
+  @Test
+  public void testInvalidQueries() {
+    assertThrows(IllegalArgumentException.class, () -> query("reviewsSummary.score=gt=3"));
+    assertThrows(IllegalArgumentException.class, () -> query("name=gt=\"a\""));
+    assertThrows(IllegalArgumentException.class, () -> query("id==abc"));
+    assertThrows(IllegalArgumentException.class, () -> query("startTime=ge=\"yesterday\""));
+    assertThrows(IllegalArgumentException.class, () -> query("name=~\"a\""));
+    assertThrows(IllegalArgumentException.class, () -> query("(name==\"a\""));
+    assertThrows(IllegalArgumentException.class, () -> query("name==\"a"));
+  }
+
+  private static LocalReplayQuery query(String searchQuery) {
+    return query(searchQuery, "startTime", SortOrder.DESC);
+  }
+
+  private static LocalReplayQuery query(String searchQuery, String sortProperty, SortOrder sortOrder) {
+    return LocalReplayQuery.of(new SearchConfig(new SortConfig(sortProperty, sortOrder), searchQuery));
+  }
+}
@@ -6,10 +6,12 @@ import com.faforever.client.notification.NotificationService;
 import com.faforever.client.preferences.VaultPrefs;
 import com.faforever.client.query.LogicalNodeController;
 import com.faforever.client.query.SpecificationController;
+import com.faforever.client.replay.LocalReplayQuery.Field;
 import com.faforever.client.reporting.ReportingService;
 import com.faforever.client.test.PlatformTest;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.vault.search.SearchController;
+import com.faforever.client.vault.search.SearchController.SearchConfig;
 import javafx.scene.layout.Pane;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,8 +21,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.testfx.util.WaitForAsyncUtils;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -57,6 +61,7 @@ public class LocalReplayVaultControllerTest extends PlatformTest {
 
   @BeforeEach
   public void setUp() throws Exception {
+    when(replayService.getLocalReplayFieldValues(Field.FEATURED_MOD)).thenReturn(Mono.just(List.of()));
     doAnswer(invocation -> {
       replayDetailController = mock(ReplayDetailController.class);
       when(replayDetailController.getRoot()).then(invocation1 -> new Pane());
@@ -82,7 +87,7 @@ public class LocalReplayVaultControllerTest extends PlatformTest {
   public void testSetSupplier() throws IOException {
     instance.setSupplier(null);
 
-    verify(replayService).loadLocalReplayPage(instance.pageSize, 1);
+    verify(replayService).loadLocalReplayPage((SearchConfig) null, instance.pageSize, 1);
   }
 
   @Test
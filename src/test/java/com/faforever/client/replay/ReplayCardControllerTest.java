@@ -33,6 +33,7 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import static org.instancio.Select.field;
@@ -110,7 +111,7 @@ public class ReplayCardControllerTest extends PlatformTest {
                            .ignore(field(Replay::validity))
                            .create();
     lenient().when(uiService.loadFxml("theme/player_card.fxml")).thenReturn(playerCardController);
-    lenient().when(replayService.loadReplayDetails(any())).thenReturn(new ReplayDetails(List.of(), List.of(), mapBean));
+    lenient().when(replayService.loadReplayDetails(any())).thenReturn(new ReplayDetails(List.of(), List.of(), mapBean, Map.of()));
     lenient().when(mapService.isInstalledBinding(Mockito.<MapVersion>any())).thenReturn(installed);
     lenient().when(mapService.loadPreview(anyString(), eq(PreviewSize.LARGE)))
              .thenReturn(new Image(InputStream.nullInputStream()));
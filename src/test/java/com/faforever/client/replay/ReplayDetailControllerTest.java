@@ -141,7 +141,7 @@ public class ReplayDetailControllerTest extends PlatformTest {
                            .create();
 
     lenient().when(i18n.get(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
-    lenient().when(replayService.loadReplayDetails(any())).thenReturn(new ReplayDetails(List.of(), List.of(), mapBean));
+    lenient().when(replayService.loadReplayDetails(any())).thenReturn(new ReplayDetails(List.of(), List.of(), mapBean, Map.of()));
     lenient().when(mapService.isInstalledBinding(Mockito.<MapVersion>any())).thenReturn(installed);
     lenient().when(imageViewHelper.createPlaceholderImageOnErrorObservable(any()))
              .thenAnswer(invocation -> new SimpleObjectProperty<>(invocation.getArgument(0)));
@@ -223,7 +223,8 @@ public class ReplayDetailControllerTest extends PlatformTest {
   @Test
   public void setReplayLocal() throws Exception {
     when(replayService.loadReplayDetails(any())).thenReturn(
-        new ReplayDetails(localReplay.chatMessages(), localReplay.gameOptions(), mapBean));
+        new ReplayDetails(localReplay.chatMessages(), localReplay.gameOptions(), mapBean,
+                          localReplay.teamPlayerStats()));
 
     runOnFxThreadAndWait(() -> instance.setReplay(localReplay));
 
@@ -1,7 +1,9 @@
 package com.faforever.client.replay;
 
 
+import com.faforever.client.domain.api.Replay.ChatMessage;
 import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
@@ -10,9 +12,12 @@ import java.io.BufferedInputStream;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 
 public class ReplayFileReaderImplTest extends ServiceTest {
 
@@ -22,12 +27,58 @@ public class ReplayFileReaderImplTest extends ServiceTest {
   @InjectMocks
   private ReplayFileReaderImpl instance;
 
-  @Test
-  public void readReplayData() throws Exception {
-    Path tempFile = temporaryFolder.resolve("replay.tmp");
+  private Path tempFile;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    tempFile = temporaryFolder.resolve("replay.fafreplay");
     try (InputStream inputStream = new BufferedInputStream(getClass().getResourceAsStream("/replay/test.fafreplay"))) {
       Files.copy(inputStream, tempFile);
     }
+  }
+
+  @Test
+  public void readReplayData() throws Exception {
     assertThat(instance.parseReplay(tempFile).getData().length, is(197007));
   }
+
+  @Test
+  public void testReadMetadata() throws Exception {
+    assertThat(instance.readMetadata(tempFile).getUid(), is(5670811));
+    assertThat(instance.readMetadata(tempFile).getMapname(), is("scmp_009"));
+  }
+
+  @Test
+  public void testOpenReplayDataMatchesParsedData() throws Exception {
+    byte[] parsedData = instance.parseReplay(tempFile).getData();
+
+    try (InputStream inputStream = instance.openReplayData(tempFile)) {
+      assertThat(inputStream.readAllBytes(), is(parsedData));
+    }
+  }
+
+  @Test
+  public void testReadHeader() throws Exception {
+    try (ReplayDataReader replayDataReader = instance.openReplayDataReader(tempFile)) {
+      ReplayHeader header = replayDataReader.getHeader();
+
+      assertThat(header.replayPatchFieldId(), is("Supreme Commander v1.50.3675"));
+      assertThat(header.mapPath(), is("/maps/SCMP_009/SCMP_009.scmap"));
+      assertThat(header.gameOptions().get("ScenarioFile"), is("/maps/scmp_009/scmp_009_scenario.lua"));
+      assertThat(header.armies(), hasSize(10));
+      assertThat(header.armies().getFirst().get("PlayerName"), is("sandwormsurfer"));
+      assertThat(header.armies().getFirst().get("Human"), is(true));
+    }
+  }
+
+  @Test
+  public void testReadChatMessages() throws Exception {
+    try (ReplayDataReader replayDataReader = instance.openReplayDataReader(tempFile)) {
+      List<ChatMessage> chatMessages = replayDataReader.readChatMessages();
+
+      assertThat(chatMessages, hasSize(7));
+      assertThat(chatMessages.getFirst(),
+                 is(new ChatMessage(Duration.ofMillis(30500), "kubkolienka", "how does this game play?:D")));
+    }
+  }
 }
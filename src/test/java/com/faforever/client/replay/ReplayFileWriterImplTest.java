@@ -4,18 +4,36 @@ import com.faforever.client.config.ClientProperties;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.test.ServiceTest;
+import com.faforever.commons.replay.ReplayDataParser;
 import com.faforever.commons.replay.ReplayMetadata;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.BaseEncoding;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.InflaterInputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -41,37 +59,146 @@ public class ReplayFileWriterImplTest extends ServiceTest {
   private I18n i81n;
   @Spy
   private ClientProperties clientProperties;
-  @Mock
-  private ByteArrayOutputStream replayData;
-  @Mock
-  private ClientProperties.Replay replay;
   @Spy
   private DataPrefs dataPrefs;
 
-  @InjectMocks
   private ReplayFileWriterImpl instance;
+  private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+  private final ClientProperties.Replay replay = new ClientProperties.Replay();
   private Path replaysDirectory;
 
   @BeforeEach
   public void setUp() throws Exception {
+    instance = new ReplayFileWriterImpl(clientProperties, dataPrefs, taskExecutor);
     dataPrefs.setBaseDataDirectory(tempDirectory);
 
     Files.createDirectories(dataPrefs.getCacheDirectory());
     replaysDirectory = Files.createDirectories(dataPrefs.getReplaysDirectory());
 
     when(clientProperties.getReplay()).thenReturn(replay);
-    when(replay.getReplayFileFormat()).thenReturn(replayFileFormat);
+    replay.setReplayFileFormat(replayFileFormat);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    taskExecutor.shutdownNow();
   }
 
   @Test
   public void writeReplayData() throws Exception {
-    when(replayData.toByteArray()).thenReturn(replayBytes);
+    ByteArrayOutputStream replayData = new ByteArrayOutputStream();
+    replayData.write(replayBytes);
     ReplayMetadata replayInfo = new ReplayMetadata();
     replayInfo.setUid(UID);
     replayInfo.setRecorder(RECORDER);
     instance.writeReplayDataToFile(replayData, replayInfo);
     assertTrue(Files.exists(replaysDirectory.resolve(REPLAY_FILE_NAME)));
+    assertArrayEquals(replayBytes, readReplayData(replaysDirectory.resolve(REPLAY_FILE_NAME)));
     Files.deleteIfExists(replaysDirectory.resolve(REPLAY_FILE_NAME));
   }
+
+  @Test
+  public void testParallelCompressionFailureIsReported() throws Exception {
+    replay.setParallelCompressionThreshold(0);
+    replay.setCompressionBlockSize(16);
+    ByteArrayOutputStream replayData = new ByteArrayOutputStream();
+    replayData.write(replayBytes);
+    ReplayMetadata replayInfo = new ReplayMetadata();
+    replayInfo.setUid(UID);
+    replayInfo.setRecorder(RECORDER);
+    taskExecutor.shutdownNow();
+
+    assertThrows(IOException.class, () -> instance.writeReplayDataToFile(replayData, replayInfo));
+    assertFalse(Files.exists(replaysDirectory.resolve(REPLAY_FILE_NAME)));
+    try (Stream<Path> cachedFiles = Files.list(dataPrefs.getCacheDirectory())) {
+      assertTrue(cachedFiles.noneMatch(file -> file.getFileName().toString().endsWith("fafreplay")));
+    }
+  }
+
+  @Test
+  public void testParallelCompressedReplayCanBeRead() throws Exception {
+    Path originalReplayFile = tempDirectory.resolve("original.fafreplay");
+    try (InputStream inputStream = getClass().getResourceAsStream("/replay/test.fafreplay")) {
+      Files.copy(inputStream, originalReplayFile);
+    }
+    ReplayFileReaderImpl replayFileReader = new ReplayFileReaderImpl();
+    ReplayDataParser originalReplay = replayFileReader.parseReplay(originalReplayFile);
+    ReplayMetadata replayInfo = originalReplay.getMetadata();
+    replayInfo.setRecorder(RECORDER);
+
+    replay.setParallelCompressionThreshold(0);
+    replay.setCompressionBlockSize(16 * 1024);
+    replay.setCompressionParallelism(4);
+    ByteArrayOutputStream replayData = new ByteArrayOutputStream();
+    replayData.write(originalReplay.getData());
+    instance.writeReplayDataToFile(replayData, replayInfo);
+
+    Path replayFile = replaysDirectory.resolve(String.format(replayFileFormat, replayInfo.getUid(), RECORDER));
+    ReplayDataParser writtenReplay = replayFileReader.parseReplay(replayFile);
+    assertArrayEquals(originalReplay.getData(), writtenReplay.getData());
+    assertThat(writtenReplay.getMetadata().getUid(), is(replayInfo.getUid()));
+    assertThat(writtenReplay.getMetadata().getMapname(), is(replayInfo.getMapname()));
+    try (InputStream replayDataStream = replayFileReader.openReplayData(replayFile)) {
+      assertArrayEquals(originalReplay.getData(), replayDataStream.readAllBytes());
+    }
+    try (ReplayDataReader replayDataReader = replayFileReader.openReplayDataReader(replayFile)) {
+      assertThat(replayDataReader.readChatMessages().size(), is(7));
+    }
+  }
+
+  @Test
+  public void testRecording() throws Exception {
+    ReplayMetadata replayInfo = new ReplayMetadata();
+    replayInfo.setUid(UID);
+    replayInfo.setRecorder(RECORDER);
+
+    ReplayRecording recording = instance.startRecording(replayInfo);
+    recording.write(replayBytes, 0, 32);
+    recording.write(replayBytes, 32, replayBytes.length - 32);
+    replayInfo.setComplete(true);
+    instance.finishRecording(recording, replayInfo);
+
+    Path replayFile = replaysDirectory.resolve(REPLAY_FILE_NAME);
+    assertArrayEquals(replayBytes, readReplayData(replayFile));
+    assertThat(readReplayMetadata(replayFile).get("complete").asBoolean(), is(true));
+    assertFalse(Files.exists(recording.getDataFile()));
+    assertFalse(Files.exists(recording.getMetadataFile()));
+  }
+
+  @Test
+  public void testRecoverInterruptedRecordings() throws Exception {
+    ReplayMetadata replayInfo = new ReplayMetadata();
+    replayInfo.setUid(UID);
+    replayInfo.setRecorder(RECORDER);
+
+    ReplayRecording recording = instance.startRecording(replayInfo);
+    recording.write(replayBytes, 0, replayBytes.length);
+
+    instance.recoverInterruptedRecordings();
+    assertFalse(Files.exists(replaysDirectory.resolve(REPLAY_FILE_NAME)));
+
+    recording.close();
+    instance.recoverInterruptedRecordings();
+
+    Path replayFile = replaysDirectory.resolve(REPLAY_FILE_NAME);
+    assertArrayEquals(replayBytes, readReplayData(replayFile));
+    assertThat(readReplayMetadata(replayFile).get("complete").asBoolean(), is(false));
+    assertFalse(Files.exists(recording.getDataFile()));
+  }
+
+  private static JsonNode readReplayMetadata(Path replayFile) throws Exception {
+    String header = Files.readAllLines(replayFile, UTF_8).getFirst();
+    return new ObjectMapper().readTree(header);
+  }
+
+  private static byte[] readReplayData(Path replayFile) throws Exception {
+    String body = Files.readAllLines(replayFile, UTF_8).get(1);
+    byte[] compressedData = BaseEncoding.base64().decode(body);
+    assertThat(ByteBuffer.wrap(compressedData).getInt(), is(replayBytes.length));
+    try (InputStream inputStream = new InflaterInputStream(
+        new ByteArrayInputStream(compressedData, 4, compressedData.length - 4))) {
+      return inputStream.readAllBytes();
+    }
+  }
 }
 
@@ -0,0 +1,77 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class ReplayRelayTest extends ServiceTest {
+
+  private static final byte[] DATA = "Supreme Commander v1.50.3599".getBytes();
+
+  private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @AfterEach
+  public void tearDown() {
+    taskExecutor.shutdownNow();
+  }
+
+  @Test
+  public void testRelayBatchesData() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ReplayRelay instance = new ReplayRelay(outputStream, 8, Duration.ofMillis(50), 1024, taskExecutor);
+
+    for (int i = 0; i < DATA.length; i++) {
+      instance.relay(DATA, i, 1);
+    }
+    instance.close();
+
+    assertArrayEquals(DATA, outputStream.toByteArray());
+    ReplayRelay.Statistics statistics = instance.getStatistics();
+    assertThat(statistics.bytesRelayed(), is((long) DATA.length));
+    assertThat(statistics.bytesDropped(), is(0L));
+    assertThat(statistics.flushCount(), greaterThanOrEqualTo((long) DATA.length / 8));
+  }
+
+  @Test
+  public void testStalledServerDoesNotBlock() {
+    CountDownLatch neverReleased = new CountDownLatch(1);
+    OutputStream stalledOutputStream = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        try {
+          neverReleased.await();
+        } catch (InterruptedException e) {
+          throw new InterruptedIOException();
+        }
+      }
+    };
+    ReplayRelay instance = new ReplayRelay(stalledOutputStream, 4, Duration.ZERO, 8, taskExecutor);
+
+    assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+      for (int i = 0; i < DATA.length; i++) {
+        instance.relay(DATA, i, 1);
+      }
+      instance.close();
+    });
+
+    assertThat(instance.isConnectionLost(), is(true));
+    assertThat(instance.getStatistics().bytesRelayed(), is(0L));
+    assertThat(instance.getStatistics().bytesDropped(), lessThanOrEqualTo((long) DATA.length));
+  }
+}
@@ -32,8 +32,6 @@ import com.faforever.client.vault.search.SearchController.SortConfig;
 import com.faforever.client.vault.search.SearchController.SortOrder;
 import com.faforever.commons.api.dto.GameReviewsSummary;
 import com.faforever.commons.api.elide.ElideEntity;
-import com.faforever.commons.replay.GameOption;
-import com.faforever.commons.replay.ReplayDataParser;
 import com.faforever.commons.replay.ReplayMetadata;
 import com.github.rutledgepaulv.qbuilders.conditions.Condition;
 import org.instancio.Instancio;
@@ -50,12 +48,14 @@ import reactor.test.StepVerifier;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
@@ -75,6 +75,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -82,25 +83,6 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 public class ReplayServiceTest extends ServiceTest {
-  /**
-   * First 64 bytes of a SCFAReplay file with version 3599. ASCII representation:
-   * <pre>
-   * Supreme Commande
-   * r v1.50.3599....
-   * Replay v1.9../ma
-   * ps/forbidden pas
-   * s.v0001/forbidde
-   * n pass.scmap....
-   * </pre>
-   */
-  private static final byte[] REPLAY_FIRST_BYTES = new byte[]{
-      0x53, 0x75, 0x70, 0x72, 0x65, 0x6D, 0x65, 0x20, 0x43, 0x6F, 0x6D, 0x6D, 0x61, 0x6E, 0x64, 0x65,
-      0x72, 0x20, 0x76, 0x31, 0x2E, 0x35, 0x30, 0x2E, 0x33, 0x35, 0x39, 0x39, 0x00, 0x0D, 0x0A, 0x00,
-      0x52, 0x65, 0x70, 0x6C, 0x61, 0x79, 0x20, 0x76, 0x31, 0x2E, 0x39, 0x0D, 0x0A, 0x2F, 0x6D, 0x61,
-      0x70, 0x73, 0x2F, 0x66, 0x6F, 0x72, 0x62, 0x69, 0x64, 0x64, 0x65, 0x6E, 0x20, 0x70, 0x61, 0x73,
-      0x73, 0x2E, 0x76, 0x30, 0x30, 0x30, 0x31, 0x2F, 0x66, 0x6F, 0x72, 0x62, 0x69, 0x64, 0x64, 0x65,
-      0x6E, 0x20, 0x70, 0x61, 0x73, 0x73, 0x2E, 0x73, 0x63, 0x6D, 0x61, 0x70, 0x00, 0x0D, 0x0A, 0x1A
-  };
   private static final String TEST_VERSION_STRING = "Supreme Commander v1.50.3599";
   private static final String TEST_MAP_PATH = "/maps/forbidden_pass.v0001/forbidden_pass_scenario.lua";
   private static final String TEST_MAP_NAME = "forbidden_pass.v0001";
@@ -147,11 +129,15 @@ public class ReplayServiceTest extends ServiceTest {
   @Mock
   private LoginService loginService;
   @Mock
-  private ReplayDataParser replayDataParser;
+  private ReplayDataReader replayDataReader;
   @Mock
   private FileSizeReader fileSizeReader;
   @Mock
   private ObjectFactory<ReplayDownloadTask> replayDownloadTaskFactory;
+  @Mock
+  private LocalReplayIndex localReplayIndex;
+  @Mock
+  private ExtractedReplayCache extractedReplayCache;
   @Spy
   private ReplayMapper replayMapper = Mappers.getMapper(ReplayMapper.class);
   @Spy
@@ -180,45 +166,47 @@ public class ReplayServiceTest extends ServiceTest {
     replayMetadata.setFeaturedMod("faf");
     replayMetadata.setMapname(TEST_MAP_NAME);
 
-    lenient().when(replayFileReader.parseReplay(any())).thenReturn(replayDataParser);
-    lenient().when(replayDataParser.getMetadata()).thenReturn(replayMetadata);
-    lenient().when(replayDataParser.getData()).thenReturn(REPLAY_FIRST_BYTES);
-    lenient().when(replayDataParser.getChatMessages()).thenReturn(List.of());
-    lenient().when(replayDataParser.getGameOptions()).thenReturn(List.of());
-    lenient().when(replayDataParser.getMods()).thenReturn(Map.of());
-    lenient().when(replayDataParser.getMap()).thenReturn(TEST_MAP_PATH);
-    lenient().when(replayDataParser.getReplayPatchFieldId()).thenReturn(TEST_VERSION_STRING);
+    lenient().when(replayFileReader.readMetadata(any())).thenReturn(replayMetadata);
+    lenient().when(replayFileReader.openReplayDataReader(any())).thenReturn(replayDataReader);
+    lenient().when(replayDataReader.getHeader()).thenReturn(createHeader(TEST_MAP_PATH, null));
+    lenient().when(extractedReplayCache.extract(any())).thenReturn(cacheDirectory.resolve("extracted.scfareplay"));
     lenient().doAnswer(invocation -> invocation.getArgument(0)).when(taskService).submitTask(any());
   }
 
   @Test
   public void testParseSupComVersion() throws Exception {
-    when(replayDataParser.getReplayPatchFieldId()).thenReturn(TEST_VERSION_STRING);
-    Integer version = ReplayService.parseSupComVersion(replayDataParser);
+    Integer version = ReplayService.parseSupComVersion(createHeader(TEST_MAP_PATH, null));
 
     assertEquals((Integer) 3599, version);
   }
 
   @Test
   public void testParseMapFolderNamePrefersScenarioFile() throws Exception {
-    when(replayDataParser.getMap()).thenReturn(BAD_MAP_PATH);
-    when(replayDataParser.getGameOptions()).thenReturn(List.of(new GameOption("ScenarioFile", COOP_MAP_PATH)));
+    String mapName = ReplayService.parseMapFolderName(createHeader(BAD_MAP_PATH, COOP_MAP_PATH));
 
-    String mapName = ReplayService.parseMapFolderName(replayDataParser);
     assertEquals(COOP_MAP_NAME, mapName);
   }
 
   @Test
   public void testParseMapFolderName() throws Exception {
-    when(replayDataParser.getMap()).thenReturn(COOP_MAP_PATH);
-    String mapName = ReplayService.parseMapFolderName(replayDataParser);
+    String mapName = ReplayService.parseMapFolderName(createHeader(COOP_MAP_PATH, null));
+
     assertEquals(COOP_MAP_NAME, mapName);
   }
 
   @Test
   public void testParseBadFolderNameThrowsException() throws Exception {
-    when(replayDataParser.getMap()).thenReturn(BAD_MAP_PATH);
-    assertThrows(IllegalArgumentException.class, () -> ReplayService.parseMapFolderName(replayDataParser));
+    ReplayHeader header = createHeader(BAD_MAP_PATH, null);
+    assertThrows(IllegalArgumentException.class, () -> ReplayService.parseMapFolderName(header));
+  }
+
+  @Test
+  public void testParseModUIDs() throws Exception {
+    Map<Object, Object> mods = Map.of(1f, Map.of("uid", "mod-1", "name", "Mod"), 2f, Map.of("name", "No UID"));
+    ReplayHeader header = new ReplayHeader(TEST_VERSION_STRING, "Replay v1.9", TEST_MAP_PATH, mods, Map.of(),
+                                           List.of(), 0);
+
+    assertEquals(Set.of("mod-1"), ReplayService.parseModUIDs(header));
   }
 
   @Test
@@ -240,10 +228,10 @@ public class ReplayServiceTest extends ServiceTest {
     Path file1 = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
     Path file2 = Files.createFile(replayDirectory.resolve("replay2.fafreplay"));
 
-    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(file1);
-    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(file2);
+    when(localReplayIndex.update()).thenReturn(List.of(file1, file2));
+    when(localReplayIndex.query(LocalReplayQuery.ALL, 0, 2)).thenReturn(new LocalReplayIndex.Page(List.of(), 0));
 
-    StepVerifier.create(instance.loadLocalReplayPage(2, 1)).expectNext(Tuples.of(List.of(), 0));
+    StepVerifier.create(instance.loadLocalReplayPage(2, 1)).expectNext(Tuples.of(List.of(), 0)).verifyComplete();
 
     verify(notificationService, times(2)).addNotification(any(PersistentNotification.class));
 
@@ -253,14 +241,13 @@ public class ReplayServiceTest extends ServiceTest {
 
   @Test
   public void testLoadLocalReplays() throws Exception {
-    Path file1 = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
-
-    ReplayMetadata replayMetadata = new ReplayMetadata();
-    replayMetadata.setUid(123);
-    replayMetadata.setTitle("title");
+    Path file1 = replayDirectory.resolve("replay.fafreplay");
+    LocalReplayIndex.Entry entry = new LocalReplayIndex.Entry(10, 20, 123, "title", TEST_MAP_NAME, "faf",
+                                                              Map.of("2", List.of("Alice"), "3", List.of("Bob")),
+                                                              1_700_000_000_000L, 0, null);
 
-    when(replayDataParser.getMetadata()).thenReturn(replayMetadata);
-    when(replayFileReader.parseReplay(file1)).thenReturn(replayDataParser);
+    when(localReplayIndex.query(LocalReplayQuery.ALL, 0, 1)).thenReturn(
+        new LocalReplayIndex.Page(List.of(new LocalReplayIndex.IndexedReplay(file1, entry)), 3));
     when(featuredModService.getFeaturedMod(any())).thenReturn(Mono.empty());
     when(mapService.findByMapFolderName(any())).thenReturn(Mono.just(Instancio.create(MapVersion.class)));
 
@@ -269,7 +256,36 @@ public class ReplayServiceTest extends ServiceTest {
       assertThat(localReplays, hasSize(1));
       assertThat(localReplays.getFirst().id(), is(123));
       assertThat(localReplays.getFirst().title(), is("title"));
+      assertThat(localReplays.getFirst().replayFile(), is(file1));
+      assertThat(localReplays.getFirst().numPlayers(), is(2));
+      assertThat(localReplays.getFirst().teamPlayerStats().get("3").getFirst().player().getUsername(), is("Bob"));
+      assertThat(result.getT2(), is(3));
     }).verifyComplete();
+
+    verify(mapService).findByMapFolderName(TEST_MAP_NAME);
+    verify(replayFileReader, never()).parseReplay(any());
+  }
+
+  @Test
+  public void testLoadLocalReplaysBySearch() throws Exception {
+    SearchConfig searchConfig = new SearchConfig(new SortConfig("startTime", SortOrder.ASC),
+                                                 "playerStats.player.login==\"Alice\"");
+    LocalReplayQuery query = LocalReplayQuery.of(searchConfig);
+    when(localReplayIndex.query(query, 0, 10)).thenReturn(new LocalReplayIndex.Page(List.of(), 0));
+
+    StepVerifier.create(instance.loadLocalReplayPage(searchConfig, 10, 1))
+                .expectNext(Tuples.of(List.of(), 0))
+                .verifyComplete();
+  }
+
+  @Test
+  public void testLoadLocalReplaysByInvalidSearch() {
+    SearchConfig searchConfig = new SearchConfig(new SortConfig("startTime", SortOrder.ASC), "reviews=gt=3");
+
+    StepVerifier.create(instance.loadLocalReplayPage(searchConfig, 10, 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    verifyNoInteractions(localReplayIndex);
   }
 
   @Test
@@ -280,8 +296,10 @@ public class ReplayServiceTest extends ServiceTest {
 
     instance.runReplay(replay);
 
-    verify(replayRunner).runWithReplay(any(), eq(123), eq("faf"), eq(3599), eq(emptyMap()), eq(emptySet()),
-                                       eq(TEST_MAP_NAME));
+    verify(extractedReplayCache).extract(replayFile);
+    verify(replayRunner).runWithReplay(eq(cacheDirectory.resolve("extracted.scfareplay")), eq(123), eq("faf"),
+                                       eq(3599), eq(emptyMap()), eq(emptySet()), eq(TEST_MAP_NAME));
+    verify(replayFileReader, never()).parseReplay(any());
     verifyNoInteractions(notificationService);
   }
 
@@ -291,7 +309,7 @@ public class ReplayServiceTest extends ServiceTest {
 
     Replay replay = Instancio.of(Replay.class).set(field(Replay::replayFile), replayFile).create();
 
-    when(replayDataParser.getMap()).thenReturn(TEST_MAP_PATH_GENERATED);
+    when(replayDataReader.getHeader()).thenReturn(createHeader(TEST_MAP_PATH_GENERATED, null));
 
     instance.runReplay(replay);
 
@@ -306,7 +324,7 @@ public class ReplayServiceTest extends ServiceTest {
 
     Replay replay = Instancio.of(Replay.class).set(field(Replay::replayFile), replayFile).create();
 
-    when(replayFileReader.parseReplay(replayFile)).thenReturn(replayDataParser);
+    when(replayFileReader.openReplayDataReader(replayFile)).thenReturn(replayDataReader);
 
     instance.runReplay(replay);
 
@@ -319,7 +337,7 @@ public class ReplayServiceTest extends ServiceTest {
   public void testRunReplayFileExceptionTriggersNotification() throws Exception {
     Path replayFile = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
 
-    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(replayFile);
+    doThrow(new FakeTestException()).when(extractedReplayCache).extract(replayFile);
 
     Replay replay = Instancio.of(Replay.class).set(field(Replay::replayFile), replayFile).create();
 
@@ -331,7 +349,7 @@ public class ReplayServiceTest extends ServiceTest {
   public void testRunFafReplayFileExceptionTriggersNotification() throws Exception {
     Path replayFile = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
 
-    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(replayFile);
+    doThrow(new FakeTestException()).when(replayFileReader).readMetadata(replayFile);
 
     Replay replay = Instancio.of(Replay.class).set(field(Replay::replayFile), replayFile).create();
 
@@ -375,8 +393,7 @@ public class ReplayServiceTest extends ServiceTest {
     replayMetadata.setFeaturedMod("faf");
     replayMetadata.setMapname(TEST_MAP_NAME);
 
-    when(replayFileReader.parseReplay(replayFile)).thenReturn(replayDataParser);
-    when(replayDataParser.getMetadata()).thenReturn(replayMetadata);
+    when(replayFileReader.readMetadata(replayFile)).thenReturn(replayMetadata);
 
     instance.runReplay(replay);
 
@@ -396,7 +413,7 @@ public class ReplayServiceTest extends ServiceTest {
     when(replayDownloadTaskFactory.getObject()).thenReturn(replayDownloadTask);
     Replay replay = Instancio.of(Replay.class).ignore(field(Replay::replayFile)).create();
 
-    when(replayFileReader.parseReplay(replayFile)).thenReturn(replayDataParser);
+    when(replayFileReader.openReplayDataReader(replayFile)).thenReturn(replayDataReader);
 
     instance.runReplay(replay);
 
@@ -408,7 +425,7 @@ public class ReplayServiceTest extends ServiceTest {
   @Test
   public void testRunScFaOnlineReplayExceptionTriggersNotification() throws Exception {
     Path replayFile = Files.createFile(replayDirectory.resolve("replay.scfareplay"));
-    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(replayFile);
+    doThrow(new FakeTestException()).when(replayFileReader).openReplayDataReader(replayFile);
 
     ReplayDownloadTask replayDownloadTask = mock(ReplayDownloadTask.class);
     when(replayDownloadTask.getFuture()).thenReturn(CompletableFuture.completedFuture(replayFile));
@@ -423,13 +440,21 @@ public class ReplayServiceTest extends ServiceTest {
 
   @Test
   public void testEnrich() throws Exception {
-    Path path = Path.of("foo.bar");
-    when(replayFileReader.parseReplay(path)).thenReturn(replayDataParser);
-
-    instance.loadReplayDetails(path);
-
-    verify(replayDataParser).getChatMessages();
-    verify(replayDataParser, times(2)).getGameOptions();
+    Path path = replayDirectory.resolve("replay.fafreplay");
+    try (InputStream inputStream = getClass().getResourceAsStream("/replay/test.fafreplay")) {
+      Files.copy(inputStream, path);
+    }
+    when(replayFileReader.openReplayDataReader(path)).thenAnswer(
+        invocation -> new ReplayFileReaderImpl().openReplayDataReader(path));
+
+    ReplayDetails replayDetails = instance.loadReplayDetails(path);
+
+    assertThat(replayDetails.chatMessages(), hasSize(7));
+    assertThat(replayDetails.gameOptions().getFirst(), is(new Replay.GameOption("FAF Version", "3675")));
+    assertThat(replayDetails.mapVersion().folderName(), is("scmp_009"));
+    assertThat(replayDetails.teamPlayerStats().get("2"), hasSize(4));
+    assertThat(replayDetails.teamPlayerStats().get("3"), hasSize(4));
+    verify(replayFileReader, never()).parseReplay(any());
   }
 
   @Test
@@ -489,14 +514,14 @@ public class ReplayServiceTest extends ServiceTest {
   public void testFindByQuery() {
     Replay replay = Instancio.create(Replay.class);
     Mono<Tuple2<List<ElideEntity>, Integer>> resultMono = ApiTestUtil.apiPageOf(List.of(replayMapper.map(replay)), 1);
-    when(fafApiAccessor.getManyWithPageCount(any(), anyString())).thenReturn(resultMono);
+    when(fafApiAccessor.getManyWithPageCountAndPrefetch(any(), anyString())).thenReturn(resultMono);
 
     SearchConfig searchConfig = new SearchConfig(new SortConfig("testSort", SortOrder.ASC), "testQuery");
     StepVerifier.create(instance.findByQueryWithPageCount(searchConfig, 10, 1)).expectNextCount(1)
                 .verifyComplete();
-    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasSort("testSort", true)), eq("testQuery"));
-    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasPageSize(10)), eq("testQuery"));
-    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasPageNumber(1)), eq("testQuery"));
+    verify(fafApiAccessor).getManyWithPageCountAndPrefetch(argThat(ElideMatchers.hasSort("testSort", true)), eq("testQuery"));
+    verify(fafApiAccessor).getManyWithPageCountAndPrefetch(argThat(ElideMatchers.hasPageSize(10)), eq("testQuery"));
+    verify(fafApiAccessor).getManyWithPageCountAndPrefetch(argThat(ElideMatchers.hasPageNumber(1)), eq("testQuery"));
   }
 
   @Test
@@ -507,4 +532,11 @@ public class ReplayServiceTest extends ServiceTest {
     StepVerifier.create(instance.findById(0)).expectNextCount(1).verifyComplete();
     verify(fafApiAccessor).getOne(any());
   }
+
+  private static ReplayHeader createHeader(String mapPath, String scenarioFile) {
+    Map<Object, Object> scenario = scenarioFile == null
+                                   ? Map.of()
+                                   : Map.of("Options", Map.of("ScenarioFile", scenarioFile));
+    return new ReplayHeader(TEST_VERSION_STRING, "Replay v1.9", mapPath, Map.of(), scenario, List.of(), 0);
+  }
 }
@@ -0,0 +1,141 @@
+package com.faforever.client.task;
+
+import com.faforever.client.task.CompletableTask.Priority;
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrioritizedTaskExecutorTest extends ServiceTest {
+
+  private PrioritizedTaskExecutor instance;
+
+  @AfterEach
+  public void tearDown() {
+    if (instance != null) {
+      instance.shutdown();
+    }
+  }
+
+  @Test
+  public void testQueuedTasksStartByPriority() throws Exception {
+    instance = new PrioritizedTaskExecutor(1, 0, false);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(5);
+    List<String> startOrder = Collections.synchronizedList(new ArrayList<>());
+
+    instance.execute(() -> {
+      awaitQuietly(release);
+      finished.countDown();
+    }, Priority.MEDIUM);
+    for (String name : List.of("low", "medium", "high", "critical", "second high")) {
+      Priority priority = Priority.valueOf(name.replace("second ", "").toUpperCase());
+      instance.execute(() -> {
+        startOrder.add(name);
+        finished.countDown();
+      }, priority);
+    }
+    release.countDown();
+
+    assertTrue(finished.await(10, TimeUnit.SECONDS));
+    assertThat(startOrder, contains("critical", "high", "second high", "medium", "low"));
+  }
+
+  @Test
+  public void testReservedWorkerRunsCriticalPriorityTask() throws Exception {
+    instance = new PrioritizedTaskExecutor(2, 1, false);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Void> criticalPriorityTask = new CompletableFuture<>();
+
+    instance.execute(() -> awaitQuietly(release), Priority.HIGH);
+    instance.execute(() -> awaitQuietly(release), Priority.HIGH);
+    instance.execute(() -> criticalPriorityTask.complete(null), Priority.CRITICAL);
+
+    try {
+      criticalPriorityTask.get(10, TimeUnit.SECONDS);
+      assertEquals(1, instance.getStatistics().queuedTasks().get(Priority.HIGH));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testHighPriorityTaskDoesNotUseReservedWorker() {
+    instance = new PrioritizedTaskExecutor(2, 1, false);
+    CountDownLatch release = new CountDownLatch(1);
+
+    instance.execute(() -> awaitQuietly(release), Priority.LOW);
+    instance.execute(() -> awaitQuietly(release), Priority.HIGH);
+
+    try {
+      PrioritizedTaskExecutor.Statistics statistics = instance.getStatistics();
+      assertEquals(1, statistics.runningTasks());
+      assertEquals(1, statistics.queuedTasks().get(Priority.HIGH));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testRejectedTaskIsNotCountedAsRunning() {
+    instance = new PrioritizedTaskExecutor(2, 1, false);
+    instance.shutdown();
+
+    instance.execute(() -> {}, Priority.CRITICAL);
+    instance.execute(() -> {}, Priority.LOW);
+
+    assertEquals(0, instance.getStatistics().runningTasks());
+  }
+
+  @Test
+  public void testStatistics() throws Exception {
+    instance = new PrioritizedTaskExecutor(2, 1, true);
+    CountDownLatch finished = new CountDownLatch(3);
+
+    for (int i = 0; i < 3; i++) {
+      instance.execute(finished::countDown, Priority.MEDIUM);
+    }
+
+    assertTrue(finished.await(10, TimeUnit.SECONDS));
+    PrioritizedTaskExecutor.Statistics statistics = awaitCompletedTasks(3);
+    assertEquals(0, statistics.runningTasks());
+    assertEquals(0, statistics.totalQueuedTasks());
+    assertTrue(statistics.maxQueueTime().compareTo(statistics.averageQueueTime()) >= 0);
+  }
+
+  @Test
+  public void testAllWorkersReserved() {
+    assertThrows(IllegalArgumentException.class, () -> new PrioritizedTaskExecutor(1, 1, false));
+  }
+
+  private PrioritizedTaskExecutor.Statistics awaitCompletedTasks(int completedTasks) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    PrioritizedTaskExecutor.Statistics statistics = instance.getStatistics();
+    while (statistics.completedTasks() < completedTasks && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+      statistics = instance.getStatistics();
+    }
+    assertEquals(completedTasks, statistics.completedTasks());
+    return statistics;
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.faforever.client.task;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceLocksTest extends ServiceTest {
+
+  @TempDir
+  public Path tempDirectory;
+
+  private final ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+  @AfterEach
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  /**
+   * Runs a download, a copy into the game directory and a cache cleanup the way the featured mod update does and
+   * checks that all of them are inside their critical section at the same time.
+   */
+  @Test
+  public void testDownloadCopyAndCleanupRunConcurrently() throws Exception {
+    Path cachedFile = tempDirectory.resolve("cache").resolve("gamedata").resolve("0123456789abcdef");
+    Path targetFile = tempDirectory.resolve("data").resolve("gamedata").resolve("units.nx2");
+    // Unrelated paths may share a stripe by chance, which is not what this test is about
+    Path expiredCachedFile = Stream.iterate(0, i -> i + 1)
+                                   .map(i -> tempDirectory.resolve("cache").resolve("gamedata").resolve("expired" + i))
+                                   .filter(path -> !ResourceLocks.shareDiskLock(path, cachedFile)
+                                       && !ResourceLocks.shareDiskLock(path, targetFile))
+                                   .findFirst()
+                                   .orElseThrow();
+
+    CountDownLatch allInside = new CountDownLatch(3);
+    CompletableFuture<Boolean> download = CompletableFuture.supplyAsync(() -> {
+      ResourceLocks.acquireDownloadLock();
+      try {
+        return awaitOthers(allInside);
+      } finally {
+        ResourceLocks.freeDownloadLock();
+      }
+    }, executorService);
+    CompletableFuture<Boolean> copy = CompletableFuture.supplyAsync(() -> {
+      ResourceLocks.acquireDiskLock(targetFile, cachedFile);
+      try {
+        return awaitOthers(allInside);
+      } finally {
+        ResourceLocks.freeDiskLock(targetFile, cachedFile);
+      }
+    }, executorService);
+    CompletableFuture<Boolean> cleanup = CompletableFuture.supplyAsync(() -> {
+      ResourceLocks.acquireDiskLock(expiredCachedFile);
+      try {
+        return awaitOthers(allInside);
+      } finally {
+        ResourceLocks.freeDiskLock(expiredCachedFile);
+      }
+    }, executorService);
+
+    assertTrue(download.get(10, TimeUnit.SECONDS));
+    assertTrue(copy.get(10, TimeUnit.SECONDS));
+    assertTrue(cleanup.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testUploadDoesNotBlockDownload() throws Exception {
+    ResourceLocks.acquireUploadLock();
+    try {
+      CompletableFuture<Void> download = CompletableFuture.runAsync(() -> {
+        ResourceLocks.acquireDownloadLock();
+        ResourceLocks.freeDownloadLock();
+      }, executorService);
+
+      download.get(10, TimeUnit.SECONDS);
+    } finally {
+      ResourceLocks.freeUploadLock();
+    }
+  }
+
+  @Test
+  public void testSamePathIsLockedExclusively() throws Exception {
+    Path file = tempDirectory.resolve("file");
+    long contendedBefore = ResourceLocks.getStatistics().disk().contendedAcquisitions();
+
+    CountDownLatch secondLockAttempted = new CountDownLatch(1);
+    CompletableFuture<Void> secondLock;
+    ResourceLocks.acquireDiskLock(file);
+    try {
+      secondLock = CompletableFuture.runAsync(() -> {
+        secondLockAttempted.countDown();
+        ResourceLocks.acquireDiskLock(file);
+        ResourceLocks.freeDiskLock(file);
+      }, executorService);
+      secondLockAttempted.await();
+      Thread.sleep(100);
+
+      assertFalse(secondLock.isDone());
+    } finally {
+      ResourceLocks.freeDiskLock(file);
+    }
+
+    secondLock.get(10, TimeUnit.SECONDS);
+    assertTrue(ResourceLocks.getStatistics().disk().contendedAcquisitions() > contendedBefore);
+  }
+
+  private static boolean awaitOthers(CountDownLatch allInside) {
+    allInside.countDown();
+    try {
+      return allInside.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.faforever.client.util;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.Test;
+import org.luaj.vm2.LuaValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class LuaUtilTest extends ServiceTest {
+
+  @Test
+  public void testEvaluationsAreIsolated() throws Exception {
+    LuaValue first = load("Foo = 'bar'");
+    LuaValue second = load("Baz = Foo");
+
+    assertThat(first.get("Foo").tojstring(), is("bar"));
+    assertThat(second.get("Foo").isnil(), is(true));
+    assertThat(second.get("Baz").isnil(), is(true));
+  }
+
+  @Test
+  public void testLibraryChangesAreIsolated() throws Exception {
+    load("string.len = nil; _G.Foo = 'bar'");
+    LuaValue root = load("Length = string.len('four'); Baz = Foo");
+
+    assertThat(root.get("Length").toint(), is(4));
+    assertThat(root.get("Baz").isnil(), is(true));
+  }
+
+  @Test
+  public void testStandardLibraryIsAvailable() throws Exception {
+    LuaValue root = load("Length = string.len('four')");
+
+    assertThat(root.get("Length").toint(), is(4));
+  }
+
+  @Test
+  public void testUnsafeFunctionsAreRemoved() throws Exception {
+    LuaValue root = load("HasIo = io ~= nil; HasExecute = os.execute ~= nil");
+
+    assertThat(root.get("HasIo").toboolean(), is(false));
+    assertThat(root.get("HasExecute").toboolean(), is(false));
+  }
+
+  @Test
+  public void testSelect() throws Exception {
+    LuaValue root = load("ScenarioInfo = { size = { 512, 1024 }, Configurations = { standard = { teams = { { armies = { 'ARMY_1', 'ARMY_2' } } } } } }");
+
+    assertThat(LuaUtil.select(root, "ScenarioInfo.size.2").toint(), is(1024));
+    assertThat(LuaUtil.select(root, "ScenarioInfo.Configurations.standard.teams.1.armies").length(), is(2));
+    assertThat(LuaUtil.select(root, "ScenarioInfo.missing.value").isnil(), is(true));
+  }
+
+  private static LuaValue load(String script) throws IOException {
+    return LuaUtil.load(new ByteArrayInputStream(script.getBytes(UTF_8)));
+  }
+}